@@ -0,0 +1,190 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.AstraAsyncPreparedStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single row reads at high concurrency against a node answering after a delay: blocking reads from a
+ * pool of threads, one per request in flight, against non-blocking reads from a single thread through
+ * {@link AstraAsyncPreparedStatement}. The score is in reads per millisecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncBenchmark {
+
+    /** Reads per invocation. */
+    private static final int READS = 1024;
+
+    /**
+     * Stand-in answering after a delay, with the blocking and non-blocking readers.
+     */
+    @State(Scope.Benchmark)
+    public static class ReaderState extends StandInState {
+
+        /** Delay of the answers in microseconds. */
+        @Param({"0", "1000"})
+        public long latency;
+
+        /** Reads in flight, threads of the blocking reader. */
+        @Param({"16", "256"})
+        public int concurrency;
+
+        /** Threads of the blocking reader. */
+        ExecutorService threads;
+
+        /** Statement of each blocking thread, with its own connection. */
+        ThreadLocal<PreparedStatement> blockingRead;
+
+        /** Connections of the blocking threads. */
+        final List<Connection> connections = new ArrayList<>();
+
+        /** Statement of the non-blocking reader. */
+        PreparedStatement read;
+
+        /** Non-blocking execution of the statement. */
+        AstraAsyncPreparedStatement asyncRead;
+
+        /** {@inheritDoc} */
+        @Override
+        protected long latency() {
+            return latency;
+        }
+
+        /**
+         * Open the connections.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            threads = Executors.newFixedThreadPool(concurrency);
+            String url = standIn.getJdbcUrl(null);
+            blockingRead = ThreadLocal.withInitial(() -> {
+                try {
+                    Connection connection = DriverManager.getConnection(url);
+                    synchronized (connections) {
+                        connections.add(connection);
+                    }
+                    return connection.prepareStatement(SELECT_ONE);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Connection connection = DriverManager.getConnection(url);
+            connections.add(connection);
+            read = connection.prepareStatement(SELECT_ONE);
+            asyncRead = read.unwrap(AstraAsyncPreparedStatement.class);
+        }
+
+        /**
+         * Close the connections.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            threads.shutdownNow();
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Blocking reads, split between the threads.
+     *
+     * @param state
+     *      readers
+     * @throws Exception
+     *      read failed
+     */
+    @Benchmark
+    @OperationsPerInvocation(READS)
+    public void blocking(ReaderState state) throws Exception {
+        int perThread = READS / state.concurrency;
+        List<Future<?>> tasks = new ArrayList<>(state.concurrency);
+        for (int t = 0; t < state.concurrency; t++) {
+            tasks.add(state.threads.submit(() -> {
+                PreparedStatement read = state.blockingRead.get();
+                for (int i = 0; i < perThread; i++) {
+                    read.setString(1, "key");
+                    try (ResultSet rs = read.executeQuery()) {
+                        rs.next();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    /**
+     * Non-blocking reads from the calling thread, with the same number of reads in flight.
+     *
+     * @param state
+     *      readers
+     * @throws Exception
+     *      read failed
+     */
+    @Benchmark
+    @OperationsPerInvocation(READS)
+    public void async(ReaderState state) throws Exception {
+        Semaphore inFlight = new Semaphore(state.concurrency);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < READS; i++) {
+            inFlight.acquire();
+            state.read.setString(1, "key");
+            state.asyncRead.executeQueryAsync().whenComplete((rs, e) -> {
+                try {
+                    if (e != null) {
+                        error.compareAndSet(null, e);
+                    } else {
+                        rs.next();
+                    }
+                } catch (SQLException ex) {
+                    error.compareAndSet(null, ex);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(state.concurrency);
+        if (error.get() != null) {
+            throw new IllegalStateException(error.get());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.benchmarks.standin.AstraStandIn;
+import com.datastax.astra.jdbc.benchmarks.standin.CqlStub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read large JSON documents with and without protocol compression, on an unlimited link and on a
+ * 100 Mbit/s link. The bytes on the wire per read are printed at the end of each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    /** Page of documents. */
+    private static final String SELECT_DOCUMENTS = "SELECT id, doc FROM documents WHERE tenant = ?";
+
+    /** Documents of a page. */
+    private static final int DOCUMENTS = 100;
+
+    /** Compression of the connection. */
+    @Param({"none", "lz4", "snappy"})
+    public String compression;
+
+    /** Bandwidth in bytes per second, 0 for no limit. */
+    @Param({"0", "12500000"})
+    public long bandwidth;
+
+    private AstraStandIn standIn;
+
+    private Connection connection;
+
+    private PreparedStatement selectDocuments;
+
+    private long bytesOut;
+
+    private long requests;
+
+    /**
+     * Start the stand-in and connect with the compression.
+     *
+     * @throws Exception
+     *      cannot start or connect
+     */
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        standIn = AstraStandIn.start(bandwidth);
+        List<List<String>> rows = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            rows.add(Arrays.asList("doc-" + i, document(i)));
+        }
+        standIn.getCql().prime(SELECT_DOCUMENTS, Arrays.asList("id", "doc"), rows);
+        connection = DriverManager.getConnection(standIn.getJdbcUrl("compression=" + compression));
+        selectDocuments = connection.prepareStatement(SELECT_DOCUMENTS);
+    }
+
+    /**
+     * Snapshot the counters of the stand-in.
+     */
+    @Setup(Level.Iteration)
+    public void snapshot() {
+        bytesOut = standIn.getCql().getBytesOut();
+        requests = standIn.getCql().getRequests();
+    }
+
+    /**
+     * Print the bytes sent by the stand-in per request during the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void report() {
+        CqlStub cql = standIn.getCql();
+        long count = cql.getRequests() - requests;
+        if (count > 0) {
+            System.out.println("compression=" + compression + " bytes/read=" + (cql.getBytesOut() - bytesOut) / count);
+        }
+    }
+
+    /**
+     * Close the connection and stop the stand-in.
+     *
+     * @throws SQLException
+     *      cannot close
+     */
+    @TearDown(Level.Trial)
+    public void stop() throws SQLException {
+        connection.close();
+        standIn.close();
+    }
+
+    /**
+     * Read a page of documents.
+     *
+     * @param blackhole
+     *      sink of the documents
+     * @throws SQLException
+     *      cannot execute
+     */
+    @Benchmark
+    public void readDocuments(Blackhole blackhole) throws SQLException {
+        selectDocuments.setString(1, "tenant");
+        try (ResultSet rs = selectDocuments.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getString(2));
+            }
+        }
+    }
+
+    /**
+     * Document of about 4KB, repetitive as JSON payloads are.
+     */
+    private static String document(int id) {
+        StringBuilder doc = new StringBuilder("{\"id\":").append(id).append(",\"items\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                doc.append(',');
+            }
+            doc.append("{\"sku\":\"SKU-").append(id * 100 + i)
+               .append("\",\"name\":\"Item number ").append(i)
+               .append("\",\"price\":").append(i * 3 % 97)
+               .append(",\"tags\":[\"blue\",\"cotton\",\"summer\"]}");
+        }
+        return doc.append("]}").toString();
+    }
+}
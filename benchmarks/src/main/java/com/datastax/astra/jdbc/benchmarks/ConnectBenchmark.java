@@ -0,0 +1,86 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.AstraJdbcDriver;
+import com.datastax.astra.jdbc.AstraJdbcUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open and close a connection, through the different paths of the driver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectBenchmark {
+
+    /**
+     * Through the DriverManager: every registered driver is tried and the url is parsed.
+     *
+     * @param state
+     *      stand-in
+     * @throws SQLException
+     *      cannot connect
+     */
+    @Benchmark
+    public void driverManager(StandInState state) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(state.standIn.getJdbcUrl(null))) {
+            connection.getAutoCommit();
+        }
+    }
+
+    /**
+     * Through the data source, the url is parsed once.
+     *
+     * @param state
+     *      stand-in
+     * @throws SQLException
+     *      cannot connect
+     */
+    @Benchmark
+    public void dataSource(StandInState state) throws SQLException {
+        try (Connection connection = state.dataSource.getConnection()) {
+            connection.getAutoCommit();
+        }
+    }
+
+    /**
+     * Borrow from the pool of the data source and give back.
+     *
+     * @param state
+     *      stand-in
+     * @throws SQLException
+     *      cannot borrow
+     */
+    @Benchmark
+    public void pooled(StandInState state) throws SQLException {
+        try (Connection connection = state.dataSource.getPooledConnection().getConnection()) {
+            connection.getAutoCommit();
+        }
+    }
+
+    /**
+     * Session cache miss: bundle, metadata service, TLS and protocol handshakes, system tables.
+     *
+     * @param state
+     *      stand-in
+     * @throws SQLException
+     *      invalid url
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void sessionCacheMiss(StandInState state) throws SQLException {
+        AstraJdbcDriver.buildSession(AstraJdbcUrl.parse(state.standIn.getJdbcUrl(null), null)).close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.benchmarks.standin.AstraStandIn;
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata calls of the tools browsing the schema, on a keyspace of many tables, with the rows cached on
+ * the session or built by the wrapper on each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MetadataBenchmark {
+
+    /**
+     * Stand-in serving a schema of generated tables.
+     */
+    @State(Scope.Benchmark)
+    public static class MetadataState extends StandInState {
+
+        /** Tables of the keyspace. */
+        @Param({"200"})
+        public int tables;
+
+        /** Regular columns of each table. */
+        @Param({"20"})
+        public int columns;
+
+        /** Metadata rows cached on the session or not. */
+        @Param({"true", "false"})
+        public boolean metadataCache;
+
+        /** Connection of the metadata calls. */
+        Connection connection;
+
+        /** Metadata of the connection. */
+        DatabaseMetaData metaData;
+
+        /**
+         * Prime the schema and connect.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            System.setProperty(MetadataCache.PROP_ENABLED, String.valueOf(metadataCache));
+            standIn.getCql().primeSchema(AstraStandIn.KEYSPACE, tables, columns);
+            connection = dataSource.getConnection();
+            metaData = connection.getMetaData();
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Columns of a table.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      number of columns
+     * @throws SQLException
+     *      call failed
+     */
+    @Benchmark
+    public int getColumns(MetadataState state) throws SQLException {
+        return count(state.metaData.getColumns(null, AstraStandIn.KEYSPACE, "t" + (state.tables / 2), null));
+    }
+
+    /**
+     * Tables of the keyspace.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      number of tables
+     * @throws SQLException
+     *      call failed
+     */
+    @Benchmark
+    public int getTables(MetadataState state) throws SQLException {
+        return count(state.metaData.getTables(null, AstraStandIn.KEYSPACE, "%", null));
+    }
+
+    private static int count(ResultSet rs) throws SQLException {
+        int rows = 0;
+        try (ResultSet closed = rs) {
+            while (closed.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.TokenRangeAggregation;
+import com.datastax.astra.jdbc.TokenRangeScan;
+import com.datastax.astra.jdbc.benchmarks.standin.AstraStandIn;
+import com.ing.data.cassandra.jdbc.CassandraConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>SELECT COUNT(*)</code> of a table on three nodes taking a time proportional to the rows counted,
+ * as one query or aggregated by token ranges queried concurrently with the <code>parallel-aggregation</code>
+ * url parameter. The score is the time of one count.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ParallelAggregationBenchmark {
+
+    /** Count of the generated table. */
+    public static final String COUNT = "SELECT COUNT(*) FROM t0";
+
+    /**
+     * Stand-in of three nodes counting the table as a whole or by token range.
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelAggregationState extends StandInState {
+
+        /** Rows of the table. */
+        @Param({"1000000"})
+        public long rows;
+
+        /** Range queries in flight, 0 to send the query as is. */
+        @Param({"0", "4", "16"})
+        public int parallelism;
+
+        /** Time to count a row, in nanoseconds. */
+        @Param({"1000"})
+        public long rowLatency;
+
+        /** Connection of the counts. */
+        Connection connection;
+
+        /** Count expected, the rows of a range times the number of ranges. */
+        long expectedCount;
+
+        /** {@inheritDoc} */
+        @Override
+        protected long latency() {
+            return 500;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int nodes() {
+            return 3;
+        }
+
+        /**
+         * Generate the table and connect.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            standIn.getCql().primeSchema(AstraStandIn.KEYSPACE, 1, 1);
+            standIn.getCql().primeCount(COUNT, rows, rows * rowLatency / 1000);
+            connection = DriverManager.getConnection(standIn.getJdbcUrl("parallel-aggregation=" + parallelism));
+            if (parallelism == 0) {
+                expectedCount = rows;
+                return;
+            }
+            TokenRangeAggregation aggregation = new TokenRangeAggregation(parallelism, 0,
+                    TokenRangeAggregation.DEFAULT_RETRIES);
+            int ranges = TokenRangeScan.split(connection.unwrap(CassandraConnection.class).getSession()
+                    .getMetadata().getTokenMap().orElseThrow(IllegalStateException::new).getTokenRanges(),
+                    aggregation.getSplits()).size();
+            String prefix = "SELECT COUNT(*) FROM " + AstraStandIn.KEYSPACE + ".t0 WHERE token(k) > ?";
+            long rangeRows = rows / ranges;
+            standIn.getCql().primeCount(prefix + " AND token(k) <= ?", rangeRows, rangeRows * rowLatency / 1000);
+            standIn.getCql().primeCount(prefix, rangeRows, rangeRows * rowLatency / 1000);
+            expectedCount = rangeRows * ranges;
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Count the rows of the table.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      count
+     * @throws SQLException
+     *      count failed
+     */
+    @Benchmark
+    public long count(ParallelAggregationState state) throws SQLException {
+        long count;
+        try (Statement statement = state.connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(COUNT)) {
+                rs.next();
+                count = rs.getLong(1);
+            }
+        }
+        if (count != state.expectedCount) {
+            throw new IllegalStateException("Counted " + count + " rows of " + state.expectedCount);
+        }
+        return count;
+    }
+}
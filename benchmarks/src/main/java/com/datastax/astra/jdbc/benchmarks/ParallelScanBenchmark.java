@@ -0,0 +1,155 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.TokenRangeScan;
+import com.datastax.astra.jdbc.benchmarks.standin.AstraStandIn;
+import com.ing.data.cassandra.jdbc.CassandraConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of a table on three nodes answering each page after a delay, as one query or split into
+ * token ranges queried concurrently with the <code>PARALLEL_SCAN</code> hint. The score is the time of
+ * one scan.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ParallelScanBenchmark {
+
+    /** Scan of the generated table. */
+    public static final String SELECT_ALL = "SELECT k, v1 FROM t0";
+
+    /**
+     * Stand-in of three nodes serving the table in pages, as a whole or by token range.
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelScanState extends StandInState {
+
+        /** Rows of the table. */
+        @Param({"1000000"})
+        public long rows;
+
+        /** Range queries in flight, 0 to send the query as is. */
+        @Param({"0", "4", "16"})
+        public int parallelism;
+
+        /** Rows returned in token order. */
+        @Param({"false", "true"})
+        public boolean ordered;
+
+        /** Delay of each page in microseconds, as a node reading a page of a full scan. */
+        @Param({"20000"})
+        public long latency;
+
+        /** Connection of the scans. */
+        Connection connection;
+
+        /** Query executed, with its hint. */
+        String query;
+
+        /** Rows expected, the rows of a range times the number of ranges. */
+        long expectedRows;
+
+        /** {@inheritDoc} */
+        @Override
+        protected long latency() {
+            return latency;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int nodes() {
+            return 3;
+        }
+
+        /**
+         * Generate the table and connect.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            standIn.getCql().primeSchema(AstraStandIn.KEYSPACE, 1, 1);
+            standIn.getCql().primeScan(SELECT_ALL, Arrays.asList("k", "v1"), rows);
+            connection = DriverManager.getConnection(standIn.getJdbcUrl(null));
+            if (parallelism == 0) {
+                query = SELECT_ALL;
+                expectedRows = rows;
+                return;
+            }
+            TokenRangeScan scan = new TokenRangeScan(parallelism, 0, ordered);
+            int ranges = TokenRangeScan.split(connection.unwrap(CassandraConnection.class).getSession()
+                    .getMetadata().getTokenMap().orElseThrow(IllegalStateException::new).getTokenRanges(),
+                    scan.getSplits()).size();
+            String prefix = "SELECT k, v1 FROM " + AstraStandIn.KEYSPACE + ".t0 WHERE token(k) > ?";
+            standIn.getCql().primeScan(prefix + " AND token(k) <= ?", Arrays.asList("k", "v1"), rows / ranges);
+            standIn.getCql().primeScan(prefix, Arrays.asList("k", "v1"), rows / ranges);
+            query = "/*+ PARALLEL_SCAN(" + parallelism + ")" + (ordered ? " ORDERED" : "") + " */ " + SELECT_ALL;
+            expectedRows = rows / ranges * ranges;
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Read every row of the table.
+     *
+     * @param state
+     *      connection
+     * @param blackhole
+     *      consumes the values
+     * @return
+     *      rows read
+     * @throws SQLException
+     *      scan failed
+     */
+    @Benchmark
+    public long scan(ParallelScanState state, Blackhole blackhole) throws SQLException {
+        long count = 0;
+        try (Statement statement = state.connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(state.query)) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getString(1));
+                    blackhole.consume(rs.getString(2));
+                    count++;
+                }
+            }
+        }
+        if (count != state.expectedRows) {
+            throw new IllegalStateException("Scanned " + count + " rows of " + state.expectedRows);
+        }
+        return count;
+    }
+}
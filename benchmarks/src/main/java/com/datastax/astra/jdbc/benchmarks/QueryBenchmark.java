@@ -0,0 +1,147 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements on an open connection, the stand-in answers right away so the client side dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    /**
+     * Connection and prepared statements of a thread.
+     */
+    @State(Scope.Thread)
+    public static class ConnectionState {
+
+        /** Open connection. */
+        Connection connection;
+
+        /** Prepared single row read. */
+        PreparedStatement selectOne;
+
+        /** Prepared single row write. */
+        PreparedStatement insertOne;
+
+        /** Prepared page read. */
+        PreparedStatement selectPage;
+
+        /**
+         * Open the connection and prepare the statements.
+         *
+         * @param state
+         *      stand-in
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open(StandInState state) throws SQLException {
+            connection = state.dataSource.getConnection();
+            selectOne = connection.prepareStatement(StandInState.SELECT_ONE);
+            insertOne = connection.prepareStatement(StandInState.INSERT_ONE);
+            selectPage = connection.prepareStatement(StandInState.SELECT_PAGE);
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Prepare a statement already prepared on the session.
+     *
+     * @param state
+     *      connection
+     * @throws SQLException
+     *      cannot prepare
+     */
+    @Benchmark
+    public void prepareStatement(ConnectionState state) throws SQLException {
+        state.connection.prepareStatement(StandInState.SELECT_ONE).close();
+    }
+
+    /**
+     * Read one row with a prepared statement.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      value read
+     * @throws SQLException
+     *      cannot execute
+     */
+    @Benchmark
+    public String selectOne(ConnectionState state) throws SQLException {
+        state.selectOne.setString(1, "key");
+        try (ResultSet rs = state.selectOne.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /**
+     * Write one row with a prepared statement.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      update count
+     * @throws SQLException
+     *      cannot execute
+     */
+    @Benchmark
+    public int insertOne(ConnectionState state) throws SQLException {
+        state.insertOne.setString(1, "key");
+        state.insertOne.setString(2, "value");
+        return state.insertOne.executeUpdate();
+    }
+
+    /**
+     * Read and iterate a page of rows.
+     *
+     * @param state
+     *      connection
+     * @param blackhole
+     *      sink of the values
+     * @throws SQLException
+     *      cannot execute
+     */
+    @Benchmark
+    public void iteratePage(ConnectionState state, Blackhole blackhole) throws SQLException {
+        state.selectPage.setString(1, "partition");
+        try (ResultSet rs = state.selectPage.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getString(1));
+                blackhole.consume(rs.getString(2));
+            }
+        }
+    }
+}
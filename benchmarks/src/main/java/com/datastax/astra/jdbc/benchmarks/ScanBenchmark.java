@@ -0,0 +1,125 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of a large table against a node answering each page after a delay, with the next pages
+ * fetched on demand or ahead of the one iterated. The score is the time of one scan.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ScanBenchmark {
+
+    /** Scan of the generated table. */
+    public static final String SELECT_ALL = "SELECT k, v FROM kv";
+
+    /**
+     * Stand-in serving the table in pages, with a connection fetching the pages ahead or not.
+     */
+    @State(Scope.Benchmark)
+    public static class ScanState extends StandInState {
+
+        /** Rows of the table. */
+        @Param({"10000000"})
+        public long rows;
+
+        /** Fetch size of the statement, rows per page. */
+        @Param({"1000", "5000"})
+        public int fetchSize;
+
+        /** Pages fetched ahead, 0 to fetch on demand. */
+        @Param({"0", "1", "4"})
+        public int prefetchPages;
+
+        /** Delay of each page in microseconds. */
+        @Param({"1000"})
+        public long latency;
+
+        /** Connection of the scans. */
+        Connection connection;
+
+        /** {@inheritDoc} */
+        @Override
+        protected long latency() {
+            return latency;
+        }
+
+        /**
+         * Generate the table and connect.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            standIn.getCql().primeScan(SELECT_ALL, Arrays.asList("k", "v"), rows);
+            connection = DriverManager.getConnection(standIn.getJdbcUrl("prefetch-pages=" + prefetchPages));
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Read every row of the table.
+     *
+     * @param state
+     *      connection
+     * @param blackhole
+     *      consumes the values
+     * @return
+     *      rows read
+     * @throws SQLException
+     *      scan failed
+     */
+    @Benchmark
+    public long scan(ScanState state, Blackhole blackhole) throws SQLException {
+        long count = 0;
+        try (Statement statement = state.connection.createStatement()) {
+            statement.setFetchSize(state.fetchSize);
+            try (ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getString(1));
+                    blackhole.consume(rs.getString(2));
+                    count++;
+                }
+            }
+        }
+        if (count != state.rows) {
+            throw new IllegalStateException("Scanned " + count + " rows of " + state.rows);
+        }
+        return count;
+    }
+}
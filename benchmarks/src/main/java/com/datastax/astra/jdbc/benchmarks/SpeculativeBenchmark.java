@@ -0,0 +1,114 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single row reads spread over three nodes, one of them answering much later than the others, with
+ * and without speculative executions. The sampled latencies show the tail: p99 and p999.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SpeculativeBenchmark {
+
+    /**
+     * Stand-in of three nodes with a slow one, and a connection speculating after a delay or not.
+     */
+    @State(Scope.Benchmark)
+    public static class SpeculativeState extends StandInState {
+
+        /** Delay of the answers of all nodes in microseconds. */
+        @Param({"500"})
+        public long latency;
+
+        /** Delay added by the slow node in microseconds. */
+        @Param({"20000"})
+        public long slowNodeLatency;
+
+        /** Delay before a speculative execution in milliseconds, 0 for none. */
+        @Param({"0", "2"})
+        public long speculativeDelay;
+
+        /** Connection of the reads. */
+        Connection connection;
+
+        /** Prepared single row read. */
+        PreparedStatement selectOne;
+
+        /** {@inheritDoc} */
+        @Override
+        protected long latency() {
+            return latency;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int nodes() {
+            return 3;
+        }
+
+        /**
+         * Slow down a node and connect.
+         *
+         * @throws SQLException
+         *      cannot connect
+         */
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            standIn.getCql().setNodeLatency(1, slowNodeLatency);
+            connection = DriverManager.getConnection(standIn.getJdbcUrl("speculative-delay=" + speculativeDelay));
+            selectOne = connection.prepareStatement(SELECT_ONE);
+        }
+
+        /**
+         * Close the connection.
+         *
+         * @throws SQLException
+         *      cannot close
+         */
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Read a row, the statement classified idempotent from its CQL.
+     *
+     * @param state
+     *      connection
+     * @return
+     *      value read
+     * @throws SQLException
+     *      query failed
+     */
+    @Benchmark
+    public String selectOne(SpeculativeState state) throws SQLException {
+        state.selectOne.setString(1, "key");
+        try (ResultSet rs = state.selectOne.executeQuery()) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
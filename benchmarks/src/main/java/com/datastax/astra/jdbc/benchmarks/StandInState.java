@@ -0,0 +1,102 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.AstraJdbcDataSource;
+import com.datastax.astra.jdbc.benchmarks.standin.AstraStandIn;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in shared by the threads of a benchmark, with the primed queries and a data source on it.
+ */
+@State(Scope.Benchmark)
+public class StandInState {
+
+    /** Single row read. */
+    public static final String SELECT_ONE = "SELECT v FROM kv WHERE k = ?";
+
+    /** Single row write. */
+    public static final String INSERT_ONE = "INSERT INTO kv (k, v) VALUES (?, ?)";
+
+    /** Page of rows. */
+    public static final String SELECT_PAGE = "SELECT k, v FROM kv WHERE p = ?";
+
+    /** Rows of a page. */
+    public static final int PAGE_SIZE = 1000;
+
+    /** Running stand-in. */
+    public AstraStandIn standIn;
+
+    /** Data source on the stand-in. */
+    public AstraJdbcDataSource dataSource;
+
+    /**
+     * Bandwidth of the link, 0 for no limit. Overridden by the benchmarks simulating a slow network.
+     *
+     * @return
+     *      bytes per second in each direction
+     */
+    protected long bandwidth() {
+        return 0;
+    }
+
+    /**
+     * Delay of the answers to queries, 0 to answer right away. Overridden by the benchmarks simulating
+     * a remote node.
+     *
+     * @return
+     *      delay in microseconds
+     */
+    protected long latency() {
+        return 0;
+    }
+
+    /**
+     * Nodes of the stand-in, all behind the same proxy. Overridden by the benchmarks spreading the
+     * requests over several nodes.
+     *
+     * @return
+     *      number of nodes
+     */
+    protected int nodes() {
+        return 1;
+    }
+
+    /**
+     * Start the stand-in and prime the queries.
+     *
+     * @throws Exception
+     *      cannot start
+     */
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        standIn = AstraStandIn.start(bandwidth(), nodes());
+        standIn.getCql().setLatency(latency());
+        standIn.getCql().prime(SELECT_ONE, Collections.singletonList("v"),
+                Collections.singletonList(Collections.singletonList("value")));
+        standIn.getCql().prime(INSERT_ONE, Collections.emptyList(), Collections.emptyList());
+        List<List<String>> rows = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            rows.add(Arrays.asList("key-" + i, "value-" + i));
+        }
+        standIn.getCql().prime(SELECT_PAGE, Arrays.asList("k", "v"), rows);
+        dataSource = new AstraJdbcDataSource(AstraStandIn.TOKEN, standIn.getDatabase(), AstraStandIn.KEYSPACE);
+        dataSource.setDriverOption("advanced.protocol.version", "V4");
+    }
+
+    /**
+     * Stop the stand-in.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        dataSource.close();
+        standIn.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.AstraJdbcUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the jdbc url, done on every <code>DriverManager.getConnection</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlParsingBenchmark {
+
+    /** Url with all the usual parameters. */
+    private static final String URL = "jdbc:astra://my_db/my_keyspace"
+            + "?user=token&password=AstraCS:abcdefghijklmnopqrstuvwxyz:0123456789abcdef"
+            + "&region=us-east1&consistency-level=LOCAL_QUORUM&request-timeout=5000&compression=lz4"
+            + "&driver.advanced.connection.pool.local.size=2";
+
+    /**
+     * Full parse, as before the parse cache.
+     *
+     * @return
+     *      parsed url
+     * @throws SQLException
+     *      invalid url
+     */
+    @Benchmark
+    public AstraJdbcUrl parse() throws SQLException {
+        return new AstraJdbcUrl(URL);
+    }
+
+    /**
+     * Lookup in the parse cache.
+     *
+     * @return
+     *      parsed url
+     * @throws SQLException
+     *      invalid url
+     */
+    @Benchmark
+    public AstraJdbcUrl parseCached() throws SQLException {
+        return AstraJdbcUrl.parse(URL, null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.FloatVectors;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.data.CqlVector;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.VectorType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of an embedding, in bulk from a <code>float[]</code> or through the
+ * <code>CqlVector</code> of boxed floats of the driver. Run with <code>-prof gc</code> for the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+
+    /** Dimensions of the vector. */
+    @Param({"1536"})
+    public int dimensions;
+
+    /** Type of the column. */
+    private VectorType type;
+
+    /** Codec of the driver. */
+    private TypeCodec<CqlVector<Float>> codec;
+
+    /** Values of the vector. */
+    private float[] vector;
+
+    /** Binary form of the vector. */
+    private ByteBuffer bytes;
+
+    /**
+     * Generate the vector.
+     *
+     * @throws SQLException
+     *      cannot encode
+     */
+    @Setup
+    public void setup() throws SQLException {
+        type = (VectorType) DataTypes.vectorOf(DataTypes.FLOAT, dimensions);
+        codec = TypeCodecs.vectorOf(type, TypeCodecs.FLOAT);
+        vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) Math.sin(i);
+        }
+        bytes = FloatVectors.encode(vector, type);
+    }
+
+    /**
+     * Encode with {@link FloatVectors}.
+     *
+     * @return
+     *      binary form
+     * @throws SQLException
+     *      dimensions not matched
+     */
+    @Benchmark
+    public ByteBuffer encodeFloatArray() throws SQLException {
+        return FloatVectors.encode(vector, type);
+    }
+
+    /**
+     * Encode with the codec of the driver, from the values as the application holds them.
+     *
+     * @return
+     *      binary form
+     */
+    @Benchmark
+    public ByteBuffer encodeCqlVector() {
+        List<Float> values = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            values.add(value);
+        }
+        return codec.encode(CqlVector.newInstance(values), ProtocolVersion.DEFAULT);
+    }
+
+    /**
+     * Decode with {@link FloatVectors}.
+     *
+     * @return
+     *      values
+     * @throws SQLException
+     *      dimensions not matched
+     */
+    @Benchmark
+    public float[] decodeFloatArray() throws SQLException {
+        return FloatVectors.decode(bytes, type);
+    }
+
+    /**
+     * Decode with the codec of the driver, to the values as the application needs them.
+     *
+     * @return
+     *      values
+     */
+    @Benchmark
+    public float[] decodeCqlVector() {
+        CqlVector<Float> values = codec.decode(bytes, ProtocolVersion.DEFAULT);
+        float[] decoded = new float[values.size()];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = values.get(i);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,233 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import com.datastax.astra.jdbc.AstraJdbcDriver;
+import com.datastax.astra.jdbc.cache.ResolvedDatabase;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Offline Astra: a CQL stand-in behind TLS, the metadata service of the secure connect bundle, and the
+ * driver caches seeded with the database resolution and a generated bundle, so that the DevOps API is
+ * never called.
+ * <p>
+ * Start it before the driver is loaded: the cache folders are set to a temporary folder.
+ */
+public class AstraStandIn implements AutoCloseable {
+
+    /** Token of the benchmarks, never sent anywhere. */
+    public static final String TOKEN = "AstraCS:standin:0000000000000000000000000000000000000000000000000000000000000000";
+
+    /** Prefix of the database names. */
+    private static final String DATABASE_PREFIX = "standin_db_";
+
+    /** Keyspace. */
+    public static final String KEYSPACE = "standin";
+
+    /** Region and datacenter. */
+    public static final String REGION = "local";
+
+    /** Password of the generated key stores. */
+    private static final String STORE_PASSWORD = "standin";
+
+    /** Stand-ins started, each one is a new database for the caches of the driver. */
+    private static final AtomicInteger STARTED = new AtomicInteger();
+
+    /** Database name. */
+    private final String database;
+
+    /** Temporary folder for key stores and caches. */
+    private final Path folder;
+
+    /** Native protocol stand-in. */
+    private final CqlStub cql;
+
+    /** Metadata service. */
+    private final MetadataService metadata;
+
+    /**
+     * Start the stand-in.
+     *
+     * @param bandwidth
+     *      bandwidth of the CQL link in bytes per second in each direction, 0 for no limit
+     * @return
+     *      running stand-in
+     * @throws Exception
+     *      cannot generate the key stores or bind
+     */
+    public static AstraStandIn start(long bandwidth) throws Exception {
+        return new AstraStandIn(bandwidth, 1);
+    }
+
+    /**
+     * Start the stand-in of several nodes, in one datacenter behind the same proxy.
+     *
+     * @param bandwidth
+     *      bandwidth of the CQL link in bytes per second in each direction, 0 for no limit
+     * @param nodes
+     *      number of nodes
+     * @return
+     *      running stand-in
+     * @throws Exception
+     *      cannot generate the key stores or bind
+     */
+    public static AstraStandIn start(long bandwidth, int nodes) throws Exception {
+        return new AstraStandIn(bandwidth, nodes);
+    }
+
+    private AstraStandIn(long bandwidth, int nodes) throws Exception {
+        database = DATABASE_PREFIX + STARTED.incrementAndGet();
+        folder = Files.createTempDirectory("astra-standin");
+        if (System.getProperty("astra.jdbc.scb.cache.dir") == null) {
+            System.setProperty("astra.jdbc.scb.cache.dir", folder.resolve("scb").toString());
+            System.setProperty("astra.jdbc.db.cache.dir", folder.resolve("db").toString());
+        }
+        Path identity = folder.resolve("identity.jks");
+        Path trustStore = folder.resolve("trustStore.jks");
+        generateKeyStores(identity, trustStore);
+
+        SSLContext sslContext = serverContext(identity);
+        List<UUID> hostIds = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            hostIds.add(UUID.randomUUID());
+        }
+        cql = new CqlStub(sslContext, REGION, hostIds, bandwidth);
+        InetSocketAddress proxy = cql.start();
+        metadata = new MetadataService(sslContext, REGION, hostIds, proxy);
+
+        // A new database identifier for each stand-in, nothing stale can be found on disk
+        String databaseId = UUID.randomUUID().toString();
+        byte[] bundle = bundle(identity, trustStore, metadata.getAddress());
+        ResolvedDatabase db = new ResolvedDatabase(databaseId, database, REGION,
+                Collections.singletonMap(REGION, REGION), System.currentTimeMillis(), null);
+        AstraJdbcDriver.getDatabaseCache().invalidate(TOKEN, database);
+        AstraJdbcDriver.getDatabaseCache().resolve(TOKEN, database, () -> db);
+        AstraJdbcDriver.getBundleCache().get(databaseId, REGION, () -> bundle);
+    }
+
+    /**
+     * Gets the url of the stand-in.
+     *
+     * @param parameters
+     *      extra parameters, for instance <code>compression=lz4</code>, or null
+     * @return
+     *      jdbc url
+     */
+    public String getJdbcUrl(String parameters) {
+        // The stand-in only speaks the protocol v4
+        return "jdbc:astra://" + database + "/" + KEYSPACE + "?token=" + TOKEN
+                + "&driver.advanced.protocol.version=V4"
+                + (parameters == null ? "" : "&" + parameters);
+    }
+
+    /**
+     * Gets the database name.
+     *
+     * @return value of database
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * Gets the CQL stand-in, to prime queries and read the wire counters.
+     *
+     * @return value of cql
+     */
+    public CqlStub getCql() {
+        return cql;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        metadata.close();
+        cql.close();
+    }
+
+    /**
+     * Self-signed certificate for the loopback, used by both sides: the driver trusts it through the
+     * trust store of the bundle.
+     */
+    private static void generateKeyStores(Path identity, Path trustStore) throws IOException, InterruptedException {
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Path certificate = identity.resolveSibling("standin.crt");
+        keytool(keytool, "-genkeypair", "-alias", "standin", "-keyalg", "RSA", "-keysize", "2048",
+                "-validity", "3650", "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-storetype", "JKS", "-keystore", identity.toString(),
+                "-storepass", STORE_PASSWORD, "-keypass", STORE_PASSWORD);
+        keytool(keytool, "-exportcert", "-alias", "standin", "-keystore", identity.toString(),
+                "-storepass", STORE_PASSWORD, "-file", certificate.toString());
+        keytool(keytool, "-importcert", "-noprompt", "-alias", "standin", "-file", certificate.toString(),
+                "-storetype", "JKS", "-keystore", trustStore.toString(), "-storepass", STORE_PASSWORD);
+    }
+
+    private static void keytool(String... command) throws IOException, InterruptedException {
+        List<String> args = Arrays.asList(command);
+        Process process = new ProcessBuilder(args).redirectErrorStream(true).start();
+        String output = read(process.getInputStream());
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool failed: " + output);
+        }
+    }
+
+    private static SSLContext serverContext(Path identity) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream in = Files.newInputStream(identity)) {
+            keyStore.load(in, STORE_PASSWORD.toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, STORE_PASSWORD.toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), null, null);
+        return sslContext;
+    }
+
+    /**
+     * Secure connect bundle pointing at the metadata service.
+     */
+    private static byte[] bundle(Path identity, Path trustStore, InetSocketAddress metadata) throws IOException {
+        String config = "{\"host\":\"" + metadata.getAddress().getHostAddress() + "\","
+                + "\"port\":" + metadata.getPort() + ","
+                + "\"keyStorePassword\":\"" + STORE_PASSWORD + "\","
+                + "\"trustStorePassword\":\"" + STORE_PASSWORD + "\"}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("config.json"));
+            zip.write(config.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("identity.jks"));
+            zip.write(Files.readAllBytes(identity));
+            zip.putNextEntry(new ZipEntry("trustStore.jks"));
+            zip.write(Files.readAllBytes(trustStore));
+        }
+        return out.toByteArray();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,725 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.internal.core.protocol.Lz4Compressor;
+import com.datastax.oss.driver.internal.core.protocol.SnappyCompressor;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.request.query.QueryOptions;
+import com.datastax.oss.protocol.internal.response.error.Unprepared;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.DefaultRows;
+import com.datastax.oss.protocol.internal.response.result.Prepared;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import com.datastax.oss.protocol.internal.response.result.RowsMetadata;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.traffic.ChannelTrafficShapingHandler;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Native protocol stand-in for Astra nodes, behind TLS as the SNI proxy: the node of a connection is
+ * the host identifier sent by the driver as SNI name, each node can answer with its own delay.
+ * <p>
+ * It answers the handshake, the system tables the driver reads at init and the queries primed with
+ * {@link #prime(String, List, List)} or {@link #primeScan(String, List, long)}. Every other select
+ * returns no rows and every other statement succeeds. Only text columns are supported, which is enough
+ * for the benchmarks.
+ */
+public class CqlStub implements AutoCloseable {
+
+    /** Name of the datacenter, shared with the metadata service. */
+    private final String datacenter;
+
+    /** Host identifiers of the nodes, the SNI names used by the driver. */
+    private final List<UUID> hostIds;
+
+    /** Bandwidth in bytes per second in each direction, 0 for no limit. */
+    private final long bandwidth;
+
+    /** TLS of the proxy. */
+    private final SSLContext sslContext;
+
+    /** Bytes on the wire, all connections. */
+    private final WireCounter wireCounter = new WireCounter();
+
+    /** Requests received, all connections. */
+    private final LongAdder requests = new LongAdder();
+
+    /** Delay of the answers to queries, in microseconds. */
+    private volatile long latency;
+
+    /** Delay of the answers to queries added by each node, in microseconds. */
+    private final AtomicLongArray nodeLatencies;
+
+    /** Primed queries, by query. */
+    private final Map<String, Prime> primes = new ConcurrentHashMap<>();
+
+    /** Prepared queries, by identifier. */
+    private final Map<ByteBuffer, Prime> prepared = new ConcurrentHashMap<>();
+
+    /** Row of system.local, by node. */
+    private final List<Prime> locals = new ArrayList<>();
+
+    /** Rows of system.peers_v2, by node. */
+    private final List<Prime> peers = new ArrayList<>();
+
+    private EventLoopGroup bossGroup;
+
+    private EventLoopGroup workerGroup;
+
+    private Channel serverChannel;
+
+    /**
+     * Create the stub.
+     *
+     * @param sslContext
+     *      TLS of the proxy
+     * @param datacenter
+     *      datacenter name
+     * @param hostId
+     *      host identifier
+     * @param bandwidth
+     *      bandwidth in bytes per second in each direction, 0 for no limit
+     */
+    public CqlStub(SSLContext sslContext, String datacenter, UUID hostId, long bandwidth) {
+        this(sslContext, datacenter, Collections.singletonList(hostId), bandwidth);
+    }
+
+    /**
+     * Create the stub of several nodes.
+     *
+     * @param sslContext
+     *      TLS of the proxy
+     * @param datacenter
+     *      datacenter name
+     * @param hostIds
+     *      host identifiers of the nodes
+     * @param bandwidth
+     *      bandwidth in bytes per second in each direction, 0 for no limit
+     */
+    public CqlStub(SSLContext sslContext, String datacenter, List<UUID> hostIds, long bandwidth) {
+        this.sslContext = sslContext;
+        this.datacenter = datacenter;
+        this.hostIds = hostIds;
+        this.bandwidth = bandwidth;
+        this.nodeLatencies = new AtomicLongArray(hostIds.size());
+        for (int node = 0; node < hostIds.size(); node++) {
+            locals.add(localRow(node));
+            peers.add(peerRows(node));
+        }
+    }
+
+    /**
+     * Start listening on a random port of the loopback.
+     *
+     * @return
+     *      address
+     * @throws InterruptedException
+     *      interrupted while binding
+     */
+    public InetSocketAddress start() throws InterruptedException {
+        bossGroup = new NioEventLoopGroup(1);
+        workerGroup = new NioEventLoopGroup(2);
+        serverChannel = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        SSLEngine engine = sslContext.createSSLEngine();
+                        engine.setUseClientMode(false);
+                        CqlStubHandler handler = new CqlStubHandler(CqlStub.this);
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(wireCounter);
+                        if (bandwidth > 0) {
+                            pipeline.addLast(new ChannelTrafficShapingHandler(bandwidth, bandwidth, 10));
+                        }
+                        pipeline.addLast(new SslHandler(engine));
+                        pipeline.addLast(new CqlStubDecoder(handler));
+                        pipeline.addLast(handler);
+                    }
+                })
+                .bind(InetAddress.getLoopbackAddress(), 0)
+                .sync()
+                .channel();
+        return (InetSocketAddress) serverChannel.localAddress();
+    }
+
+    /**
+     * Prime a query, with text columns.
+     *
+     * @param cql
+     *      query, bind markers are text parameters when prepared, bigint when compared to a token
+     * @param columns
+     *      column names
+     * @param rows
+     *      rows, one value per column
+     */
+    public void prime(String cql, List<String> columns, List<List<String>> rows) {
+        List<ByteBuffer[]> data = new ArrayList<>(rows.size());
+        for (List<String> row : rows) {
+            ByteBuffer[] values = new ByteBuffer[row.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = text(row.get(i));
+            }
+            data.add(values);
+        }
+        List<ColumnSpec> specs = new ArrayList<>();
+        for (String column : columns) {
+            specs.add(new ColumnSpec("standin", "primed", column, specs.size(), primitive(ProtocolConstants.DataType.VARCHAR)));
+        }
+        primes.put(normalize(cql), new Prime(cql, specs, data));
+    }
+
+    /**
+     * Prime the schema tables read by the driver with a keyspace of generated tables: a partition key
+     * <code>k</code>, a clustering column <code>c</code> and regular columns <code>v1</code>,
+     * <code>v2</code>... The tables are <code>t0</code>, <code>t1</code>...
+     *
+     * @param keyspace
+     *      keyspace name
+     * @param tables
+     *      number of tables
+     * @param regularColumns
+     *      regular columns of each table
+     */
+    public void primeSchema(String keyspace, int tables, int regularColumns) {
+        RawType text = primitive(ProtocolConstants.DataType.VARCHAR);
+        RawType textSet = new RawType.RawSet(text);
+        RawType textMap = new RawType.RawMap(text, text);
+        Map<String, String> replication = new LinkedHashMap<>();
+        replication.put("class", "org.apache.cassandra.locator.SimpleStrategy");
+        replication.put("replication_factor", "1");
+        primeSchemaTable("keyspaces", new String[] {"keyspace_name", "durable_writes", "replication"},
+                new RawType[] {text, primitive(ProtocolConstants.DataType.BOOLEAN), textMap},
+                Collections.singletonList(new ByteBuffer[] {text(keyspace), ByteBuffer.wrap(new byte[] {1}),
+                        map(replication)}));
+        List<ByteBuffer[]> tableRows = new ArrayList<>();
+        List<ByteBuffer[]> columnRows = new ArrayList<>();
+        Map<String, String> caching = new LinkedHashMap<>();
+        caching.put("keys", "ALL");
+        caching.put("rows_per_partition", "NONE");
+        for (int table = 0; table < tables; table++) {
+            String name = "t" + table;
+            tableRows.add(new ByteBuffer[] {text(keyspace), text(name), set(Collections.singletonList("compound")),
+                    text("generated table " + table), map(caching)});
+            columnRows.add(column(keyspace, name, "k", "partition_key", 0, "text"));
+            columnRows.add(column(keyspace, name, "c", "clustering", 0, "int"));
+            for (int column = 1; column <= regularColumns; column++) {
+                columnRows.add(column(keyspace, name, "v" + column, "regular", -1, "text"));
+            }
+        }
+        primeSchemaTable("tables", new String[] {"keyspace_name", "table_name", "flags", "comment", "caching"},
+                new RawType[] {text, text, textSet, text, textMap}, tableRows);
+        primeSchemaTable("columns", new String[] {"keyspace_name", "table_name", "column_name", "kind",
+                        "position", "type", "clustering_order"},
+                new RawType[] {text, text, text, text, primitive(ProtocolConstants.DataType.INT), text, text},
+                columnRows);
+    }
+
+    private void primeSchemaTable(String table, String[] columns, RawType[] types, List<ByteBuffer[]> rows) {
+        List<ColumnSpec> specs = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            specs.add(new ColumnSpec("system_schema", table, columns[i], i, types[i]));
+        }
+        String cql = "SELECT * FROM system_schema." + table;
+        primes.put(normalize(cql), new Prime(cql, specs, rows));
+    }
+
+    private static ByteBuffer[] column(String keyspace, String table, String column, String kind, int position,
+            String type) {
+        return new ByteBuffer[] {text(keyspace), text(table), text(column), text(kind),
+                (ByteBuffer) ByteBuffer.allocate(4).putInt(position).flip(), text(type),
+                text("clustering".equals(kind) ? "asc" : "none")};
+    }
+
+    /**
+     * Prime a query with generated rows, in pages of the size asked by the driver. The value of each
+     * column is its name followed by the row number: <code>k-0</code>, <code>k-1</code>...
+     *
+     * @param cql
+     *      query, bind markers are text parameters when prepared, bigint when compared to a token
+     * @param columns
+     *      column names
+     * @param rows
+     *      number of rows
+     */
+    public void primeScan(String cql, List<String> columns, long rows) {
+        List<ColumnSpec> specs = new ArrayList<>();
+        for (String column : columns) {
+            specs.add(new ColumnSpec("standin", "primed", column, specs.size(), primitive(ProtocolConstants.DataType.VARCHAR)));
+        }
+        primes.put(normalize(cql), new Prime(cql, specs, Collections.emptyList(), rows));
+    }
+
+    /**
+     * Prime an aggregate query answered with one row, the bigint column <code>count</code>, after a delay
+     * on top of the latency of the node, as a node reading the rows counted.
+     *
+     * @param cql
+     *      query, bind markers are text parameters when prepared, bigint when compared to a token
+     * @param count
+     *      value of the count
+     * @param latency
+     *      delay of the answer in microseconds
+     */
+    public void primeCount(String cql, long count, long latency) {
+        List<ColumnSpec> specs = Collections.singletonList(
+                new ColumnSpec("standin", "primed", "count", 0, primitive(ProtocolConstants.DataType.BIGINT)));
+        ByteBuffer value = (ByteBuffer) ByteBuffer.allocate(8).putLong(count).flip();
+        primes.put(normalize(cql), new Prime(cql, specs, Collections.singletonList(new ByteBuffer[] {value}), -1,
+                latency));
+    }
+
+    /**
+     * Delay the answers to queries, executions and batches, as a remote node would.
+     *
+     * @param latency
+     *      delay in microseconds, 0 to answer right away
+     */
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Delay the answers of one node on top of the delay of all nodes, as a slow replica.
+     *
+     * @param node
+     *      index of the node, from 0
+     * @param latency
+     *      delay in microseconds, 0 to answer as the other nodes
+     */
+    public void setNodeLatency(int node, long latency) {
+        nodeLatencies.set(node, latency);
+    }
+
+    /**
+     * Gets the latency of a node.
+     *
+     * @param node
+     *      index of the node
+     * @return value of latency, in microseconds
+     */
+    long getLatency(int node) {
+        return latency + nodeLatencies.get(node);
+    }
+
+    /**
+     * Gets the delay of a primed query on top of the latency of the node.
+     *
+     * @param cql
+     *      query
+     * @return value of latency, in microseconds
+     */
+    long getLatency(String cql) {
+        Prime prime = primes.get(normalize(cql));
+        return prime == null ? 0 : prime.latency;
+    }
+
+    /**
+     * Gets the delay of a prepared query on top of the latency of the node.
+     *
+     * @param queryId
+     *      prepared identifier
+     * @return value of latency, in microseconds
+     */
+    long getLatency(byte[] queryId) {
+        Prime prime = prepared.get(ByteBuffer.wrap(queryId));
+        return prime == null ? 0 : prime.latency;
+    }
+
+    /**
+     * Gets the node of a host identifier.
+     *
+     * @param serverName
+     *      SNI name of a connection
+     * @return
+     *      index of the node, the first one when unknown
+     */
+    int nodeOf(String serverName) {
+        for (int node = 0; node < hostIds.size(); node++) {
+            if (hostIds.get(node).toString().equals(serverName)) {
+                return node;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the bytes received from the driver, TLS included.
+     *
+     * @return value of bytes in
+     */
+    public long getBytesIn() {
+        return wireCounter.getBytesIn();
+    }
+
+    /**
+     * Gets the bytes sent to the driver, TLS included.
+     *
+     * @return value of bytes out
+     */
+    public long getBytesOut() {
+        return wireCounter.getBytesOut();
+    }
+
+    /**
+     * Gets the number of requests received.
+     *
+     * @return value of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+            workerGroup.shutdownGracefully();
+            bossGroup.shutdownGracefully();
+        }
+    }
+
+    void requestReceived() {
+        requests.increment();
+    }
+
+    Message query(String cql, QueryOptions options, int node) {
+        String query = normalize(cql);
+        String lower = query.toLowerCase();
+        if (lower.startsWith("use ")) {
+            return new SetKeyspace(query.substring(4).replace("\"", "").trim());
+        }
+        if (lower.contains("system.local")) {
+            return locals.get(node).rows();
+        }
+        if (lower.contains("system.peers_v2")) {
+            return peers.get(node).rows();
+        }
+        Prime prime = primes.get(query);
+        if (prime != null) {
+            return prime.rows(options);
+        }
+        // peers, schema tables and unknown selects have no rows
+        return lower.startsWith("select") ? Prime.EMPTY.rows() : Void.INSTANCE;
+    }
+
+    Message prepare(String cql) {
+        Prime prime = primes.get(normalize(cql));
+        if (prime == null) {
+            prime = new Prime(cql, Collections.emptyList(), Collections.emptyList());
+        }
+        prepared.put(ByteBuffer.wrap(prime.id), prime);
+        return prime.prepared();
+    }
+
+    Message execute(byte[] queryId, QueryOptions options) {
+        Prime prime = prepared.get(ByteBuffer.wrap(queryId));
+        if (prime == null) {
+            return new Unprepared("Unknown prepared statement", queryId);
+        }
+        return prime.select ? prime.rows(options) : Void.INSTANCE;
+    }
+
+    /**
+     * Compressor of the frames, the ones of the driver.
+     *
+     * @param algorithm
+     *      lz4 or snappy
+     * @return
+     *      compressor
+     */
+    static Compressor<ByteBuf> compressor(String algorithm) {
+        // The driver compressors only read the session name from the context
+        DriverContext context = (DriverContext) Proxy.newProxyInstance(CqlStub.class.getClassLoader(),
+                new Class<?>[]{DriverContext.class},
+                (proxy, method, args) -> "getSessionName".equals(method.getName()) ? "cql-stub" : null);
+        switch (algorithm.toLowerCase()) {
+            case "lz4":
+                return new Lz4Compressor(context);
+            case "snappy":
+                return new SnappyCompressor(context);
+            default:
+                throw new IllegalArgumentException("Unsupported compression " + algorithm);
+        }
+    }
+
+    private Prime localRow(int node) {
+        String[][] columns = {
+                {"key", "local"},
+                {"bootstrapped", "COMPLETED"},
+                {"cluster_name", "astra-standin"},
+                {"cql_version", "3.4.5"},
+                {"data_center", datacenter},
+                {"partitioner", "org.apache.cassandra.dht.Murmur3Partitioner"},
+                {"rack", "rack1"},
+                {"release_version", "3.11.10"},
+                {"native_protocol_version", "4"}};
+        List<ColumnSpec> specs = new ArrayList<>();
+        List<ByteBuffer> values = new ArrayList<>();
+        for (String[] column : columns) {
+            specs.add(new ColumnSpec("system", "local", column[0], specs.size(), primitive(ProtocolConstants.DataType.VARCHAR)));
+            values.add(text(column[1]));
+        }
+        ByteBuffer loopback = ByteBuffer.wrap(InetAddress.getLoopbackAddress().getAddress());
+        for (String column : Arrays.asList("broadcast_address", "listen_address", "rpc_address")) {
+            specs.add(new ColumnSpec("system", "local", column, specs.size(), primitive(ProtocolConstants.DataType.INET)));
+            values.add(loopback.duplicate());
+        }
+        specs.add(new ColumnSpec("system", "local", "host_id", specs.size(), primitive(ProtocolConstants.DataType.UUID)));
+        values.add(uuid(hostIds.get(node)));
+        specs.add(new ColumnSpec("system", "local", "schema_version", specs.size(), primitive(ProtocolConstants.DataType.UUID)));
+        values.add(uuid(new UUID(0, 1)));
+        specs.add(new ColumnSpec("system", "local", "tokens", specs.size(),
+                new RawType.RawSet(primitive(ProtocolConstants.DataType.VARCHAR))));
+        values.add(tokens(node));
+        return new Prime("SELECT * FROM system.local", specs,
+                Collections.singletonList(values.toArray(new ByteBuffer[0])));
+    }
+
+    /**
+     * Rows of the other nodes, all behind the proxy: the driver tells them apart by host identifier.
+     */
+    private Prime peerRows(int node) {
+        List<ColumnSpec> specs = new ArrayList<>();
+        for (String column : Arrays.asList("peer", "native_address")) {
+            specs.add(new ColumnSpec("system", "peers_v2", column, specs.size(), primitive(ProtocolConstants.DataType.INET)));
+        }
+        for (String column : Arrays.asList("peer_port", "native_port")) {
+            specs.add(new ColumnSpec("system", "peers_v2", column, specs.size(), primitive(ProtocolConstants.DataType.INT)));
+        }
+        for (String column : Arrays.asList("data_center", "rack", "release_version")) {
+            specs.add(new ColumnSpec("system", "peers_v2", column, specs.size(), primitive(ProtocolConstants.DataType.VARCHAR)));
+        }
+        for (String column : Arrays.asList("host_id", "schema_version")) {
+            specs.add(new ColumnSpec("system", "peers_v2", column, specs.size(), primitive(ProtocolConstants.DataType.UUID)));
+        }
+        specs.add(new ColumnSpec("system", "peers_v2", "tokens", specs.size(),
+                new RawType.RawSet(primitive(ProtocolConstants.DataType.VARCHAR))));
+        ByteBuffer loopback = ByteBuffer.wrap(InetAddress.getLoopbackAddress().getAddress());
+        ByteBuffer port = (ByteBuffer) ByteBuffer.allocate(4).putInt(9042).flip();
+        List<ByteBuffer[]> rows = new ArrayList<>();
+        for (int peer = 0; peer < hostIds.size(); peer++) {
+            if (peer != node) {
+                rows.add(new ByteBuffer[] {loopback.duplicate(), loopback.duplicate(), port.duplicate(), port.duplicate(),
+                        text(datacenter), text("rack1"), text("3.11.10"),
+                        uuid(hostIds.get(peer)), uuid(new UUID(0, 1)), tokens(peer)});
+            }
+        }
+        return new Prime("SELECT * FROM system.peers_v2", specs, rows);
+    }
+
+    /**
+     * Token of a node, spread over the ring, as a set&lt;text&gt; with a single element: count, then
+     * length and bytes of each element.
+     */
+    private ByteBuffer tokens(int node) {
+        byte[] token = String.valueOf(node * (Long.MAX_VALUE / hostIds.size())).getBytes(StandardCharsets.UTF_8);
+        return (ByteBuffer) ByteBuffer.allocate(8 + token.length).putInt(1).putInt(token.length).put(token).flip();
+    }
+
+    /**
+     * Elements of a set&lt;text&gt;: count, then length and bytes of each element.
+     */
+    private static ByteBuffer set(List<String> elements) {
+        List<ByteBuffer> values = new ArrayList<>();
+        for (String element : elements) {
+            values.add(text(element));
+        }
+        return collection(values, elements.size());
+    }
+
+    /**
+     * Entries of a map&lt;text, text&gt;: count, then length and bytes of each key and value.
+     */
+    private static ByteBuffer map(Map<String, String> entries) {
+        List<ByteBuffer> values = new ArrayList<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            values.add(text(entry.getKey()));
+            values.add(text(entry.getValue()));
+        }
+        return collection(values, entries.size());
+    }
+
+    private static ByteBuffer collection(List<ByteBuffer> values, int count) {
+        int size = 4;
+        for (ByteBuffer value : values) {
+            size += 4 + value.remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putInt(count);
+        for (ByteBuffer value : values) {
+            buffer.putInt(value.remaining()).put(value.duplicate());
+        }
+        return (ByteBuffer) buffer.flip();
+    }
+
+    private static RawType primitive(int type) {
+        return RawType.PRIMITIVES.get(type);
+    }
+
+    private static ByteBuffer text(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer uuid(UUID value) {
+        return (ByteBuffer) ByteBuffer.allocate(16)
+                .putLong(value.getMostSignificantBits())
+                .putLong(value.getLeastSignificantBits())
+                .flip();
+    }
+
+    private static String normalize(String cql) {
+        return cql.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Answer of a query.
+     */
+    private static class Prime {
+
+        /** Rows of a page when the driver does not ask. */
+        static final int DEFAULT_PAGE_SIZE = 5000;
+
+        /** Comparison of a token with a bind marker, at the end of a query. */
+        static final Pattern TOKEN_BOUND = Pattern.compile("token\\([^)]*\\)\\s*[<>]=?\\s*$",
+                Pattern.CASE_INSENSITIVE);
+
+        /** No rows and no columns. */
+        static final Prime EMPTY = new Prime("", Collections.emptyList(), Collections.emptyList());
+
+        /** Prepared identifier. */
+        final byte[] id;
+
+        /** Bind markers, as text. */
+        final List<ColumnSpec> variables;
+
+        /** Result columns. */
+        final List<ColumnSpec> columns;
+
+        /** Rows. */
+        final List<ByteBuffer[]> data;
+
+        /** Select, answered with rows even when empty. */
+        final boolean select;
+
+        /** Generated rows answered in pages, -1 to answer the data at once. */
+        final long generated;
+
+        /** Delay on top of the latency of the node, in microseconds. */
+        final long latency;
+
+        Prime(String cql, List<ColumnSpec> columns, List<ByteBuffer[]> data) {
+            this(cql, columns, data, -1);
+        }
+
+        Prime(String cql, List<ColumnSpec> columns, List<ByteBuffer[]> data, long generated) {
+            this(cql, columns, data, generated, 0);
+        }
+
+        Prime(String cql, List<ColumnSpec> columns, List<ByteBuffer[]> data, long generated, long latency) {
+            this.id = md5(cql);
+            this.latency = latency;
+            this.columns = columns;
+            this.data = data;
+            this.generated = generated;
+            this.select = cql.trim().toLowerCase().startsWith("select");
+            this.variables = new ArrayList<>();
+            for (int i = 0; i < cql.length(); i++) {
+                if (cql.charAt(i) == '?') {
+                    // Bounds of a token range are bigint, as the tokens of the Murmur3 partitioner
+                    boolean token = TOKEN_BOUND.matcher(cql.substring(0, i)).find();
+                    variables.add(new ColumnSpec("standin", "primed", "p" + variables.size(), variables.size(),
+                            primitive(token ? ProtocolConstants.DataType.BIGINT : ProtocolConstants.DataType.VARCHAR)));
+                }
+            }
+        }
+
+        DefaultRows rows(QueryOptions options) {
+            if (generated >= 0) {
+                return page(options);
+            }
+            return rows();
+        }
+
+        DefaultRows rows() {
+            Queue<List<ByteBuffer>> rows = new ArrayDeque<>(data.size());
+            for (ByteBuffer[] row : data) {
+                List<ByteBuffer> values = new ArrayList<>(row.length);
+                for (ByteBuffer value : row) {
+                    values.add(value.duplicate());
+                }
+                rows.add(values);
+            }
+            return new DefaultRows(new RowsMetadata(columns, null, null, null), rows);
+        }
+
+        /**
+         * Page of the generated rows, the paging state is the number of the next row.
+         */
+        private DefaultRows page(QueryOptions options) {
+            long from = options.pagingState == null ? 0 : options.pagingState.getLong(options.pagingState.position());
+            int pageSize = options.pageSize > 0 ? options.pageSize : DEFAULT_PAGE_SIZE;
+            long to = Math.min(generated, from + pageSize);
+            Queue<List<ByteBuffer>> rows = new ArrayDeque<>((int) (to - from));
+            for (long row = from; row < to; row++) {
+                List<ByteBuffer> values = new ArrayList<>(columns.size());
+                for (ColumnSpec column : columns) {
+                    values.add(text(column.name + "-" + row));
+                }
+                rows.add(values);
+            }
+            ByteBuffer pagingState = to < generated ? (ByteBuffer) ByteBuffer.allocate(8).putLong(to).flip() : null;
+            return new DefaultRows(new RowsMetadata(columns, pagingState, null, null), rows);
+        }
+
+        Prepared prepared() {
+            return new Prepared(id, null,
+                    new RowsMetadata(variables, null, new int[0], null),
+                    new RowsMetadata(columns, null, null, null));
+        }
+
+        private static byte[] md5(String cql) {
+            try {
+                return MessageDigest.getInstance("MD5").digest(cql.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
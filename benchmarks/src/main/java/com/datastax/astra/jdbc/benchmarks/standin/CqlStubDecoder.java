@@ -0,0 +1,61 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.Error;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+import java.util.Collections;
+
+/**
+ * Split the stream into frames and decode them, only the protocol v4 is supported: other versions
+ * get the protocol error the driver expects to negotiate down.
+ */
+class CqlStubDecoder extends LengthFieldBasedFrameDecoder {
+
+    /** Max frame size, as the server default. */
+    private static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+
+    /** Handler of the channel, owning the codec. */
+    private final CqlStubHandler handler;
+
+    CqlStubDecoder(CqlStubHandler handler) {
+        // Header: version, flags, stream (2 bytes), opcode, body length (4 bytes)
+        super(MAX_FRAME_LENGTH, 5, 4, 0, 0, true);
+        this.handler = handler;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+        if (in.readableBytes() >= 1) {
+            int version = in.getByte(in.readerIndex()) & 0x7F;
+            if (version != ProtocolConstants.Version.V4) {
+                if (in.readableBytes() < 4) {
+                    return null;
+                }
+                int streamId = version >= ProtocolConstants.Version.V3
+                        ? in.getShort(in.readerIndex() + 2)
+                        : in.getByte(in.readerIndex() + 2);
+                in.skipBytes(in.readableBytes());
+                handler.write(ctx, Frame.forResponse(ProtocolConstants.Version.V4, streamId, null,
+                        Frame.NO_PAYLOAD, Collections.emptyList(),
+                        new Error(ProtocolConstants.ErrorCode.PROTOCOL_ERROR,
+                                "Invalid or unsupported protocol version (" + version + "); supported versions are (4/v4)")));
+                return null;
+            }
+        }
+        ByteBuf buffer = (ByteBuf) super.decode(ctx, in);
+        return buffer == null ? null : handler.decode(buffer);
+    }
+
+    /**
+     * No copy, the frame is decoded right away.
+     */
+    @Override
+    protected ByteBuf extractFrame(ChannelHandlerContext ctx, ByteBuf buffer, int index, int length) {
+        return buffer.slice(index, length);
+    }
+}
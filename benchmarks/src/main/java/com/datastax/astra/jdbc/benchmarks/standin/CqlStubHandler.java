@@ -0,0 +1,183 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import com.datastax.oss.driver.internal.core.protocol.ByteBufPrimitiveCodec;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.request.Execute;
+import com.datastax.oss.protocol.internal.request.Prepare;
+import com.datastax.oss.protocol.internal.request.Query;
+import com.datastax.oss.protocol.internal.request.Startup;
+import com.datastax.oss.protocol.internal.response.AuthSuccess;
+import com.datastax.oss.protocol.internal.response.Authenticate;
+import com.datastax.oss.protocol.internal.response.Error;
+import com.datastax.oss.protocol.internal.response.Ready;
+import com.datastax.oss.protocol.internal.response.Supported;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.ssl.SslHandler;
+
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLSession;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answer the requests of one connection.
+ */
+class CqlStubHandler extends SimpleChannelInboundHandler<Frame> {
+
+    /** Options advertised to the driver. */
+    private static final Map<String, List<String>> SUPPORTED = new HashMap<>();
+
+    static {
+        SUPPORTED.put(Startup.CQL_VERSION_KEY, Collections.singletonList("3.4.5"));
+        SUPPORTED.put(Startup.COMPRESSION_KEY, Arrays.asList("lz4", "snappy"));
+        SUPPORTED.put("PROTOCOL_VERSIONS", Collections.singletonList("4/v4"));
+    }
+
+    /** Server, holding the data. */
+    private final CqlStub stub;
+
+    /** Codec of the buffers of the channel. */
+    private ByteBufPrimitiveCodec primitiveCodec;
+
+    /** Frame codec, compressing once the driver asked for it. */
+    private FrameCodec<ByteBuf> codec;
+
+    /** Node of the connection, from its SNI name, -1 until the first request. */
+    private int node = -1;
+
+    CqlStubHandler(CqlStub stub) {
+        this.stub = stub;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        primitiveCodec = new ByteBufPrimitiveCodec(ctx.alloc());
+        codec = FrameCodec.defaultServer(primitiveCodec, Compressor.none());
+    }
+
+    /**
+     * Decode a frame.
+     *
+     * @param buffer
+     *      frame content
+     * @return
+     *      frame
+     */
+    Frame decode(ByteBuf buffer) {
+        return codec.decode(buffer);
+    }
+
+    /**
+     * Encode and send a frame.
+     *
+     * @param ctx
+     *      channel
+     * @param frame
+     *      response
+     */
+    void write(ChannelHandlerContext ctx, Frame frame) {
+        ctx.writeAndFlush(codec.encode(frame));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, Frame request) {
+        stub.requestReceived();
+        if (node < 0) {
+            node = stub.nodeOf(serverName(ctx));
+        }
+        Message message = request.message;
+        Message response;
+        Compressor<ByteBuf> compressor = null;
+        boolean delayed = false;
+        long primeLatency = 0;
+        switch (message.opcode) {
+            case ProtocolConstants.Opcode.OPTIONS:
+                response = new Supported(SUPPORTED);
+                break;
+            case ProtocolConstants.Opcode.STARTUP:
+                String algorithm = ((Startup) message).options.get(Startup.COMPRESSION_KEY);
+                if (algorithm != null) {
+                    compressor = CqlStub.compressor(algorithm);
+                }
+                // Astra asks for the token, as user and password
+                response = new Authenticate("org.apache.cassandra.auth.PasswordAuthenticator");
+                break;
+            case ProtocolConstants.Opcode.AUTH_RESPONSE:
+                response = new AuthSuccess(null);
+                break;
+            case ProtocolConstants.Opcode.REGISTER:
+                response = new Ready();
+                break;
+            case ProtocolConstants.Opcode.QUERY:
+                response = stub.query(((Query) message).query, ((Query) message).options, node);
+                primeLatency = stub.getLatency(((Query) message).query);
+                delayed = true;
+                break;
+            case ProtocolConstants.Opcode.PREPARE:
+                response = stub.prepare(((Prepare) message).cqlQuery);
+                break;
+            case ProtocolConstants.Opcode.EXECUTE:
+                response = stub.execute(((Execute) message).queryId, ((Execute) message).options);
+                primeLatency = stub.getLatency(((Execute) message).queryId);
+                delayed = true;
+                break;
+            case ProtocolConstants.Opcode.BATCH:
+                response = Void.INSTANCE;
+                delayed = true;
+                break;
+            default:
+                response = new Error(ProtocolConstants.ErrorCode.PROTOCOL_ERROR,
+                        "Unsupported opcode " + message.opcode);
+        }
+        Frame frame = Frame.forResponse(ProtocolConstants.Version.V4, request.streamId, null,
+                Frame.NO_PAYLOAD, Collections.emptyList(), response);
+        long latency = stub.getLatency(node) + primeLatency;
+        if (delayed && latency > 0) {
+            ctx.executor().schedule(() -> write(ctx, frame), latency, TimeUnit.MICROSECONDS);
+        } else {
+            write(ctx, frame);
+        }
+        if (compressor != null) {
+            // The answer to STARTUP is sent as is, the following frames are compressed
+            codec = FrameCodec.defaultServer(primitiveCodec, compressor);
+        }
+    }
+
+    /**
+     * SNI name sent by the driver: the host identifier of the node.
+     */
+    private static String serverName(ChannelHandlerContext ctx) {
+        SslHandler ssl = ctx.pipeline().get(SslHandler.class);
+        SSLSession session = ssl == null ? null : ssl.engine().getSession();
+        if (session instanceof ExtendedSSLSession) {
+            for (SNIServerName name : ((ExtendedSSLSession) session).getRequestedServerNames()) {
+                if (name instanceof SNIHostName) {
+                    return ((SNIHostName) name).getAsciiName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        ctx.close();
+    }
+}
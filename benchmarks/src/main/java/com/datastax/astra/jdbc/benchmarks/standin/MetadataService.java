@@ -0,0 +1,74 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in for the metadata service of the secure connect bundle, telling the driver where the
+ * SNI proxy is and which hosts it serves.
+ */
+public class MetadataService implements AutoCloseable {
+
+    /** Https server. */
+    private final HttpsServer server;
+
+    /**
+     * Create and start the service on a random port of the loopback.
+     *
+     * @param sslContext
+     *      TLS of the service
+     * @param datacenter
+     *      datacenter name
+     * @param hostIds
+     *      host identifiers
+     * @param proxy
+     *      address of the CQL stand-in
+     * @throws IOException
+     *      cannot bind
+     */
+    public MetadataService(SSLContext sslContext, String datacenter, List<UUID> hostIds, InetSocketAddress proxy)
+    throws IOException {
+        byte[] metadata = ("{\"region\":\"" + datacenter + "\",\"contact_info\":{"
+                + "\"type\":\"sni_proxy\","
+                + "\"local_dc\":\"" + datacenter + "\","
+                + "\"contact_points\":[" + hostIds.stream().map(id -> "\"" + id + "\"")
+                        .collect(Collectors.joining(",")) + "],"
+                + "\"sni_proxy_address\":\"" + proxy.getAddress().getHostAddress() + ":" + proxy.getPort() + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+        server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        server.createContext("/metadata", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, metadata.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(metadata);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Gets the address of the service.
+     *
+     * @return value of the address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
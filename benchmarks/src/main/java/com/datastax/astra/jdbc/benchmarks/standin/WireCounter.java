@@ -0,0 +1,58 @@
+package com.datastax.astra.jdbc.benchmarks.standin;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count the bytes on the wire, first handler of the pipeline so that TLS and compression are included.
+ */
+@ChannelHandler.Sharable
+class WireCounter extends ChannelDuplexHandler {
+
+    /** Bytes received from the driver. */
+    private final LongAdder bytesIn = new LongAdder();
+
+    /** Bytes sent to the driver. */
+    private final LongAdder bytesOut = new LongAdder();
+
+    /** {@inheritDoc} */
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf) {
+            bytesIn.add(((ByteBuf) msg).readableBytes());
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBuf) {
+            bytesOut.add(((ByteBuf) msg).readableBytes());
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Gets the bytes received from the driver.
+     *
+     * @return value of bytesIn
+     */
+    long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * Gets the bytes sent to the driver.
+     *
+     * @return value of bytesOut
+     */
+    long getBytesOut() {
+        return bytesOut.sum();
+    }
+}
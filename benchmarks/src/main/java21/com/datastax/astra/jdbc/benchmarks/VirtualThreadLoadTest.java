@@ -0,0 +1,133 @@
+package com.datastax.astra.jdbc.benchmarks;
+
+import com.datastax.astra.jdbc.AstraJdbcExecutors;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many blocking clients on virtual threads against a stand-in answering after a delay. Each client
+ * connects, reads a row and closes, a few times. Virtual threads blocking while pinned to their
+ * carrier are counted from the <code>jdk.VirtualThreadPinned</code> events, and a heartbeat virtual
+ * thread sleeping 10 ms reports how late it is scheduled.
+ * <p>
+ * Not a JMH benchmark, run it with Java 21 or later, the stacks of the pinned threads are printed
+ * with <code>-Djdk.tracePinnedThreads</code>:
+ * <pre>
+ * java -Djdk.tracePinnedThreads=short -cp benchmarks/target/benchmarks.jar \
+ *      com.datastax.astra.jdbc.benchmarks.VirtualThreadLoadTest [clients] [rounds] [latency micros]
+ * </pre>
+ * Exits with 1 when a client failed or a thread was pinned. The heartbeat lag also grows with the
+ * load of the CPUs, it is reported only.
+ */
+public class VirtualThreadLoadTest {
+
+    /** Interval of the heartbeat in milliseconds. */
+    private static final long HEARTBEAT = 10;
+
+    /** Pinned for longer is reported, as the default threshold of the event. */
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    /**
+     * Run the load test.
+     *
+     * @param args
+     *      clients, rounds per client and delay of the answers in microseconds
+     * @throws Exception
+     *      stand-in cannot start
+     */
+    public static void main(String[] args) throws Exception {
+        // Before the first use of the driver, the executors read it once
+        System.setProperty(AstraJdbcExecutors.PROP_VIRTUAL_THREADS, "true");
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long latency = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+        StandInState state = new StandInState() {
+            @Override
+            protected long latency() {
+                return latency;
+            }
+        };
+        state.start();
+        // More clients than the 1024 requests a connection carries: they wait in the throttler queue
+        String url = state.standIn.getJdbcUrl(
+                "driver.advanced.throttler.class=ConcurrencyLimitingRequestThrottler"
+                + "&driver.advanced.throttler.max-concurrent-requests=1024"
+                + "&driver.advanced.throttler.max-queue-size=" + clients);
+        // Session built once, shared by the connections of the clients
+        DriverManager.getConnection(url).close();
+
+        AtomicLong pinned = new AtomicLong();
+        RecordingStream events = new RecordingStream();
+        events.enable("jdk.VirtualThreadPinned").withThreshold(PINNED_THRESHOLD);
+        events.onEvent("jdk.VirtualThreadPinned", e -> pinned.incrementAndGet());
+        events.startAsync();
+
+        AtomicLong maxLag = new AtomicLong();
+        Thread heartbeat = Thread.ofVirtual().name("heartbeat").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                try {
+                    Thread.sleep(HEARTBEAT);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) - HEARTBEAT;
+                maxLag.accumulateAndGet(lag, Math::max);
+            }
+        });
+
+        long start = System.nanoTime();
+        int failures = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                tasks.add(executor.submit(() -> {
+                    for (int r = 0; r < rounds; r++) {
+                        try (Connection connection = DriverManager.getConnection(url);
+                             PreparedStatement read = connection.prepareStatement(StandInState.SELECT_ONE)) {
+                            read.setString(1, "key");
+                            try (ResultSet rs = read.executeQuery()) {
+                                rs.next();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (Exception e) {
+                    if (failures++ == 0) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        heartbeat.interrupt();
+        heartbeat.join();
+        // Flushes the pending events before stopping
+        events.stop();
+        events.close();
+        state.stop();
+
+        System.out.printf("%d clients x %d rounds in %d ms, %d failed, %d pinned, max heartbeat lag %d ms%n",
+                clients, rounds, elapsed, failures, pinned.get(), maxLag.get());
+        System.exit(failures == 0 && pinned.get() == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.datastax.astra.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking execution of a prepared statement, obtained with
+ * <code>preparedStatement.unwrap(AstraAsyncPreparedStatement.class)</code>.
+ * <p>
+ * The parameters are read when the method is called: they can be set again for the next execution
+ * while the previous one is in flight. The stage completes on a driver I/O thread and fails with a
+ * {@link SQLException} when the execution fails.
+ */
+public interface AstraAsyncPreparedStatement {
+
+    /**
+     * Execute the query with the current parameters.
+     *
+     * @return
+     *      result set, available when the first page is received. Next pages are fetched when iterating
+     * @throws SQLException
+     *      statement is closed
+     */
+    CompletionStage<ResultSet> executeQueryAsync() throws SQLException;
+
+    /**
+     * Execute the update with the current parameters.
+     *
+     * @return
+     *      update count, as returned by <code>executeUpdate</code>
+     * @throws SQLException
+     *      statement is closed
+     */
+    CompletionStage<Integer> executeUpdateAsync() throws SQLException;
+}
@@ -0,0 +1,41 @@
+package com.datastax.astra.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking execution of a statement, obtained with <code>statement.unwrap(AstraAsyncStatement.class)</code>.
+ * <p>
+ * The query is sent on the session of the connection without blocking the caller, the stage
+ * completes on a driver I/O thread: chain blocking work with the <code>*Async</code> variants of
+ * {@link CompletionStage}. A stage fails with a {@link SQLException} when the execution fails.
+ * Executions of the same statement may run concurrently, each stage getting its own result set.
+ * Only one CQL statement per call, statements separated with ';' are not split.
+ */
+public interface AstraAsyncStatement {
+
+    /**
+     * Execute a query.
+     *
+     * @param cql
+     *      query
+     * @return
+     *      result set, available when the first page is received. Next pages are fetched when iterating
+     * @throws SQLException
+     *      statement is closed
+     */
+    CompletionStage<ResultSet> executeQueryAsync(String cql) throws SQLException;
+
+    /**
+     * Execute an update.
+     *
+     * @param cql
+     *      insert, update, delete or DDL statement
+     * @return
+     *      update count, as returned by <code>executeUpdate</code>
+     * @throws SQLException
+     *      statement is closed
+     */
+    CompletionStage<Integer> executeUpdateAsync(String cql) throws SQLException;
+}
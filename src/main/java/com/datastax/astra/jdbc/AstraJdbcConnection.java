@@ -0,0 +1,209 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.ing.data.cassandra.jdbc.AstraJdbcDatabaseMetaData;
+import com.ing.data.cassandra.jdbc.AstraJdbcPreparedStatement;
+import com.ing.data.cassandra.jdbc.CassandraConnection;
+import com.ing.data.cassandra.jdbc.AstraJdbcStatement;
+import com.ing.data.cassandra.jdbc.CassandraPreparedStatement;
+import com.ing.data.cassandra.jdbc.CassandraResultSet;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection on a session of the driver cache, releasing its reference on close.
+ * <p>
+ * Statements created by the connection and not closed yet are closed with it.
+ */
+public class AstraJdbcConnection extends CassandraConnection {
+
+    /** Session shared with other connections. */
+    private final CachedSession cachedSession;
+
+    /** Connection parameters. */
+    private final AstraJdbcUrl jdbcUrl;
+
+    /** Release the session only once, set from the start when the connection holds no reference. */
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /** Statements not closed yet. */
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+
+    /** Executor of the batches of prepared statements, null for the wrapper execution. */
+    private final PipelinedBatchExecutor batchExecutor;
+
+    /** Aggregation of the aggregate queries by token ranges, null to execute them as is. */
+    private final TokenRangeAggregation aggregation;
+
+    /**
+     * Create a connection, the caller already holds a reference on the session.
+     *
+     * @param cachedSession
+     *      session from the cache
+     * @param jdbcUrl
+     *      connection parameters
+     */
+    AstraJdbcConnection(CachedSession cachedSession, AstraJdbcUrl jdbcUrl) {
+        super(new ConnectionScopedSession(cachedSession, jdbcUrl),
+                jdbcUrl.getKeyspace(),
+                jdbcUrl.getConsistencyLevel(),
+                jdbcUrl.isDebug(),
+                null);
+        this.cachedSession = cachedSession;
+        this.jdbcUrl = jdbcUrl;
+        this.batchExecutor = AstraJdbcUrl.BATCH_MODE_PIPELINED.equals(jdbcUrl.getBatchMode())
+                ? new PipelinedBatchExecutor(jdbcUrl.getBatchMaxInFlight(), jdbcUrl.getBatchGroupSize())
+                : null;
+        this.aggregation = jdbcUrl.getParallelAggregation() > 0
+                ? new TokenRangeAggregation(jdbcUrl.getParallelAggregation(), 0,
+                        jdbcUrl.getParallelAggregationRetries())
+                : null;
+    }
+
+    /**
+     * Create a connection over the session and the executors of another one, without a reference
+     * on the session: closing it only closes its statements.
+     *
+     * @param connection
+     *      connection holding the session
+     */
+    AstraJdbcConnection(AstraJdbcConnection connection) {
+        super(connection.getSession(),
+                connection.jdbcUrl.getKeyspace(),
+                connection.jdbcUrl.getConsistencyLevel(),
+                connection.jdbcUrl.isDebug(),
+                null);
+        this.cachedSession = connection.cachedSession;
+        this.jdbcUrl = connection.jdbcUrl;
+        this.batchExecutor = connection.batchExecutor;
+        this.aggregation = connection.aggregation;
+        this.released.set(true);
+    }
+
+    /**
+     * Create a statement, with a non-blocking execution through {@link AstraAsyncStatement}.
+     */
+    @Override
+    public Statement createStatement() throws SQLException {
+        return createStatement(CassandraResultSet.DEFAULT_TYPE, CassandraResultSet.DEFAULT_CONCURRENCY,
+                CassandraResultSet.DEFAULT_HOLDABILITY);
+    }
+
+    /**
+     * Create a statement, with a non-blocking execution through {@link AstraAsyncStatement}.
+     */
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return createStatement(resultSetType, resultSetConcurrency, CassandraResultSet.DEFAULT_HOLDABILITY);
+    }
+
+    /**
+     * Create a statement, with a non-blocking execution through {@link AstraAsyncStatement}.
+     */
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+            throws SQLException {
+        checkOpen();
+        return track(new AstraJdbcStatement(this, resultSetType, resultSetConcurrency, resultSetHoldability,
+                aggregation));
+    }
+
+    /**
+     * Prepare a statement, with a non-blocking execution through {@link AstraAsyncPreparedStatement}
+     * and executing its batch with the pipelined executor when enabled.
+     */
+    @Override
+    public CassandraPreparedStatement prepareStatement(String cql, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability) throws SQLException {
+        checkOpen();
+        return track(new AstraJdbcPreparedStatement(this, cql, resultSetType, resultSetConcurrency,
+                resultSetHoldability, batchExecutor));
+    }
+
+    /**
+     * Metadata reading the schema rows shared by the connections of the session, see
+     * {@link AstraJdbcDatabaseMetaData}.
+     */
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        checkOpen();
+        return new AstraJdbcDatabaseMetaData(this, cachedSession.getMetadata());
+    }
+
+    /**
+     * Current metadata of the session, instead of the one read when the connection was opened.
+     */
+    @Override
+    public Metadata getClusterMetadata() {
+        return getSession().getMetadata();
+    }
+
+    private void checkOpen() throws SQLException {
+        if (isClosed()) {
+            throw new SQLNonTransientConnectionException("Method was called on a closed Connection.");
+        }
+    }
+
+    private <T extends Statement> T track(T statement) {
+        statements.add(statement);
+        return statement;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean removeStatement(Statement statement) {
+        statements.remove(statement);
+        return super.removeStatement(statement);
+    }
+
+    /**
+     * Close the connection and its statements.
+     */
+    @Override
+    public void close() throws SQLException {
+        closePhysically();
+    }
+
+    /**
+     * Close the statements and the connection, then release the session.
+     *
+     * @throws SQLException
+     *      error closing statements
+     */
+    void closePhysically() throws SQLException {
+        try {
+            for (Statement statement : statements) {
+                statements.remove(statement);
+                statement.close();
+            }
+        } finally {
+            closeSession();
+        }
+    }
+
+    private void closeSession() throws SQLException {
+        try {
+            super.close();
+        } finally {
+            if (released.compareAndSet(false, true)) {
+                cachedSession.release();
+            }
+        }
+    }
+
+    /**
+     * Check the connection itself is closed, whatever its borrowers did.
+     *
+     * @return
+     *      true when closed
+     */
+    boolean isPhysicallyClosed() {
+        return released.get();
+    }
+}
@@ -1,17 +1,32 @@
 package com.datastax.astra.jdbc;
 
 import com.datastax.astra.jdbc.exceptions.AstraJdbcNotSupportedOperation;
+import com.datastax.astra.jdbc.pool.AstraJdbcConnectionPool;
 import com.ing.data.cassandra.jdbc.CassandraConnection;
 import com.ing.data.cassandra.jdbc.PooledCassandraConnection;
+import org.slf4j.LoggerFactory;
 
 import javax.sql.ConnectionPoolDataSource;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
-public class AstraJdbcDataSource implements ConnectionPoolDataSource, javax.sql.DataSource {
+public class AstraJdbcDataSource implements ConnectionPoolDataSource, javax.sql.DataSource, AutoCloseable {
+
+    /**
+     * Logger for the class.
+     */
+    private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(AstraJdbcDataSource.class);
 
     static {
         try {
@@ -27,6 +42,34 @@ public class AstraJdbcDataSource implements ConnectionPoolDataSource, javax.sql.
     private String region;
     private String consistencyLevel;
     private Integer requestTimeout;
+    private String compression;
+    private String batchMode;
+    private Integer batchMaxInFlight;
+    private Integer batchGroupSize;
+    private Integer prefetchPages;
+    private Long prefetchMaxBytes;
+    private Long resultCacheTtl;
+    private String resultCacheTables;
+    private Long slowQueryThreshold;
+    private Long speculativeDelay;
+    private Integer speculativeMaxExecutions;
+    private Boolean autoIdempotence;
+    private Integer parallelAggregation;
+    private Integer parallelAggregationRetries;
+    private volatile boolean prewarm;
+    // Url of the session warmed up, null before the warm up
+    private final AtomicReference<AstraJdbcUrl> warmedUrl = new AtomicReference<>();
+    private final Properties driverOptions = new Properties();
+    private List<String> prewarmStatements = new ArrayList<>();
+    private int poolMinSize = 0;
+    private int poolMaxSize = 10;
+    private long poolMaxLifetime = 1800000;
+    private long poolBorrowTimeout = 30000;
+    private long leakDetectionThreshold = 0;
+    private volatile AstraJdbcConnectionPool pool;
+    // Not a monitor: closing the pool closes connections, virtual threads would stay pinned
+    private final ReentrantLock poolLock = new ReentrantLock();
+    private volatile AstraJdbcUrl jdbcUrl;
 
     public AstraJdbcDataSource(String token, String database, String keyspace) {
        this("token", token, database, keyspace);
@@ -89,40 +132,580 @@ public class AstraJdbcDataSource implements ConnectionPoolDataSource, javax.sql.
         return getConnection(null, null);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Open a connection without going through the DriverManager: the url of the data source is
+     * parsed once and the connection taken from the session cache of the driver. With prewarm, a
+     * setting changed since the warm up starts it again for the new settings.
+     */
     @Override
     public CassandraConnection getConnection(String username, String pPassword)
     throws SQLException {
+        if (prewarm && warmedUrl.get() != getJdbcUrl()) {
+            startWarmUp();
+        }
+        if ((username == null || username.equals(user)) && (pPassword == null || pPassword.equals(password))) {
+            return AstraJdbcDriver.getRegisteredInstance().connect(getJdbcUrl());
+        }
+        return AstraJdbcDriver.getRegisteredInstance().connect(AstraJdbcUrl.parse(buildUrl(username, pPassword), driverOptions));
+    }
+
+    /**
+     * Build the session in background and prepare the warm up statements, so that the first
+     * connections do not wait for the DevOps API, the bundle download and the handshake.
+     *
+     * @return
+     *      completes when the session is ready
+     */
+    public CompletableFuture<Void> warmUp() {
+        try {
+            AstraJdbcUrl url = getJdbcUrl();
+            warmedUrl.set(url);
+            return AstraJdbcDriver.getRegisteredInstance().prewarm(url, prewarmStatements);
+        } catch (SQLException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Start the warm up in background unless already started for the current settings.
+     */
+    private void startWarmUp() {
+        AstraJdbcUrl url;
+        try {
+            url = getJdbcUrl();
+        } catch (SQLException e) {
+            LOGGER.warn("Warm up of database '{}' not started: {}", database, e.getMessage());
+            return;
+        }
+        if (warmedUrl.getAndSet(url) != url) {
+            logWarmUp(AstraJdbcDriver.getRegisteredInstance().prewarm(url, prewarmStatements));
+        }
+    }
+
+    private void logWarmUp(CompletableFuture<Void> warmUp) {
+        warmUp.whenComplete((v, e) -> {
+            if (e != null) {
+                LOGGER.warn("Warm up of database '{}' failed: {}", database, e.getMessage());
+            } else {
+                LOGGER.info("Warm up of database '{}' completed", database);
+            }
+        });
+    }
+
+    /**
+     * Gets the url of the data source, parsed on first use and again after a setting changed.
+     *
+     * @return
+     *      parsed url
+     * @throws SQLException
+     *      invalid settings
+     */
+    public AstraJdbcUrl getJdbcUrl() throws SQLException {
+        AstraJdbcUrl current = jdbcUrl;
+        if (current == null) {
+            current = new AstraJdbcUrl(buildUrl(null, null), driverOptions);
+            jdbcUrl = current;
+        }
+        return current;
+    }
+
+    /**
+     * Build the connection url.
+     *
+     * @param username
+     *      user, default one if null
+     * @param pPassword
+     *      password, default one if null
+     * @return
+     *      jdbc url
+     */
+    private String buildUrl(String username, String pPassword) {
         StringBuilder sb = new StringBuilder();
         sb.append(AstraJdbcUrl.URL_START);
         sb.append(database);
         sb.append("/");
         sb.append(keyspace);
         sb.append("?");
-        sb.append(AstraJdbcUrl.Keys.USER.getKey());
-        sb.append("=");
-        sb.append((username != null) ? username : this.user);
-        sb.append("&");
-        sb.append(AstraJdbcUrl.Keys.PASSWORD.getKey());
-        sb.append("=");
-        sb.append((pPassword != null) ? pPassword : this.password);
+        appendParameter(sb, AstraJdbcUrl.Keys.USER, (username != null) ? username : this.user);
         sb.append("&");
+        appendParameter(sb, AstraJdbcUrl.Keys.PASSWORD, (pPassword != null) ? pPassword : this.password);
+        if (compression != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.COMPRESSION, compression);
+        }
+        if (batchMode != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.BATCH_MODE, batchMode);
+        }
+        if (batchMaxInFlight != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.BATCH_MAX_IN_FLIGHT, String.valueOf(batchMaxInFlight));
+        }
+        if (batchGroupSize != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.BATCH_GROUP_SIZE, String.valueOf(batchGroupSize));
+        }
+        if (prefetchPages != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.PREFETCH_PAGES, String.valueOf(prefetchPages));
+        }
+        if (prefetchMaxBytes != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.PREFETCH_MAX_BYTES, String.valueOf(prefetchMaxBytes));
+        }
+        if (resultCacheTtl != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.RESULT_CACHE_TTL, String.valueOf(resultCacheTtl));
+        }
+        if (resultCacheTables != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.RESULT_CACHE_TABLES, resultCacheTables);
+        }
+        if (slowQueryThreshold != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.SLOW_QUERY_THRESHOLD, String.valueOf(slowQueryThreshold));
+        }
+        if (speculativeDelay != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.SPECULATIVE_DELAY, String.valueOf(speculativeDelay));
+        }
+        if (speculativeMaxExecutions != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.SPECULATIVE_MAX_EXECUTIONS, String.valueOf(speculativeMaxExecutions));
+        }
+        if (autoIdempotence != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.AUTO_IDEMPOTENCE, String.valueOf(autoIdempotence));
+        }
+        if (parallelAggregation != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.PARALLEL_AGGREGATION, String.valueOf(parallelAggregation));
+        }
+        if (parallelAggregationRetries != null) {
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.PARALLEL_AGGREGATION_RETRIES,
+                    String.valueOf(parallelAggregationRetries));
+        }
         if (requestTimeout!= null) {
-            sb.append(AstraJdbcUrl.Keys.REQUEST_TIMEOUT.getKey());
-            sb.append("=");
-            sb.append(requestTimeout);
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.REQUEST_TIMEOUT, String.valueOf(requestTimeout));
         }
         if (region!= null) {
-            sb.append(AstraJdbcUrl.Keys.REGION.getKey());
-            sb.append("=");
-            sb.append(region);
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.REGION, region);
         }
         if (consistencyLevel!= null) {
-            sb.append(AstraJdbcUrl.Keys.CONSISTENCY_LEVEL.getKey());
-            sb.append("=");
-            sb.append(consistencyLevel);
+            sb.append("&");
+            appendParameter(sb, AstraJdbcUrl.Keys.CONSISTENCY_LEVEL, consistencyLevel);
         }
-        return (CassandraConnection) DriverManager.getConnection(sb.toString(), null);
+        return sb.toString();
+    }
+
+    private static void appendParameter(StringBuilder sb, AstraJdbcUrl.Keys key, String value) {
+        sb.append(key.getKey());
+        sb.append("=");
+        try {
+            // Space as %20, the parser keeps '+' as is
+            sb.append(URLEncoder.encode(value, "UTF-8").replace("+", "%20"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets compression
+     *
+     * @return value of compression
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * Set the protocol compression, the library must be on the classpath.
+     *
+     * @param compression
+     *      lz4, snappy or none
+     */
+    public void setCompression(String compression) {
+        this.compression = compression;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Gets batchMode
+     *
+     * @return value of batchMode
+     */
+    public String getBatchMode() {
+        return batchMode;
+    }
+
+    /**
+     * Set the execution of the batches of prepared statements.
+     *
+     * @param batchMode
+     *      default or pipelined
+     */
+    public void setBatchMode(String batchMode) {
+        this.batchMode = batchMode;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the max requests in flight for a pipelined batch.
+     *
+     * @param batchMaxInFlight
+     *      max requests in flight (default 128)
+     */
+    public void setBatchMaxInFlight(int batchMaxInFlight) {
+        this.batchMaxInFlight = batchMaxInFlight;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the max statements of a partition grouped in one request for a pipelined batch.
+     *
+     * @param batchGroupSize
+     *      max statements per request, 1 to disable grouping (default 10)
+     */
+    public void setBatchGroupSize(int batchGroupSize) {
+        this.batchGroupSize = batchGroupSize;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the pages of a result set fetched ahead of the one iterated.
+     *
+     * @param prefetchPages
+     *      pages fetched ahead, 0 to fetch on demand (default 1)
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the max bytes of the pages fetched ahead and not iterated yet.
+     *
+     * @param prefetchMaxBytes
+     *      max bytes (default 16 MiB)
+     */
+    public void setPrefetchMaxBytes(long prefetchMaxBytes) {
+        this.prefetchMaxBytes = prefetchMaxBytes;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the time to live of the cached results of the prepared SELECTs.
+     *
+     * @param resultCacheTtl
+     *      time to live in milliseconds, 0 to disable the cache (default 0)
+     */
+    public void setResultCacheTtl(long resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the tables of the cached results.
+     *
+     * @param resultCacheTables
+     *      comma-separated CQL names of the tables, all tables when empty (default empty)
+     */
+    public void setResultCacheTables(String resultCacheTables) {
+        this.resultCacheTables = resultCacheTables;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the latency above which a request is logged.
+     *
+     * @param slowQueryThreshold
+     *      latency in milliseconds, 0 to log none (default 0)
+     */
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the delay before a speculative execution of an idempotent statement on another node.
+     *
+     * @param speculativeDelay
+     *      delay in milliseconds, 0 for none (default 0)
+     */
+    public void setSpeculativeDelay(long speculativeDelay) {
+        this.speculativeDelay = speculativeDelay;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the max executions of a statement, the first one and the speculative ones.
+     *
+     * @param speculativeMaxExecutions
+     *      max executions (default 2)
+     */
+    public void setSpeculativeMaxExecutions(int speculativeMaxExecutions) {
+        this.speculativeMaxExecutions = speculativeMaxExecutions;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Mark the statements idempotent from their CQL when they do not set it, see
+     * {@link IdempotenceClassifier}.
+     *
+     * @param autoIdempotence
+     *      true to classify the statements (default true)
+     */
+    public void setAutoIdempotence(boolean autoIdempotence) {
+        this.autoIdempotence = autoIdempotence;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Execute the aggregate queries as concurrent token range queries, see {@link TokenRangeAggregation}.
+     *
+     * @param parallelAggregation
+     *      range queries in flight, 0 to execute them as a single query (default 0)
+     */
+    public void setParallelAggregation(int parallelAggregation) {
+        this.parallelAggregation = parallelAggregation;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set the retries of a failed token range query of an aggregate query.
+     *
+     * @param parallelAggregationRetries
+     *      retries (default 2)
+     */
+    public void setParallelAggregationRetries(int parallelAggregationRetries) {
+        this.parallelAggregationRetries = parallelAggregationRetries;
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set an option of the Java driver configuration, for instance
+     * <code>setDriverOption("advanced.connection.pool.local.size", "2")</code>.
+     *
+     * @param path
+     *      option path as in <code>application.conf</code>, with or without the <code>driver.</code> prefix
+     * @param value
+     *      option value
+     */
+    public void setDriverOption(String path, String value) {
+        driverOptions.setProperty(path.startsWith(AstraJdbcUrl.DRIVER_OPTION_PREFIX)
+                ? path : AstraJdbcUrl.DRIVER_OPTION_PREFIX + path, value);
+        this.jdbcUrl = null;
+    }
+
+    /**
+     * Set options of the Java driver configuration.
+     *
+     * @param options
+     *      option paths, with or without the <code>driver.</code> prefix, to values
+     */
+    public void setDriverOptions(Properties options) {
+        for (String path : options.stringPropertyNames()) {
+            setDriverOption(path, options.getProperty(path));
+        }
+    }
+
+    /**
+     * Gets driverOptions
+     *
+     * @return value of driverOptions, keys with the <code>driver.</code> prefix
+     */
+    public Properties getDriverOptions() {
+        return driverOptions;
+    }
+
+    /**
+     * Gets prewarm
+     *
+     * @return value of prewarm
+     */
+    public boolean isPrewarm() {
+        return prewarm;
+    }
+
+    /**
+     * Set prewarm, when true the warm up starts right away, see {@link #warmUp()}. The settings
+     * changed afterwards are warmed up by the next connection.
+     *
+     * @param prewarm
+     *      prewarm
+     */
+    public void setPrewarm(boolean prewarm) {
+        this.prewarm = prewarm;
+        if (prewarm) {
+            startWarmUp();
+        }
+    }
+
+    /**
+     * Gets prewarmStatements
+     *
+     * @return value of prewarmStatements
+     */
+    public List<String> getPrewarmStatements() {
+        return prewarmStatements;
+    }
+
+    /**
+     * Set the statements prepared at warm up, the new ones are prepared right away once warmed up.
+     *
+     * @param prewarmStatements
+     *      statements to prepare
+     */
+    public void setPrewarmStatements(List<String> prewarmStatements) {
+        List<String> added = new ArrayList<>(prewarmStatements);
+        added.removeAll(this.prewarmStatements);
+        this.prewarmStatements = new ArrayList<>(prewarmStatements);
+        AstraJdbcUrl warmed = warmedUrl.get();
+        if (warmed != null && !added.isEmpty()) {
+            logWarmUp(AstraJdbcDriver.getRegisteredInstance().prewarm(warmed, added));
+        }
+    }
+
+    /**
+     * Gets the connection pool, created on first use with the current settings.
+     *
+     * @return
+     *      connection pool
+     */
+    public AstraJdbcConnectionPool getPool() {
+        AstraJdbcConnectionPool current = pool;
+        if (current == null) {
+            poolLock.lock();
+            try {
+                current = pool;
+                if (current == null) {
+                    current = new AstraJdbcConnectionPool(
+                            () -> new AstraJdbcPooledConnection((AstraJdbcConnection) getConnection()),
+                            poolMinSize, poolMaxSize, poolMaxLifetime, leakDetectionThreshold, poolBorrowTimeout);
+                    pool = current;
+                }
+            } finally {
+                poolLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Close the connection pool if any.
+     */
+    @Override
+    public void close() {
+        poolLock.lock();
+        try {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Gets poolMinSize
+     *
+     * @return value of poolMinSize
+     */
+    public int getPoolMinSize() {
+        return poolMinSize;
+    }
+
+    /**
+     * Set the min number of pooled connections kept open, to be set before the first pooled connection.
+     *
+     * @param poolMinSize
+     *      min number of connections (default 0)
+     */
+    public void setPoolMinSize(int poolMinSize) {
+        this.poolMinSize = poolMinSize;
+    }
+
+    /**
+     * Gets poolMaxSize
+     *
+     * @return value of poolMaxSize
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Set the max number of pooled connections, to be set before the first pooled connection.
+     *
+     * @param poolMaxSize
+     *      max number of connections (default 10)
+     */
+    public void setPoolMaxSize(int poolMaxSize) {
+        this.poolMaxSize = poolMaxSize;
+    }
+
+    /**
+     * Gets poolMaxLifetime
+     *
+     * @return value of poolMaxLifetime
+     */
+    public long getPoolMaxLifetime() {
+        return poolMaxLifetime;
+    }
+
+    /**
+     * Set the max lifetime of a pooled connection, to be set before the first pooled connection.
+     *
+     * @param poolMaxLifetime
+     *      max lifetime in milliseconds, 0 for no limit (default 30 min)
+     */
+    public void setPoolMaxLifetime(long poolMaxLifetime) {
+        this.poolMaxLifetime = poolMaxLifetime;
+    }
+
+    /**
+     * Gets poolBorrowTimeout
+     *
+     * @return value of poolBorrowTimeout
+     */
+    public long getPoolBorrowTimeout() {
+        return poolBorrowTimeout;
+    }
+
+    /**
+     * Set the max wait for a connection when the pool is exhausted, to be set before the first pooled connection.
+     *
+     * @param poolBorrowTimeout
+     *      max wait in milliseconds (default 30s)
+     */
+    public void setPoolBorrowTimeout(long poolBorrowTimeout) {
+        this.poolBorrowTimeout = poolBorrowTimeout;
+    }
+
+    /**
+     * Gets leakDetectionThreshold
+     *
+     * @return value of leakDetectionThreshold
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * Set the time after which a borrowed connection is reported as leaked, to be set before
+     * the first pooled connection.
+     *
+     * @param leakDetectionThreshold
+     *      threshold in milliseconds, 0 to disable (default)
+     */
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
     }
 
     /** {@inheritDoc} */
@@ -172,14 +755,23 @@ public class AstraJdbcDataSource implements ConnectionPoolDataSource, javax.sql.
         throw new AstraJdbcNotSupportedOperation("DataSource.getParentLogger()");
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Borrow a connection from the pool, closing the connection it provides gives it back.
+     */
     @Override
     public PooledCassandraConnection getPooledConnection() throws SQLException {
-        return new PooledCassandraConnection(getConnection());
+        return getPool().borrow();
     }
 
-    /** {@inheritDoc} */@Override
+    /**
+     * Borrow a connection from the pool when the credentials are the ones of the data source,
+     * otherwise open a connection outside of the pool.
+     */
+    @Override
     public PooledCassandraConnection getPooledConnection(final String user, final String password) throws SQLException {
+        if ((user == null || user.equals(this.user)) && (password == null || password.equals(this.password))) {
+            return getPooledConnection();
+        }
         return new PooledCassandraConnection(getConnection(user, password));
     }
 }
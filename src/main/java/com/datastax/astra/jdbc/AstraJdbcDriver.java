@@ -1,14 +1,34 @@
 package com.datastax.astra.jdbc;
 
+import com.datastax.astra.jdbc.cache.DatabaseResolutionCache;
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import com.datastax.astra.jdbc.cache.PreparedStatementCache;
+import com.datastax.astra.jdbc.cache.ResultCache;
+import com.datastax.astra.jdbc.cache.ResolvedDatabase;
+import com.datastax.astra.jdbc.cache.SecureConnectBundleCache;
 import com.datastax.astra.jdbc.exceptions.AstraJdbcNotSupportedOperation;
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
-import com.dtsx.astra.sdk.db.AstraDbClient;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import com.datastax.oss.driver.api.core.config.ProgrammaticDriverConfigLoaderBuilder;
+import com.datastax.oss.driver.api.core.metadata.schema.SchemaChangeListener;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultDriverConfigLoader;
 import com.dtsx.astra.sdk.db.DatabaseClient;
+import com.dtsx.astra.sdk.utils.Utils;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.ing.data.cassandra.jdbc.CassandraConnection;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.ing.data.cassandra.jdbc.utils.DriverUtil;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,9 +38,24 @@ import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.ing.data.cassandra.jdbc.utils.DriverUtil.getDriverProperty;
 
@@ -36,10 +71,70 @@ public class AstraJdbcDriver implements java.sql.Driver {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcDriver.class);
 
+    /**
+     * Instance registered to the Driver Manager.
+     */
+    private static AstraJdbcDriver registeredInstance;
+
+    /**
+     * Secure connect bundles kept on disk between restarts.
+     */
+    static final SecureConnectBundleCache BUNDLE_CACHE = SecureConnectBundleCache.fromSystemProperties();
+
+    /**
+     * Database name to identifier, regions and datacenters.
+     */
+    static final DatabaseResolutionCache DATABASE_CACHE = DatabaseResolutionCache.fromSystemProperties();
+
+    /**
+     * Region a session binds to.
+     */
+    static final RegionSelector REGION_SELECTOR = new RegionSelector();
+
+    /**
+     * System property for the max number of sessions in cache.
+     */
+    public static final String PROP_SESSION_CACHE_MAX_SIZE = "astra.jdbc.session.cache.max-size";
+
+    /**
+     * System property for the idle time in seconds before a session leaves the cache.
+     */
+    public static final String PROP_SESSION_CACHE_IDLE_TIMEOUT = "astra.jdbc.session.cache.idle-timeout";
+
+    /**
+     * System property for the max wait in milliseconds for a session, when no login timeout is set.
+     */
+    public static final String PROP_SESSION_BUILD_TIMEOUT = "astra.jdbc.session.build-timeout";
+
+    /**
+     * Max tick of the driver timer in milliseconds with speculative executions, the driver default.
+     */
+    private static final long MAX_TIMER_TICK = 100;
+
+    /**
+     * Paths of the options known by the Java driver, to warn about typos.
+     */
+    private static final Set<String> KNOWN_DRIVER_OPTIONS = Arrays.stream(DefaultDriverOption.values())
+            .map(DefaultDriverOption::getPath)
+            .collect(Collectors.toSet());
+
+    /**
+     * Paths of the options of the Java driver holding a list in its reference configuration.
+     */
+    private static final Set<String> LIST_DRIVER_OPTIONS = listDriverOptions();
+
+    /**
+     * Sessions are built outside the caller threads, concurrent callers share the same build.
+     */
+    static final ExecutorService SESSION_BUILDER = AstraJdbcExecutors.newExecutor("astra-jdbc-session-builder");
+
+    // Registered once the static fields above are set, the instance uses them
     static {
         try {
             final AstraJdbcDriver driverInstance = new AstraJdbcDriver();
             DriverManager.registerDriver(driverInstance);
+            registeredInstance = driverInstance;
+            registerGauges(driverInstance);
             LOGGER.info("AstraJdbcDriver registered to the Jdbc Driver Manager.");
         } catch (final SQLException e) {
             throw new RuntimeException(e.getMessage());
@@ -47,34 +142,197 @@ public class AstraJdbcDriver implements java.sql.Driver {
     }
 
     /**
-     * Reuse Session when possible.
+     * Reuse Session when possible, evicted sessions are closed when no longer used by a connection.
+     */
+    final AsyncLoadingCache<SessionKey, CachedSession> cachedSessions;
+
+    /**
+     * Driver with the session cache set from the system properties.
+     */
+    public AstraJdbcDriver() {
+        this(newSessionCache(Long.getLong(PROP_SESSION_CACHE_MAX_SIZE, 16),
+                Duration.ofSeconds(Long.getLong(PROP_SESSION_CACHE_IDLE_TIMEOUT, 1800)), SESSION_BUILDER,
+                AstraJdbcDriver::newCachedSession));
+    }
+
+    /**
+     * Driver with its own session cache.
+     *
+     * @param cachedSessions
+     *      session cache
+     */
+    AstraJdbcDriver(AsyncLoadingCache<SessionKey, CachedSession> cachedSessions) {
+        this.cachedSessions = cachedSessions;
+    }
+
+    /**
+     * Build the session cache.
+     *
+     * @param maxSize
+     *      max number of sessions
+     * @param idleTimeout
+     *      idle time before a session leaves the cache
+     * @param executor
+     *      builds the sessions and notifies the removals
+     * @param builder
+     *      session of a key
+     * @return
+     *      cache
+     */
+    static AsyncLoadingCache<SessionKey, CachedSession> newSessionCache(long maxSize, Duration idleTimeout,
+            Executor executor, Function<SessionKey, CachedSession> builder) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .removalListener((SessionKey key, CachedSession session, RemovalCause cause) -> {
+                    if (session != null) {
+                        LOGGER.debug("Session for db '{}' removed from cache ({})", key, cause);
+                        session.evict();
+                    }
+                })
+                .recordStats()
+                .executor(executor)
+                .buildAsync(builder::apply);
+    }
+
+    /**
+     * Build the session of a key, with its caches.
+     *
+     * @param key
+     *      key of the session cache
+     * @return
+     *      session
      */
-    final LoadingCache<AstraJdbcUrl, CqlSession > cachedSessions = Caffeine.newBuilder()
-            .build(jdbcUrl -> {
-                LOGGER.info("Creating a new Session for db '" + jdbcUrl.getDatabaseId() + "'");
-                return buildSession(jdbcUrl);
-            });
+    private static CachedSession newCachedSession(SessionKey key) {
+        LOGGER.info("Creating a new Session for db '" + key + "'");
+        PreparedStatementCache preparedStatements = PreparedStatementCache.fromSystemProperties();
+        ResultCache results = ResultCache.fromSystemProperties();
+        MetadataCache metadata = MetadataCache.fromSystemProperties();
+        CqlSession session = AstraJdbcMetrics.time(AstraJdbcMetrics.SESSION_BUILD,
+                () -> buildSession(key.getJdbcUrl(), key.getKeyspace(), preparedStatements, results, metadata));
+        return new CachedSession(key.toString(), session, preparedStatements, results, metadata);
+    }
 
     public static void register() {}
 
+    /**
+     * Gets the instance registered to the Driver Manager.
+     *
+     * @return value of the registered instance
+     */
+    public static AstraJdbcDriver getRegisteredInstance() {
+        return registeredInstance;
+    }
+
+    /**
+     * Gets the database resolution cache, for instance to invalidate a database.
+     *
+     * @return value of the database cache
+     */
+    public static DatabaseResolutionCache getDatabaseCache() {
+        return DATABASE_CACHE;
+    }
+
+    /**
+     * Gets the region selector, with the latencies measured for <code>region=auto</code>.
+     *
+     * @return value of the region selector
+     */
+    public static RegionSelector getRegionSelector() {
+        return REGION_SELECTOR;
+    }
+
+    /**
+     * Gets the secure connect bundle cache.
+     *
+     * @return value of the bundle cache
+     */
+    public static SecureConnectBundleCache getBundleCache() {
+        return BUNDLE_CACHE;
+    }
+
+    /**
+     * Download a secure connect bundle, with the signed url from the resolution when still valid.
+     *
+     * @param token
+     *      authentication token
+     * @param db
+     *      resolved database
+     * @param region
+     *      region of the bundle
+     * @return
+     *      bundle content
+     */
+    private static byte[] downloadSecureConnectBundle(String token, ResolvedDatabase db, String region) {
+        Optional<String> bundleUrl = db.getBundleUrl(region);
+        if (bundleUrl.isPresent()) {
+            try {
+                return Utils.downloadFile(bundleUrl.get());
+            } catch (RuntimeException e) {
+                LOGGER.debug("Cannot download bundle from signed url, asking a new one: {}", e.getMessage());
+            }
+        }
+        return new DatabaseClient(token, db.getId()).downloadSecureConnectBundle(region);
+    }
+
+    /**
+     * Hit ratios of the caches of a driver, in the driver metrics.
+     */
+    private static void registerGauges(AstraJdbcDriver driver) {
+        MetricRegistry registry = AstraJdbcMetrics.getRegistry();
+        registry.register("session-cache.hit-ratio", (Gauge<Double>) () -> driver.getSessionCacheStats().hitRate());
+        registry.register("session-cache.size", (Gauge<Long>) driver::getSessionCacheSize);
+        registry.register("prepared-cache.hit-ratio",
+                (Gauge<Double>) () -> driver.getPreparedStatementCacheStats().hitRate());
+        registry.register("result-cache.hit-ratio", (Gauge<Double>) () -> driver.getResultCacheStats().hitRate());
+        registry.register("metadata-cache.hit-ratio", (Gauge<Double>) () -> driver.getMetadataCacheStats().hitRate());
+    }
+
     public static CqlSession buildSession(AstraJdbcUrl jdbcUrl) {
-        AstraDbClient astraDbClient = new AstraDbClient(jdbcUrl.getToken());
-        // First Test with the Name
-        DatabaseClient dbClient;
-        long count = astraDbClient.findByName(jdbcUrl.getDatabaseId()).count();
-        if (count == 1) {
-            LOGGER.debug("Found Database by Name");
-            dbClient = astraDbClient.databaseByName(jdbcUrl.getDatabaseId());
-        } else if (count > 1) {
-            throw new RuntimeException("Found more than one database with the same name");
-        } else {
-            LOGGER.debug("Found Database by Id");
-            dbClient = astraDbClient.database(jdbcUrl.getDatabaseId());
+        return buildSession(jdbcUrl, jdbcUrl.getKeyspace());
+    }
+
+    /**
+     * Build a session for a database.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @param keyspace
+     *      keyspace the session is bound to, null for a session shared across keyspaces
+     * @param schemaListeners
+     *      notified of the schema changes
+     * @return
+     *      session
+     */
+    static CqlSession buildSession(AstraJdbcUrl jdbcUrl, String keyspace, SchemaChangeListener... schemaListeners) {
+        ResolvedDatabase db = DATABASE_CACHE.resolve(jdbcUrl.getToken(), jdbcUrl.getDatabaseId(),
+                () -> AstraJdbcMetrics.time(AstraJdbcMetrics.DEVOPS_LOOKUP,
+                        () -> DatabaseResolutionCache.lookup(jdbcUrl.getToken(), jdbcUrl.getDatabaseId())));
+        Function<String, byte[]> bundles = region -> BUNDLE_CACHE.get(db.getId(), region,
+                () -> AstraJdbcMetrics.time(AstraJdbcMetrics.BUNDLE_DOWNLOAD,
+                        () -> downloadSecureConnectBundle(jdbcUrl.getToken(), db, region)));
+        byte[] scb;
+        try {
+            String region = AstraJdbcMetrics.time(AstraJdbcMetrics.REGION_SELECTION,
+                    () -> REGION_SELECTOR.select(db, jdbcUrl.getRegion().orElse(null), bundles));
+            LOGGER.debug("Using region '{}' for database '{}'", region, db.getName());
+            scb = bundles.apply(region);
+        } catch (RuntimeException e) {
+            // The resolution may be outdated (database recreated, token revoked)
+            DATABASE_CACHE.invalidate(jdbcUrl.getToken(), jdbcUrl.getDatabaseId());
+            throw e;
         }
-        byte[] scb = dbClient.downloadDefaultSecureConnectBundle();
         CqlSessionBuilder sessionBuilder = CqlSession.builder()
-                .withKeyspace(jdbcUrl.getKeyspace())
+                .withConfigLoader(buildConfigLoader(jdbcUrl))
+                .withKeyspace(keyspace)
                 .withCloudSecureConnectBundle(new ByteArrayInputStream(scb));
+        for (SchemaChangeListener schemaListener : schemaListeners) {
+            sessionBuilder = sessionBuilder.addSchemaChangeListener(schemaListener);
+        }
+        Optional<Object> meterRegistry = AstraJdbcMetrics.getMeterRegistry();
+        if (meterRegistry.isPresent()) {
+            sessionBuilder = sessionBuilder.withMetricRegistry(meterRegistry.get());
+        }
         if (jdbcUrl.getUser() != null) {
             sessionBuilder = sessionBuilder.withAuthCredentials(jdbcUrl.getUser(), jdbcUrl.getPassword());
         } else {
@@ -83,6 +341,98 @@ public class AstraJdbcDriver implements java.sql.Driver {
         return sessionBuilder.build();
     }
 
+    /**
+     * Java driver configuration of a session: the request timeout, the compression, the speculative
+     * executions, the metrics and the <code>driver.</code> parameters of the url on top of the
+     * <code>application.conf</code> if any.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      configuration loader
+     */
+    static DriverConfigLoader buildConfigLoader(AstraJdbcUrl jdbcUrl) {
+        ProgrammaticDriverConfigLoaderBuilder config = DriverConfigLoader.programmaticBuilder()
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(jdbcUrl.getRequestTimeout()));
+        if (!AstraJdbcUrl.COMPRESSION_NONE.equals(jdbcUrl.getCompression())) {
+            // lz4-java or snappy-java must be on the classpath, the driver fails at init otherwise
+            config = config.withString(DefaultDriverOption.PROTOCOL_COMPRESSION, jdbcUrl.getCompression());
+        }
+        if (jdbcUrl.getSpeculativeDelay() > 0) {
+            // Only the idempotent statements are executed again, see IdempotenceClassifier. The
+            // executions are scheduled on the driver timer, its default 100 ms tick would delay them
+            long tick = Math.max(1, Math.min(jdbcUrl.getSpeculativeDelay() / 2, MAX_TIMER_TICK));
+            config = config
+                    .withString(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS,
+                            "ConstantSpeculativeExecutionPolicy")
+                    .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, jdbcUrl.getSpeculativeMaxExecutions())
+                    .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY,
+                            Duration.ofMillis(jdbcUrl.getSpeculativeDelay()))
+                    .withDuration(DefaultDriverOption.NETTY_TIMER_TICK_DURATION, Duration.ofMillis(tick));
+        }
+        if (AstraJdbcMetrics.isEnabled()) {
+            boolean throttled = jdbcUrl.getDriverOptions()
+                    .containsKey(DefaultDriverOption.REQUEST_THROTTLER_CLASS.getPath());
+            config = config
+                    .withStringList(DefaultDriverOption.METRICS_SESSION_ENABLED, throttled
+                            ? AstraJdbcMetrics.THROTTLED_SESSION_METRICS : AstraJdbcMetrics.SESSION_METRICS)
+                    .withStringList(DefaultDriverOption.METRICS_NODE_ENABLED, AstraJdbcMetrics.NODE_METRICS);
+        }
+        if (AstraJdbcMetrics.getMeterRegistry().isPresent()) {
+            config = config.withString(DefaultDriverOption.METRICS_FACTORY_CLASS, AstraJdbcMetrics.MICROMETER_FACTORY);
+        }
+        for (Map.Entry<String, String> option : jdbcUrl.getDriverOptions().entrySet()) {
+            String path = option.getKey();
+            if (!KNOWN_DRIVER_OPTIONS.contains(path) && !path.startsWith("profiles.")) {
+                LOGGER.warn("Unknown driver option '{}', it is passed to the driver as is", path);
+            }
+            // Values are converted to the expected type (number, duration, boolean) when read
+            DriverOption driverOption = () -> path;
+            String value = option.getValue().trim();
+            if (LIST_DRIVER_OPTIONS.contains(path) || value.startsWith("[") && value.endsWith("]")) {
+                config = config.withStringList(driverOption, parseList(value));
+            } else {
+                config = config.withString(driverOption, option.getValue());
+            }
+        }
+        return config.build();
+    }
+
+    /**
+     * Parse the value of a list option, <code>[a, b]</code> or <code>a, b</code>, items optionally quoted.
+     *
+     * @param value
+     *      value of the option
+     * @return
+     *      items
+     */
+    static List<String> parseList(String value) {
+        String items = value.trim();
+        if (items.startsWith("[") && items.endsWith("]")) {
+            items = items.substring(1, items.length() - 1).trim();
+        }
+        List<String> list = new ArrayList<>();
+        if (items.isEmpty()) {
+            return list;
+        }
+        for (String item : items.split(",")) {
+            item = item.trim();
+            if (item.length() > 1 && item.startsWith("\"") && item.endsWith("\"")) {
+                item = item.substring(1, item.length() - 1);
+            }
+            list.add(item);
+        }
+        return list;
+    }
+
+    private static Set<String> listDriverOptions() {
+        Config reference = ConfigFactory.defaultReference(AstraJdbcDriver.class.getClassLoader())
+                .getConfig(DefaultDriverConfigLoader.DEFAULT_ROOT_PATH);
+        return KNOWN_DRIVER_OPTIONS.stream()
+                .filter(path -> reference.hasPath(path) && reference.getValue(path).valueType() == ConfigValueType.LIST)
+                .collect(Collectors.toSet());
+    }
+
     /**
      * Creates a new connection to the database.
      * @param url the URL of the database to which to connect
@@ -96,16 +446,171 @@ public class AstraJdbcDriver implements java.sql.Driver {
      *     if a database access error occurs
      */
     public Connection connect(String url, Properties properties) throws SQLException {
-        AstraJdbcUrl jdbcUrl = new AstraJdbcUrl(url, properties);
-        return new CassandraConnection(this.cachedSessions.get(jdbcUrl),
-                jdbcUrl.getKeyspace(),
-                jdbcUrl.getConsistencyLevel(),
-                jdbcUrl.isDebug(),
-               null);
+        return connect(AstraJdbcUrl.parse(url, properties));
+    }
+
+    /**
+     * Creates a new connection from a parsed url, a lookup in the session cache.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      connection
+     * @throws SQLException
+     *      the session cannot be built or not in time
+     */
+    public AstraJdbcConnection connect(AstraJdbcUrl jdbcUrl) throws SQLException {
+        Timer.Context context = AstraJdbcMetrics.timer(AstraJdbcMetrics.CONNECT).time();
+        try {
+            CachedSession session = awaitSession(jdbcUrl);
+            // The session may have been closed after an eviction in between
+            while (!session.acquire()) {
+                session = awaitSession(jdbcUrl);
+            }
+            try {
+                return new AstraJdbcConnection(session, jdbcUrl);
+            } catch (RuntimeException e) {
+                session.release();
+                throw e;
+            }
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Build the session of a url in background and prepare statements on it.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @param statements
+     *      statements to prepare, kept warm as long as the session lives
+     * @return
+     *      completes when the session is ready and the statements prepared
+     */
+    public CompletableFuture<Void> prewarm(AstraJdbcUrl jdbcUrl, List<String> statements) {
+        return getSession(jdbcUrl).thenCompose(session -> {
+            ConnectionScopedSession scopedSession = new ConnectionScopedSession(session, jdbcUrl);
+            return CompletableFuture.allOf(statements.stream()
+                    .map(cql -> scopedSession.prepareAsync(cql)
+                            .thenAccept(session::keepWarm)
+                            .exceptionally(e -> {
+                                LOGGER.warn("Cannot prepare statement '{}': {}", cql, e.getMessage());
+                                return null;
+                            })
+                            .toCompletableFuture())
+                    .toArray(CompletableFuture[]::new));
+        });
+    }
+
+    /**
+     * Get the session for a url, shared across keyspaces when the protocol allows it.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      session, built in background when not in cache
+     */
+    CompletableFuture<CachedSession> getSession(AstraJdbcUrl jdbcUrl) {
+        return cachedSessions.get(SessionKey.shared(jdbcUrl)).thenCompose(session -> session.isPerRequestKeyspace()
+                // Statements cannot carry their keyspace, fall back to a session per keyspace
+                ? CompletableFuture.completedFuture(session)
+                : cachedSessions.get(SessionKey.perKeyspace(jdbcUrl)));
+    }
+
+    /**
+     * Wait for the session of a url, the build is shared with concurrent callers.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      session
+     * @throws SQLException
+     *      the session cannot be built or not in time
+     */
+    private CachedSession awaitSession(AstraJdbcUrl jdbcUrl) throws SQLException {
+        long timeout = DriverManager.getLoginTimeout() > 0
+                ? TimeUnit.SECONDS.toMillis(DriverManager.getLoginTimeout())
+                : Long.getLong(PROP_SESSION_BUILD_TIMEOUT, 120000);
+        try {
+            return getSession(jdbcUrl).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SQLTimeoutException("Session to database '" + jdbcUrl.getDatabaseId()
+                    + "' not available after " + timeout + "ms, it is still being built in background");
+        } catch (ExecutionException e) {
+            throw new SQLNonTransientConnectionException("Cannot open a session to database '"
+                    + jdbcUrl.getDatabaseId() + "': " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a session to database '"
+                    + jdbcUrl.getDatabaseId() + "'", e);
+        }
+    }
+
+    /**
+     * Gets the statistics of the session cache (hits, misses, evictions).
+     *
+     * @return
+     *      cache statistics
+     */
+    public CacheStats getSessionCacheStats() {
+        return cachedSessions.synchronous().stats();
+    }
+
+    /**
+     * Gets the statistics of the prepared statement caches of the sessions in cache.
+     *
+     * @return
+     *      cache statistics, summed over the sessions
+     */
+    public CacheStats getPreparedStatementCacheStats() {
+        CacheStats stats = CacheStats.empty();
+        for (CachedSession session : cachedSessions.synchronous().asMap().values()) {
+            stats = stats.plus(session.getPreparedStatements().getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the statistics of the result caches of the sessions in cache, the hit ratio among them.
+     *
+     * @return
+     *      cache statistics, summed over the sessions
+     */
+    public CacheStats getResultCacheStats() {
+        CacheStats stats = CacheStats.empty();
+        for (CachedSession session : cachedSessions.synchronous().asMap().values()) {
+            stats = stats.plus(session.getResults().getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the statistics of the metadata caches of the sessions in cache, by keyspace read.
+     *
+     * @return
+     *      cache statistics, summed over the sessions
+     */
+    public CacheStats getMetadataCacheStats() {
+        CacheStats stats = CacheStats.empty();
+        for (CachedSession session : cachedSessions.synchronous().asMap().values()) {
+            stats = stats.plus(session.getMetadata().getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the number of sessions in cache.
+     *
+     * @return
+     *      number of sessions
+     */
+    public long getSessionCacheSize() {
+        return cachedSessions.synchronous().estimatedSize();
     }
 
     public DriverPropertyInfo[] getPropertyInfo(String url, Properties properties) throws SQLException {
-        AstraJdbcUrl jdbcUrl = new AstraJdbcUrl(url, properties);
+        AstraJdbcUrl jdbcUrl = AstraJdbcUrl.parse(url, properties);
         List<DriverPropertyInfo> propertyInfoList = new ArrayList<>();
 
         DriverPropertyInfo token = new DriverPropertyInfo(AstraJdbcUrl.Keys.TOKEN.getKey(), jdbcUrl.getToken());
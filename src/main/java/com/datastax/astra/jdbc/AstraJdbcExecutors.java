@@ -0,0 +1,65 @@
+package com.datastax.astra.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for the blocking work done outside the caller threads: session builds, DevOps API calls,
+ * bundle downloads and region probes.
+ * <p>
+ * The jar is multi-release: on Java 21 and later the variant in <code>META-INF/versions/21</code>
+ * runs these tasks on virtual threads when <code>astra.jdbc.virtual-threads</code> is true. This
+ * version, for Java 8 to 20, always uses daemon platform threads.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.virtual-threads</code>: run the tasks on virtual threads, Java 21+ (default false)</li>
+ * </ul>
+ */
+public final class AstraJdbcExecutors {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcExecutors.class);
+
+    /** System property to run the blocking tasks on virtual threads. */
+    public static final String PROP_VIRTUAL_THREADS = "astra.jdbc.virtual-threads";
+
+    static {
+        if (Boolean.getBoolean(PROP_VIRTUAL_THREADS)) {
+            LOGGER.warn("{} is set but virtual threads need Java 21 or later, using platform threads",
+                    PROP_VIRTUAL_THREADS);
+        }
+    }
+
+    private AstraJdbcExecutors() {
+    }
+
+    /**
+     * Create an executor for blocking tasks, threads are created on demand.
+     *
+     * @param name
+     *      name of the threads
+     * @return
+     *      executor
+     */
+    public static ExecutorService newExecutor(String name) {
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Check if the blocking tasks run on virtual threads.
+     *
+     * @return
+     *      true when on virtual threads
+     */
+    public static boolean isVirtualThreads() {
+        return false;
+    }
+}
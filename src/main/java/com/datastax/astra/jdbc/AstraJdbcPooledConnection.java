@@ -0,0 +1,113 @@
+package com.datastax.astra.jdbc;
+
+import com.ing.data.cassandra.jdbc.PooledCassandraConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Physical connection of a pool.
+ * <p>
+ * Each call to {@link #getConnection()} returns a new handle, see {@link PooledConnectionHandle}.
+ * Closing the handle does not close the connection: listeners are notified instead so that the pool
+ * takes it back. Closing this object closes the connection.
+ */
+public class AstraJdbcPooledConnection extends PooledCassandraConnection {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcPooledConnection.class);
+
+    /** Physical connection. */
+    private final AstraJdbcConnection connection;
+
+    /** Listeners, notified when the connection is given back. */
+    private final Set<ConnectionEventListener> listeners = new CopyOnWriteArraySet<>();
+
+    /** Handle of the current borrower, null when not borrowed. */
+    private final AtomicReference<PooledConnectionHandle> handle = new AtomicReference<>();
+
+    /**
+     * Wrap a connection.
+     *
+     * @param connection
+     *      physical connection
+     */
+    public AstraJdbcPooledConnection(AstraJdbcConnection connection) {
+        super(connection);
+        this.connection = connection;
+    }
+
+    /**
+     * Gets a handle for a new borrower, the handle of the previous one is closed if still open.
+     *
+     * @return
+     *      connection, returned to the pool when closed
+     */
+    @Override
+    public AstraJdbcConnection getConnection() {
+        PooledConnectionHandle next = new PooledConnectionHandle(connection, this);
+        invalidate(handle.getAndSet(next));
+        return next;
+    }
+
+    /**
+     * Check the physical connection is still open.
+     *
+     * @return
+     *      true if closed
+     */
+    public boolean isPhysicallyClosed() {
+        return connection.isPhysicallyClosed();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws SQLException {
+        invalidate(handle.getAndSet(null));
+        connection.closePhysically();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addConnectionEventListener(ConnectionEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeConnectionEventListener(ConnectionEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notify listeners that the borrower closed the connection.
+     *
+     * @param closed
+     *      handle closed, ignored when no longer the handle of the current borrower
+     */
+    void fireConnectionClosed(PooledConnectionHandle closed) {
+        if (!handle.compareAndSet(closed, null)) {
+            return;
+        }
+        ConnectionEvent event = new ConnectionEvent(this);
+        for (ConnectionEventListener listener : listeners) {
+            listener.connectionClosed(event);
+        }
+    }
+
+    private static void invalidate(PooledConnectionHandle previous) {
+        if (previous != null) {
+            try {
+                previous.invalidate();
+            } catch (SQLException e) {
+                LOGGER.debug("Error closing the statements of a pooled connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -4,21 +4,60 @@ import com.datastax.oss.driver.api.core.ConsistencyLevel;
 import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Parsing URL as a bean.
+ * <p>
+ * Immutable once parsed, instances are shared through {@link #parse(String, Properties)}.
  */
 public class AstraJdbcUrl implements Serializable {
 
+    /** Serial version. */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Beginning for the URL
      */
     public static final String URL_START = "jdbc:astra://";
 
+    /**
+     * Prefix of the parameters passed to the Java driver configuration, for instance
+     * <code>driver.advanced.connection.pool.local.size=2</code>.
+     */
+    public static final String DRIVER_OPTION_PREFIX = "driver.";
+
+    /**
+     * No protocol compression, the default.
+     */
+    public static final String COMPRESSION_NONE = "none";
+
+    /**
+     * Batches executed by the jdbc wrapper.
+     */
+    public static final String BATCH_MODE_DEFAULT = "default";
+
+    /**
+     * Batches executed as concurrent requests, grouped by partition.
+     */
+    public static final String BATCH_MODE_PIPELINED = "pipelined";
+
+    /**
+     * Default bound of the pages fetched ahead, 16 MiB.
+     */
+    private static final long PREFETCH_MAX_BYTES_DEFAULT = 16L * 1024 * 1024;
+
     /**
      * Enforce Properties Key in URL
      */
@@ -29,7 +68,22 @@ public class AstraJdbcUrl implements Serializable {
         TOKEN("token"),
         PASSWORD("password"),
         REGION("region"),
-        REQUEST_TIMEOUT("request-timeout");
+        REQUEST_TIMEOUT("request-timeout"),
+        COMPRESSION("compression"),
+        BATCH_MODE("batch-mode"),
+        BATCH_MAX_IN_FLIGHT("batch-max-in-flight"),
+        BATCH_GROUP_SIZE("batch-group-size"),
+        PREFETCH_PAGES("prefetch-pages"),
+        PREFETCH_MAX_BYTES("prefetch-max-bytes"),
+        RESULT_CACHE_TTL("result-cache-ttl"),
+        RESULT_CACHE_TABLES("result-cache-tables"),
+        SLOW_QUERY_THRESHOLD("slow-query-threshold"),
+        SPECULATIVE_DELAY("speculative-delay"),
+        SPECULATIVE_MAX_EXECUTIONS("speculative-max-executions"),
+        AUTO_IDEMPOTENCE("auto-idempotence"),
+        PARALLEL_AGGREGATION("parallel-aggregation"),
+        PARALLEL_AGGREGATION_RETRIES("parallel-aggregation-retries");
+        private static final Keys[] VALUES = values();
         private final String key;
         Keys(String key) {
             this.key = key;
@@ -37,6 +91,71 @@ public class AstraJdbcUrl implements Serializable {
         public String getKey() {
             return key;
         }
+
+        /**
+         * Find a parameter from its key in the url.
+         *
+         * @param key
+         *      key as in the url, for instance <code>consistency-level</code>
+         * @return
+         *      parameter or null if unknown
+         */
+        public static Keys fromKey(String key) {
+            for (Keys k : VALUES) {
+                if (k.key.equals(key)) {
+                    return k;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Max number of parsed urls kept.
+     */
+    private static final int PARSE_CACHE_MAX_SIZE = 256;
+
+    /**
+     * Parsed urls, by url and properties.
+     */
+    private static final Map<ParseKey, AstraJdbcUrl> PARSE_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Key of the parse cache, with the values of the properties as read by the parser, defaults included.
+     */
+    private static final class ParseKey {
+
+        private final String url;
+
+        private final Map<String, String> properties;
+
+        private final int hash;
+
+        private ParseKey(String url, Properties properties) {
+            this.url = url;
+            this.properties = properties == null ? Collections.emptyMap() : new HashMap<>();
+            if (properties != null) {
+                for (String name : properties.stringPropertyNames()) {
+                    this.properties.put(name, properties.getProperty(name));
+                }
+            }
+            this.hash = 31 * Objects.hashCode(url) + this.properties.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ParseKey))
+                return false;
+            ParseKey that = (ParseKey) o;
+            return hash == that.hash && Objects.equals(url, that.url) && Objects.equals(properties, that.properties);
+        }
     }
 
     /**
@@ -84,9 +203,87 @@ public class AstraJdbcUrl implements Serializable {
      */
     private int requestTimeout = 10000;
 
+    /**
+     * Protocol compression: lz4, snappy or none
+     */
+    private String compression = COMPRESSION_NONE;
+
+    /**
+     * Execution of executeBatch: default or pipelined
+     */
+    private String batchMode = BATCH_MODE_DEFAULT;
+
+    /**
+     * Max requests in flight for a pipelined batch
+     */
+    private int batchMaxInFlight = 128;
+
+    /**
+     * Max statements of a partition grouped in one request for a pipelined batch
+     */
+    private int batchGroupSize = 10;
+
+    /**
+     * Pages of a result set fetched ahead of the one iterated, 0 to fetch on demand
+     */
+    private int prefetchPages = 1;
+
+    /**
+     * Max bytes of the pages fetched ahead and not iterated yet
+     */
+    private long prefetchMaxBytes = PREFETCH_MAX_BYTES_DEFAULT;
+
+    /**
+     * Time to live of the cached results in milliseconds, 0 when the results are not cached
+     */
+    private long resultCacheTtl = 0;
+
+    /**
+     * Tables of the cached results, all tables when empty
+     */
+    private final Set<String> resultCacheTables = new LinkedHashSet<>();
+
+    /**
+     * Latency in milliseconds above which a request is logged, 0 to log none
+     */
+    private long slowQueryThreshold = 0;
+
+    /**
+     * Delay in milliseconds before a speculative execution of an idempotent statement, 0 for none
+     */
+    private long speculativeDelay = 0;
+
+    /**
+     * Max executions of a statement with the speculative ones, the first one included
+     */
+    private int speculativeMaxExecutions = 2;
+
+    /**
+     * Mark the statements idempotent from their CQL when they do not set it
+     */
+    private boolean autoIdempotence;
+
+    /**
+     * Token range queries in flight for the aggregate queries, 0 to execute them as a single query
+     */
+    private int parallelAggregation = 0;
+
+    /**
+     * Retries of a failed token range query of an aggregate query
+     */
+    private int parallelAggregationRetries = 2;
+
+    /**
+     * Java driver configuration, path without the prefix to value
+     */
+    private final Map<String, String> driverOptions = new TreeMap<>();
+
     @Override
     public int hashCode() {
-        return Objects.hash(databaseId, region, consistencyLevel, keyspace, token, debug, requestTimeout);
+        return Objects.hash(databaseId, region, consistencyLevel, keyspace, token, debug, requestTimeout, compression,
+                batchMode, batchMaxInFlight, batchGroupSize, prefetchPages, prefetchMaxBytes, resultCacheTtl,
+                resultCacheTables, slowQueryThreshold, speculativeDelay, speculativeMaxExecutions, autoIdempotence,
+                parallelAggregation, parallelAggregationRetries, driverOptions);
     }
 
     @Override
@@ -96,7 +293,54 @@ public class AstraJdbcUrl implements Serializable {
         if (o == null || getClass() != o.getClass())
             return false;
         AstraJdbcUrl that = (AstraJdbcUrl) o;
-        return debug == that.debug && requestTimeout == that.requestTimeout && Objects.equals(databaseId, that.databaseId) && Objects.equals(region, that.region) && Objects.equals(consistencyLevel, that.consistencyLevel) && Objects.equals(keyspace, that.keyspace) && Objects.equals(token, that.token);
+        return debug == that.debug
+                && requestTimeout == that.requestTimeout
+                && Objects.equals(databaseId, that.databaseId)
+                && Objects.equals(region, that.region)
+                && Objects.equals(consistencyLevel, that.consistencyLevel)
+                && Objects.equals(keyspace, that.keyspace)
+                && Objects.equals(token, that.token)
+                && Objects.equals(compression, that.compression)
+                && Objects.equals(batchMode, that.batchMode)
+                && batchMaxInFlight == that.batchMaxInFlight
+                && batchGroupSize == that.batchGroupSize
+                && prefetchPages == that.prefetchPages
+                && prefetchMaxBytes == that.prefetchMaxBytes
+                && resultCacheTtl == that.resultCacheTtl
+                && Objects.equals(resultCacheTables, that.resultCacheTables)
+                && slowQueryThreshold == that.slowQueryThreshold
+                && speculativeDelay == that.speculativeDelay
+                && speculativeMaxExecutions == that.speculativeMaxExecutions
+                && autoIdempotence == that.autoIdempotence
+                && parallelAggregation == that.parallelAggregation
+                && parallelAggregationRetries == that.parallelAggregationRetries
+                && Objects.equals(driverOptions, that.driverOptions);
+    }
+
+    /**
+     * Parse a url, or get it from the cache when the same url and properties were already parsed.
+     *
+     * @param url
+     *      jdbc URL
+     * @param properties
+     *      optional Properties for arguments
+     * @return
+     *      parsed url, shared
+     * @throws SQLException
+     *      invalid url
+     */
+    public static AstraJdbcUrl parse(String url, Properties properties) throws SQLException {
+        ParseKey key = new ParseKey(url, properties);
+        AstraJdbcUrl parsed = PARSE_CACHE.get(key);
+        if (parsed == null) {
+            parsed = new AstraJdbcUrl(url, properties);
+            if (PARSE_CACHE.size() >= PARSE_CACHE_MAX_SIZE) {
+                // Urls are few in practice, a full cache means they are generated
+                PARSE_CACHE.clear();
+            }
+            PARSE_CACHE.put(key, parsed);
+        }
+        return parsed;
     }
 
     /**
@@ -120,83 +364,80 @@ public class AstraJdbcUrl implements Serializable {
     public AstraJdbcUrl(String url, Properties properties)
     throws SQLException {
         // Beginning of Url validation jdbc:astra://<database-id>/<keyspace>
-        if (url!= null && url.startsWith(URL_START)) {
-            url = url.replaceAll(URL_START, "");
-        } else {
+        if (url == null || !url.startsWith(URL_START)) {
             throw new SQLException("Astra Jdbc URL must start with " + URL_START);
         }
-        databaseId = url.substring(0, url.indexOf("/"));
+        int length = url.length();
+        int slash = -1;
+        int query = length;
+        for (int i = URL_START.length(); i < length; i++) {
+            char c = url.charAt(i);
+            if (c == '/' && slash < 0) {
+                slash = i;
+            } else if (c == '?') {
+                query = i;
+                break;
+            }
+        }
+        if (slash < 0) {
+            slash = query;
+        }
+        databaseId = decode(url, URL_START.length(), slash);
         if (databaseId.isEmpty()) {
             throw new SQLException("Astra Jdbc URL must contain a database identifier " +
                     URL_START + "<database>/<keyspace>");
         }
-        if (!url.contains("?")) {
-            keyspace = url.substring(url.indexOf("/") + 1);
-        } else {
-            keyspace = url.substring(url.indexOf("/") + 1, url.indexOf("?"));
-        }
+        keyspace = slash < query ? decode(url, slash + 1, query) : "";
         if (keyspace.isEmpty()) {
             throw new SQLException("Astra Jdbc URL must contain a keyspace " +
                     URL_START + "<database>/<keyspace>");
         }
-        // Parsing Url Parameters (if Any)
-        if (url.contains("?")) {
-            String params = url.substring(url.indexOf("?") + 1);
-            String[] paramsArray = params.split("&");
-            for (String param : paramsArray) {
-                String[] keyValue = param.split("=");
-                switch (Keys.valueOf(keyValue[0].toUpperCase())) {
-                    case REGION:
-                        this.region = keyValue[1];
-                        break;
-                    case CONSISTENCY_LEVEL:
-                        consistencyLevel = DefaultConsistencyLevel.valueOf(keyValue[1]);
-                        break;
-                    case TOKEN:
-                        this.token = keyValue[1];
-                        break;
-                    case DEBUG:
-                        debug = Boolean.parseBoolean(keyValue[1]);
-                        break;
-                    case REQUEST_TIMEOUT:
-                        requestTimeout = Integer.parseInt(keyValue[1]);
-                        break;
-                    case USER:
-                        user = keyValue[1];
-                        break;
-                    case PASSWORD:
-                        password = keyValue[1];
-                        break;
-                    default:
-                        throw new SQLException("Unknown parameter " + keyValue[0]);
+        // Parsing Url Parameters (if Any): key=value separated by '&'
+        int paramStart = query + 1;
+        while (paramStart < length) {
+            int paramEnd = url.indexOf('&', paramStart);
+            if (paramEnd < 0) {
+                paramEnd = length;
+            }
+            if (paramEnd > paramStart) {
+                int equals = url.indexOf('=', paramStart);
+                if (equals < 0 || equals > paramEnd) {
+                    equals = paramEnd;
                 }
+                setParameter(decode(url, paramStart, equals),
+                        equals < paramEnd ? decode(url, equals + 1, paramEnd) : "");
             }
+            paramStart = paramEnd + 1;
         }
         if (properties != null) {
-            // More likely to have those 2
-            if (properties.containsKey(Keys.USER.getKey())) {
+            // Read with getProperty, the defaults included. More likely to have those 2
+            if (properties.getProperty(Keys.USER.getKey()) != null) {
                 user = properties.getProperty(Keys.USER.getKey());
             }
-            if (properties.containsKey(Keys.PASSWORD.getKey())) {
+            if (properties.getProperty(Keys.PASSWORD.getKey()) != null) {
                 password = properties.getProperty(Keys.PASSWORD.getKey());
             }
             // Cherry on the cake
-            if (properties.containsKey(Keys.REGION.getKey())) {
+            if (properties.getProperty(Keys.REGION.getKey()) != null) {
                 region = properties.getProperty(Keys.REGION.getKey());
             }
-            if (properties.containsKey(Keys.TOKEN.getKey())) {
+            if (properties.getProperty(Keys.TOKEN.getKey()) != null) {
                 token = properties.getProperty(Keys.TOKEN.getKey());
             }
-            if (properties.containsKey(Keys.DEBUG.getKey())) {
-                debug = Boolean.parseBoolean(properties.getProperty(Keys.DEBUG.getKey()));
-            }
-            if (properties.containsKey(Keys.REQUEST_TIMEOUT.getKey())) {
-                requestTimeout = Integer.parseInt(properties.getProperty(Keys.REQUEST_TIMEOUT.getKey()));
+            // Parsed and checked as in the url
+            for (Keys key : new Keys[] {Keys.DEBUG, Keys.REQUEST_TIMEOUT, Keys.CONSISTENCY_LEVEL, Keys.COMPRESSION,
+                    Keys.BATCH_MODE, Keys.BATCH_MAX_IN_FLIGHT, Keys.BATCH_GROUP_SIZE,
+                    Keys.PREFETCH_PAGES, Keys.PREFETCH_MAX_BYTES, Keys.RESULT_CACHE_TTL, Keys.RESULT_CACHE_TABLES,
+                    Keys.SLOW_QUERY_THRESHOLD, Keys.SPECULATIVE_DELAY, Keys.SPECULATIVE_MAX_EXECUTIONS,
+                    Keys.AUTO_IDEMPOTENCE, Keys.PARALLEL_AGGREGATION, Keys.PARALLEL_AGGREGATION_RETRIES}) {
+                if (properties.getProperty(key.getKey()) != null) {
+                    setParameter(key.getKey(), properties.getProperty(key.getKey()));
+                }
             }
-            if (properties.containsKey(Keys.CONSISTENCY_LEVEL.getKey())) {
-                consistencyLevel = DefaultConsistencyLevel.valueOf(
-                        properties.getProperty(Keys.CONSISTENCY_LEVEL.getKey(),
-                                ConsistencyLevel.LOCAL_QUORUM.name()));
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith(DRIVER_OPTION_PREFIX)) {
+                    addDriverOption(key, properties.getProperty(key));
+                }
             }
         }
         if (token == null && password != null) {
@@ -207,28 +448,235 @@ public class AstraJdbcUrl implements Serializable {
         }
     }
 
+    private void setParameter(String key, String value) throws SQLException {
+        if (key.startsWith(DRIVER_OPTION_PREFIX)) {
+            addDriverOption(key, value);
+            return;
+        }
+        Keys parameter = Keys.fromKey(key);
+        if (parameter == null) {
+            throw new SQLException("Unknown parameter " + key);
+        }
+        try {
+            switch (parameter) {
+                case REGION:
+                    region = value;
+                    break;
+                case CONSISTENCY_LEVEL:
+                    consistencyLevel = DefaultConsistencyLevel.valueOf(value);
+                    break;
+                case TOKEN:
+                    token = value;
+                    break;
+                case DEBUG:
+                    debug = Boolean.parseBoolean(value);
+                    break;
+                case REQUEST_TIMEOUT:
+                    requestTimeout = Integer.parseInt(value);
+                    break;
+                case USER:
+                    user = value;
+                    break;
+                case PASSWORD:
+                    password = value;
+                    break;
+                case COMPRESSION:
+                    compression = parseCompression(value);
+                    break;
+                case BATCH_MODE:
+                    batchMode = parseBatchMode(value);
+                    break;
+                case BATCH_MAX_IN_FLIGHT:
+                    batchMaxInFlight = parsePositive(value);
+                    break;
+                case BATCH_GROUP_SIZE:
+                    batchGroupSize = parsePositive(value);
+                    break;
+                case PREFETCH_PAGES:
+                    prefetchPages = Integer.parseInt(value);
+                    if (prefetchPages < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                case PREFETCH_MAX_BYTES:
+                    prefetchMaxBytes = Long.parseLong(value);
+                    if (prefetchMaxBytes < 1) {
+                        throw new IllegalArgumentException("Expecting a positive number");
+                    }
+                    break;
+                case RESULT_CACHE_TTL:
+                    resultCacheTtl = Long.parseLong(value);
+                    if (resultCacheTtl < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                case RESULT_CACHE_TABLES:
+                    resultCacheTables.clear();
+                    for (String table : value.split(",")) {
+                        if (!table.trim().isEmpty()) {
+                            resultCacheTables.add(table.trim());
+                        }
+                    }
+                    break;
+                case SLOW_QUERY_THRESHOLD:
+                    slowQueryThreshold = Long.parseLong(value);
+                    if (slowQueryThreshold < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                case SPECULATIVE_DELAY:
+                    speculativeDelay = Long.parseLong(value);
+                    if (speculativeDelay < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                case SPECULATIVE_MAX_EXECUTIONS:
+                    speculativeMaxExecutions = parsePositive(value);
+                    break;
+                case AUTO_IDEMPOTENCE:
+                    autoIdempotence = Boolean.parseBoolean(value);
+                    break;
+                case PARALLEL_AGGREGATION:
+                    parallelAggregation = Integer.parseInt(value);
+                    if (parallelAggregation < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                case PARALLEL_AGGREGATION_RETRIES:
+                    parallelAggregationRetries = Integer.parseInt(value);
+                    if (parallelAggregationRetries < 0) {
+                        throw new IllegalArgumentException("Expecting a positive number or 0");
+                    }
+                    break;
+                default:
+                    throw new SQLException("Unknown parameter " + key);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Invalid value '" + value + "' for parameter " + key, e);
+        }
+    }
+
+    /**
+     * Decode the percent-encoded characters of a part of the url, '+' is kept as is as
+     * client secrets may contain it.
+     */
+    private static String decode(String url, int from, int to) throws SQLException {
+        int percent = url.indexOf('%', from);
+        if (percent < 0 || percent >= to) {
+            return url.substring(from, to);
+        }
+        StringBuilder sb = new StringBuilder(to - from);
+        sb.append(url, from, percent);
+        byte[] bytes = null;
+        int i = percent;
+        while (i < to) {
+            char c = url.charAt(i);
+            if (c != '%') {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            // Consecutive escapes form one UTF-8 sequence
+            if (bytes == null) {
+                bytes = new byte[(to - i) / 3];
+            }
+            int count = 0;
+            while (i < to && url.charAt(i) == '%') {
+                if (i + 2 >= to) {
+                    throw new SQLException("Invalid escape sequence in Astra Jdbc URL at position " + i);
+                }
+                int high = Character.digit(url.charAt(i + 1), 16);
+                int low = Character.digit(url.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    throw new SQLException("Invalid escape sequence in Astra Jdbc URL at position " + i);
+                }
+                bytes[count++] = (byte) ((high << 4) + low);
+                i += 3;
+            }
+            sb.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
     /**
-     * Generate Jdbc Connection URL.
+     * Percent-encode the characters of a value that {@link #decode(String, int, int)} would not read
+     * back as is: the separators of the url, '%', spaces and the non ASCII characters.
+     */
+    private static String encode(String value) {
+        StringBuilder sb = null;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            boolean escape = b <= ' ' || b >= 0x7F || "%&=?#/".indexOf(b) >= 0;
+            if (escape && sb == null) {
+                sb = new StringBuilder(bytes.length + 16);
+                sb.append(new String(bytes, 0, i, StandardCharsets.US_ASCII));
+            }
+            if (escape) {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit(b >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            } else if (sb != null) {
+                sb.append((char) b);
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    private static String parseCompression(String value) throws SQLException {
+        String lower = value.toLowerCase();
+        if (!"lz4".equals(lower) && !"snappy".equals(lower) && !COMPRESSION_NONE.equals(lower)) {
+            throw new SQLException("Invalid compression '" + value + "', expecting lz4, snappy or none");
+        }
+        return lower;
+    }
+
+    private static String parseBatchMode(String value) throws SQLException {
+        String lower = value.toLowerCase();
+        if (!BATCH_MODE_DEFAULT.equals(lower) && !BATCH_MODE_PIPELINED.equals(lower)) {
+            throw new SQLException("Invalid batch mode '" + value + "', expecting default or pipelined");
+        }
+        return lower;
+    }
+
+    private static int parsePositive(String value) {
+        int number = Integer.parseInt(value);
+        if (number < 1) {
+            throw new IllegalArgumentException("Expecting a positive number");
+        }
+        return number;
+    }
+
+    private void addDriverOption(String key, String value) throws SQLException {
+        String path = key.substring(DRIVER_OPTION_PREFIX.length());
+        if (path.isEmpty() || value.isEmpty()) {
+            throw new SQLException("Invalid driver parameter '" + key + "', expecting "
+                    + DRIVER_OPTION_PREFIX + "<option-path>=<value>");
+        }
+        driverOptions.put(path, value);
+    }
+
+    /**
+     * Generate Jdbc Connection URL, parsed back to an equal instance.
      * @return
      *      url
      */
     public String toUrl() {
         StringBuilder sb = new StringBuilder();
         sb.append(URL_START);
-        sb.append(databaseId);
+        sb.append(encode(databaseId));
         sb.append("/");
-        sb.append(keyspace);
+        sb.append(encode(keyspace));
         sb.append("?");
         if (token != null) {
             sb.append(Keys.TOKEN.getKey());
             sb.append("=");
-            sb.append(token);
+            sb.append(encode(token));
             sb.append("&");
         }
         if (region != null) {
             sb.append(Keys.REGION.getKey());
             sb.append("=");
-            sb.append(region);
+            sb.append(encode(region));
             sb.append("&");
         }
         if (consistencyLevel != null) {
@@ -240,22 +688,108 @@ public class AstraJdbcUrl implements Serializable {
         if (user != null) {
             sb.append(Keys.USER.getKey());
             sb.append("=");
-            sb.append(user);
+            sb.append(encode(user));
             sb.append("&");
         }
         if (password != null) {
             sb.append(Keys.PASSWORD.getKey());
             sb.append("=");
-            sb.append(password);
+            sb.append(encode(password));
             sb.append("&");
         }
-        sb.append("debug=");
         sb.append(Keys.DEBUG.getKey());
+        sb.append("=");
         sb.append(debug);
         sb.append("&");
         sb.append(Keys.REQUEST_TIMEOUT.getKey());
         sb.append("=");
         sb.append(requestTimeout);
+        if (!COMPRESSION_NONE.equals(compression)) {
+            sb.append("&");
+            sb.append(Keys.COMPRESSION.getKey());
+            sb.append("=");
+            sb.append(compression);
+        }
+        if (!BATCH_MODE_DEFAULT.equals(batchMode)) {
+            sb.append("&");
+            sb.append(Keys.BATCH_MODE.getKey());
+            sb.append("=");
+            sb.append(batchMode);
+            sb.append("&");
+            sb.append(Keys.BATCH_MAX_IN_FLIGHT.getKey());
+            sb.append("=");
+            sb.append(batchMaxInFlight);
+            sb.append("&");
+            sb.append(Keys.BATCH_GROUP_SIZE.getKey());
+            sb.append("=");
+            sb.append(batchGroupSize);
+        }
+        if (prefetchPages != 1) {
+            sb.append("&");
+            sb.append(Keys.PREFETCH_PAGES.getKey());
+            sb.append("=");
+            sb.append(prefetchPages);
+        }
+        if (prefetchMaxBytes != PREFETCH_MAX_BYTES_DEFAULT) {
+            sb.append("&");
+            sb.append(Keys.PREFETCH_MAX_BYTES.getKey());
+            sb.append("=");
+            sb.append(prefetchMaxBytes);
+        }
+        if (resultCacheTtl > 0) {
+            sb.append("&");
+            sb.append(Keys.RESULT_CACHE_TTL.getKey());
+            sb.append("=");
+            sb.append(resultCacheTtl);
+        }
+        if (!resultCacheTables.isEmpty()) {
+            sb.append("&");
+            sb.append(Keys.RESULT_CACHE_TABLES.getKey());
+            sb.append("=");
+            sb.append(encode(String.join(",", resultCacheTables)));
+        }
+        if (slowQueryThreshold > 0) {
+            sb.append("&");
+            sb.append(Keys.SLOW_QUERY_THRESHOLD.getKey());
+            sb.append("=");
+            sb.append(slowQueryThreshold);
+        }
+        if (speculativeDelay > 0) {
+            sb.append("&");
+            sb.append(Keys.SPECULATIVE_DELAY.getKey());
+            sb.append("=");
+            sb.append(speculativeDelay);
+        }
+        if (speculativeMaxExecutions != 2) {
+            sb.append("&");
+            sb.append(Keys.SPECULATIVE_MAX_EXECUTIONS.getKey());
+            sb.append("=");
+            sb.append(speculativeMaxExecutions);
+        }
+        if (autoIdempotence) {
+            sb.append("&");
+            sb.append(Keys.AUTO_IDEMPOTENCE.getKey());
+            sb.append("=true");
+        }
+        if (parallelAggregation > 0) {
+            sb.append("&");
+            sb.append(Keys.PARALLEL_AGGREGATION.getKey());
+            sb.append("=");
+            sb.append(parallelAggregation);
+        }
+        if (parallelAggregationRetries != 2) {
+            sb.append("&");
+            sb.append(Keys.PARALLEL_AGGREGATION_RETRIES.getKey());
+            sb.append("=");
+            sb.append(parallelAggregationRetries);
+        }
+        for (Map.Entry<String, String> option : driverOptions.entrySet()) {
+            sb.append("&");
+            sb.append(DRIVER_OPTION_PREFIX);
+            sb.append(encode(option.getKey()));
+            sb.append("=");
+            sb.append(encode(option.getValue()));
+        }
         return sb.toString();
     }
 
@@ -339,4 +873,139 @@ public class AstraJdbcUrl implements Serializable {
     public String getPassword() {
         return password;
     }
+
+    /**
+     * Gets compression
+     *
+     * @return value of compression, lz4, snappy or none
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * Gets batchMode
+     *
+     * @return value of batchMode, default or pipelined
+     */
+    public String getBatchMode() {
+        return batchMode;
+    }
+
+    /**
+     * Gets batchMaxInFlight
+     *
+     * @return value of batchMaxInFlight
+     */
+    public int getBatchMaxInFlight() {
+        return batchMaxInFlight;
+    }
+
+    /**
+     * Gets batchGroupSize
+     *
+     * @return value of batchGroupSize
+     */
+    public int getBatchGroupSize() {
+        return batchGroupSize;
+    }
+
+    /**
+     * Gets prefetchPages
+     *
+     * @return value of prefetchPages, 0 when the pages are fetched on demand
+     */
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Gets prefetchMaxBytes
+     *
+     * @return value of prefetchMaxBytes
+     */
+    public long getPrefetchMaxBytes() {
+        return prefetchMaxBytes;
+    }
+
+    /**
+     * Gets resultCacheTtl
+     *
+     * @return value of resultCacheTtl in milliseconds, 0 when the results are not cached
+     */
+    public long getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    /**
+     * Gets resultCacheTables
+     *
+     * @return value of resultCacheTables, CQL names of the tables, all tables when empty
+     */
+    public Set<String> getResultCacheTables() {
+        return Collections.unmodifiableSet(resultCacheTables);
+    }
+
+    /**
+     * Gets slowQueryThreshold
+     *
+     * @return value of slowQueryThreshold in milliseconds, 0 when no request is logged
+     */
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * Gets speculativeDelay
+     *
+     * @return value of speculativeDelay in milliseconds, 0 when no speculative execution is started
+     */
+    public long getSpeculativeDelay() {
+        return speculativeDelay;
+    }
+
+    /**
+     * Gets speculativeMaxExecutions
+     *
+     * @return value of speculativeMaxExecutions, the first execution included
+     */
+    public int getSpeculativeMaxExecutions() {
+        return speculativeMaxExecutions;
+    }
+
+    /**
+     * Gets autoIdempotence
+     *
+     * @return value of autoIdempotence
+     */
+    public boolean isAutoIdempotence() {
+        return autoIdempotence;
+    }
+
+    /**
+     * Gets parallelAggregation
+     *
+     * @return value of parallelAggregation, 0 when the aggregate queries are executed as a single query
+     */
+    public int getParallelAggregation() {
+        return parallelAggregation;
+    }
+
+    /**
+     * Gets parallelAggregationRetries
+     *
+     * @return value of parallelAggregationRetries
+     */
+    public int getParallelAggregationRetries() {
+        return parallelAggregationRetries;
+    }
+
+    /**
+     * Gets driverOptions
+     *
+     * @return value of driverOptions, option path without the prefix to value
+     */
+    public Map<String, String> getDriverOptions() {
+        return Collections.unmodifiableMap(driverOptions);
+    }
 }
@@ -0,0 +1,35 @@
+package com.datastax.astra.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Full table scan split into token ranges queried concurrently, obtained with
+ * <code>statement.unwrap(AstraScanStatement.class)</code>, see {@link TokenRangeScan}.
+ * <p>
+ * The same scan is run by <code>executeQuery</code> for a query starting with the hint
+ * <code>/*+ PARALLEL_SCAN [(parallelism [, splits])] [ORDERED] *&#47;</code>, the query being sent
+ * as is when it cannot be split.
+ */
+public interface AstraScanStatement {
+
+    /**
+     * Execute a query as concurrent range queries, with the fetch size, consistency level and timeout
+     * of the statement.
+     *
+     * @param cql
+     *      <code>SELECT ... FROM table [WHERE ...] [ALLOW FILTERING]</code>
+     * @param parallelism
+     *      range queries in flight, {@link TokenRangeScan#DEFAULT_PARALLELISM} when 0
+     * @param splits
+     *      min number of ranges, four by range query in flight when 0
+     * @param ordered
+     *      true to return the rows in token order, as a single query would, false to return each page
+     *      as soon as received
+     * @return
+     *      result set reading the rows as they are received
+     * @throws SQLException
+     *      statement is closed, query cannot be split or unknown table
+     */
+    ResultSet executeScan(String cql, int parallelism, int splits, boolean ordered) throws SQLException;
+}
@@ -0,0 +1,206 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import com.datastax.astra.jdbc.cache.PreparedStatementCache;
+import com.datastax.astra.jdbc.cache.ResultCache;
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.internal.core.DefaultProtocolFeature;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A session held by the driver cache and shared by connections.
+ * <p>
+ * Each open connection holds a reference. Once the entry is evicted from the cache the session is
+ * closed when the last connection using it is closed.
+ */
+public class CachedSession {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedSession.class);
+
+    /** Reference count marking a closed session. */
+    private static final int CLOSED = -1;
+
+    /** Underlying session. */
+    private final CqlSession session;
+
+    /** Label for logs. */
+    private final String name;
+
+    /** Number of connections using the session, or CLOSED. */
+    private final AtomicInteger references = new AtomicInteger();
+
+    /** Set when removed from the cache. */
+    private volatile boolean evicted;
+
+    /** Statements prepared at warm up, kept referenced so the driver keeps them in its cache. */
+    private final Queue<PreparedStatement> warmStatements = new ConcurrentLinkedQueue<>();
+
+    /** Whether statements can carry their own keyspace with the negotiated protocol. */
+    private final boolean perRequestKeyspace;
+
+    /** Statements prepared by the connections, registered as schema listener of the session. */
+    private final PreparedStatementCache preparedStatements;
+
+    /** Results cached by the connections, registered as schema listener of the session. */
+    private final ResultCache results;
+
+    /** Schema rows read by the connections, registered as schema listener of the session. */
+    private final MetadataCache metadata;
+
+    /** MBean of the session metrics, null when not published. */
+    private final ObjectName metricsName;
+
+    /**
+     * Wrap a session.
+     *
+     * @param name
+     *      label for logs
+     * @param session
+     *      session
+     * @param preparedStatements
+     *      statements prepared on the session
+     * @param results
+     *      results cached on the session
+     * @param metadata
+     *      schema rows cached on the session
+     */
+    CachedSession(String name, CqlSession session, PreparedStatementCache preparedStatements, ResultCache results,
+            MetadataCache metadata) {
+        this.name = name;
+        this.session = session;
+        this.preparedStatements = preparedStatements;
+        this.results = results;
+        this.metadata = metadata;
+        InternalDriverContext context = (InternalDriverContext) session.getContext();
+        this.perRequestKeyspace = context.getProtocolVersionRegistry()
+                .supports(context.getProtocolVersion(), DefaultProtocolFeature.PER_REQUEST_KEYSPACE);
+        this.metricsName = AstraJdbcMetrics.registerSession(name, session);
+    }
+
+    /**
+     * Hold a reference to the session.
+     *
+     * @return
+     *      false if the session is already closed
+     */
+    boolean acquire() {
+        int current;
+        do {
+            current = references.get();
+            if (current == CLOSED) {
+                return false;
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Release a reference, closing the session if evicted and no longer used.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0 && evicted) {
+            closeIfUnused();
+        }
+    }
+
+    /**
+     * Keep a statement prepared at warm up.
+     *
+     * @param statement
+     *      prepared statement
+     */
+    void keepWarm(PreparedStatement statement) {
+        warmStatements.add(statement);
+    }
+
+    /**
+     * Called when the entry leaves the cache.
+     */
+    void evict() {
+        evicted = true;
+        closeIfUnused();
+    }
+
+    private void closeIfUnused() {
+        if (references.compareAndSet(0, CLOSED)) {
+            LOGGER.info("Closing session for db '{}'", name);
+            AstraJdbcMetrics.unregister(metricsName);
+            session.closeAsync();
+        } else {
+            LOGGER.debug("Session for db '{}' evicted, still used by {} connection(s)", name, references.get());
+        }
+    }
+
+    /**
+     * Gets session
+     *
+     * @return value of session
+     */
+    public CqlSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the prepared statements shared by the connections.
+     *
+     * @return value of preparedStatements
+     */
+    public PreparedStatementCache getPreparedStatements() {
+        return preparedStatements;
+    }
+
+    /**
+     * Gets the results cached by the connections.
+     *
+     * @return value of results
+     */
+    public ResultCache getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the schema rows read by the connections.
+     *
+     * @return value of metadata
+     */
+    public MetadataCache getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Gets the number of connections using the session.
+     *
+     * @return value of references
+     */
+    public int getReferences() {
+        return Math.max(0, references.get());
+    }
+
+    /**
+     * Gets perRequestKeyspace
+     *
+     * @return value of perRequestKeyspace
+     */
+    public boolean isPerRequestKeyspace() {
+        return perRequestKeyspace;
+    }
+
+    /**
+     * Gets evicted
+     *
+     * @return value of evicted
+     */
+    public boolean isEvicted() {
+        return evicted;
+    }
+}
@@ -0,0 +1,320 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.cache.PreparedStatementCache;
+import com.datastax.astra.jdbc.cache.ResultCache;
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import com.datastax.astra.jdbc.metrics.StatementMetrics;
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metrics.Metrics;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.cql.ResultSets;
+import com.datastax.oss.driver.internal.core.util.concurrent.BlockingOperation;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * View of a shared session for one connection.
+ * <p>
+ * The physical session is shared by all connections to a database with the same credentials.
+ * Closing this view does not close the shared session.
+ * <p>
+ * The keyspace, consistency level and request timeout of the connection are applied to each
+ * statement that does not set them explicitly, and its idempotence from its CQL, see
+ * {@link IdempotenceClassifier}.
+ * <p>
+ * Statements prepared from a query string are shared with the other connections of the session.
+ * With a time to live set, the results of the prepared SELECTs are cached on the shared session,
+ * see {@link ResultCache}.
+ * <p>
+ * The next pages of a result set are fetched while the application iterates the current one, see
+ * {@link PrefetchingAsyncResultSet}, except for the range queries of the scans, see
+ * {@link #withoutPrefetch(CqlSession)}.
+ * <p>
+ * Each request is timed by statement and logged above the slow query threshold, see
+ * {@link StatementMetrics}.
+ */
+class ConnectionScopedSession implements CqlSession {
+
+    /** Shared session. */
+    private final CqlSession delegate;
+
+    /** Keyspace of the connection, null when the shared session is bound to it already. */
+    private final CqlIdentifier keyspace;
+
+    /** Consistency level of the connection. */
+    private final ConsistencyLevel consistencyLevel;
+
+    /** Request timeout of the connection. */
+    private final Duration requestTimeout;
+
+    /** Set the idempotence of the statements from their CQL. */
+    private final boolean autoIdempotence;
+
+    /** Statements prepared on the shared session. */
+    private final PreparedStatementCache preparedStatements;
+
+    /** Pages fetched ahead of the one iterated, 0 to fetch on demand. */
+    private final int prefetchPages;
+
+    /** Max bytes of the pages fetched ahead. */
+    private final long prefetchMaxBytes;
+
+    /** Results cached on the shared session. */
+    private final ResultCache results;
+
+    /** Time to live of the results of the connection, null when not cached. */
+    private final Duration resultCacheTtl;
+
+    /** Internal names of the tables of the cached results, all tables when empty. */
+    private final Set<String> resultCacheTables;
+
+    /** Latencies by statement. */
+    private final StatementMetrics statementMetrics;
+
+    /** Latency above which a request is logged, null to log none. */
+    private final Duration slowQueryThreshold;
+
+    /**
+     * Create the view.
+     *
+     * @param cachedSession
+     *      shared session
+     * @param jdbcUrl
+     *      connection parameters
+     */
+    ConnectionScopedSession(CachedSession cachedSession, AstraJdbcUrl jdbcUrl) {
+        this.delegate = cachedSession.getSession();
+        this.keyspace = cachedSession.isPerRequestKeyspace()
+                ? CqlIdentifier.fromCql(jdbcUrl.getKeyspace()) : null;
+        this.consistencyLevel = jdbcUrl.getConsistencyLevel();
+        this.requestTimeout = Duration.ofMillis(jdbcUrl.getRequestTimeout());
+        this.autoIdempotence = jdbcUrl.isAutoIdempotence();
+        this.preparedStatements = cachedSession.getPreparedStatements();
+        this.prefetchPages = jdbcUrl.getPrefetchPages();
+        this.prefetchMaxBytes = jdbcUrl.getPrefetchMaxBytes();
+        this.results = cachedSession.getResults();
+        this.resultCacheTtl = jdbcUrl.getResultCacheTtl() > 0 ? Duration.ofMillis(jdbcUrl.getResultCacheTtl()) : null;
+        Set<String> tables = new HashSet<>();
+        for (String table : jdbcUrl.getResultCacheTables()) {
+            tables.add(CqlIdentifier.fromCql(table).asInternal());
+        }
+        this.resultCacheTables = Collections.unmodifiableSet(tables);
+        this.statementMetrics = AstraJdbcMetrics.getStatementMetrics();
+        this.slowQueryThreshold = jdbcUrl.getSlowQueryThreshold() > 0
+                ? Duration.ofMillis(jdbcUrl.getSlowQueryThreshold()) : null;
+    }
+
+    /**
+     * Apply the connection options to a statement when not set.
+     *
+     * @param statement
+     *      statement
+     * @return
+     *      statement with the connection options
+     */
+    Statement<?> applyOptions(Statement<?> statement) {
+        if (keyspace != null) {
+            if (statement instanceof SimpleStatement && ((SimpleStatement) statement).getKeyspace() == null) {
+                statement = ((SimpleStatement) statement).setKeyspace(keyspace);
+            } else if (statement instanceof BatchStatement && ((BatchStatement) statement).getKeyspace() == null) {
+                statement = ((BatchStatement) statement).setKeyspace(keyspace);
+            }
+        }
+        if (statement.getConsistencyLevel() == null) {
+            statement = statement.setConsistencyLevel(consistencyLevel);
+        }
+        if (statement.getTimeout() == null) {
+            statement = statement.setTimeout(requestTimeout);
+        }
+        if (autoIdempotence && statement.isIdempotent() == null) {
+            Boolean idempotent = IdempotenceClassifier.isIdempotent(statement);
+            if (idempotent != null) {
+                statement = statement.setIdempotent(idempotent);
+            }
+        }
+        return statement;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <RequestT extends Request, ResultT> ResultT execute(RequestT request, GenericType<ResultT> resultType) {
+        if (request instanceof Statement) {
+            Statement<?> statement = applyOptions((Statement<?>) request);
+            if (Statement.ASYNC.equals(resultType)) {
+                return (ResultT) executeCaching(statement, prefetchPages);
+            }
+            if (Statement.SYNC.equals(resultType)) {
+                // As the synchronous execution of the driver, on top of the asynchronous one
+                BlockingOperation.checkNotDriverThread();
+                AsyncResultSet firstPage = CompletableFutures.getUninterruptibly(
+                        executeCaching(statement, prefetchPages));
+                return (ResultT) ResultSets.newInstance(firstPage);
+            }
+            request = (RequestT) statement;
+        }
+        return delegate.execute(request, resultType);
+    }
+
+    /**
+     * Execution of statements with the options of a connection, each next page fetched when asked: the
+     * range queries bound their pages in flight themselves.
+     *
+     * @param session
+     *      session of the connection
+     * @return
+     *      execution of the first page of a statement
+     */
+    static Function<Statement<?>, CompletionStage<AsyncResultSet>> withoutPrefetch(CqlSession session) {
+        if (session instanceof ConnectionScopedSession) {
+            ConnectionScopedSession scoped = (ConnectionScopedSession) session;
+            return statement -> scoped.executeCaching(scoped.applyOptions(statement), 0);
+        }
+        return session::executeAsync;
+    }
+
+    /**
+     * Execute a statement, through the result cache of the shared session.
+     */
+    private CompletionStage<AsyncResultSet> executeCaching(Statement<?> statement, int prefetch) {
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> executor =
+                request -> executePrefetching(request, prefetch);
+        if (resultCacheTtl != null) {
+            return results.execute(statement, resultCacheTtl, resultCacheTables, executor);
+        }
+        return results.executeOther(statement, executor);
+    }
+
+    /**
+     * Execute a statement, with the next pages fetched ahead and each page timed.
+     */
+    private CompletionStage<AsyncResultSet> executePrefetching(Statement<?> statement, int prefetch) {
+        CompletionStage<AsyncResultSet> firstPage = statementMetrics.execute(statement, slowQueryThreshold,
+                request -> delegate.execute(request, Statement.ASYNC));
+        return prefetch > 0
+                ? PrefetchingAsyncResultSet.prefetch(firstPage, prefetch, prefetchMaxBytes)
+                : firstPage;
+    }
+
+    /**
+     * Prepare a query, or take it from the statements already prepared on the shared session.
+     */
+    @Override
+    public PreparedStatement prepare(String query) {
+        return CompletableFutures.getUninterruptibly(prepareAsync(query));
+    }
+
+    /**
+     * Prepare a query, or take it from the statements already prepared on the shared session.
+     */
+    @Override
+    public CompletionStage<PreparedStatement> prepareAsync(String query) {
+        return preparedStatements.prepare(keyspace, query, delegate::prepareAsync);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PreparedStatement prepare(SimpleStatement statement) {
+        return delegate.prepare((SimpleStatement) applyOptions(statement));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<PreparedStatement> prepareAsync(SimpleStatement statement) {
+        return delegate.prepareAsync((SimpleStatement) applyOptions(statement));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<CqlIdentifier> getKeyspace() {
+        return keyspace != null ? Optional.of(keyspace) : delegate.getKeyspace();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Metadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSchemaMetadataEnabled() {
+        return delegate.isSchemaMetadataEnabled();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Metadata> setSchemaMetadataEnabled(Boolean newValue) {
+        return delegate.setSchemaMetadataEnabled(newValue);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Metadata> refreshSchemaAsync() {
+        return delegate.refreshSchemaAsync();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Boolean> checkSchemaAgreementAsync() {
+        return delegate.checkSchemaAgreementAsync();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DriverContext getContext() {
+        return delegate.getContext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Metrics> getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Void> closeFuture() {
+        return delegate.closeFuture();
+    }
+
+    /**
+     * The shared session is closed by the driver cache.
+     */
+    @Override
+    public CompletionStage<Void> closeAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * The shared session is closed by the driver cache.
+     */
+    @Override
+    public CompletionStage<Void> forceCloseAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
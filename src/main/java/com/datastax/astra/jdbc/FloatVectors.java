@@ -0,0 +1,122 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.VectorType;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+
+/**
+ * Binary form of the <code>vector&lt;float, n&gt;</code> columns: the n floats, 4 bytes each, big-endian.
+ * <p>
+ * Vectors are copied in bulk from or to a <code>float[]</code> or a {@link FloatBuffer}, without the
+ * boxed values and the <code>List&lt;Float&gt;</code> of a <code>CqlVector</code>.
+ */
+public final class FloatVectors {
+
+    private FloatVectors() {
+    }
+
+    /**
+     * Check if a column is a vector of floats.
+     *
+     * @param type
+     *      type of the column
+     * @return
+     *      true for <code>vector&lt;float, n&gt;</code>
+     */
+    public static boolean isFloatVector(DataType type) {
+        return type instanceof VectorType && DataTypes.FLOAT.equals(((VectorType) type).getElementType());
+    }
+
+    /**
+     * Encode a vector.
+     *
+     * @param vector
+     *      values
+     * @param type
+     *      type of the column
+     * @return
+     *      binary form
+     * @throws SQLException
+     *      dimensions of the column not matched
+     */
+    public static ByteBuffer encode(float[] vector, VectorType type) throws SQLException {
+        return encode(FloatBuffer.wrap(vector), type);
+    }
+
+    /**
+     * Encode a vector, from the position to the limit of the buffer. The buffer position is unchanged.
+     *
+     * @param vector
+     *      values
+     * @param type
+     *      type of the column
+     * @return
+     *      binary form
+     * @throws SQLException
+     *      dimensions of the column not matched
+     */
+    public static ByteBuffer encode(FloatBuffer vector, VectorType type) throws SQLException {
+        checkDimensions(vector.remaining(), type);
+        ByteBuffer bytes = ByteBuffer.allocate(vector.remaining() * Float.BYTES);
+        bytes.asFloatBuffer().put(vector.duplicate());
+        return bytes;
+    }
+
+    /**
+     * Decode a vector.
+     *
+     * @param bytes
+     *      binary form, null for a null vector
+     * @param type
+     *      type of the column
+     * @return
+     *      values, null for a null vector
+     * @throws SQLException
+     *      dimensions of the column not matched
+     */
+    public static float[] decode(ByteBuffer bytes, VectorType type) throws SQLException {
+        FloatBuffer values = view(bytes, type);
+        if (values == null) {
+            return null;
+        }
+        float[] vector = new float[values.remaining()];
+        values.get(vector);
+        return vector;
+    }
+
+    /**
+     * Read-only view of a vector, without copy.
+     *
+     * @param bytes
+     *      binary form, null for a null vector
+     * @param type
+     *      type of the column
+     * @return
+     *      values, null for a null vector
+     * @throws SQLException
+     *      dimensions of the column not matched
+     */
+    public static FloatBuffer view(ByteBuffer bytes, VectorType type) throws SQLException {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.remaining() != type.getDimensions() * Float.BYTES) {
+            throw new SQLDataException("Vector of " + bytes.remaining() + " bytes for a column of type "
+                    + type.asCql(false, true));
+        }
+        // duplicate() is big-endian whatever the order of the buffer
+        return bytes.duplicate().asReadOnlyBuffer().asFloatBuffer();
+    }
+
+    private static void checkDimensions(int dimensions, VectorType type) throws SQLException {
+        if (dimensions != type.getDimensions()) {
+            throw new SQLDataException("Vector of " + dimensions + " dimensions for a column of type "
+                    + type.asCql(false, true));
+        }
+    }
+}
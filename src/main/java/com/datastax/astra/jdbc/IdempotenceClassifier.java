@@ -0,0 +1,176 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotence of a statement from its CQL, for the statements that do not set it: the driver only
+ * retries and speculates on idempotent statements.
+ * <ul>
+ *     <li><code>SELECT</code> is idempotent</li>
+ *     <li><code>INSERT</code>, <code>UPDATE</code> and <code>DELETE</code> are idempotent, unless
+ *     lightweight transactions (<code>IF</code>), assignments from the column itself as counters
+ *     and list appends (<code>c = c + ?</code>, <code>l = ? + l</code>), list elements deleted by
+ *     index (<code>DELETE l[0]</code>) or calls to <code>now()</code>, <code>uuid()</code> and the
+ *     other functions returning a new value on each call</li>
+ *     <li>a batch is idempotent when all its statements are, and not a counter batch</li>
+ *     <li>other statements, schema changes for instance, are left to the driver default</li>
+ * </ul>
+ * Set and map additions are classified as not idempotent too, as the column types are not known.
+ */
+public final class IdempotenceClassifier {
+
+    /** String literals and comments. */
+    static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|--[^\\n]*|//[^\\n]*|/\\*.*?\\*/",
+            Pattern.DOTALL);
+
+    /** Lightweight transaction condition. */
+    private static final Pattern CONDITION = Pattern.compile("\\bIF\\b", Pattern.CASE_INSENSITIVE);
+
+    /** Assignment from the column itself: counter, list append or prepend. */
+    private static final Pattern SELF_ASSIGNMENT = Pattern.compile(
+            "(\\b\\w+\\b|\"(?:[^\"]|\"\")+\")\\s*=\\s*(?:\\1\\s*[-+]|[^,=]*?\\+\\s*\\1(?![\\w\"]))",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Compound assignment, {@code c += ?} or {@code c -= ?}: counter, list, set or map update. */
+    private static final Pattern COMPOUND_ASSIGNMENT = Pattern.compile("[\\w\"]\\s*[-+]=");
+
+    /** Element deleted by index. */
+    private static final Pattern DELETED_ELEMENT = Pattern.compile("^DELETE\\s[^;]*?\\[[^;]*?\\bFROM\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Counter batch. */
+    private static final Pattern COUNTER_BATCH = Pattern.compile("^BEGIN\\s+COUNTER\\s+BATCH\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Timestamp of a batch, before its first statement. */
+    private static final Pattern BATCH_TIMESTAMP = Pattern.compile("^USING\\s+TIMESTAMP\\s+\\S+\\s*",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Functions returning a new value on each call. */
+    private static final Pattern NON_DETERMINISTIC = Pattern.compile(
+            "\\b(?:now|uuid|currenttimestamp|currentdate|currenttime|currenttimeuuid)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Max characters of the queries kept classified. */
+    private static final int MAX_QUERY_CHARS = 4 * 1024 * 1024;
+
+    /** Classification by query, not parsed again for each execution, bounded by the query lengths. */
+    private static final Cache<String, Optional<Boolean>> QUERIES = Caffeine.newBuilder()
+            .maximumWeight(MAX_QUERY_CHARS)
+            .weigher((String query, Optional<Boolean> idempotent) -> query.length())
+            .build();
+
+    private IdempotenceClassifier() {
+    }
+
+    /**
+     * Idempotence of a statement.
+     *
+     * @param statement
+     *      statement
+     * @return
+     *      idempotence, null when unknown
+     */
+    public static Boolean isIdempotent(Statement<?> statement) {
+        if (statement instanceof BoundStatement) {
+            return isIdempotent(((BoundStatement) statement).getPreparedStatement().getQuery());
+        }
+        if (statement instanceof SimpleStatement) {
+            return isIdempotent(((SimpleStatement) statement).getQuery());
+        }
+        if (statement instanceof BatchStatement) {
+            BatchStatement batch = (BatchStatement) statement;
+            if (batch.getBatchType() == DefaultBatchType.COUNTER) {
+                return false;
+            }
+            for (BatchableStatement<?> child : batch) {
+                Boolean idempotent = child.isIdempotent() != null ? child.isIdempotent() : isIdempotent(child);
+                if (!Boolean.TRUE.equals(idempotent)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * Idempotence of a query.
+     *
+     * @param query
+     *      CQL query
+     * @return
+     *      idempotence, null when unknown
+     */
+    public static Boolean isIdempotent(String query) {
+        return QUERIES.get(query, IdempotenceClassifier::classify).orElse(null);
+    }
+
+    /**
+     * Check whether a query is a lightweight transaction.
+     *
+     * @param query
+     *      CQL query
+     * @return
+     *      true when the query has an <code>IF</code> condition
+     */
+    static boolean isConditional(String query) {
+        return CONDITION.matcher(LITERALS.matcher(query).replaceAll("?")).find();
+    }
+
+    private static Optional<Boolean> classify(String query) {
+        String cql = LITERALS.matcher(query).replaceAll("?").trim();
+        String upper = cql.toUpperCase(Locale.ROOT);
+        if (upper.startsWith("BEGIN")) {
+            return Optional.of(isIdempotentBatch(cql, upper));
+        }
+        return Optional.ofNullable(classifyStatement(cql, upper));
+    }
+
+    private static Boolean classifyStatement(String cql, String upper) {
+        if (upper.startsWith("SELECT")) {
+            return true;
+        }
+        if (!upper.startsWith("INSERT") && !upper.startsWith("UPDATE") && !upper.startsWith("DELETE")) {
+            return null;
+        }
+        return !CONDITION.matcher(cql).find()
+                && !SELF_ASSIGNMENT.matcher(cql).find()
+                && !COMPOUND_ASSIGNMENT.matcher(cql).find()
+                && !DELETED_ELEMENT.matcher(cql).find()
+                && !NON_DETERMINISTIC.matcher(cql).find();
+    }
+
+    /**
+     * <code>BEGIN [UNLOGGED] BATCH ... APPLY BATCH</code>, idempotent when all its statements are.
+     */
+    private static boolean isIdempotentBatch(String cql, String upper) {
+        int start = upper.indexOf("BATCH");
+        int end = upper.lastIndexOf("APPLY");
+        if (COUNTER_BATCH.matcher(cql).find() || start < 0 || end < start) {
+            return false;
+        }
+        // Literals are replaced, the remaining semicolons separate the statements
+        for (String statement : cql.substring(start + "BATCH".length(), end).split(";")) {
+            String trimmed = BATCH_TIMESTAMP.matcher(statement.trim()).replaceFirst("");
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(classifyStatement(trimmed, trimmed.toUpperCase(Locale.ROOT)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
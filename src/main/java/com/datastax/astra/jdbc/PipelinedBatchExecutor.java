@@ -0,0 +1,271 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Execute the statements of a batch as concurrent requests (<code>batch-mode=pipelined</code>).
+ * <p>
+ * Statements with the same partition key are grouped into unlogged batches of a few statements, a
+ * single mutation for the server. As all the mutations of a batch share one timestamp, a partition is
+ * only grouped when each of its statements writes a single row known from its bound values, the rows
+ * all different, without counters nor lightweight transactions: otherwise its statements are sent one
+ * by one, in order, each with its own timestamp. Groups are sent without waiting for the previous ones,
+ * up to a max number of requests in flight. There is no ordering between groups, as with a Cassandra batch
+ * spanning partitions. Every group is attempted: the failures are reported at the end with a
+ * {@link BatchUpdateException}, its update counts telling which statements failed.
+ */
+public class PipelinedBatchExecutor {
+
+    /** Range or multiple values conditions, the rows written are not known from the bound values. */
+    private static final Pattern RANGE = Pattern.compile("[<>]|\\bIN\\b", Pattern.CASE_INSENSITIVE);
+
+    /** Max requests in flight. */
+    private final int maxInFlight;
+
+    /** Max statements of a partition in one request. */
+    private final int groupSize;
+
+    /**
+     * Create the executor.
+     *
+     * @param maxInFlight
+     *      max requests in flight
+     * @param groupSize
+     *      max statements of a partition in one request, 1 to send statements one by one
+     */
+    public PipelinedBatchExecutor(int maxInFlight, int groupSize) {
+        this.maxInFlight = maxInFlight;
+        this.groupSize = groupSize;
+    }
+
+    /**
+     * Execute statements.
+     *
+     * @param session
+     *      session of the connection
+     * @param statements
+     *      statements of the batch
+     * @return
+     *      update counts, one per statement
+     * @throws BatchUpdateException
+     *      some statements failed, the update count of a failed statement is
+     *      {@link java.sql.Statement#EXECUTE_FAILED}
+     * @throws SQLException
+     *      interrupted while waiting for a request slot
+     */
+    public int[] execute(CqlSession session, List<BoundStatement> statements) throws SQLException {
+        int[] updateCounts = new int[statements.size()];
+        List<int[]> groups = group(session.getMetadata(), statements);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        List<CompletableFuture<?>> requests = new ArrayList<>(groups.size());
+        InterruptedException interrupted = null;
+        for (int[] group : groups) {
+            if (interrupted == null) {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    interrupted = e;
+                }
+            }
+            if (interrupted != null) {
+                // Not sent, the statements already sent are still awaited
+                for (int index : group) {
+                    updateCounts[index] = java.sql.Statement.EXECUTE_FAILED;
+                }
+                continue;
+            }
+            requests.add(session.executeAsync(statement(session, statements, group)).toCompletableFuture()
+                    .whenComplete((rs, error) -> {
+                        inFlight.release();
+                        int count = error == null ? 1 : java.sql.Statement.EXECUTE_FAILED;
+                        for (int index : group) {
+                            updateCounts[index] = count;
+                        }
+                        if (error != null) {
+                            firstError.compareAndSet(null, error);
+                        }
+                    }));
+        }
+        // Failures are collected above, wait for all the requests whatever their outcome
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0]))
+                .handle((v, error) -> null)
+                .join();
+        if (interrupted != null) {
+            Thread.currentThread().interrupt();
+            throw new BatchUpdateException("Interrupted while executing the batch", updateCounts, interrupted);
+        }
+        Throwable error = firstError.get();
+        if (error != null) {
+            long failed = Arrays.stream(updateCounts).filter(c -> c == java.sql.Statement.EXECUTE_FAILED).count();
+            throw new BatchUpdateException(failed + " of " + statements.size()
+                    + " statement(s) of the batch failed, first error: " + error.getMessage(), updateCounts, error);
+        }
+        return updateCounts;
+    }
+
+    /**
+     * Group the statements by partition, in chunks of the group size. Statements without routing
+     * information, and the statements of a partition that cannot be batched, are alone in their group.
+     *
+     * @param metadata
+     *      schema of the session, the primary keys and column types of the tables
+     * @param statements
+     *      statements of the batch
+     * @return
+     *      indexes of the statements of each group
+     */
+    List<int[]> group(Metadata metadata, List<BoundStatement> statements) {
+        List<int[]> groups = new ArrayList<>();
+        if (groupSize == 1) {
+            for (int i = 0; i < statements.size(); i++) {
+                groups.add(new int[] {i});
+            }
+            return groups;
+        }
+        Set<List<Object>> unbatchable = unbatchablePartitions(metadata, statements);
+        Map<List<Object>, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < statements.size(); i++) {
+            BoundStatement statement = statements.get(i);
+            List<Object> partitionKey = partitionKey(statement);
+            if (partitionKey == null || unbatchable.contains(partitionKey)) {
+                groups.add(new int[] {i});
+                continue;
+            }
+            List<Integer> partition = partitions.computeIfAbsent(partitionKey, k -> new ArrayList<>());
+            partition.add(i);
+            if (partition.size() == groupSize) {
+                groups.add(toArray(partition));
+                partition.clear();
+            }
+        }
+        for (List<Integer> partition : partitions.values()) {
+            if (!partition.isEmpty()) {
+                groups.add(toArray(partition));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Partitions whose statements are sent one by one: a statement without a single known row, a counter
+     * update or a lightweight transaction, or two statements writing the same row.
+     */
+    private static Set<List<Object>> unbatchablePartitions(Metadata metadata, List<BoundStatement> statements) {
+        Set<List<Object>> unbatchable = new HashSet<>();
+        Set<List<Object>> rows = new HashSet<>();
+        for (BoundStatement statement : statements) {
+            List<Object> partitionKey = partitionKey(statement);
+            if (partitionKey != null && !unbatchable.contains(partitionKey)) {
+                List<Object> row = row(metadata, statement);
+                if (row == null || !rows.add(row)) {
+                    unbatchable.add(partitionKey);
+                }
+            }
+        }
+        return unbatchable;
+    }
+
+    /**
+     * Keyspace and routing key of a statement, null without routing information.
+     */
+    private static List<Object> partitionKey(BoundStatement statement) {
+        ByteBuffer routingKey = statement.getRoutingKey();
+        return routingKey == null ? null : Arrays.asList(statement.getRoutingKeyspace(), routingKey);
+    }
+
+    /**
+     * Table and primary key values of the single row written by a statement that can be batched.
+     *
+     * @return
+     *      row, null when the statement is a counter update or a lightweight transaction, or its row is
+     *      not known from its bound values: a primary key column not bound, bound several times or
+     *      compared as a range
+     */
+    private static List<Object> row(Metadata metadata, BoundStatement statement) {
+        PreparedStatement prepared = statement.getPreparedStatement();
+        ColumnDefinitions variables = prepared.getVariableDefinitions();
+        if (variables.size() == 0 || IdempotenceClassifier.isConditional(prepared.getQuery())
+                || RANGE.matcher(IdempotenceClassifier.LITERALS.matcher(prepared.getQuery()).replaceAll("?")).find()) {
+            return null;
+        }
+        Set<CqlIdentifier> names = new HashSet<>();
+        for (ColumnDefinition variable : variables) {
+            if (DataTypes.COUNTER.equals(variable.getType()) || !names.add(variable.getName())) {
+                return null;
+            }
+        }
+        ColumnDefinition first = variables.get(0);
+        TableMetadata table = metadata == null ? null : metadata.getKeyspace(first.getKeyspace())
+                .flatMap(keyspace -> keyspace.getTable(first.getTable()))
+                .orElse(null);
+        if (table == null) {
+            return null;
+        }
+        for (ColumnMetadata column : table.getColumns().values()) {
+            if (DataTypes.COUNTER.equals(column.getType())) {
+                return null;
+            }
+        }
+        List<Object> row = new ArrayList<>();
+        row.add(table.getKeyspace());
+        row.add(table.getName());
+        for (ColumnMetadata column : table.getPrimaryKey()) {
+            int index = variables.firstIndexOf(column.getName());
+            if (index < 0) {
+                return null;
+            }
+            row.add(statement.getBytesUnsafe(index));
+        }
+        return row;
+    }
+
+    private static Statement<?> statement(CqlSession session, List<BoundStatement> statements, int[] group) {
+        if (group.length == 1) {
+            return statements.get(group[0]);
+        }
+        List<BatchableStatement<?>> children = new ArrayList<>(group.length);
+        for (int index : group) {
+            children.add(statements.get(index));
+        }
+        BatchStatement batch = BatchStatement.newInstance(BatchType.UNLOGGED, children);
+        // The statements share the timeout of the batch, which the driver reads from the profile of a batch
+        Duration timeout = statements.get(group[0]).getTimeout();
+        return timeout == null ? batch : batch.setExecutionProfile(session.getContext().getConfig()
+                .getDefaultProfile().withDuration(DefaultDriverOption.REQUEST_TIMEOUT, timeout));
+    }
+
+    private static int[] toArray(List<Integer> indexes) {
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.datastax.astra.jdbc;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection handed to the borrower of a pooled connection.
+ * <p>
+ * Each borrow gets its own handle over the session of the pooled connection. Closing the handle
+ * closes its statements and gives the pooled connection back, once: a handle kept by a previous
+ * borrower can neither be used nor give the connection back while another borrower holds it.
+ */
+class PooledConnectionHandle extends AstraJdbcConnection {
+
+    /** Pooled connection of the handle. */
+    private final AstraJdbcPooledConnection pooledConnection;
+
+    /** Closed by the borrower or invalidated by the pooled connection. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Create a handle.
+     *
+     * @param connection
+     *      physical connection
+     * @param pooledConnection
+     *      pooled connection, notified when the handle is closed
+     */
+    PooledConnectionHandle(AstraJdbcConnection connection, AstraJdbcPooledConnection pooledConnection) {
+        super(connection);
+        this.pooledConnection = pooledConnection;
+    }
+
+    /**
+     * Close the statements of the handle and give the connection back to the pool.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                closePhysically();
+            } finally {
+                pooledConnection.fireConnectionClosed(this);
+            }
+        }
+    }
+
+    /**
+     * Close the statements of the handle without giving the connection back.
+     *
+     * @throws SQLException
+     *      error closing statements
+     */
+    void invalidate() throws SQLException {
+        if (closed.compareAndSet(false, true)) {
+            closePhysically();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed.get() || super.isClosed();
+    }
+}
@@ -0,0 +1,194 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Page of a result set, the next pages being fetched while it is iterated.
+ * <p>
+ * Up to <code>depth</code> pages are requested ahead of the page held by the application, one after
+ * the other as each request needs the paging state of the previous page. No page is requested while
+ * the pages received and not reached yet hold <code>maxBytes</code> or more, as measured by the driver.
+ * A page that failed is reported when the application reaches it. The pages fetched ahead of a result
+ * set closed early are dropped.
+ */
+public final class PrefetchingAsyncResultSet implements AsyncResultSet {
+
+    /** Page of the driver. */
+    private final AsyncResultSet page;
+
+    /** Pages fetched ahead, shared by the pages of the result set. */
+    private final Prefetcher prefetcher;
+
+    /** Next page, once asked. */
+    private CompletionStage<AsyncResultSet> nextPage;
+
+    private PrefetchingAsyncResultSet(AsyncResultSet page, Prefetcher prefetcher) {
+        this.page = page;
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Fetch the next pages of a result set ahead.
+     *
+     * @param firstPage
+     *      first page of the result set
+     * @param depth
+     *      pages requested ahead of the page held by the application
+     * @param maxBytes
+     *      bytes of the pages received and not reached above which no page is requested
+     * @return
+     *      first page, fetching the next ones
+     */
+    public static CompletionStage<AsyncResultSet> prefetch(CompletionStage<AsyncResultSet> firstPage, int depth,
+            long maxBytes) {
+        return firstPage.thenApply(rs -> rs.hasMorePages() ? new Prefetcher(depth, maxBytes).start(rs) : rs);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return page.getColumnDefinitions();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+        return page.getExecutionInfo();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int remaining() {
+        return page.remaining();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Row> currentPage() {
+        return page.currentPage();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasMorePages() {
+        return page.hasMorePages();
+    }
+
+    /**
+     * Next page, already requested unless the bounds were reached.
+     */
+    @Override
+    public synchronized CompletionStage<AsyncResultSet> fetchNextPage() throws IllegalStateException {
+        if (!page.hasMorePages()) {
+            // Fails as the driver does
+            return page.fetchNextPage();
+        }
+        if (nextPage == null) {
+            nextPage = prefetcher.next();
+        }
+        return nextPage;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean wasApplied() {
+        return page.wasApplied();
+    }
+
+    /**
+     * Pages requested ahead of a result set.
+     */
+    private static final class Prefetcher {
+
+        /** Pages requested ahead of the page held by the application. */
+        private final int depth;
+
+        /** Bytes of the pages received and not reached above which no page is requested. */
+        private final long maxBytes;
+
+        /** Pages requested and not reached, in order. */
+        private final Deque<CompletableFuture<AsyncResultSet>> ahead = new ArrayDeque<>();
+
+        /** Last page received when its next page is not requested yet, null otherwise. */
+        private AsyncResultSet last;
+
+        /** Bytes of the pages received and not reached. */
+        private long bytes;
+
+        Prefetcher(int depth, long maxBytes) {
+            this.depth = depth;
+            this.maxBytes = maxBytes;
+        }
+
+        AsyncResultSet start(AsyncResultSet firstPage) {
+            synchronized (this) {
+                last = firstPage;
+            }
+            fill();
+            return new PrefetchingAsyncResultSet(firstPage, this);
+        }
+
+        /**
+         * Page following the one held by the application.
+         */
+        CompletionStage<AsyncResultSet> next() {
+            CompletableFuture<AsyncResultSet> next;
+            synchronized (this) {
+                next = ahead.pollFirst();
+            }
+            if (next == null) {
+                // Not reachable: with a page after the current one, it was requested at least
+                throw new IllegalStateException("No page requested ahead");
+            }
+            return next.thenApply(rs -> {
+                synchronized (this) {
+                    bytes -= size(rs);
+                }
+                fill();
+                return new PrefetchingAsyncResultSet(rs, this);
+            });
+        }
+
+        /**
+         * Request the page after the last one received, when under the bounds.
+         */
+        private void fill() {
+            AsyncResultSet from;
+            CompletableFuture<AsyncResultSet> next = new CompletableFuture<>();
+            synchronized (this) {
+                if (last == null || !last.hasMorePages() || ahead.size() >= depth || bytes >= maxBytes) {
+                    return;
+                }
+                from = last;
+                last = null;
+                ahead.addLast(next);
+            }
+            from.fetchNextPage().whenComplete((rs, error) -> {
+                if (error != null) {
+                    next.completeExceptionally(error);
+                    return;
+                }
+                synchronized (this) {
+                    bytes += size(rs);
+                    last = rs;
+                }
+                // Counted before the application can reach it
+                next.complete(rs);
+                fill();
+            });
+        }
+
+        private static long size(AsyncResultSet rs) {
+            // Negative when unknown, the depth still bounds the pages
+            return Math.max(0, rs.getExecutionInfo().getResponseSizeInBytes());
+        }
+    }
+}
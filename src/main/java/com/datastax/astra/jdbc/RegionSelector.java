@@ -0,0 +1,250 @@
+package com.datastax.astra.jdbc;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.astra.jdbc.cache.ResolvedDatabase;
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import com.dtsx.astra.sdk.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Pick the region of a database a session binds to.
+ * <p>
+ * With <code>region=auto</code> the bundle of every region is fetched (and cached on disk) and the
+ * round trip time of a TCP handshake with the endpoint of each bundle is measured. The region with
+ * the lowest latency is selected, the default region of the database winning a tie, then the first
+ * region listed.
+ * <p>
+ * Latencies are published in the driver metrics, see {@link AstraJdbcMetrics#REGION_PROBE} and
+ * {@link AstraJdbcMetrics#REGION_UNREACHABLE}.
+ */
+public class RegionSelector {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegionSelector.class);
+
+    /** Value of the region parameter to select the closest region. */
+    public static final String AUTO = "auto";
+
+    /** Number of handshakes per region, the fastest is kept. */
+    private static final int PROBES = 3;
+
+    /** Timeout of a handshake in milliseconds. */
+    private static final int PROBE_TIMEOUT = 2000;
+
+    /** Bundle downloads and handshakes, blocking. */
+    private static final ExecutorService PROBE_EXECUTOR = AstraJdbcExecutors.newExecutor("astra-jdbc-region-probe");
+
+    /** Last selection for each database identifier. */
+    private final Map<String, Selection> selections = new ConcurrentHashMap<>();
+
+    /** Measure the latency of the endpoint of a bundle, in microseconds. */
+    private final ToLongFunction<byte[]> prober;
+
+    /**
+     * Selector measuring TCP handshakes.
+     */
+    public RegionSelector() {
+        this(RegionSelector::probe);
+    }
+
+    /**
+     * Selector with a custom measure.
+     *
+     * @param prober
+     *      latency of the endpoint of a bundle in microseconds, throws when unreachable
+     */
+    public RegionSelector(ToLongFunction<byte[]> prober) {
+        this.prober = prober;
+    }
+
+    /**
+     * Select the region for a database.
+     *
+     * @param db
+     *      resolved database
+     * @param region
+     *      region requested in the url, <code>auto</code> or null for the default region
+     * @param bundles
+     *      provide the secure connect bundle of a region
+     * @return
+     *      selected region
+     */
+    public String select(ResolvedDatabase db, String region, Function<String, byte[]> bundles) {
+        if (region == null || region.isEmpty()) {
+            return db.getDefaultRegion();
+        }
+        if (!AUTO.equalsIgnoreCase(region)) {
+            if (!db.getRegions().isEmpty() && !db.getRegions().contains(region)) {
+                throw new IllegalArgumentException("Database '" + db.getName() + "' is not deployed in region '"
+                        + region + "', available regions are " + db.getRegions());
+            }
+            return region;
+        }
+        List<String> regions = db.getRegions();
+        if (regions.size() < 2) {
+            return db.getDefaultRegion();
+        }
+        Map<String, CompletableFuture<Long>> probes = new LinkedHashMap<>();
+        for (String candidate : regions) {
+            probes.put(candidate, CompletableFuture.supplyAsync(
+                    () -> prober.applyAsLong(bundles.apply(candidate)), PROBE_EXECUTOR));
+        }
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        probes.forEach((candidate, probe) -> {
+            try {
+                long latency = probe.join();
+                latencies.put(candidate, latency);
+                AstraJdbcMetrics.timer(MetricRegistry.name(AstraJdbcMetrics.REGION_PROBE, candidate))
+                        .update(latency, TimeUnit.MICROSECONDS);
+            } catch (RuntimeException e) {
+                AstraJdbcMetrics.getRegistry()
+                        .counter(MetricRegistry.name(AstraJdbcMetrics.REGION_UNREACHABLE, candidate)).inc();
+                LOGGER.warn("Cannot reach region '{}' of database '{}': {}", candidate, db.getName(), e.getMessage());
+            }
+        });
+        String selected = db.getDefaultRegion();
+        Long best = latencies.get(selected);
+        for (Map.Entry<String, Long> latency : latencies.entrySet()) {
+            if (best == null || latency.getValue() < best) {
+                selected = latency.getKey();
+                best = latency.getValue();
+            }
+        }
+        Selection selection = new Selection(selected, latencies);
+        selections.put(db.getId(), selection);
+        LOGGER.info("Region '{}' selected for database '{}', handshake latencies (us): {}",
+                selected, db.getName(), latencies);
+        return selected;
+    }
+
+    /**
+     * Measure the fastest TCP handshake with the endpoint of a bundle.
+     *
+     * @param bundle
+     *      secure connect bundle
+     * @return
+     *      latency in microseconds
+     */
+    static long probe(byte[] bundle) {
+        InetSocketAddress endpoint = endpoint(bundle);
+        long best = Long.MAX_VALUE;
+        IOException lastError = null;
+        for (int i = 0; i < PROBES; i++) {
+            long start = System.nanoTime();
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(endpoint.getHostString(), endpoint.getPort()), PROBE_TIMEOUT);
+                best = Math.min(best, (System.nanoTime() - start) / 1000);
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+        if (best == Long.MAX_VALUE) {
+            throw new IllegalStateException("Cannot connect to " + endpoint, lastError);
+        }
+        return best;
+    }
+
+    /**
+     * Read host and port from <code>config.json</code> in the bundle.
+     *
+     * @param bundle
+     *      secure connect bundle
+     * @return
+     *      endpoint (unresolved)
+     */
+    @SuppressWarnings("unchecked")
+    static InetSocketAddress endpoint(byte[] bundle) {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bundle))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if ("config.json".equals(entry.getName())) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = zip.read(buffer)) > 0) {
+                        out.write(buffer, 0, read);
+                    }
+                    Map<String, Object> config = JsonUtils.unmarshallBean(
+                            new String(out.toByteArray(), StandardCharsets.UTF_8), Map.class);
+                    return InetSocketAddress.createUnresolved((String) config.get("host"),
+                            ((Number) config.get("port")).intValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read secure connect bundle", e);
+        }
+        throw new IllegalStateException("Secure connect bundle does not contain config.json");
+    }
+
+    /**
+     * Gets the last selection for each database identifier.
+     *
+     * @return value of selections
+     */
+    public Map<String, Selection> getSelections() {
+        return Collections.unmodifiableMap(selections);
+    }
+
+    /**
+     * Outcome of a selection with <code>region=auto</code>.
+     */
+    public static class Selection {
+
+        /** Selected region. */
+        private final String region;
+
+        /** Handshake latency in microseconds for each reachable region. */
+        private final Map<String, Long> latencies;
+
+        Selection(String region, Map<String, Long> latencies) {
+            this.region = region;
+            this.latencies = Collections.unmodifiableMap(latencies);
+        }
+
+        /**
+         * Gets region
+         *
+         * @return value of region
+         */
+        public String getRegion() {
+            return region;
+        }
+
+        /**
+         * Gets latencies
+         *
+         * @return value of latencies
+         */
+        public Map<String, Long> getLatencies() {
+            return latencies;
+        }
+
+        @Override
+        public String toString() {
+            return latencies.entrySet().stream()
+                    .map(e -> e.getKey() + "=" + e.getValue() + "us")
+                    .collect(Collectors.joining(", ", region + " {", "}"));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.datastax.astra.jdbc;
+
+import java.util.Objects;
+
+/**
+ * Key of the session cache: a physical session is shared by every connection to the same database,
+ * region, credentials, compression, speculative executions and driver options, whatever their
+ * keyspace, consistency level, timeout or debug flag.
+ */
+class SessionKey {
+
+    /** Url of the first connection, used to build the session. */
+    private final AstraJdbcUrl jdbcUrl;
+
+    /** Keyspace, only set when the protocol cannot set a keyspace per request. */
+    private final String keyspace;
+
+    private SessionKey(AstraJdbcUrl jdbcUrl, String keyspace) {
+        this.jdbcUrl = jdbcUrl;
+        this.keyspace = keyspace;
+    }
+
+    /**
+     * Session shared across keyspaces.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      key
+     */
+    static SessionKey shared(AstraJdbcUrl jdbcUrl) {
+        return new SessionKey(jdbcUrl, null);
+    }
+
+    /**
+     * Session bound to the keyspace of the url.
+     *
+     * @param jdbcUrl
+     *      connection parameters
+     * @return
+     *      key
+     */
+    static SessionKey perKeyspace(AstraJdbcUrl jdbcUrl) {
+        return new SessionKey(jdbcUrl, jdbcUrl.getKeyspace());
+    }
+
+    /**
+     * Gets jdbcUrl
+     *
+     * @return value of jdbcUrl
+     */
+    AstraJdbcUrl getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    /**
+     * Gets keyspace
+     *
+     * @return value of keyspace
+     */
+    String getKeyspace() {
+        return keyspace;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(jdbcUrl.getDatabaseId(), jdbcUrl.getRegion(), jdbcUrl.getToken(),
+                jdbcUrl.getUser(), jdbcUrl.getPassword(), jdbcUrl.getCompression(), jdbcUrl.getSpeculativeDelay(),
+                jdbcUrl.getSpeculativeMaxExecutions(), jdbcUrl.getDriverOptions(), keyspace);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        SessionKey that = (SessionKey) o;
+        return Objects.equals(jdbcUrl.getDatabaseId(), that.jdbcUrl.getDatabaseId())
+                && Objects.equals(jdbcUrl.getRegion(), that.jdbcUrl.getRegion())
+                && Objects.equals(jdbcUrl.getToken(), that.jdbcUrl.getToken())
+                && Objects.equals(jdbcUrl.getUser(), that.jdbcUrl.getUser())
+                && Objects.equals(jdbcUrl.getPassword(), that.jdbcUrl.getPassword())
+                && Objects.equals(jdbcUrl.getCompression(), that.jdbcUrl.getCompression())
+                && jdbcUrl.getSpeculativeDelay() == that.jdbcUrl.getSpeculativeDelay()
+                && jdbcUrl.getSpeculativeMaxExecutions() == that.jdbcUrl.getSpeculativeMaxExecutions()
+                && Objects.equals(jdbcUrl.getDriverOptions(), that.jdbcUrl.getDriverOptions())
+                && Objects.equals(keyspace, that.keyspace);
+    }
+
+    @Override
+    public String toString() {
+        return jdbcUrl.getDatabaseId() + (keyspace == null ? "" : "/" + keyspace);
+    }
+}
@@ -0,0 +1,562 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.exceptions.DriverExceptions;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.internal.core.cql.DefaultRow;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregate query on a single table computed by token ranges queried concurrently, the partial results
+ * merged by the client.
+ * <p>
+ * A query aggregating a large table, such as the <code>SELECT COUNT(*)</code> of the reporting tools, reads
+ * the whole table through one coordinator and often times out. Here each range of the ring, split as for a
+ * scan (see {@link TokenRangeScan}), is aggregated by its own query, routed to a replica of the range, and
+ * each page of a range query has the request timeout.
+ * <p>
+ * Only <code>SELECT items FROM table [WHERE ...] [GROUP BY columns] [ALLOW FILTERING]</code> is aggregated,
+ * each item being one of <code>COUNT(*)</code>, <code>COUNT(1)</code>, <code>COUNT(column)</code>,
+ * <code>SUM(column)</code>, <code>MIN(column)</code>, <code>MAX(column)</code> or a grouping column, with
+ * or without alias. The grouping columns must all be selected. The partial results are merged in token
+ * order: counts and sums are added, in the type of the column for the sums as Cassandra does, minimums and
+ * maximums are compared, nulls ignored, and the rows of a group are merged by the values of the grouping
+ * columns. Other queries, among them <code>AVG</code>, limits, orderings and conditions on the token, are
+ * not supported.
+ * <p>
+ * A failed range query is sent again, from its first page, up to <code>retries</code> times, except for an
+ * invalid query. The result set holds the merged rows.
+ */
+public class TokenRangeAggregation {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeAggregation.class);
+
+    /** Retries of a failed range query by default. */
+    public static final int DEFAULT_RETRIES = 2;
+
+    /** Single table query: items, keyspace, table, conditions, grouping columns and filtering. */
+    private static final Pattern SELECT = Pattern.compile("^\\s*SELECT\\s+(.+?)\\s+FROM\\s+"
+                    + "(?:" + TokenRangeScan.IDENTIFIER + "\\s*\\.\\s*)?" + TokenRangeScan.IDENTIFIER
+                    + "(?:\\s+WHERE\\s+(.+?))?(?:\\s+GROUP\\s+BY\\s+(.+?))?(\\s+ALLOW\\s+FILTERING)?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** Aggregate of a column, with or without alias. */
+    private static final Pattern AGGREGATE = Pattern.compile("^(COUNT|SUM|MIN|MAX)\\s*\\(\\s*(\\*|1|"
+            + TokenRangeScan.IDENTIFIER + ")\\s*\\)(?:\\s+AS\\s+" + TokenRangeScan.IDENTIFIER + ")?$",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Column, with or without alias. */
+    private static final Pattern COLUMN = Pattern.compile("^" + TokenRangeScan.IDENTIFIER
+            + "(?:\\s+AS\\s+" + TokenRangeScan.IDENTIFIER + ")?$", Pattern.CASE_INSENSITIVE);
+
+    /** Clauses whose result would be per range, bind markers, or several statements. */
+    private static final Pattern PER_RANGE = Pattern.compile(
+            "\\b(?:LIMIT|ORDER\\s+BY|TOKEN\\s*\\()|\\?|;\\s*\\S", Pattern.CASE_INSENSITIVE);
+
+    /** Types whose Java values are ordered as Cassandra orders them, for the minimums and maximums. */
+    private static final Set<DataType> ORDERED_TYPES = new HashSet<>(Arrays.asList(DataTypes.TINYINT,
+            DataTypes.SMALLINT, DataTypes.INT, DataTypes.BIGINT, DataTypes.COUNTER, DataTypes.VARINT,
+            DataTypes.DECIMAL, DataTypes.FLOAT, DataTypes.DOUBLE, DataTypes.TEXT, DataTypes.ASCII,
+            DataTypes.BOOLEAN, DataTypes.DATE, DataTypes.TIME, DataTypes.TIMESTAMP));
+
+    /**
+     * Merge of the partial results of a selected item.
+     */
+    public enum Merge {
+        /** Grouping column, same value in all the partial rows of a group. */
+        GROUP,
+        /** Counts added. */
+        COUNT,
+        /** Sums added. */
+        SUM,
+        /** Smallest value. */
+        MIN,
+        /** Largest value. */
+        MAX
+    }
+
+    /** Range queries in flight. */
+    private final int parallelism;
+
+    /** Min number of ranges. */
+    private final int splits;
+
+    /** Retries of a failed range query. */
+    private final int retries;
+
+    /**
+     * Create an aggregation.
+     *
+     * @param parallelism
+     *      range queries in flight, {@link TokenRangeScan#DEFAULT_PARALLELISM} when 0 or less
+     * @param splits
+     *      min number of ranges, four by range query in flight when 0 or less
+     * @param retries
+     *      retries of a failed range query
+     */
+    public TokenRangeAggregation(int parallelism, int splits, int retries) {
+        TokenRangeScan scan = new TokenRangeScan(parallelism, splits, false);
+        this.parallelism = scan.getParallelism();
+        this.splits = scan.getSplits();
+        this.retries = Math.max(0, retries);
+    }
+
+    /**
+     * Gets the number of range queries in flight.
+     *
+     * @return value of parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the min number of ranges.
+     *
+     * @return value of splits
+     */
+    public int getSplits() {
+        return splits;
+    }
+
+    /**
+     * Gets the retries of a failed range query.
+     *
+     * @return value of retries
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * Merge of each selected item of an aggregate query.
+     *
+     * @param cql
+     *      query, with or without hint
+     * @return
+     *      merge of each item, in the order of the selection, null when the query is not an aggregate query
+     *      supported by a token range aggregation
+     */
+    public static List<Merge> parse(String cql) {
+        Matcher select = SELECT.matcher(TokenRangeScan.HINT.matcher(cql).replaceFirst(""));
+        return select.matches() ? parse(select) : null;
+    }
+
+    private static List<Merge> parse(Matcher select) {
+        String unquoted = IdempotenceClassifier.LITERALS.matcher(select.group(0)).replaceAll("''");
+        if (PER_RANGE.matcher(unquoted).find()) {
+            return null;
+        }
+        Set<CqlIdentifier> groups = new HashSet<>();
+        if (select.group(5) != null) {
+            for (String column : select.group(5).split(",")) {
+                if (!column.trim().matches(TokenRangeScan.IDENTIFIER)) {
+                    return null;
+                }
+                groups.add(CqlIdentifier.fromCql(column.trim()));
+            }
+        }
+        List<Merge> merges = new ArrayList<>();
+        Set<CqlIdentifier> selectedGroups = new HashSet<>();
+        for (String item : select.group(1).split(",")) {
+            Matcher aggregate = AGGREGATE.matcher(item.trim());
+            Matcher column = COLUMN.matcher(item.trim());
+            if (aggregate.matches()) {
+                Merge merge = Merge.valueOf(aggregate.group(1).toUpperCase(Locale.ROOT));
+                if (merge != Merge.COUNT && aggregate.group(3) == null) {
+                    return null;
+                }
+                merges.add(merge);
+            } else if (column.matches() && groups.contains(CqlIdentifier.fromCql(column.group(1)))) {
+                selectedGroups.add(CqlIdentifier.fromCql(column.group(1)));
+                merges.add(Merge.GROUP);
+            } else {
+                return null;
+            }
+        }
+        // Partial rows of a group are only told apart by the values of all its grouping columns
+        if (merges.stream().allMatch(merge -> merge == Merge.GROUP) || !selectedGroups.equals(groups)) {
+            return null;
+        }
+        return merges;
+    }
+
+    /**
+     * Execute an aggregate query as concurrent range queries and merge their results.
+     *
+     * @param session
+     *      session of the connection
+     * @param cql
+     *      query, with or without hint
+     * @param options
+     *      consistency, page size and timeout of the range queries
+     * @return
+     *      merged rows, one or one by group
+     * @throws SQLException
+     *      unknown table, range query failed after its retries, see {@link DriverExceptions},
+     *      {@link SQLFeatureNotSupportedException} when the query is not supported, restricts the partition
+     *      key or the token map is not available
+     */
+    public ResultSet execute(CqlSession session, String cql, UnaryOperator<BoundStatement> options)
+            throws SQLException {
+        String query = TokenRangeScan.HINT.matcher(cql).replaceFirst("");
+        Matcher select = SELECT.matcher(query);
+        List<Merge> merges = select.matches() ? parse(select) : null;
+        if (merges == null) {
+            throw new SQLFeatureNotSupportedException("Only SELECT COUNT, SUM, MIN, MAX and grouping columns "
+                    + "FROM table [WHERE ...] [GROUP BY ...] is supported by a token range aggregation: " + query);
+        }
+        TableMetadata table = TokenRangeScan.table(session, select.group(2), select.group(3));
+        List<BoundStatement> statements = TokenRangeScan.rangeQueries(session, table, select.group(1),
+                select.group(4), (select.group(5) == null ? "" : " GROUP BY " + select.group(5))
+                        + (select.group(6) == null ? "" : " ALLOW FILTERING"), splits, options);
+        ColumnDefinitions columns = statements.get(0).getPreparedStatement().getResultSetDefinitions();
+        for (int i = 0; i < merges.size(); i++) {
+            Merge merge = merges.get(i);
+            if ((merge == Merge.MIN || merge == Merge.MAX) && !ORDERED_TYPES.contains(columns.get(i).getType())) {
+                throw new SQLFeatureNotSupportedException(merge + " of " + columns.get(i).getType()
+                        + " is not supported by a token range aggregation: " + query);
+            }
+        }
+        LOGGER.debug("Aggregation of {} in {} ranges, {} in flight", table.getName(), statements.size(), parallelism);
+
+        AtomicReference<ExecutionInfo> executionInfo = new AtomicReference<>();
+        List<List<Row>> partials;
+        try {
+            partials = CompletableFutures.getUninterruptibly(queryRanges(statements,
+                    statement -> session.executeAsync(statement).whenComplete((rs, error) -> {
+                        if (rs != null) {
+                            executionInfo.set(rs.getExecutionInfo());
+                        }
+                    }), parallelism, retries));
+        } catch (DriverException e) {
+            throw DriverExceptions.toSQLException(e);
+        }
+        List<Row> rows = new ArrayList<>();
+        for (List<Object> values : merge(merges, partials)) {
+            List<ByteBuffer> encoded = new ArrayList<>(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                TypeCodec<Object> codec = session.getContext().getCodecRegistry().codecFor(columns.get(i).getType());
+                encoded.add(codec.encode(values.get(i), session.getContext().getProtocolVersion()));
+            }
+            rows.add(new DefaultRow(columns, encoded, session.getContext()));
+        }
+        return new MergedResultSet(columns, rows, executionInfo.get());
+    }
+
+    /**
+     * Query all the pages of each range, up to <code>parallelism</code> ranges at the same time, in token
+     * order. A failed range is queried again from its first page up to <code>retries</code> times, except
+     * for an invalid query.
+     *
+     * @param statements
+     *      query of each range, in token order
+     * @param executor
+     *      execution of the first page of a range
+     * @param parallelism
+     *      max ranges queried at the same time
+     * @param retries
+     *      retries of a failed range
+     * @return
+     *      rows of each range, in token order, failed with the error of the first range failed after its
+     *      retries
+     */
+    public static CompletionStage<List<List<Row>>> queryRanges(List<? extends Statement<?>> statements,
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor, int parallelism, int retries) {
+        RangeQueries queries = new RangeQueries(statements, executor, retries);
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            queries.next();
+        }
+        return queries.done;
+    }
+
+    /**
+     * Merge the partial rows of the ranges.
+     *
+     * @param merges
+     *      merge of each column, see {@link #parse(String)}
+     * @param partials
+     *      rows of each range, in token order
+     * @return
+     *      values of the merged rows, by group in the order their first partial row is read
+     */
+    public static List<List<Object>> merge(List<Merge> merges, List<? extends Iterable<Row>> partials) {
+        Map<List<Object>, List<Object>> groups = new LinkedHashMap<>();
+        for (Iterable<Row> range : partials) {
+            for (Row row : range) {
+                List<Object> key = new ArrayList<>();
+                for (int i = 0; i < merges.size(); i++) {
+                    if (merges.get(i) == Merge.GROUP) {
+                        key.add(row.getObject(i));
+                    }
+                }
+                List<Object> merged = groups.get(key);
+                if (merged == null) {
+                    merged = new ArrayList<>(merges.size());
+                    for (int i = 0; i < merges.size(); i++) {
+                        merged.add(row.getObject(i));
+                    }
+                    groups.put(key, merged);
+                } else {
+                    for (int i = 0; i < merges.size(); i++) {
+                        merged.set(i, merge(merges.get(i), merged.get(i), row.getObject(i)));
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object merge(Merge merge, Object total, Object partial) {
+        if (total == null || partial == null) {
+            return merge == Merge.GROUP || total == null ? partial : total;
+        }
+        switch (merge) {
+            case COUNT:
+            case SUM:
+                return add(total, partial);
+            case MIN:
+                return ((Comparable) partial).compareTo(total) < 0 ? partial : total;
+            case MAX:
+                return ((Comparable) partial).compareTo(total) > 0 ? partial : total;
+            default:
+                return total;
+        }
+    }
+
+    /**
+     * Sum in the type of the values, overflowing as Cassandra does.
+     */
+    private static Object add(Object a, Object b) {
+        if (a instanceof Long) {
+            return (Long) a + (Long) b;
+        } else if (a instanceof Integer) {
+            return (Integer) a + (Integer) b;
+        } else if (a instanceof Short) {
+            return (short) ((Short) a + (Short) b);
+        } else if (a instanceof Byte) {
+            return (byte) ((Byte) a + (Byte) b);
+        } else if (a instanceof Double) {
+            return (Double) a + (Double) b;
+        } else if (a instanceof Float) {
+            return (Float) a + (Float) b;
+        } else if (a instanceof BigInteger) {
+            return ((BigInteger) a).add((BigInteger) b);
+        } else if (a instanceof BigDecimal) {
+            return ((BigDecimal) a).add((BigDecimal) b);
+        }
+        throw new IllegalArgumentException("Cannot add values of " + a.getClass().getName());
+    }
+
+    /**
+     * Queries of the ranges, the next range started when one is done.
+     */
+    private static final class RangeQueries {
+
+        /** Query of each range. */
+        private final List<? extends Statement<?>> statements;
+
+        /** Execution of the first page of a range. */
+        private final Function<Statement<?>, CompletionStage<AsyncResultSet>> executor;
+
+        /** Retries of a failed range. */
+        private final int retries;
+
+        /** Rows of each range, once all its pages are received. */
+        private final AtomicReferenceArray<List<Row>> rows;
+
+        /** Next range to start. */
+        private final AtomicInteger nextRange = new AtomicInteger();
+
+        /** Ranges whose pages are all received. */
+        private final AtomicInteger finishedRanges = new AtomicInteger();
+
+        /** Rows of all ranges, or first failure. */
+        private final CompletableFuture<List<List<Row>>> done = new CompletableFuture<>();
+
+        private RangeQueries(List<? extends Statement<?>> statements,
+                Function<Statement<?>, CompletionStage<AsyncResultSet>> executor, int retries) {
+            this.statements = statements;
+            this.executor = executor;
+            this.retries = retries;
+            this.rows = new AtomicReferenceArray<>(statements.size());
+            if (statements.isEmpty()) {
+                done.complete(Collections.emptyList());
+            }
+        }
+
+        private void next() {
+            int range = nextRange.getAndIncrement();
+            if (range < statements.size() && !done.isDone()) {
+                query(range, 0);
+            }
+        }
+
+        private void query(int range, int attempt) {
+            CompletionStage<AsyncResultSet> first;
+            try {
+                first = executor.apply(statements.get(range));
+            } catch (RuntimeException e) {
+                failed(range, attempt, e);
+                return;
+            }
+            List<Row> pages = new ArrayList<>();
+            first.whenComplete((rs, error) -> received(range, attempt, pages, rs, error));
+        }
+
+        private void received(int range, int attempt, List<Row> pages, AsyncResultSet rs, Throwable error) {
+            if (error != null) {
+                failed(range, attempt, error);
+                return;
+            }
+            for (Row row : rs.currentPage()) {
+                pages.add(row);
+            }
+            if (rs.hasMorePages() && !done.isDone()) {
+                rs.fetchNextPage().whenComplete((next, e) -> received(range, attempt, pages, next, e));
+                return;
+            }
+            rows.set(range, pages);
+            if (finishedRanges.incrementAndGet() == statements.size()) {
+                List<List<Row>> all = new ArrayList<>(statements.size());
+                for (int i = 0; i < statements.size(); i++) {
+                    all.add(rows.get(i));
+                }
+                done.complete(all);
+            } else {
+                next();
+            }
+        }
+
+        private void failed(int range, int attempt, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (attempt < retries && !(cause instanceof QueryValidationException) && !done.isDone()) {
+                LOGGER.debug("Range {} failed, attempt {} of {}: {}", range, attempt + 1, retries + 1,
+                        cause.toString());
+                query(range, attempt + 1);
+            } else {
+                done.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Merged rows, all of them fetched.
+     */
+    private static final class MergedResultSet implements ResultSet {
+
+        /** Columns of the rows. */
+        private final ColumnDefinitions columns;
+
+        /** Rows not read yet. */
+        private final Iterator<Row> rows;
+
+        /** Rows not read yet. */
+        private int remaining;
+
+        /** Execution of the first page of a range query. */
+        private final ExecutionInfo executionInfo;
+
+        private MergedResultSet(ColumnDefinitions columns, List<Row> rows, ExecutionInfo executionInfo) {
+            this.columns = columns;
+            this.remaining = rows.size();
+            this.executionInfo = executionInfo;
+            Iterator<Row> iterator = rows.iterator();
+            this.rows = new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    Row row = iterator.next();
+                    remaining--;
+                    return row;
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return columns;
+        }
+
+        /**
+         * Execution of the first page of one of the range queries.
+         */
+        @Override
+        public List<ExecutionInfo> getExecutionInfos() {
+            return executionInfo == null ? Collections.emptyList() : Collections.singletonList(executionInfo);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isFullyFetched() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getAvailableWithoutFetching() {
+            return remaining;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean wasApplied() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterator<Row> iterator() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.DriverExecutionException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Rows of the queries of token ranges as one result set, see {@link TokenRangeScan}.
+ * <p>
+ * Up to <code>parallelism</code> ranges are queried at the same time, in token order, each one page
+ * after the other. At most <code>maxPages</code> pages are requested or received and not read yet:
+ * a range waits for the application to read pages before asking its next page. When ordered, the
+ * rows are returned range after range, in token order, and the range being read asks its next page
+ * when it has none left even over the bound, the other ones keep their pages until reached. Otherwise each page is returned as soon
+ * as received.
+ * <p>
+ * A failed query is reported, as the driver does, by the next call iterating the rows. A result set
+ * not read until the end stops querying once the page bound is reached.
+ */
+public final class TokenRangeResultSet implements ResultSet {
+
+    /** Columns of the rows. */
+    private final ColumnDefinitions columns;
+
+    /** Execution of the first page of a range. */
+    private final Function<Statement<?>, CompletionStage<AsyncResultSet>> executor;
+
+    /** Ranges, in token order. */
+    private final List<Range> ranges;
+
+    /** Max ranges queried at the same time. */
+    private final int parallelism;
+
+    /** Max pages requested or received and not read. */
+    private final int maxPages;
+
+    /** Rows returned range after range. */
+    private final boolean ordered;
+
+    /** Lock of the ranges and the pages. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signaled when a page is received or a query failed. */
+    private final Condition changed = lock.newCondition();
+
+    /** Pages received and not read, when not ordered. */
+    private final Deque<AsyncResultSet> received = new ArrayDeque<>();
+
+    /** Ranges started and not finished, in token order. */
+    private final List<Range> started = new ArrayList<>();
+
+    /** Next range to start. */
+    private int nextRange;
+
+    /** Ranges whose last page is received. */
+    private int finishedRanges;
+
+    /** Range read when ordered. */
+    private int currentRange;
+
+    /** Pages requested or received and not read. */
+    private int pages;
+
+    /** First failure. */
+    private Throwable error;
+
+    /** Rows of the page being read. */
+    private final Iterator<Row> rows = new Iterator<Row>() {
+        @Override
+        public boolean hasNext() {
+            return advance();
+        }
+
+        @Override
+        public Row next() {
+            if (!advance()) {
+                throw new NoSuchElementException();
+            }
+            return pageRows.next();
+        }
+    };
+
+    /** Page being read, null before the first one and after the last one. */
+    private AsyncResultSet page;
+
+    /** Rows of the page being read. */
+    private Iterator<Row> pageRows = Collections.emptyIterator();
+
+    /** Execution of the last page read. */
+    private volatile ExecutionInfo executionInfo;
+
+    /**
+     * Query the first ranges.
+     *
+     * @param columns
+     *      columns of the rows
+     * @param statements
+     *      query of each range, in token order
+     * @param executor
+     *      execution of the first page of a range
+     * @param parallelism
+     *      max ranges queried at the same time
+     * @param maxPages
+     *      max pages requested or received and not read, at least one
+     * @param ordered
+     *      true to return the rows range after range, false to return each page as soon as received
+     */
+    public TokenRangeResultSet(ColumnDefinitions columns, List<? extends Statement<?>> statements,
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor, int parallelism, int maxPages,
+            boolean ordered) {
+        this.columns = columns;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxPages = Math.max(1, maxPages);
+        this.ordered = ordered;
+        this.ranges = new ArrayList<>(statements.size());
+        for (Statement<?> statement : statements) {
+            ranges.add(new Range(statement));
+        }
+        request();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return columns;
+    }
+
+    /**
+     * Execution of the last page read.
+     */
+    @Override
+    public List<ExecutionInfo> getExecutionInfos() {
+        ExecutionInfo info = executionInfo;
+        return info == null ? Collections.emptyList() : Collections.singletonList(info);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isFullyFetched() {
+        lock.lock();
+        try {
+            return finishedRanges == ranges.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getAvailableWithoutFetching() {
+        AsyncResultSet current = page;
+        return current == null ? 0 : current.remaining();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean wasApplied() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Row> iterator() {
+        return rows;
+    }
+
+    /**
+     * Move to the next page when the rows of the current one are read.
+     *
+     * @return
+     *      false after the last row
+     */
+    private boolean advance() {
+        while (!pageRows.hasNext()) {
+            if (page != null) {
+                lock.lock();
+                try {
+                    pages--;
+                } finally {
+                    lock.unlock();
+                }
+                request();
+            }
+            page = nextPage();
+            if (page == null) {
+                pageRows = Collections.emptyIterator();
+                return false;
+            }
+            executionInfo = page.getExecutionInfo();
+            pageRows = page.currentPage().iterator();
+        }
+        return true;
+    }
+
+    /**
+     * Wait for the next page to read, uninterruptibly as the driver does.
+     *
+     * @return
+     *      page, null after the last one
+     */
+    private AsyncResultSet nextPage() {
+        lock.lock();
+        try {
+            while (true) {
+                if (error != null) {
+                    throw error instanceof RuntimeException ? (RuntimeException) error
+                            : new DriverExecutionException(error);
+                }
+                AsyncResultSet next = ordered ? nextOrderedPage() : received.pollFirst();
+                if (next != null) {
+                    return next;
+                }
+                if (ordered ? currentRange == ranges.size() : finishedRanges == ranges.size()) {
+                    return null;
+                }
+                // Keeps the interrupted status of the thread
+                changed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AsyncResultSet nextOrderedPage() {
+        Range range = currentRange();
+        return range == null ? null : range.received.pollFirst();
+    }
+
+    /**
+     * Range read when ordered, the ranges whose pages were all taken are skipped.
+     *
+     * @return
+     *      range, null after the last one
+     */
+    private Range currentRange() {
+        while (currentRange < ranges.size()) {
+            Range range = ranges.get(currentRange);
+            if (!range.finished || !range.received.isEmpty()) {
+                return range;
+            }
+            currentRange++;
+        }
+        return null;
+    }
+
+    /**
+     * Request the next pages of the ranges started, then start the next ranges, within the bounds.
+     */
+    private void request() {
+        List<Supplier<CompletionStage<AsyncResultSet>>> requests = new ArrayList<>();
+        List<Range> requested = new ArrayList<>();
+        lock.lock();
+        try {
+            // The range read when ordered and waiting for its next page asks it whatever the bound, the others
+            // may hold them all: at most one page over the bound
+            Range current = ordered ? currentRange() : null;
+            while (error == null) {
+                Range range = null;
+                for (Range candidate : started) {
+                    if (candidate.last != null && (pages < maxPages
+                            || (candidate == current && candidate.received.isEmpty()))) {
+                        range = candidate;
+                        break;
+                    }
+                }
+                if (range != null) {
+                    AsyncResultSet from = range.last;
+                    range.last = null;
+                    requests.add(from::fetchNextPage);
+                } else if (pages < maxPages && started.size() < parallelism && nextRange < ranges.size()) {
+                    range = ranges.get(nextRange++);
+                    started.add(range);
+                    Statement<?> statement = range.statement;
+                    requests.add(() -> executor.apply(statement));
+                } else {
+                    break;
+                }
+                pages++;
+                requested.add(range);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Sent outside the lock, a page may be received right away
+        for (int i = 0; i < requests.size(); i++) {
+            Range range = requested.get(i);
+            CompletionStage<AsyncResultSet> stage;
+            try {
+                stage = requests.get(i).get();
+            } catch (RuntimeException e) {
+                received(range, null, e);
+                continue;
+            }
+            stage.whenComplete((rs, failure) -> received(range, rs, failure));
+        }
+    }
+
+    private void received(Range range, AsyncResultSet rs, Throwable failure) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                if (error == null) {
+                    error = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                }
+            } else {
+                if (rs.hasMorePages()) {
+                    range.last = rs;
+                } else {
+                    range.finished = true;
+                    started.remove(range);
+                    finishedRanges++;
+                }
+                if (ordered) {
+                    range.received.addLast(rs);
+                } else {
+                    received.addLast(rs);
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (failure == null) {
+            request();
+        }
+    }
+
+    /**
+     * Query of a range and its pages.
+     */
+    private static final class Range {
+
+        /** First page query. */
+        private final Statement<?> statement;
+
+        /** Pages received and not read, when ordered. */
+        private final Deque<AsyncResultSet> received = new ArrayDeque<>();
+
+        /** Last page received when its next page is not requested yet. */
+        private AsyncResultSet last;
+
+        /** Last page received. */
+        private boolean finished;
+
+        private Range(Statement<?> statement) {
+            this.statement = statement;
+        }
+    }
+}
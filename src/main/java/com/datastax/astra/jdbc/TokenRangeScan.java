@@ -0,0 +1,333 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.exceptions.DriverExceptions;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Full table <code>SELECT</code> split into token ranges queried concurrently, see {@link AstraScanStatement}.
+ * <p>
+ * The token ranges of the ring, read from the token map of the session, are split evenly into at least
+ * <code>splits</code> ranges. Each range is a query on the partition key token, routed to a replica of
+ * the range, and the rows of all ranges are returned as one result set, see {@link TokenRangeResultSet}.
+ * <p>
+ * Only <code>SELECT ... FROM table [WHERE ...] [ALLOW FILTERING]</code> is split: limits, orderings,
+ * groupings, aggregates and conditions on the token are rejected, as their result would be per range.
+ * A query restricting the partition key reads its partitions directly and is not split either.
+ * <p>
+ * A query starting with the hint <code>/*+ PARALLEL_SCAN [(parallelism [, splits])] [ORDERED] *&#47;</code>
+ * is executed as a scan by <code>Statement.executeQuery</code>, see {@link #fromHint(String)}.
+ */
+public class TokenRangeScan {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeScan.class);
+
+    /** Range queries in flight by default. */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    /** Ranges by range query in flight when the splits are not set. */
+    private static final int SPLITS_BY_REQUEST = 4;
+
+    /** Pages requested or received and not read, by range query in flight. */
+    private static final int PAGES_BY_REQUEST = 2;
+
+    /** Scan hint at the start of a query. */
+    static final Pattern HINT = Pattern.compile(
+            "^\\s*/\\*\\+\\s*PARALLEL_SCAN\\s*(?:\\(\\s*(\\d+)\\s*(?:,\\s*(\\d+)\\s*)?\\))?\\s*(ORDERED)?\\s*\\*/",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Identifier, quoted or not. */
+    static final String IDENTIFIER = "(\"(?:[^\"]|\"\")+\"|\\w+)";
+
+    /** Single table query: columns, keyspace, table, conditions and filtering. */
+    private static final Pattern SELECT = Pattern.compile("^\\s*SELECT\\s+(.+?)\\s+FROM\\s+"
+                    + "(?:" + IDENTIFIER + "\\s*\\.\\s*)?" + IDENTIFIER
+                    + "(?:\\s+WHERE\\s+(.+?))?(\\s+ALLOW\\s+FILTERING)?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** Clauses whose result would be per range, or several statements. */
+    private static final Pattern PER_RANGE = Pattern.compile(
+            "\\b(?:LIMIT|ORDER\\s+BY|GROUP\\s+BY|(?:COUNT|SUM|AVG|MIN|MAX)\\s*\\()|;\\s*\\S",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Condition on the token. */
+    private static final Pattern TOKEN = Pattern.compile("\\bTOKEN\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    /** Range queries in flight. */
+    private final int parallelism;
+
+    /** Min number of ranges. */
+    private final int splits;
+
+    /** Rows returned in token order. */
+    private final boolean ordered;
+
+    /**
+     * Create a scan.
+     *
+     * @param parallelism
+     *      range queries in flight, {@link #DEFAULT_PARALLELISM} when 0 or less
+     * @param splits
+     *      min number of ranges, four by range query in flight when 0 or less
+     * @param ordered
+     *      true to return the rows in token order, as a single query would, false to return each page
+     *      as soon as received
+     */
+    public TokenRangeScan(int parallelism, int splits, boolean ordered) {
+        this.parallelism = parallelism > 0 ? parallelism : DEFAULT_PARALLELISM;
+        this.splits = splits > 0 ? splits : this.parallelism * SPLITS_BY_REQUEST;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Scan of a query starting with a <code>PARALLEL_SCAN</code> hint, the arguments of the hint are
+     * the ones of {@link #TokenRangeScan(int, int, boolean)}: <code>/*+ PARALLEL_SCAN *&#47;</code>,
+     * <code>/*+ PARALLEL_SCAN(16) *&#47;</code>, <code>/*+ PARALLEL_SCAN(16, 256) ORDERED *&#47;</code>.
+     *
+     * @param cql
+     *      query
+     * @return
+     *      scan of the hint, null when the query has none
+     */
+    public static TokenRangeScan fromHint(String cql) {
+        Matcher hint = HINT.matcher(cql);
+        if (!hint.find()) {
+            return null;
+        }
+        return new TokenRangeScan(hint.group(1) == null ? 0 : Integer.parseInt(hint.group(1)),
+                hint.group(2) == null ? 0 : Integer.parseInt(hint.group(2)), hint.group(3) != null);
+    }
+
+    /**
+     * Gets the number of range queries in flight.
+     *
+     * @return value of parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the min number of ranges.
+     *
+     * @return value of splits
+     */
+    public int getSplits() {
+        return splits;
+    }
+
+    /**
+     * Gets whether the rows are returned in token order.
+     *
+     * @return value of ordered
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Execute a query as concurrent range queries.
+     *
+     * @param session
+     *      session of the connection
+     * @param cql
+     *      query, with or without hint
+     * @param options
+     *      consistency, page size and timeout of the range queries
+     * @return
+     *      rows of all the ranges, the first pages requested
+     * @throws SQLException
+     *      unknown table, {@link SQLFeatureNotSupportedException} when the query cannot be split or the
+     *      token map is not available
+     */
+    public ResultSet execute(CqlSession session, String cql, UnaryOperator<BoundStatement> options)
+            throws SQLException {
+        String query = HINT.matcher(cql).replaceFirst("");
+        Matcher select = SELECT.matcher(query);
+        if (!select.matches()) {
+            throw new SQLFeatureNotSupportedException(
+                    "Only SELECT ... FROM table [WHERE ...] is supported by a token range scan: " + query);
+        }
+        String unquoted = IdempotenceClassifier.LITERALS.matcher(query).replaceAll("''");
+        if (PER_RANGE.matcher(unquoted).find()
+                || (select.group(4) != null && TOKEN.matcher(select.group(4)).find())) {
+            throw new SQLFeatureNotSupportedException("Limits, orderings, groupings, aggregates and "
+                    + "token conditions are not supported by a token range scan: " + query);
+        }
+        TableMetadata table = table(session, select.group(2), select.group(3));
+        List<BoundStatement> statements = rangeQueries(session, table, select.group(1), select.group(4),
+                select.group(5) == null ? "" : " ALLOW FILTERING", splits, options);
+        LOGGER.debug("Scan of {} in {} ranges, {} in flight", table.getName(), statements.size(), parallelism);
+        return new TokenRangeResultSet(statements.get(0).getPreparedStatement().getResultSetDefinitions(),
+                statements, ConnectionScopedSession.withoutPrefetch(session), parallelism,
+                parallelism * PAGES_BY_REQUEST, ordered);
+    }
+
+    /**
+     * Query of each range of the ring split into at least a number of ranges, routed to a replica of the
+     * range: <code>SELECT selection FROM table WHERE [where AND] token(pk) &gt; ? AND token(pk) &lt;= ? clauses</code>.
+     *
+     * @param session
+     *      session of the connection
+     * @param table
+     *      table queried
+     * @param selection
+     *      selected columns
+     * @param where
+     *      conditions, null for none
+     * @param clauses
+     *      clauses after the conditions, empty for none
+     * @param splits
+     *      min number of ranges
+     * @param options
+     *      consistency, page size and timeout of the range queries
+     * @return
+     *      queries in token order
+     * @throws SQLException
+     *      the range queries cannot be prepared, {@link SQLFeatureNotSupportedException} when the token map
+     *      is not available, the table is local to each node or the conditions restrict the partition key
+     */
+    static List<BoundStatement> rangeQueries(CqlSession session, TableMetadata table, String selection, String where,
+            String clauses, int splits, UnaryOperator<BoundStatement> options) throws SQLException {
+        if (where != null && restrictsPartitionKey(table, where)) {
+            throw new SQLFeatureNotSupportedException("Partition key of " + table.getName()
+                    + " restricted, cannot split");
+        }
+        TokenMap tokenMap = session.getMetadata().getTokenMap().orElseThrow(() ->
+                new SQLFeatureNotSupportedException("Token map not available, cannot split " + table.getName()));
+        // The system and virtual tables hold the data of the node queried, whatever the token
+        boolean local = table.isVirtual() || session.getMetadata().getKeyspace(table.getKeyspace())
+                .map(keyspace -> String.valueOf(keyspace.getReplication().get("class")).endsWith("LocalStrategy"))
+                .orElse(true);
+        if (local) {
+            throw new SQLFeatureNotSupportedException("Table " + table.getName()
+                    + " is local to each node, cannot split");
+        }
+        String partitionKey = table.getPartitionKey().stream()
+                .map(column -> column.getName().asCql(true))
+                .collect(Collectors.joining(", ", "token(", ")"));
+        String prefix = "SELECT " + selection + " FROM " + table.getKeyspace().asCql(true) + "."
+                + table.getName().asCql(true) + " WHERE " + (where == null ? "" : where + " AND ")
+                + partitionKey + " > ?";
+        PreparedStatement between;
+        PreparedStatement after;
+        try {
+            between = session.prepare(prefix + " AND " + partitionKey + " <= ?" + clauses);
+            after = session.prepare(prefix + clauses);
+        } catch (DriverException e) {
+            throw DriverExceptions.toSQLException(e);
+        }
+
+        List<TokenRange> ranges = split(tokenMap.getTokenRanges(), splits);
+        List<BoundStatement> statements = new ArrayList<>(ranges.size());
+        for (TokenRange range : ranges) {
+            BoundStatement statement = isToRingEnd(range)
+                    ? after.bind().setToken(0, range.getStart())
+                    : between.bind().setToken(0, range.getStart()).setToken(1, range.getEnd());
+            // Sent to a replica of the range
+            statements.add(options.apply(statement.setRoutingToken(range.getEnd())));
+        }
+        return statements;
+    }
+
+    /**
+     * Check whether conditions restrict a column of the partition key, in which case the query reads its
+     * partitions directly and a condition on the token would be rejected.
+     *
+     * @param table
+     *      table queried
+     * @param where
+     *      conditions of the query
+     * @return
+     *      true when a column of the partition key is named outside of the string literals
+     */
+    public static boolean restrictsPartitionKey(TableMetadata table, String where) {
+        String unquoted = IdempotenceClassifier.LITERALS.matcher(where).replaceAll("''");
+        for (ColumnMetadata column : table.getPartitionKey()) {
+            String name = column.getName().asInternal();
+            // Unquoted in any case when it can be, or quoted as is
+            String quoted = Pattern.quote("\"" + name.replace("\"", "\"\"") + "\"");
+            String pattern = name.matches("[a-z][a-z0-9_]*")
+                    ? "(?<![\\w\"])(?i:" + Pattern.quote(name) + ")(?![\\w\"])|" + quoted
+                    : quoted;
+            if (Pattern.compile(pattern).matcher(unquoted).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the ranges of the ring into at least a number of ranges, none of them wrapping around the
+     * ring. Each range is split evenly, the ranges of a node stay within its ranges.
+     *
+     * @param ring
+     *      ranges of the ring
+     * @param splits
+     *      min number of ranges
+     * @return
+     *      ranges in token order
+     */
+    public static List<TokenRange> split(Collection<TokenRange> ring, int splits) {
+        int byRange = Math.max(1, (splits + ring.size() - 1) / Math.max(1, ring.size()));
+        List<TokenRange> ranges = new ArrayList<>();
+        for (TokenRange range : ring) {
+            for (TokenRange part : byRange == 1 ? Collections.singletonList(range) : range.splitEvenly(byRange)) {
+                ranges.addAll(part.unwrap());
+            }
+        }
+        // Unwrapped, the range ending at the ring end is the last one
+        ranges.sort((a, b) -> isToRingEnd(a) != isToRingEnd(b) ? Boolean.compare(isToRingEnd(a), isToRingEnd(b))
+                : a.getStart().compareTo(b.getStart()));
+        return ranges;
+    }
+
+    /**
+     * Range up to the end of the ring: once unwrapped, only those end before they start.
+     */
+    private static boolean isToRingEnd(TokenRange range) {
+        return range.getEnd().compareTo(range.getStart()) <= 0;
+    }
+
+    /**
+     * Metadata of the table, in the keyspace of the session when not qualified.
+     */
+    static TableMetadata table(CqlSession session, String keyspaceName, String tableName)
+            throws SQLException {
+        Optional<CqlIdentifier> keyspace = keyspaceName == null ? session.getKeyspace()
+                : Optional.of(CqlIdentifier.fromCql(keyspaceName));
+        CqlIdentifier table = CqlIdentifier.fromCql(tableName);
+        Optional<TableMetadata> metadata = keyspace
+                .flatMap(session.getMetadata()::getKeyspace)
+                .flatMap(ks -> ks.getTable(table));
+        if (!metadata.isPresent() || metadata.get().getPartitionKey().isEmpty()) {
+            throw new SQLSyntaxErrorException("Unknown table " + (keyspaceName == null ? "" : keyspaceName + ".")
+                    + tableName + (keyspace.isPresent() ? "" : ", no keyspace set"));
+        }
+        return metadata.get();
+    }
+}
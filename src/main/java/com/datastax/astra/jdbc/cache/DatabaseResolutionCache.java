@@ -0,0 +1,257 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.dtsx.astra.sdk.db.AstraDbClient;
+import com.dtsx.astra.sdk.db.domain.Database;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolve a database name or identifier into its identifier, regions and datacenters.
+ * <p>
+ * A resolution costs at most one call to the DevOps API and none when the cache is warm.
+ * Entries are keyed by a hash of the token and the database name, kept in memory and, unless
+ * disabled, on disk to survive restarts.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.db.cache.persist</code>: keep resolutions on disk (default <code>true</code>)</li>
+ *     <li><code>astra.jdbc.db.cache.dir</code>: folder (default <code>~/.astra/jdbc/db</code>)</li>
+ *     <li><code>astra.jdbc.db.cache.ttl</code>: time to live in seconds (default 1 day)</li>
+ * </ul>
+ */
+public class DatabaseResolutionCache {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseResolutionCache.class);
+
+    /** System property to keep resolutions on disk. */
+    public static final String PROP_PERSIST = "astra.jdbc.db.cache.persist";
+
+    /** System property for the cache folder. */
+    public static final String PROP_DIR = "astra.jdbc.db.cache.dir";
+
+    /** System property for the time to live in seconds. */
+    public static final String PROP_TTL = "astra.jdbc.db.cache.ttl";
+
+    /** Database identifiers are UUIDs. */
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    /** Folder where resolutions are stored, null when kept in memory only. */
+    private final Path directory;
+
+    /** Time to live of a resolution. */
+    private final Duration ttl;
+
+    /** Resolutions in memory. */
+    private final Map<String, ResolvedDatabase> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * Build the cache from the system properties.
+     *
+     * @return
+     *      resolution cache
+     */
+    public static DatabaseResolutionCache fromSystemProperties() {
+        Path dir = null;
+        if (Boolean.parseBoolean(System.getProperty(PROP_PERSIST, "true"))) {
+            dir = Paths.get(System.getProperty(PROP_DIR,
+                    System.getProperty("user.home") + "/.astra/jdbc/db"));
+        }
+        return new DatabaseResolutionCache(dir,
+                Duration.ofSeconds(Long.getLong(PROP_TTL, TimeUnit.DAYS.toSeconds(1))));
+    }
+
+    /**
+     * Build the cache.
+     *
+     * @param directory
+     *      folder where resolutions are stored, null to keep them in memory only
+     * @param ttl
+     *      time to live of a resolution
+     */
+    public DatabaseResolutionCache(Path directory, Duration ttl) {
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Resolve a database with the DevOps API when not in cache.
+     *
+     * @param token
+     *      authentication token
+     * @param database
+     *      database name or identifier
+     * @return
+     *      resolved database
+     */
+    public ResolvedDatabase resolve(String token, String database) {
+        return resolve(token, database, () -> lookup(token, database));
+    }
+
+    /**
+     * Resolve a database with the provided function when not in cache.
+     *
+     * @param token
+     *      authentication token
+     * @param database
+     *      database name or identifier
+     * @param resolver
+     *      resolution when not in cache
+     * @return
+     *      resolved database
+     */
+    public ResolvedDatabase resolve(String token, String database, Supplier<ResolvedDatabase> resolver) {
+        String key = key(token, database);
+        ResolvedDatabase db = resolutions.get(key);
+        if (db != null && isFresh(db)) {
+            return db;
+        }
+        db = read(key);
+        if (db == null) {
+            LOGGER.debug("Resolving database '{}' with the DevOps API", database);
+            db = resolver.get();
+            write(key, db);
+        }
+        resolutions.put(key, db);
+        return db;
+    }
+
+    /**
+     * Remove a resolution, for instance when the database has been recreated.
+     *
+     * @param token
+     *      authentication token
+     * @param database
+     *      database name or identifier
+     */
+    public void invalidate(String token, String database) {
+        String key = key(token, database);
+        resolutions.remove(key);
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(directory.resolve(key + ".properties"));
+            } catch (IOException e) {
+                LOGGER.warn("Cannot delete resolution for '{}': {}", database, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove all resolutions.
+     */
+    public void invalidateAll() {
+        resolutions.clear();
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    if (file.getFileName().toString().endsWith(".properties")) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Cannot delete resolutions: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Resolve with a single call: get by identifier for a UUID, list by name otherwise.
+     *
+     * @param token
+     *      authentication token
+     * @param database
+     *      database name or identifier
+     * @return
+     *      resolved database
+     */
+    public static ResolvedDatabase lookup(String token, String database) {
+        AstraDbClient astraDbClient = new AstraDbClient(token);
+        if (UUID_PATTERN.matcher(database).matches()) {
+            LOGGER.debug("Found Database by Id");
+            return ResolvedDatabase.of(astraDbClient.findById(database)
+                    .orElseThrow(() -> new RuntimeException("Cannot find database with id " + database)));
+        }
+        List<Database> databases = astraDbClient.findByName(database).collect(Collectors.toList());
+        if (databases.size() > 1) {
+            throw new RuntimeException("Found more than one database with the same name");
+        } else if (databases.isEmpty()) {
+            throw new RuntimeException("Cannot find database with name " + database);
+        }
+        LOGGER.debug("Found Database by Name");
+        return ResolvedDatabase.of(databases.get(0));
+    }
+
+    private boolean isFresh(ResolvedDatabase db) {
+        return System.currentTimeMillis() - db.getResolvedAt() < ttl.toMillis();
+    }
+
+    /**
+     * File name of a resolution: the hashes of the token and of the database name, which may hold any
+     * character, with the name reduced to the characters safe in a file name for readability.
+     */
+    private static String key(String token, String database) {
+        String readable = database.replaceAll("[^A-Za-z0-9_-]", "");
+        return SecureConnectBundleCache.sha256(token.getBytes(StandardCharsets.UTF_8)).substring(0, 16)
+                + "_" + readable.substring(0, Math.min(readable.length(), 48))
+                + "_" + SecureConnectBundleCache.sha256(database.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+    }
+
+    private ResolvedDatabase read(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(key + ".properties");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            Properties props = new Properties();
+            props.load(in);
+            ResolvedDatabase db = ResolvedDatabase.fromProperties(props);
+            if (db.getId() != null && db.getDefaultRegion() != null && isFresh(db)) {
+                LOGGER.debug("Database resolution '{}' loaded from disk", key);
+                return db;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot read resolution '{}': {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    private void write(String key, ResolvedDatabase db) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "db", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                db.toProperties().store(out, "Astra database resolution");
+            }
+            Files.move(tmp, directory.resolve(key + ".properties"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot save resolution '{}': {}", key, e.getMessage());
+        }
+    }
+}
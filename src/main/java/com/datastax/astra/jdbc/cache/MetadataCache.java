@@ -0,0 +1,411 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.SchemaChangeListenerBase;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ing.data.cassandra.jdbc.metadata.MetadataRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Rows of the <code>DatabaseMetaData</code> tables, columns, indexes and primary keys of a session,
+ * shared by all the connections on it.
+ * <p>
+ * The rows of a keyspace are built once, by the jdbc wrapper, for all its tables, then each call only
+ * filters them by schema, table and column name patterns: tools calling <code>getColumns</code> for each
+ * table no longer walk the schema each time.
+ * <p>
+ * Registered as a schema listener of its session: a created or updated table is built again on the next
+ * call, a dropped table or keyspace leaves the cache, the other tables are kept.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.metadata.cache.enabled</code>: cache the rows (default true)</li>
+ * </ul>
+ */
+public class MetadataCache extends SchemaChangeListenerBase {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataCache.class);
+
+    /** System property to enable the cache. */
+    public static final String PROP_ENABLED = "astra.jdbc.metadata.cache.enabled";
+
+    /** Schema of a row. */
+    private static final String TABLE_SCHEM = "TABLE_SCHEM";
+
+    /** Table of a row. */
+    private static final String TABLE_NAME = "TABLE_NAME";
+
+    /** Column of a row. */
+    private static final String COLUMN_NAME = "COLUMN_NAME";
+
+    /** Patterns of the identifiers compared as they are, without a regular expression. */
+    private static final Pattern IDENTIFIER = Pattern.compile("\\w+");
+
+    /**
+     * Metadata rows, in the order of the jdbc wrapper.
+     */
+    public enum Kind {
+
+        /** <code>getTables</code>. */
+        TABLES(Comparator.comparing((MetadataRow row) -> row.getString(TABLE_SCHEM))
+                .thenComparing(row -> row.getString(TABLE_NAME))),
+
+        /** <code>getColumns</code>, the position is a number in a string. */
+        COLUMNS(Comparator.comparing((MetadataRow row) -> row.getString(TABLE_SCHEM))
+                .thenComparing(row -> row.getString(TABLE_NAME))
+                .thenComparingInt(row -> Integer.parseInt(row.getString("ORDINAL_POSITION")))),
+
+        /** <code>getIndexInfo</code>. */
+        INDEXES(Comparator.comparing((MetadataRow row) -> row.getString("INDEX_NAME"))),
+
+        /** <code>getPrimaryKeys</code>. */
+        PRIMARY_KEYS(Comparator.comparing((MetadataRow row) -> row.getString(COLUMN_NAME)));
+
+        private final Comparator<MetadataRow> order;
+
+        Kind(Comparator<MetadataRow> order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * Build of the rows by the jdbc wrapper.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Rows of the tables of a keyspace.
+         *
+         * @param kind
+         *      rows to build
+         * @param keyspace
+         *      keyspace name
+         * @param table
+         *      table name, null for all the tables of the keyspace
+         * @return
+         *      rows
+         * @throws SQLException
+         *      cannot read the schema
+         */
+        List<MetadataRow> load(Kind kind, String keyspace, String table) throws SQLException;
+    }
+
+    /** Rows by keyspace, null when disabled. */
+    private final ConcurrentMap<String, KeyspaceRows> keyspaces;
+
+    /** Incremented on each schema change, a build started before is not kept. */
+    private final AtomicLong schemaVersion = new AtomicLong();
+
+    /** Keyspaces served from the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Keyspaces built or with tables built again. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Build the cache from the system properties.
+     *
+     * @return
+     *      metadata cache
+     */
+    public static MetadataCache fromSystemProperties() {
+        return new MetadataCache(Boolean.parseBoolean(System.getProperty(PROP_ENABLED, "true")));
+    }
+
+    /**
+     * Build the cache.
+     *
+     * @param enabled
+     *      false to build the rows on each call
+     */
+    public MetadataCache(boolean enabled) {
+        this.keyspaces = enabled ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Get the rows of the tables matching the patterns, in the order of the jdbc wrapper.
+     *
+     * @param kind
+     *      rows to get
+     * @param keyspaceNames
+     *      keyspaces of the session
+     * @param schemaPattern
+     *      keyspace name pattern, null or empty for all
+     * @param tableNamePattern
+     *      table name pattern, null or empty for all
+     * @param columnNamePattern
+     *      column name pattern for the columns, null or empty for all
+     * @param loader
+     *      build of the rows not in cache
+     * @return
+     *      matching rows
+     * @throws SQLException
+     *      cannot read the schema
+     */
+    public ArrayList<MetadataRow> get(Kind kind, Collection<String> keyspaceNames, String schemaPattern,
+            String tableNamePattern, String columnNamePattern, Loader loader) throws SQLException {
+        Predicate<String> schemaMatcher = matcher(schemaPattern);
+        Predicate<String> tableMatcher = matcher(tableNamePattern);
+        Predicate<String> columnMatcher = matcher(kind == Kind.COLUMNS ? columnNamePattern : null);
+        ArrayList<MetadataRow> rows = new ArrayList<>();
+        for (String keyspace : new TreeSet<>(keyspaceNames)) {
+            if (!schemaMatcher.test(keyspace)) {
+                continue;
+            }
+            for (Map.Entry<String, TableRows> table : keyspace(keyspace, loader).tables.entrySet()) {
+                if (!tableMatcher.test(table.getKey())) {
+                    continue;
+                }
+                if (kind != Kind.COLUMNS) {
+                    rows.addAll(table.getValue().rows.get(kind));
+                    continue;
+                }
+                for (MetadataRow row : table.getValue().rows.get(kind)) {
+                    if (columnMatcher.test(row.getString(COLUMN_NAME))) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        rows.sort(kind.order);
+        return rows;
+    }
+
+    /**
+     * Remove all rows.
+     */
+    public void invalidateAll() {
+        if (keyspaces != null) {
+            schemaVersion.incrementAndGet();
+            keyspaces.clear();
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache, by keyspace read.
+     *
+     * @return
+     *      cache statistics, empty when disabled
+     */
+    public CacheStats getStats() {
+        return CacheStats.of(hits.sum(), misses.sum(), 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gets whether the rows are cached.
+     *
+     * @return
+     *      false when disabled
+     */
+    public boolean isEnabled() {
+        return keyspaces != null;
+    }
+
+    /**
+     * Gets the number of keyspaces in cache.
+     *
+     * @return
+     *      number of keyspaces
+     */
+    public int getSize() {
+        return keyspaces == null ? 0 : keyspaces.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onKeyspaceDropped(KeyspaceMetadata keyspace) {
+        if (keyspaces != null) {
+            schemaVersion.incrementAndGet();
+            keyspaces.remove(keyspace.getName().asInternal());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableCreated(TableMetadata table) {
+        tableChanged(table, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableDropped(TableMetadata table) {
+        tableChanged(table, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableUpdated(TableMetadata current, TableMetadata previous) {
+        tableChanged(current, false);
+    }
+
+    /**
+     * Remove all rows when the session closes.
+     */
+    @Override
+    public void close() {
+        invalidateAll();
+    }
+
+    private void tableChanged(TableMetadata table, boolean dropped) {
+        if (keyspaces == null) {
+            return;
+        }
+        String keyspace = table.getKeyspace().asInternal();
+        String name = table.getName().asInternal();
+        LOGGER.debug("Table {}.{} {}, its metadata will be read again", keyspace, name,
+                dropped ? "dropped" : "changed");
+        schemaVersion.incrementAndGet();
+        keyspaces.computeIfPresent(keyspace, (key, rows) -> rows.changed(name, dropped));
+    }
+
+    /**
+     * Rows of a keyspace, built or with its changed tables built again when needed.
+     */
+    private KeyspaceRows keyspace(String keyspace, Loader loader) throws SQLException {
+        if (keyspaces == null) {
+            return KeyspaceRows.load(keyspace, loader);
+        }
+        KeyspaceRows cached = keyspaces.get(keyspace);
+        if (cached != null && cached.stale.isEmpty()) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long version = schemaVersion.get();
+        KeyspaceRows built = cached == null ? KeyspaceRows.load(keyspace, loader) : cached.reload(keyspace, loader);
+        // Kept only when no schema change happened during the build, the next call builds it again otherwise
+        keyspaces.compute(keyspace, (key, current) ->
+                current == cached && schemaVersion.get() == version ? built : current);
+        return built;
+    }
+
+    /**
+     * Match of a name with a <code>DatabaseMetaData</code> pattern as the jdbc wrapper does: case
+     * insensitive, <code>%</code> for any characters.
+     */
+    static Predicate<String> matcher(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            return name -> true;
+        }
+        if (IDENTIFIER.matcher(pattern).matches()) {
+            return pattern::equalsIgnoreCase;
+        }
+        Pattern regex = Pattern.compile(String.format("(?i)^%s$", pattern.replaceAll("%", ".*")));
+        return name -> name != null && regex.matcher(name).matches();
+    }
+
+    /**
+     * Rows of the tables of a keyspace, immutable.
+     */
+    private static final class KeyspaceRows {
+
+        /** Rows by table name. */
+        private final Map<String, TableRows> tables;
+
+        /** Tables created or updated since built. */
+        private final Set<String> stale;
+
+        private KeyspaceRows(Map<String, TableRows> tables, Set<String> stale) {
+            this.tables = tables;
+            this.stale = stale;
+        }
+
+        /**
+         * Build the rows of all the tables of a keyspace.
+         */
+        static KeyspaceRows load(String keyspace, Loader loader) throws SQLException {
+            return new KeyspaceRows(Collections.unmodifiableMap(loadTables(keyspace, null, loader)),
+                    Collections.emptySet());
+        }
+
+        /**
+         * Build the stale tables again.
+         */
+        KeyspaceRows reload(String keyspace, Loader loader) throws SQLException {
+            Map<String, TableRows> reloaded = new TreeMap<>(tables);
+            for (String table : stale) {
+                reloaded.remove(table);
+                reloaded.putAll(loadTables(keyspace, table, loader));
+            }
+            return new KeyspaceRows(Collections.unmodifiableMap(reloaded), Collections.emptySet());
+        }
+
+        /**
+         * Copy with a table dropped or to build again.
+         */
+        KeyspaceRows changed(String table, boolean dropped) {
+            if (dropped) {
+                Map<String, TableRows> remaining = new TreeMap<>(tables);
+                remaining.remove(table);
+                Set<String> stillStale = new HashSet<>(stale);
+                stillStale.remove(table);
+                return new KeyspaceRows(Collections.unmodifiableMap(remaining), stillStale);
+            }
+            Set<String> changed = new HashSet<>(stale);
+            changed.add(table);
+            return new KeyspaceRows(tables, changed);
+        }
+
+        /**
+         * Rows of the tables of a keyspace, grouped by table.
+         */
+        private static Map<String, TableRows> loadTables(String keyspace, String table, Loader loader)
+                throws SQLException {
+            Map<String, TableRows> tables = new TreeMap<>();
+            for (Kind kind : Kind.values()) {
+                for (MetadataRow row : loader.load(kind, keyspace, table)) {
+                    String tableName = row.getString(TABLE_NAME);
+                    // The patterns of the wrapper ignore the case
+                    if (!keyspace.equals(row.getString(TABLE_SCHEM)) || (table != null && !table.equals(tableName))) {
+                        continue;
+                    }
+                    if (kind == Kind.TABLES) {
+                        tables.put(tableName, new TableRows());
+                    }
+                    TableRows rows = tables.get(tableName);
+                    if (rows != null) {
+                        rows.rows.get(kind).add(row);
+                    }
+                }
+            }
+            return tables;
+        }
+    }
+
+    /**
+     * Rows of a table.
+     */
+    private static final class TableRows {
+
+        private final EnumMap<Kind, List<MetadataRow>> rows = new EnumMap<>(Kind.class);
+
+        private TableRows() {
+            for (Kind kind : Kind.values()) {
+                rows.put(kind, new ArrayList<>());
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.SchemaChangeListenerBase;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
+import com.datastax.oss.driver.api.core.type.UserDefinedType;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Prepared statements of a session, shared by all the connections on it.
+ * <p>
+ * Statements are keyed by keyspace and CQL text and kept up to a max number, the least used ones
+ * leaving first. The driver only keeps the statements still referenced, so without this cache a new
+ * connection prepares again what the previous ones prepared. Concurrent callers of a statement
+ * share the same prepare, a failed prepare is not kept. Statements are prepared without the options
+ * of the connection (consistency level, timeout), those are applied to each execution.
+ * <p>
+ * Registered as a schema listener of its session: a change to a table, view, type or keyspace
+ * empties the cache, as the result metadata of the statements may be outdated.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.prepared.cache.max-size</code>: max statements per session, 0 to disable (default 1000)</li>
+ * </ul>
+ */
+public class PreparedStatementCache extends SchemaChangeListenerBase {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    /** System property for the max number of statements per session. */
+    public static final String PROP_MAX_SIZE = "astra.jdbc.prepared.cache.max-size";
+
+    /** Statements by keyspace and query, null when disabled. */
+    private final AsyncCache<Key, PreparedStatement> statements;
+
+    /**
+     * Build the cache from the system properties.
+     *
+     * @return
+     *      prepared statement cache
+     */
+    public static PreparedStatementCache fromSystemProperties() {
+        return new PreparedStatementCache(Long.getLong(PROP_MAX_SIZE, 1000));
+    }
+
+    /**
+     * Build the cache.
+     *
+     * @param maxSize
+     *      max number of statements, 0 to disable
+     */
+    public PreparedStatementCache(long maxSize) {
+        this.statements = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).recordStats().buildAsync()
+                : null;
+    }
+
+    /**
+     * Get a prepared statement, prepared with the provided function when not in cache.
+     *
+     * @param keyspace
+     *      keyspace of the statement, null when the session is bound to it
+     * @param cql
+     *      query
+     * @param preparer
+     *      prepare of a statement when not in cache
+     * @return
+     *      prepared statement
+     */
+    public CompletableFuture<PreparedStatement> prepare(CqlIdentifier keyspace, String cql,
+            Function<SimpleStatement, CompletionStage<PreparedStatement>> preparer) {
+        if (statements == null) {
+            return preparer.apply(statement(keyspace, cql)).toCompletableFuture();
+        }
+        return statements.get(new Key(keyspace, cql),
+                (key, executor) -> preparer.apply(statement(keyspace, cql)).toCompletableFuture());
+    }
+
+    /**
+     * Remove all statements.
+     */
+    public void invalidateAll() {
+        if (statements != null) {
+            statements.synchronous().invalidateAll();
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache (hits, misses, evictions).
+     *
+     * @return
+     *      cache statistics, empty when disabled
+     */
+    public CacheStats getStats() {
+        return statements == null ? CacheStats.empty() : statements.synchronous().stats();
+    }
+
+    /**
+     * Gets the number of statements in cache.
+     *
+     * @return
+     *      number of statements
+     */
+    public long getSize() {
+        return statements == null ? 0 : statements.synchronous().estimatedSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onKeyspaceDropped(KeyspaceMetadata keyspace) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableDropped(TableMetadata table) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableUpdated(TableMetadata current, TableMetadata previous) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onUserDefinedTypeDropped(UserDefinedType type) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onUserDefinedTypeUpdated(UserDefinedType current, UserDefinedType previous) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onViewDropped(ViewMetadata view) {
+        schemaChanged();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onViewUpdated(ViewMetadata current, ViewMetadata previous) {
+        schemaChanged();
+    }
+
+    /**
+     * Remove all statements when the session closes.
+     */
+    @Override
+    public void close() {
+        invalidateAll();
+    }
+
+    private void schemaChanged() {
+        LOGGER.debug("Schema changed, clearing {} prepared statement(s)", getSize());
+        invalidateAll();
+    }
+
+    private static SimpleStatement statement(CqlIdentifier keyspace, String cql) {
+        SimpleStatement statement = SimpleStatement.newInstance(cql);
+        return keyspace == null ? statement : statement.setKeyspace(keyspace);
+    }
+
+    /**
+     * Keyspace and query of a statement.
+     */
+    private static final class Key {
+
+        private final CqlIdentifier keyspace;
+
+        private final String cql;
+
+        private Key(CqlIdentifier keyspace, String cql) {
+            this.keyspace = keyspace;
+            this.cql = cql;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return cql.equals(other.cql) && Objects.equals(keyspace, other.keyspace);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return 31 * cql.hashCode() + Objects.hashCode(keyspace);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.dtsx.astra.sdk.db.domain.Database;
+import com.dtsx.astra.sdk.db.domain.Datacenter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Database information needed to open a session, resolved once from the DevOps API.
+ */
+public class ResolvedDatabase implements Serializable {
+
+    /**
+     * Version of the serialized form.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Secure bundle urls are signed and expire, they are only used shortly after the lookup.
+     */
+    private static final long BUNDLE_URL_VALIDITY = 60_000;
+
+    /**
+     * Database identifier.
+     */
+    private final String id;
+
+    /**
+     * Database name.
+     */
+    private final String name;
+
+    /**
+     * Default region of the database.
+     */
+    private final String defaultRegion;
+
+    /**
+     * Datacenter identifiers by region.
+     */
+    private final Map<String, String> datacenters;
+
+    /**
+     * Resolution time.
+     */
+    private final long resolvedAt;
+
+    /**
+     * Secure bundle urls by region, never persisted.
+     */
+    private final transient Map<String, String> bundleUrls;
+
+    /**
+     * Full constructor.
+     *
+     * @param id
+     *      database identifier
+     * @param name
+     *      database name
+     * @param defaultRegion
+     *      default region
+     * @param datacenters
+     *      datacenter identifiers by region
+     * @param resolvedAt
+     *      resolution time
+     * @param bundleUrls
+     *      secure bundle urls by region
+     */
+    public ResolvedDatabase(String id, String name, String defaultRegion, Map<String, String> datacenters,
+                            long resolvedAt, Map<String, String> bundleUrls) {
+        this.id = id;
+        this.name = name;
+        this.defaultRegion = defaultRegion;
+        this.datacenters = Collections.unmodifiableMap(new LinkedHashMap<>(datacenters));
+        this.resolvedAt = resolvedAt;
+        this.bundleUrls = bundleUrls == null ? Collections.emptyMap() : bundleUrls;
+    }
+
+    /**
+     * Map the DevOps API response.
+     *
+     * @param db
+     *      database description
+     * @return
+     *      resolved database
+     */
+    public static ResolvedDatabase of(Database db) {
+        Map<String, String> datacenters = new LinkedHashMap<>();
+        Map<String, String> bundleUrls = new LinkedHashMap<>();
+        if (db.getInfo().getDatacenters() != null) {
+            for (Datacenter dc : db.getInfo().getDatacenters()) {
+                datacenters.put(dc.getRegion(), dc.getId());
+                if (dc.getSecureBundleUrl() != null) {
+                    bundleUrls.put(dc.getRegion(), dc.getSecureBundleUrl());
+                }
+            }
+        }
+        return new ResolvedDatabase(db.getId(), db.getInfo().getName(), db.getInfo().getRegion(),
+                datacenters, System.currentTimeMillis(), bundleUrls);
+    }
+
+    /**
+     * Read from properties stored on disk.
+     *
+     * @param props
+     *      properties
+     * @return
+     *      resolved database
+     */
+    static ResolvedDatabase fromProperties(Properties props) {
+        Map<String, String> datacenters = new LinkedHashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("datacenter.")) {
+                datacenters.put(key.substring("datacenter.".length()), props.getProperty(key));
+            }
+        }
+        return new ResolvedDatabase(props.getProperty("id"), props.getProperty("name"),
+                props.getProperty("region"), datacenters,
+                Long.parseLong(props.getProperty("resolvedAt", "0")), null);
+    }
+
+    /**
+     * Convert to properties stored on disk.
+     *
+     * @return
+     *      properties
+     */
+    Properties toProperties() {
+        Properties props = new Properties();
+        props.setProperty("id", id);
+        props.setProperty("name", name);
+        props.setProperty("region", defaultRegion);
+        props.setProperty("resolvedAt", String.valueOf(resolvedAt));
+        datacenters.forEach((region, dc) -> props.setProperty("datacenter." + region, dc));
+        return props;
+    }
+
+    /**
+     * Signed url of the secure bundle for a region, when freshly resolved.
+     *
+     * @param region
+     *      region
+     * @return
+     *      url if still valid
+     */
+    public Optional<String> getBundleUrl(String region) {
+        if (System.currentTimeMillis() - resolvedAt > BUNDLE_URL_VALIDITY) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(bundleUrls.get(region));
+    }
+
+    /**
+     * Gets regions
+     *
+     * @return value of regions
+     */
+    public List<String> getRegions() {
+        return new ArrayList<>(datacenters.keySet());
+    }
+
+    /**
+     * Gets id
+     *
+     * @return value of id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets name
+     *
+     * @return value of name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets defaultRegion
+     *
+     * @return value of defaultRegion
+     */
+    public String getDefaultRegion() {
+        return defaultRegion;
+    }
+
+    /**
+     * Gets datacenters
+     *
+     * @return value of datacenters
+     */
+    public Map<String, String> getDatacenters() {
+        return datacenters;
+    }
+
+    /**
+     * Gets resolvedAt
+     *
+     * @return value of resolvedAt
+     */
+    public long getResolvedAt() {
+        return resolvedAt;
+    }
+}
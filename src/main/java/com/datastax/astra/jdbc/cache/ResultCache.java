@@ -0,0 +1,510 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.SchemaChangeListenerBase;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Results of the prepared SELECTs of a session, shared by the connections caching their results.
+ * <p>
+ * Results are keyed by prepared statement id and bound values. Only the results fitting in one page
+ * are kept, each for the time to live of the connection that read it. The cache is bounded in
+ * entries and in bytes of the values, the least used results leaving first. A hit is answered
+ * without a request.
+ * <p>
+ * Once a connection caches its results, every write of the session drops the results of the tables
+ * it targets, read from the CQL text: <code>INSERT</code>, <code>UPDATE</code>, <code>DELETE</code>,
+ * <code>TRUNCATE</code> and the statements of a batch. Tables are matched by name, whatever their
+ * keyspace. A read sent before a write completes is not kept. Any other statement, and a change of
+ * the schema, drops all the results. Writes from other clients are only seen once the results expire.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.result.cache.max-entries</code>: max results per session (default 10000)</li>
+ *     <li><code>astra.jdbc.result.cache.max-bytes</code>: max bytes of the values per session (default 67108864)</li>
+ * </ul>
+ */
+public class ResultCache extends SchemaChangeListenerBase {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+    /** System property for the max number of results per session. */
+    public static final String PROP_MAX_ENTRIES = "astra.jdbc.result.cache.max-entries";
+
+    /** System property for the max bytes of the values per session. */
+    public static final String PROP_MAX_BYTES = "astra.jdbc.result.cache.max-bytes";
+
+    /** Table written by a statement, the name is the last group. */
+    private static final Pattern WRITTEN_TABLE = Pattern.compile(
+            "\\b(?:INSERT\\s+INTO|UPDATE|DELETE\\b.*?\\bFROM|TRUNCATE(?:\\s+TABLE)?)\\s+"
+                    + "(?:(?:\"(?:[^\"]|\"\")+\"|\\w+)\\s*\\.\\s*)?(\"(?:[^\"]|\"\")+\"|\\w+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** Results by statement and values. */
+    private final Cache<Key, Entry> results;
+
+    /** Generation of each table, incremented by the writes to it. */
+    private final ConcurrentHashMap<String, AtomicLong> tableGenerations = new ConcurrentHashMap<>();
+
+    /** Generation of all the tables, incremented when all the results are dropped. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Results found. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Results not found, or outdated. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Set once a connection caches its results, the writes are not inspected before. */
+    private volatile boolean active;
+
+    /**
+     * Build the cache from the system properties.
+     *
+     * @return
+     *      result cache
+     */
+    public static ResultCache fromSystemProperties() {
+        return new ResultCache(Long.getLong(PROP_MAX_ENTRIES, 10000),
+                Long.getLong(PROP_MAX_BYTES, 64L * 1024 * 1024));
+    }
+
+    /**
+     * Build the cache.
+     *
+     * @param maxEntries
+     *      max number of results
+     * @param maxBytes
+     *      max bytes of the values of the results
+     */
+    public ResultCache(long maxEntries, long maxBytes) {
+        // A result weighs at least its share of the entries, bounding both
+        long minWeight = Math.max(1, maxBytes / Math.max(1, maxEntries));
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, entry.bytes)))
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Execute a statement of a connection caching its results.
+     *
+     * @param statement
+     *      statement to execute
+     * @param ttl
+     *      time to live of the results of the connection
+     * @param tables
+     *      internal names of the tables of the results to cache, all tables when empty
+     * @param executor
+     *      execution of a statement not answered by the cache
+     * @return
+     *      first page, the whole result when read from or kept in the cache
+     */
+    public CompletionStage<AsyncResultSet> execute(Statement<?> statement, Duration ttl, Set<String> tables,
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor) {
+        if (!active) {
+            active = true;
+        }
+        String table = cacheableTable(statement);
+        if (table == null) {
+            return executeOther(statement, executor);
+        }
+        if (!tables.isEmpty() && !tables.contains(table)) {
+            return executor.apply(statement);
+        }
+        BoundStatement bound = (BoundStatement) statement;
+        Key key = new Key(bound.getPreparedStatement().getId(), bound.getValues());
+        long globalGeneration = generation.get();
+        long tableGeneration = tableGeneration(table).get();
+        Entry entry = results.getIfPresent(key);
+        if (entry != null && entry.globalGeneration == globalGeneration && entry.tableGeneration == tableGeneration) {
+            hits.increment();
+            return CompletableFuture.completedFuture(new CachedResultSet(entry));
+        }
+        misses.increment();
+        return executor.apply(statement).thenApply(rs -> {
+            if (rs.hasMorePages()) {
+                return rs;
+            }
+            Entry read = new Entry(rs, ttl.toNanos(), globalGeneration, tableGeneration);
+            // Outdated by a write completed in between, otherwise dropped when read
+            results.put(key, read);
+            return new CachedResultSet(read);
+        });
+    }
+
+    /**
+     * Execute a statement of a connection not caching its results, dropping the results of the
+     * tables it writes.
+     *
+     * @param statement
+     *      statement to execute
+     * @param executor
+     *      execution of the statement
+     * @return
+     *      first page
+     */
+    public CompletionStage<AsyncResultSet> executeOther(Statement<?> statement,
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor) {
+        if (!active || isRead(statement)) {
+            return executor.apply(statement);
+        }
+        // Dropped once applied, a failed write may have been applied as well
+        return executor.apply(statement).whenComplete((rs, error) -> invalidate(statement));
+    }
+
+    /**
+     * Drop the results of the tables written by a statement, all the results when not known.
+     *
+     * @param statement
+     *      statement executed
+     */
+    void invalidate(Statement<?> statement) {
+        List<String> written = new ArrayList<>();
+        if (!writtenTables(statement, written) || written.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        for (String table : written) {
+            tableGeneration(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove all results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    /**
+     * Gets the statistics of the cache (hits, misses, evictions), an outdated result is a miss.
+     *
+     * @return
+     *      cache statistics
+     */
+    public CacheStats getStats() {
+        CacheStats stats = results.stats();
+        return CacheStats.of(hits.sum(), misses.sum(), 0, 0, 0, stats.evictionCount(), stats.evictionWeight());
+    }
+
+    /**
+     * Gets the number of results in cache.
+     *
+     * @return
+     *      number of results
+     */
+    public long getSize() {
+        return results.estimatedSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onKeyspaceDropped(KeyspaceMetadata keyspace) {
+        invalidateAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableDropped(TableMetadata table) {
+        invalidateAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTableUpdated(TableMetadata current, TableMetadata previous) {
+        invalidateAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onViewDropped(ViewMetadata view) {
+        invalidateAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onViewUpdated(ViewMetadata current, ViewMetadata previous) {
+        invalidateAll();
+    }
+
+    /**
+     * Remove all results when the session closes.
+     */
+    @Override
+    public void close() {
+        invalidateAll();
+    }
+
+    private AtomicLong tableGeneration(String table) {
+        return tableGenerations.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    /**
+     * Table read by a prepared SELECT from its first page, null for another statement.
+     */
+    private static String cacheableTable(Statement<?> statement) {
+        if (!(statement instanceof BoundStatement) || statement.getPagingState() != null) {
+            return null;
+        }
+        PreparedStatement prepared = ((BoundStatement) statement).getPreparedStatement();
+        if (!isSelect(prepared.getQuery()) || prepared.getResultSetDefinitions().size() == 0) {
+            return null;
+        }
+        return prepared.getResultSetDefinitions().get(0).getTable().asInternal();
+    }
+
+    private static boolean isRead(Statement<?> statement) {
+        if (statement instanceof BoundStatement) {
+            return isSelect(((BoundStatement) statement).getPreparedStatement().getQuery());
+        }
+        return statement instanceof SimpleStatement && isSelect(((SimpleStatement) statement).getQuery());
+    }
+
+    private static boolean isSelect(String cql) {
+        int start = 0;
+        while (start < cql.length() && Character.isWhitespace(cql.charAt(start))) {
+            start++;
+        }
+        return cql.regionMatches(true, start, "SELECT", 0, "SELECT".length());
+    }
+
+    /**
+     * Tables written by a statement.
+     *
+     * @return
+     *      false when the statement is not known
+     */
+    private static boolean writtenTables(Statement<?> statement, List<String> tables) {
+        if (statement instanceof BatchStatement) {
+            for (BatchableStatement<?> child : (BatchStatement) statement) {
+                if (!writtenTables(child, tables)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        String cql;
+        if (statement instanceof BoundStatement) {
+            cql = ((BoundStatement) statement).getPreparedStatement().getQuery();
+        } else if (statement instanceof SimpleStatement) {
+            cql = ((SimpleStatement) statement).getQuery();
+        } else {
+            return false;
+        }
+        int found = tables.size();
+        Matcher matcher = WRITTEN_TABLE.matcher(cql);
+        while (matcher.find()) {
+            tables.add(CqlIdentifier.fromCql(matcher.group(1)).asInternal());
+        }
+        if (tables.size() == found) {
+            LOGGER.debug("No table found in '{}', dropping all cached results", cql);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prepared statement and bound values of a result.
+     */
+    private static final class Key {
+
+        private final ByteBuffer id;
+
+        private final List<ByteBuffer> values;
+
+        private final int hash;
+
+        private Key(ByteBuffer id, List<ByteBuffer> values) {
+            this.id = id;
+            this.values = values;
+            this.hash = 31 * id.hashCode() + values.hashCode();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && id.equals(other.id) && Objects.equals(values, other.values);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Rows of a result.
+     */
+    private static final class Entry {
+
+        private final ColumnDefinitions columns;
+
+        private final ExecutionInfo executionInfo;
+
+        private final List<Row> rows;
+
+        private final long bytes;
+
+        private final long ttlNanos;
+
+        private final long globalGeneration;
+
+        private final long tableGeneration;
+
+        private Entry(AsyncResultSet rs, long ttlNanos, long globalGeneration, long tableGeneration) {
+            this.columns = rs.getColumnDefinitions();
+            this.executionInfo = rs.getExecutionInfo();
+            List<Row> read = new ArrayList<>(rs.remaining());
+            long size = 0;
+            for (Row row : rs.currentPage()) {
+                read.add(row);
+                for (int i = 0; i < columns.size(); i++) {
+                    ByteBuffer value = row.getBytesUnsafe(i);
+                    size += value == null ? 0 : value.remaining();
+                }
+            }
+            this.rows = Collections.unmodifiableList(read);
+            this.bytes = size;
+            this.ttlNanos = ttlNanos;
+            this.globalGeneration = globalGeneration;
+            this.tableGeneration = tableGeneration;
+        }
+    }
+
+    /**
+     * Result answered from the cache, on the rows of an entry.
+     */
+    private static final class CachedResultSet implements AsyncResultSet {
+
+        private final Entry entry;
+
+        private final Iterator<Row> rows;
+
+        private int remaining;
+
+        private CachedResultSet(Entry entry) {
+            this.entry = entry;
+            this.rows = entry.rows.iterator();
+            this.remaining = entry.rows.size();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return entry.columns;
+        }
+
+        /**
+         * Execution of the request that read the result.
+         */
+        @Override
+        public ExecutionInfo getExecutionInfo() {
+            return entry.executionInfo;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int remaining() {
+            return remaining;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterable<Row> currentPage() {
+            return () -> new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    Row row = rows.next();
+                    remaining--;
+                    return row;
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasMorePages() {
+            return false;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public CompletionStage<AsyncResultSet> fetchNextPage() throws IllegalStateException {
+            throw new IllegalStateException("No next page, check hasMorePages() before calling this method");
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean wasApplied() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.datastax.astra.jdbc.cache;
+
+import com.datastax.astra.jdbc.AstraJdbcExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Local cache for the secure connect bundles, stored on disk.
+ * <p>
+ * Bundles are keyed by database identifier and region. Each bundle is written in one file after
+ * a header line holding its SHA-256 checksum, validated on every read. A bundle older than
+ * its time to live is refreshed from the DevOps API, and when the API does not answer
+ * within the download timeout the stale bundle is used instead.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.scb.cache.enabled</code>: enable the cache (default <code>true</code>)</li>
+ *     <li><code>astra.jdbc.scb.cache.dir</code>: folder (default <code>~/.astra/jdbc/scb</code>)</li>
+ *     <li><code>astra.jdbc.scb.cache.ttl</code>: time to live in seconds (default 1 day)</li>
+ *     <li><code>astra.jdbc.scb.cache.timeout</code>: max wait in milliseconds for a refresh when
+ *     a stale bundle is available (default 5s)</li>
+ * </ul>
+ */
+public class SecureConnectBundleCache {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecureConnectBundleCache.class);
+
+    /** System property to enable or disable the cache. */
+    public static final String PROP_ENABLED = "astra.jdbc.scb.cache.enabled";
+
+    /** System property for the cache folder. */
+    public static final String PROP_DIR = "astra.jdbc.scb.cache.dir";
+
+    /** System property for the time to live in seconds. */
+    public static final String PROP_TTL = "astra.jdbc.scb.cache.ttl";
+
+    /** System property for the refresh timeout in milliseconds. */
+    public static final String PROP_TIMEOUT = "astra.jdbc.scb.cache.timeout";
+
+    /** Region label used for the default bundle of a database. */
+    public static final String DEFAULT_REGION = "default";
+
+    /** Bundles are refreshed ahead of time when this ratio of the ttl is consumed. */
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    /** Extension of bundle files, the checksum header followed by the bundle. */
+    private static final String EXT_BUNDLE = ".scb";
+
+    /** Length of the header, the hexadecimal SHA-256 of the bundle and a new line. */
+    private static final int HEADER_LENGTH = 65;
+
+    /** Shared pool for background downloads. */
+    private static final ExecutorService REFRESH_EXECUTOR = AstraJdbcExecutors.newExecutor("astra-jdbc-scb-refresh");
+
+    /** Folder where bundles are stored, null when the cache is disabled. */
+    private final Path directory;
+
+    /** Time to live of a bundle. */
+    private final Duration ttl;
+
+    /** Max wait for a refresh when a stale bundle can be used. */
+    private final Duration refreshTimeout;
+
+    /** Downloads in progress, one per key. */
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Build the cache from the system properties.
+     *
+     * @return
+     *      bundle cache
+     */
+    public static SecureConnectBundleCache fromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty(PROP_ENABLED, "true"))) {
+            return new SecureConnectBundleCache(null, Duration.ZERO, Duration.ZERO);
+        }
+        Path dir = Paths.get(System.getProperty(PROP_DIR,
+                System.getProperty("user.home") + "/.astra/jdbc/scb"));
+        return new SecureConnectBundleCache(dir,
+                Duration.ofSeconds(Long.getLong(PROP_TTL, TimeUnit.DAYS.toSeconds(1))),
+                Duration.ofMillis(Long.getLong(PROP_TIMEOUT, 5000)));
+    }
+
+    /**
+     * Build the cache.
+     *
+     * @param directory
+     *      folder where bundles are stored, null to disable the cache
+     * @param ttl
+     *      time to live of a bundle
+     * @param refreshTimeout
+     *      max wait for a refresh when a stale bundle can be used
+     */
+    public SecureConnectBundleCache(Path directory, Duration ttl, Duration refreshTimeout) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.refreshTimeout = refreshTimeout;
+    }
+
+    /**
+     * Gets a bundle, from disk when possible.
+     *
+     * @param databaseId
+     *      database identifier
+     * @param region
+     *      database region, null for the default bundle
+     * @param downloader
+     *      download the bundle from the DevOps API
+     * @return
+     *      secure connect bundle content
+     */
+    public byte[] get(String databaseId, String region, Supplier<byte[]> downloader) {
+        if (directory == null) {
+            return downloader.get();
+        }
+        String key = databaseId + "_" + (region == null ? DEFAULT_REGION : region);
+        Path bundleFile = directory.resolve(key + EXT_BUNDLE);
+        byte[] cached = read(bundleFile);
+        if (cached == null) {
+            LOGGER.debug("No bundle on disk for '{}', downloading", key);
+            return join(refresh(key, bundleFile, downloader));
+        }
+        long age = System.currentTimeMillis() - bundleFile.toFile().lastModified();
+        if (age < ttl.toMillis() * REFRESH_AHEAD_RATIO) {
+            LOGGER.debug("Bundle for '{}' loaded from disk", key);
+            return cached;
+        }
+        CompletableFuture<byte[]> refresh = refresh(key, bundleFile, downloader);
+        if (age < ttl.toMillis()) {
+            LOGGER.debug("Bundle for '{}' loaded from disk, refreshing in background", key);
+            return cached;
+        }
+        try {
+            return refresh.get(refreshTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Cannot refresh bundle for '{}' ({}), using stale bundle", key, e.toString());
+        }
+        return cached;
+    }
+
+    /**
+     * Delete a bundle from disk.
+     *
+     * @param databaseId
+     *      database identifier
+     * @param region
+     *      database region, null for the default bundle
+     */
+    public void invalidate(String databaseId, String region) {
+        if (directory != null) {
+            String key = databaseId + "_" + (region == null ? DEFAULT_REGION : region);
+            try {
+                Files.deleteIfExists(directory.resolve(key + EXT_BUNDLE));
+            } catch (IOException e) {
+                LOGGER.warn("Cannot delete bundle for '{}': {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Start a download, sharing the one in progress for the same key if any.
+     */
+    private CompletableFuture<byte[]> refresh(String key, Path bundleFile, Supplier<byte[]> downloader) {
+        CompletableFuture<byte[]> future = inFlight.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            byte[] bundle = downloader.get();
+            write(bundleFile, bundle);
+            return bundle;
+        }, REFRESH_EXECUTOR));
+        // Registered once mapped, a download completing first would otherwise stay in the map
+        future.whenComplete((b, e) -> inFlight.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Read a bundle and check it against the checksum of its header.
+     *
+     * @return
+     *      bundle content or null if absent or invalid
+     */
+    private byte[] read(Path bundleFile) {
+        if (!Files.exists(bundleFile)) {
+            return null;
+        }
+        try {
+            byte[] content = Files.readAllBytes(bundleFile);
+            if (content.length > HEADER_LENGTH) {
+                String expected = new String(content, 0, HEADER_LENGTH - 1, StandardCharsets.US_ASCII);
+                byte[] bundle = Arrays.copyOfRange(content, HEADER_LENGTH, content.length);
+                if (expected.equals(sha256(bundle))) {
+                    return bundle;
+                }
+            }
+            LOGGER.warn("Invalid checksum for bundle '{}', ignoring it", bundleFile);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot read bundle '{}': {}", bundleFile, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Write the checksum header and the bundle to a temporary file moved atomically, a reader sees the
+     * previous bundle or the new one, always with its own checksum.
+     */
+    private void write(Path bundleFile, byte[] bundle) {
+        Path tmpBundle = null;
+        try {
+            Files.createDirectories(directory);
+            tmpBundle = Files.createTempFile(directory, "scb", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmpBundle)) {
+                out.write((sha256(bundle) + "\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(bundle);
+            }
+            Files.move(tmpBundle, bundleFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Bundle saved to '{}'", bundleFile);
+        } catch (IOException e) {
+            // The cache is an optimization, the connection can go on
+            LOGGER.warn("Cannot save bundle '{}': {}", bundleFile, e.getMessage());
+        } finally {
+            deleteQuietly(tmpBundle);
+        }
+    }
+
+    /**
+     * Delete a temporary file left by a failed write, moved files are already gone.
+     */
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.debug("Cannot delete '{}': {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compute SHA-256 of the bundle as hexadecimal.
+     *
+     * @param content
+     *      content
+     * @return
+     *      checksum
+     */
+    static String sha256(byte[] content) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets directory
+     *
+     * @return value of directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+}
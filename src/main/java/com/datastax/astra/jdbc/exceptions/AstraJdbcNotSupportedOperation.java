@@ -4,6 +4,8 @@ import java.sql.SQLFeatureNotSupportedException;
 
 public class AstraJdbcNotSupportedOperation extends SQLFeatureNotSupportedException {
 
+    private static final long serialVersionUID = 1L;
+
     public AstraJdbcNotSupportedOperation(String reason) {
         super("Astra Jdbc Driver does not support this method '" + reason + "'");
     }
@@ -0,0 +1,65 @@
+package com.datastax.astra.jdbc.exceptions;
+
+import com.datastax.oss.driver.api.core.DriverExecutionException;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.InvalidKeyspaceException;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Errors of the Java driver reported as JDBC exceptions, by whether sending the query again may succeed.
+ * <ul>
+ *     <li>syntax errors, invalid queries and unknown keyspaces are {@link SQLSyntaxErrorException}</li>
+ *     <li>the other validation errors, unauthorized queries for instance, are {@link SQLNonTransientException}</li>
+ *     <li>client and server timeouts are {@link SQLTimeoutException}</li>
+ *     <li>other errors, unavailable or overloaded replicas for instance, are {@link SQLTransientException}
+ *     as with the jdbc wrapper</li>
+ * </ul>
+ */
+public final class DriverExceptions {
+
+    private DriverExceptions() {
+    }
+
+    /**
+     * JDBC exception of an error of the driver.
+     *
+     * @param error
+     *      error, as is or wrapped by a future
+     * @return
+     *      the error when already a JDBC exception, else a JDBC exception caused by it
+     */
+    public static SQLException toSQLException(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException
+                || cause instanceof DriverExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof SyntaxError || cause instanceof InvalidQueryException
+                || cause instanceof InvalidKeyspaceException) {
+            return new SQLSyntaxErrorException(cause.getMessage(), cause);
+        }
+        if (cause instanceof QueryValidationException) {
+            return new SQLNonTransientException(cause.getMessage(), cause);
+        }
+        if (cause instanceof DriverTimeoutException || cause instanceof ReadTimeoutException
+                || cause instanceof WriteTimeoutException) {
+            return new SQLTimeoutException(cause.getMessage(), cause);
+        }
+        return new SQLTransientException(cause.getMessage(), cause);
+    }
+}
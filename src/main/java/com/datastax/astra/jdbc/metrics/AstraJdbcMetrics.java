@@ -0,0 +1,260 @@
+package com.datastax.astra.jdbc.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metrics.DefaultNodeMetric;
+import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
+import com.datastax.oss.driver.api.core.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics of the driver and of its sessions.
+ * <p>
+ * The driver times the steps of the connect path in its own registry: DevOps API lookups, bundle
+ * downloads, region selections and the latency of each region probed, session builds and
+ * <code>connect()</code> calls, along with the hit ratio of its caches. The session and node metrics of the Java driver are enabled for every session
+ * unless set with the <code>driver.advanced.metrics</code> options.
+ * <p>
+ * Registries are published through JMX, in the <code>com.datastax.astra.jdbc</code> domain:
+ * <code>type=Driver</code> for the driver, <code>type=Statements</code> for the latencies by statement,
+ * see {@link StatementMetrics}, and <code>type=Session</code> for each session. With a
+ * Micrometer <code>MeterRegistry</code> set, the sessions built after it publish their metrics to it
+ * instead, through the <code>java-driver-metrics-micrometer</code> module to add to the classpath.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.metrics.enabled</code>: enable the session and node metrics (default true)</li>
+ *     <li><code>astra.jdbc.metrics.jmx</code>: publish the registries through JMX (default true)</li>
+ * </ul>
+ */
+public final class AstraJdbcMetrics {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcMetrics.class);
+
+    /** System property to enable the session and node metrics. */
+    public static final String PROP_ENABLED = "astra.jdbc.metrics.enabled";
+
+    /** System property to publish the registries through JMX. */
+    public static final String PROP_JMX = "astra.jdbc.metrics.jmx";
+
+    /** Domain of the MBeans. */
+    public static final String JMX_DOMAIN = "com.datastax.astra.jdbc";
+
+    /** Timer of the calls to the DevOps API resolving a database. */
+    public static final String DEVOPS_LOOKUP = "devops-lookup";
+
+    /** Timer of the secure connect bundle downloads. */
+    public static final String BUNDLE_DOWNLOAD = "bundle-download";
+
+    /** Timer of the region selections, probes included for <code>region=auto</code>. */
+    public static final String REGION_SELECTION = "region-selection";
+
+    /** Timers of the handshake latencies measured for <code>region=auto</code>, one per region suffix. */
+    public static final String REGION_PROBE = "region-probe";
+
+    /** Counters of the regions unreachable for <code>region=auto</code>, one per region suffix. */
+    public static final String REGION_UNREACHABLE = "region-unreachable";
+
+    /** Timer of the session builds, from the database resolution to the session ready. */
+    public static final String SESSION_BUILD = "session-build";
+
+    /** Timer of the <code>connect()</code> calls, waiting for the session included. */
+    public static final String CONNECT = "connect";
+
+    /** Session metrics of the Java driver enabled by default, the throttling queue without throttler aside. */
+    public static final List<String> SESSION_METRICS = Arrays.stream(DefaultSessionMetric.values())
+            .filter(metric -> metric != DefaultSessionMetric.THROTTLING_QUEUE_SIZE)
+            .map(DefaultSessionMetric::getPath)
+            .collect(Collectors.toList());
+
+    /** Session metrics of the Java driver enabled with a throttler. */
+    public static final List<String> THROTTLED_SESSION_METRICS = Arrays.stream(DefaultSessionMetric.values())
+            .map(DefaultSessionMetric::getPath)
+            .collect(Collectors.toList());
+
+    /** Node metrics of the Java driver enabled by default. */
+    public static final List<String> NODE_METRICS = Arrays.stream(DefaultNodeMetric.values())
+            .map(DefaultNodeMetric::getPath)
+            .collect(Collectors.toList());
+
+    /** Micrometer factory of the Java driver. */
+    public static final String MICROMETER_FACTORY = "MicrometerMetricsFactory";
+
+    /** Metrics of the driver. */
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    /** Latencies by statement. */
+    private static final StatementMetrics STATEMENTS = StatementMetrics.fromSystemProperties();
+
+    /** Micrometer registry of the sessions, null for the registries of the driver. */
+    private static volatile Object meterRegistry;
+
+    static {
+        try {
+            register(new ObjectName(JMX_DOMAIN, "type", "Driver"), REGISTRY, "Astra JDBC driver");
+            register(new ObjectName(JMX_DOMAIN, "type", "Statements"), STATEMENTS.getRegistry(),
+                    "Latencies by statement");
+        } catch (JMException e) {
+            LOGGER.warn("Cannot publish the metrics of the driver: {}", e.getMessage());
+        }
+    }
+
+    private AstraJdbcMetrics() {
+    }
+
+    /**
+     * Gets the registry of the driver metrics.
+     *
+     * @return
+     *      registry
+     */
+    public static MetricRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Gets the latencies by statement.
+     *
+     * @return
+     *      statement metrics
+     */
+    public static StatementMetrics getStatementMetrics() {
+        return STATEMENTS;
+    }
+
+    /**
+     * Gets a timer of the driver.
+     *
+     * @param name
+     *      timer name
+     * @return
+     *      timer
+     */
+    public static Timer timer(String name) {
+        return REGISTRY.timer(name);
+    }
+
+    /**
+     * Time a task.
+     *
+     * @param name
+     *      timer name
+     * @param task
+     *      task
+     * @param <T>
+     *      result type
+     * @return
+     *      result of the task
+     */
+    public static <T> T time(String name, Supplier<T> task) {
+        Timer.Context context = timer(name).time();
+        try {
+            return task.get();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Check if the session and node metrics are enabled.
+     *
+     * @return
+     *      value of the system property, true by default
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(PROP_ENABLED, "true"));
+    }
+
+    /**
+     * Set a Micrometer registry for the metrics of the sessions built from now on.
+     *
+     * @param registry
+     *      <code>io.micrometer.core.instrument.MeterRegistry</code>, null for the registries of the driver
+     */
+    public static void setMeterRegistry(Object registry) {
+        meterRegistry = registry;
+    }
+
+    /**
+     * Gets the Micrometer registry of the sessions.
+     *
+     * @return
+     *      registry, empty for the registries of the driver
+     */
+    public static Optional<Object> getMeterRegistry() {
+        return Optional.ofNullable(meterRegistry);
+    }
+
+    /**
+     * Publish the metrics of a session through JMX.
+     *
+     * @param name
+     *      label of the session
+     * @param session
+     *      session
+     * @return
+     *      name of the MBean, null when not published
+     */
+    public static ObjectName registerSession(String name, CqlSession session) {
+        Optional<Metrics> metrics = session.getMetrics();
+        if (!metrics.isPresent()) {
+            return null;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Session,name=" + ObjectName.quote(name)
+                    + ",session=" + ObjectName.quote(session.getName()));
+            return register(objectName, metrics.get().getRegistry(), "Session " + name)
+                    ? objectName : null;
+        } catch (JMException e) {
+            LOGGER.warn("Cannot publish the metrics of session '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Remove an MBean.
+     *
+     * @param objectName
+     *      name of the MBean, ignored when null
+     */
+    public static void unregister(ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            LOGGER.debug("Cannot remove MBean {}: {}", objectName, e.getMessage());
+        }
+    }
+
+    private static boolean register(ObjectName objectName, MetricRegistry registry, String description) {
+        if (!Boolean.parseBoolean(System.getProperty(PROP_JMX, "true"))) {
+            return false;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new MetricRegistryMBean(registry, description), objectName);
+            return true;
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warn("Cannot publish the metrics of {}: {}", objectName, e.getMessage());
+            return false;
+        }
+    }
+}
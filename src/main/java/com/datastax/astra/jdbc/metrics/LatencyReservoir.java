@@ -0,0 +1,141 @@
+package com.datastax.astra.jdbc.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservoir of a timer over an HdrHistogram with two significant digits, as the reservoir of the
+ * Java driver: the latencies are recorded in an interval histogram, swapped for a new one once the
+ * refresh interval elapsed. A snapshot is the last complete interval, so the percentiles follow the
+ * recent latencies and the memory stays bounded. Values are kept in microseconds, the histograms
+ * grow with the highest latency recorded, a few kilobytes for latencies up to a second.
+ * <p>
+ * As the reservoir of the Java driver, snapshots do not list the values.
+ */
+final class LatencyReservoir implements Reservoir {
+
+    /** Nanoseconds in a microsecond, the unit of the histogram. */
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /** Latencies of the current interval, in microseconds. */
+    private final Recorder recorder = new Recorder(2);
+
+    /** Time between two swaps of the interval histogram. */
+    private final long refreshIntervalNanos;
+
+    /** Histogram recycled by the recorder at each swap. */
+    private Histogram intervalHistogram;
+
+    /** Latencies of the last complete interval. */
+    private Histogram lastInterval;
+
+    /** Time of the last swap. */
+    private long lastRefreshNanos;
+
+    /**
+     * Create the reservoir.
+     *
+     * @param refreshInterval
+     *      time between two swaps of the interval histogram
+     */
+    LatencyReservoir(Duration refreshInterval) {
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.intervalHistogram = recorder.getIntervalHistogram();
+        this.lastInterval = intervalHistogram.copy();
+        this.lastRefreshNanos = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(long nanos) {
+        recorder.recordValue(Math.max(0, nanos / NANOS_PER_MICRO));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long now = System.nanoTime();
+        if (now - lastRefreshNanos >= refreshIntervalNanos) {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            lastInterval = intervalHistogram.copy();
+            lastRefreshNanos = now;
+        }
+        return new LatencySnapshot(lastInterval);
+    }
+
+    /**
+     * Copy of the histogram, in nanoseconds as the other snapshots of a timer.
+     */
+    private static final class LatencySnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        private LatencySnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100) * NANOS_PER_MICRO;
+        }
+
+        /**
+         * Not supported, the values are not kept.
+         */
+        @Override
+        public long[] getValues() {
+            throw new UnsupportedOperationException("Latency snapshots do not list the values");
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue() * NANOS_PER_MICRO;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMean() {
+            return histogram.getMean() * NANOS_PER_MICRO;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getMin() {
+            return histogram.getMinValue() * NANOS_PER_MICRO;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation() * NANOS_PER_MICRO;
+        }
+
+        /**
+         * Not supported, the values are not kept.
+         */
+        @Override
+        public void dump(OutputStream output) {
+            throw new UnsupportedOperationException("Latency snapshots do not list the values");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.datastax.astra.jdbc.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a registry as the read-only attributes of an MBean, listed again on each call as metrics
+ * appear with the nodes and requests:
+ * <ul>
+ *     <li>gauge: <code>name</code>, its value</li>
+ *     <li>counter: <code>name</code>, its count</li>
+ *     <li>meter: <code>name.count</code> and <code>name.m1-rate</code> per second</li>
+ *     <li>histogram: <code>name.count</code>, <code>name.mean</code>, <code>name.p50</code>,
+ *     <code>name.p99</code> and <code>name.max</code></li>
+ *     <li>timer: as a histogram in milliseconds, and <code>name.m1-rate</code> per second</li>
+ * </ul>
+ */
+final class MetricRegistryMBean implements DynamicMBean {
+
+    /** Nanoseconds in a millisecond, the unit of the timers. */
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Metrics published. */
+    private final MetricRegistry registry;
+
+    /** Description of the MBean. */
+    private final String description;
+
+    MetricRegistryMBean(MetricRegistry registry, String description) {
+        this.registry = registry;
+        this.description = description;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Map<String, Object> values = values();
+        if (!values.containsKey(attribute)) {
+            throw new AttributeNotFoundException("No metric " + attribute);
+        }
+        return values.get(attribute);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = values();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            if (values.containsKey(attribute)) {
+                list.add(new Attribute(attribute, values.get(attribute)));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Metrics are read-only.
+     */
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric " + attribute.getName() + " is read-only");
+    }
+
+    /**
+     * Metrics are read-only.
+     */
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    /**
+     * No operation.
+     */
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Object> values = values();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(value.getKey(), value.getValue().getClass().getName(),
+                    value.getKey(), true, false, false);
+        }
+        return new MBeanInfo(getClass().getName(), description, attributes, null,
+                new MBeanOperationInfo[0], null);
+    }
+
+    /**
+     * Values of the attributes, by name.
+     */
+    private Map<String, Object> values() {
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Metric> entry : registry.getMetrics().entrySet()) {
+            String name = entry.getKey();
+            Metric metric = entry.getValue();
+            if (metric instanceof Gauge) {
+                Object value = ((Gauge<?>) metric).getValue();
+                if (value != null) {
+                    values.put(name, value instanceof Number || value instanceof Boolean ? value : value.toString());
+                }
+            } else if (metric instanceof Counter) {
+                values.put(name, ((Counter) metric).getCount());
+            } else if (metric instanceof Timer) {
+                Timer timer = (Timer) metric;
+                putSnapshot(values, name, timer.getCount(), timer.getSnapshot(), NANOS_PER_MILLI);
+                values.put(name + ".m1-rate", timer.getOneMinuteRate());
+            } else if (metric instanceof Histogram) {
+                Histogram histogram = (Histogram) metric;
+                putSnapshot(values, name, histogram.getCount(), histogram.getSnapshot(), 1);
+            } else if (metric instanceof Meter) {
+                values.put(name + ".count", ((Meter) metric).getCount());
+                values.put(name + ".m1-rate", ((Meter) metric).getOneMinuteRate());
+            }
+        }
+        return values;
+    }
+
+    private static void putSnapshot(Map<String, Object> values, String name, long count, Snapshot snapshot,
+            double unit) {
+        values.put(name + ".count", count);
+        values.put(name + ".mean", snapshot.getMean() / unit);
+        values.put(name + ".p50", snapshot.getMedian() / unit);
+        values.put(name + ".p99", snapshot.get99thPercentile() / unit);
+        values.put(name + ".max", snapshot.getMax() / unit);
+    }
+}
@@ -0,0 +1,116 @@
+package com.datastax.astra.jdbc.metrics;
+
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request of a statement: the first page or a next one.
+ */
+public final class StatementExecution {
+
+    /** Normalized CQL, the key of the latencies. */
+    private final String query;
+
+    /** Statement executed. */
+    private final Statement<?> statement;
+
+    /** Page requested, from 1. */
+    private final int page;
+
+    /** Latency of the request. */
+    private final long latencyNanos;
+
+    /** Coordinator of the request, null when unknown. */
+    private final Node coordinator;
+
+    /** Error of the request, null when succeeded. */
+    private final Throwable error;
+
+    /** Set when over the slow query threshold of the connection. */
+    private final boolean slow;
+
+    StatementExecution(String query, Statement<?> statement, int page, long latencyNanos, Node coordinator,
+            Throwable error, boolean slow) {
+        this.query = query;
+        this.statement = statement;
+        this.page = page;
+        this.latencyNanos = latencyNanos;
+        this.coordinator = coordinator;
+        this.error = error;
+        this.slow = slow;
+    }
+
+    /**
+     * Gets query
+     *
+     * @return value of query, CQL with the literals replaced by <code>?</code>
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets statement
+     *
+     * @return value of statement
+     */
+    public Statement<?> getStatement() {
+        return statement;
+    }
+
+    /**
+     * Gets page
+     *
+     * @return value of page, 1 for the first page
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets latencyNanos
+     *
+     * @return value of latencyNanos
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Gets the latency in milliseconds.
+     *
+     * @return value of latencyNanos in milliseconds
+     */
+    public long getLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+    }
+
+    /**
+     * Gets coordinator
+     *
+     * @return value of coordinator, null when unknown
+     */
+    public Node getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Gets error
+     *
+     * @return value of error, null when succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Gets slow
+     *
+     * @return value of slow
+     */
+    public boolean isSlow() {
+        return slow;
+    }
+}
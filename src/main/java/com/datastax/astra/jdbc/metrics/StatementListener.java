@@ -0,0 +1,20 @@
+package com.datastax.astra.jdbc.metrics;
+
+/**
+ * Listener of the requests of the statements, registered with
+ * {@link StatementMetrics#addListener(StatementListener)}.
+ * <p>
+ * Called on the threads of the Java driver once each page is received or failed: the listener must
+ * not block.
+ */
+@FunctionalInterface
+public interface StatementListener {
+
+    /**
+     * A request of a statement completed.
+     *
+     * @param execution
+     *      statement, page, latency and coordinator of the request
+     */
+    void onExecution(StatementExecution execution);
+}
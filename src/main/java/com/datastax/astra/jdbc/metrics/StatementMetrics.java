@@ -0,0 +1,391 @@
+package com.datastax.astra.jdbc.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Latencies of the requests by statement, always on.
+ * <p>
+ * Each request is timed, the first page of a statement and each next page, in a timer named after
+ * its normalized CQL: the literals replaced by <code>?</code> and the blanks collapsed, so that the
+ * statements differing by their values share a timer. Latencies are kept in an HdrHistogram
+ * refreshed every <code>astra.jdbc.statement.metrics.refresh-interval</code> seconds, see
+ * {@link LatencyReservoir}. Past <code>astra.jdbc.statement.metrics.max-statements</code> statements,
+ * the next ones are timed together under <code>other</code>.
+ * <p>
+ * A request over the slow query threshold of its connection is logged on the
+ * <code>com.datastax.astra.jdbc.metrics.StatementMetrics.slow</code> logger, with the normalized CQL,
+ * the sizes of the bound values, the coordinator and the page. Listeners receive all the requests.
+ */
+public final class StatementMetrics {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementMetrics.class);
+
+    /** Logger of the slow queries. */
+    private static final Logger SLOW_LOGGER = LoggerFactory.getLogger(StatementMetrics.class.getName() + ".slow");
+
+    /** System property for the max number of statements timed apart. */
+    public static final String PROP_MAX_STATEMENTS = "astra.jdbc.statement.metrics.max-statements";
+
+    /** Default max number of statements timed apart. */
+    public static final int DEFAULT_MAX_STATEMENTS = 500;
+
+    /** System property for the seconds between two refreshes of the latency histograms. */
+    public static final String PROP_REFRESH_INTERVAL = "astra.jdbc.statement.metrics.refresh-interval";
+
+    /** Default seconds between two refreshes of the latency histograms, as the driver. */
+    public static final int DEFAULT_REFRESH_INTERVAL = 300;
+
+    /** Max characters of the queries and their normalized form kept apart from the timers. */
+    private static final int MAX_QUERY_CHARS = 4 * 1024 * 1024;
+
+    /** Timer of the statements past the max. */
+    public static final String OTHER = "other";
+
+    /** String, uuid, blob and number literals. */
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'"
+            + "|\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b"
+            + "|\\b0[xX][0-9a-fA-F]*\\b"
+            + "|(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?(?![\\w.])");
+
+    /** Blanks. */
+    private static final Pattern BLANKS = Pattern.compile("\\s+");
+
+    /** Timers by statement. */
+    private final MetricRegistry registry = new MetricRegistry();
+
+    /** Timers by normalized CQL, without the copies of the registry lookups. */
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /** Normalized CQL by query, not normalized again for each request, bounded by their length. */
+    private final Cache<String, String> queries = Caffeine.newBuilder()
+            .maximumWeight(MAX_QUERY_CHARS)
+            .weigher((String query, String normalized) -> query.length() + normalized.length())
+            .build();
+
+    /** Max number of statements timed apart, 0 to disable. */
+    private final int maxStatements;
+
+    /** Time between two refreshes of the latency histograms. */
+    private final Duration refreshInterval;
+
+    /** Listeners of the requests. */
+    private final List<StatementListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create the metrics.
+     *
+     * @param maxStatements
+     *      max number of statements timed apart, 0 to disable
+     */
+    public StatementMetrics(int maxStatements) {
+        this(maxStatements, Duration.ofSeconds(DEFAULT_REFRESH_INTERVAL));
+    }
+
+    /**
+     * Create the metrics.
+     *
+     * @param maxStatements
+     *      max number of statements timed apart, 0 to disable
+     * @param refreshInterval
+     *      time between two refreshes of the latency histograms, the percentiles are the ones of the
+     *      last complete interval
+     */
+    public StatementMetrics(int maxStatements, Duration refreshInterval) {
+        this.maxStatements = maxStatements;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Create the metrics with the settings of the system properties.
+     *
+     * @return
+     *      statement metrics
+     */
+    public static StatementMetrics fromSystemProperties() {
+        return new StatementMetrics(Integer.getInteger(PROP_MAX_STATEMENTS, DEFAULT_MAX_STATEMENTS),
+                Duration.ofSeconds(Integer.getInteger(PROP_REFRESH_INTERVAL, DEFAULT_REFRESH_INTERVAL)));
+    }
+
+    /**
+     * Execute a statement, timing its first page and the next ones.
+     *
+     * @param statement
+     *      statement to execute
+     * @param slowQueryThreshold
+     *      latency above which a request is logged, null to log none
+     * @param executor
+     *      execution of the statement
+     * @return
+     *      first page, timing the next ones
+     */
+    public CompletionStage<AsyncResultSet> execute(Statement<?> statement, Duration slowQueryThreshold,
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor) {
+        if (maxStatements <= 0 && listeners.isEmpty() && slowQueryThreshold == null) {
+            return executor.apply(statement);
+        }
+        Tracking tracking = new Tracking(statement, slowQueryThreshold == null ? Long.MAX_VALUE
+                : slowQueryThreshold.toNanos());
+        return tracking.track(1, System.nanoTime(), executor.apply(statement));
+    }
+
+    /**
+     * Add a listener of the requests.
+     *
+     * @param listener
+     *      listener
+     */
+    public void addListener(StatementListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener of the requests.
+     *
+     * @param listener
+     *      listener
+     */
+    public void removeListener(StatementListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the timers by normalized CQL.
+     *
+     * @return
+     *      registry
+     */
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Replace the literals of a query by <code>?</code> and collapse its blanks.
+     *
+     * @param query
+     *      CQL query
+     * @return
+     *      normalized query
+     */
+    public static String normalize(String query) {
+        String normalized = LITERALS.matcher(query).replaceAll("?");
+        return BLANKS.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Normalized CQL of a statement.
+     */
+    private String queryOf(Statement<?> statement) {
+        if (statement instanceof BatchStatement) {
+            Set<String> batched = new LinkedHashSet<>();
+            for (BatchableStatement<?> child : (BatchStatement) statement) {
+                batched.add(queryOf(child));
+            }
+            return "BATCH " + String.join("; ", batched);
+        }
+        String query;
+        if (statement instanceof BoundStatement) {
+            query = ((BoundStatement) statement).getPreparedStatement().getQuery();
+        } else if (statement instanceof SimpleStatement) {
+            query = ((SimpleStatement) statement).getQuery();
+        } else {
+            return statement.getClass().getSimpleName();
+        }
+        return queries.get(query, StatementMetrics::normalize);
+    }
+
+    /**
+     * Timer of a normalized query, or the one of the other statements past the max.
+     */
+    private Timer timerOf(String query) {
+        Timer timer = timers.get(query);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(timers.size() >= maxStatements ? OTHER : query,
+                name -> registry.timer(name, () -> new Timer(new LatencyReservoir(refreshInterval))));
+    }
+
+    /**
+     * Sizes of the values of a statement for the logs.
+     */
+    private static String describeValues(Statement<?> statement) {
+        if (statement instanceof BoundStatement && !((BoundStatement) statement).getValues().isEmpty()) {
+            StringJoiner sizes = new StringJoiner(", ", "values [", "] bytes");
+            for (ByteBuffer value : ((BoundStatement) statement).getValues()) {
+                sizes.add(value == null ? "null" : String.valueOf(value.remaining()));
+            }
+            return sizes.toString();
+        }
+        if (statement instanceof BatchStatement) {
+            return ((BatchStatement) statement).size() + " statements";
+        }
+        if (statement instanceof SimpleStatement) {
+            SimpleStatement simple = (SimpleStatement) statement;
+            return (simple.getPositionalValues().size() + simple.getNamedValues().size()) + " values";
+        }
+        return "no values";
+    }
+
+    /**
+     * Requests of one execution of a statement.
+     */
+    private final class Tracking {
+
+        private final Statement<?> statement;
+
+        private final long slowNanos;
+
+        private String query;
+
+        private Timer timer;
+
+        private Tracking(Statement<?> statement, long slowNanos) {
+            this.statement = statement;
+            this.slowNanos = slowNanos;
+        }
+
+        /**
+         * Time a page, and the next ones through the result set.
+         */
+        private CompletionStage<AsyncResultSet> track(int page, long start, CompletionStage<AsyncResultSet> stage) {
+            return stage
+                    .whenComplete((rs, error) -> record(page, System.nanoTime() - start, rs, error))
+                    .thenApply(rs -> rs.hasMorePages() ? new TrackedAsyncResultSet(rs, this, page) : rs);
+        }
+
+        private void record(int page, long latencyNanos, AsyncResultSet rs, Throwable error) {
+            try {
+                if (query == null) {
+                    query = queryOf(statement);
+                    timer = maxStatements > 0 ? timerOf(query) : null;
+                }
+                if (timer != null) {
+                    timer.update(latencyNanos, TimeUnit.NANOSECONDS);
+                }
+                boolean slow = latencyNanos >= slowNanos;
+                if (!slow && listeners.isEmpty()) {
+                    return;
+                }
+                Node coordinator = coordinatorOf(rs, error);
+                if (slow) {
+                    SLOW_LOGGER.warn("Slow query: {} ms, page {}, coordinator {}, {}{}: {}",
+                            TimeUnit.NANOSECONDS.toMillis(latencyNanos), page,
+                            coordinator == null ? "unknown" : coordinator.getEndPoint(), describeValues(statement),
+                            error == null ? "" : ", failed with " + error, query);
+                }
+                StatementExecution execution = new StatementExecution(query, statement, page, latencyNanos,
+                        coordinator, error, slow);
+                for (StatementListener listener : listeners) {
+                    listener.onExecution(execution);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("Cannot record the latency of a statement: {}", e.toString());
+            }
+        }
+
+        private Node coordinatorOf(AsyncResultSet rs, Throwable error) {
+            if (rs != null) {
+                return rs.getExecutionInfo().getCoordinator();
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof DriverException) {
+                ExecutionInfo info = ((DriverException) cause).getExecutionInfo();
+                return info == null ? null : info.getCoordinator();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Page of a result set, timing the request of the next page.
+     */
+    private static final class TrackedAsyncResultSet implements AsyncResultSet {
+
+        private final AsyncResultSet page;
+
+        private final Tracking tracking;
+
+        private final int pageNumber;
+
+        private TrackedAsyncResultSet(AsyncResultSet page, Tracking tracking, int pageNumber) {
+            this.page = page;
+            this.tracking = tracking;
+            this.pageNumber = pageNumber;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return page.getColumnDefinitions();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ExecutionInfo getExecutionInfo() {
+            return page.getExecutionInfo();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int remaining() {
+            return page.remaining();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterable<Row> currentPage() {
+            return page.currentPage();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasMorePages() {
+            return page.hasMorePages();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public CompletionStage<AsyncResultSet> fetchNextPage() throws IllegalStateException {
+            return tracking.track(pageNumber + 1, System.nanoTime(), page.fetchNextPage());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean wasApplied() {
+            return page.wasApplied();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.datastax.astra.jdbc.pool;
+
+import com.datastax.astra.jdbc.AstraJdbcPooledConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lightweight pool of connections over the shared session.
+ * <p>
+ * Borrow and return are lock free: idle connections sit in a concurrent deque (last returned is
+ * borrowed first) and the pool size is a counter. When the pool is exhausted, borrowers wait on a
+ * condition signaled as connections are returned or closed. A housekeeping task closes connections
+ * past their max lifetime, keeps the min size and reports connections held longer than the leak
+ * detection threshold, with the stack trace of the borrower.
+ */
+public class AstraJdbcConnectionPool implements AutoCloseable {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcConnectionPool.class);
+
+    /** Housekeeping for all pools, the tasks of the closed pools are removed. */
+    private static final ScheduledThreadPoolExecutor HOUSEKEEPER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "astra-jdbc-pool-housekeeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        HOUSEKEEPER.setRemoveOnCancelPolicy(true);
+    }
+
+    /** Period of the housekeeping in milliseconds. */
+    private static final long HOUSEKEEPING_PERIOD = 5000;
+
+    /** Open connections. */
+    private final Callable<AstraJdbcPooledConnection> connectionFactory;
+
+    /** Min number of connections kept open. */
+    private final int minSize;
+
+    /** Max number of connections. */
+    private final int maxSize;
+
+    /** Max lifetime of a connection in nanoseconds, 0 for no limit. */
+    private final long maxLifetimeNanos;
+
+    /** Time in nanoseconds after which a borrowed connection is reported as leaked, 0 to disable. */
+    private final long leakThresholdNanos;
+
+    /** Max wait in nanoseconds for a connection when the pool is exhausted. */
+    private final long borrowTimeoutNanos;
+
+    /** Idle connections. */
+    private final Deque<PoolEntry> idle = new ConcurrentLinkedDeque<>();
+
+    /** All connections, idle or borrowed. */
+    private final Set<PoolEntry> entries = ConcurrentHashMap.newKeySet();
+
+    /** Number of connections, including the ones being opened. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Set when the pool is closed. */
+    private volatile boolean closed;
+
+    /** Borrowers waiting for a connection, the returns only signal when there is one. */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /** Guards the wait of the borrowers, not a monitor to leave virtual threads unpinned. */
+    private final ReentrantLock waitLock = new ReentrantLock();
+
+    /** Signaled when a connection is returned or closed. */
+    private final Condition available = waitLock.newCondition();
+
+    /** Housekeeping of the pool, cancelled on close. */
+    private final ScheduledFuture<?> houseKeeping;
+
+    /**
+     * Create the pool.
+     *
+     * @param connectionFactory
+     *      open connections
+     * @param minSize
+     *      min number of connections kept open
+     * @param maxSize
+     *      max number of connections
+     * @param maxLifetimeMillis
+     *      max lifetime of a connection, 0 for no limit
+     * @param leakThresholdMillis
+     *      time after which a borrowed connection is reported as leaked, 0 to disable
+     * @param borrowTimeoutMillis
+     *      max wait for a connection when the pool is exhausted
+     */
+    public AstraJdbcConnectionPool(Callable<AstraJdbcPooledConnection> connectionFactory, int minSize, int maxSize,
+                                   long maxLifetimeMillis, long leakThresholdMillis, long borrowTimeoutMillis) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size, expecting 0 <= min <= max and max >= 1");
+        }
+        this.connectionFactory = connectionFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.houseKeeping = HOUSEKEEPER.scheduleWithFixedDelay(this::houseKeeping, 0, HOUSEKEEPING_PERIOD,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, returned to the pool when its logical connection is closed.
+     *
+     * @return
+     *      pooled connection
+     * @throws SQLException
+     *      the pool is closed or exhausted, or a connection cannot be opened
+     */
+    public AstraJdbcPooledConnection borrow() throws SQLException {
+        long deadline = 0;
+        while (!closed) {
+            PoolEntry entry = idle.pollFirst();
+            if (entry != null) {
+                if (entry.isUsable(maxLifetimeNanos) && entry.borrow(leakThresholdNanos > 0)) {
+                    return entry.getPooledConnection();
+                }
+                discard(entry);
+                continue;
+            }
+            int current = size.get();
+            if (current < maxSize) {
+                if (size.compareAndSet(current, current + 1)) {
+                    entry = open();
+                    entry.borrow(leakThresholdNanos > 0);
+                    return entry.getPooledConnection();
+                }
+                continue;
+            }
+            // Exhausted, wait for a connection to be returned
+            if (deadline == 0) {
+                deadline = System.nanoTime() + borrowTimeoutNanos;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SQLTransientConnectionException("Connection pool exhausted, no connection available after "
+                        + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + "ms (max size " + maxSize + ")");
+            }
+            awaitAvailable(remaining);
+        }
+        throw new SQLTransientConnectionException("Connection pool is closed");
+    }
+
+    /**
+     * Wait for a connection to be returned or closed.
+     *
+     * @param timeoutNanos
+     *      max wait
+     * @throws SQLException
+     *      interrupted
+     */
+    private void awaitAvailable(long timeoutNanos) throws SQLException {
+        waiters.incrementAndGet();
+        waitLock.lock();
+        try {
+            // Checked once counted as waiter: a return either sees the waiter or is seen here
+            if (!closed && idle.isEmpty() && size.get() >= maxSize) {
+                available.awaitNanos(timeoutNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        } finally {
+            waitLock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wake up a waiting borrower, if any.
+     *
+     * @param all
+     *      wake up all waiting borrowers
+     */
+    private void signalAvailable(boolean all) {
+        if (waiters.get() == 0) {
+            return;
+        }
+        waitLock.lock();
+        try {
+            if (all) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Return a connection, called when the logical connection is closed.
+     *
+     * @param entry
+     *      pool entry
+     */
+    void release(PoolEntry entry) {
+        if (!entry.giveBack()) {
+            return;
+        }
+        if (closed || !entry.isUsable(maxLifetimeNanos)) {
+            discard(entry);
+        } else {
+            idle.offerFirst(entry);
+            signalAvailable(false);
+        }
+    }
+
+    /**
+     * Close a connection and remove it from the pool.
+     *
+     * @param entry
+     *      pool entry
+     */
+    void discard(PoolEntry entry) {
+        if (entries.remove(entry)) {
+            size.decrementAndGet();
+            entry.close();
+            signalAvailable(false);
+        }
+    }
+
+    private PoolEntry open() throws SQLException {
+        try {
+            PoolEntry entry = new PoolEntry(this, connectionFactory.call());
+            entries.add(entry);
+            return entry;
+        } catch (Exception e) {
+            size.decrementAndGet();
+            if (e instanceof SQLException) {
+                throw (SQLException) e;
+            }
+            throw new SQLException("Cannot open connection: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Close expired idle connections, report leaks and keep the min size.
+     */
+    private void houseKeeping() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PoolEntry entry : entries) {
+            if (entry.isIdle() && !entry.isUsable(maxLifetimeNanos) && idle.remove(entry)) {
+                discard(entry);
+            } else if (leakThresholdNanos > 0) {
+                entry.reportLeak(now, leakThresholdNanos);
+            }
+        }
+        try {
+            int current;
+            while (!closed && (current = size.get()) < minSize) {
+                if (size.compareAndSet(current, current + 1)) {
+                    PoolEntry entry = open();
+                    idle.offerLast(entry);
+                    signalAvailable(false);
+                    if (closed && idle.remove(entry)) {
+                        // Closed while opening, close() may not have seen it
+                        discard(entry);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Cannot fill the pool to its min size: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Close all connections, borrowed connections are closed when returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        houseKeeping.cancel(false);
+        signalAvailable(true);
+        PoolEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * Gets the number of connections.
+     *
+     * @return value of size
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return value of idle connections
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of borrowed connections.
+     *
+     * @return value of borrowed connections
+     */
+    public int getActive() {
+        return Math.max(0, entries.size() - idle.size());
+    }
+
+    /**
+     * Gets maxSize
+     *
+     * @return value of maxSize
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets minSize
+     *
+     * @return value of minSize
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+}
@@ -0,0 +1,164 @@
+package com.datastax.astra.jdbc.pool;
+
+import com.datastax.astra.jdbc.AstraJdbcPooledConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection of the pool, listening to the close of its logical connections.
+ */
+class PoolEntry implements ConnectionEventListener {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolEntry.class);
+
+    /** Entry in the idle queue. */
+    private static final int IDLE = 0;
+
+    /** Entry borrowed. */
+    private static final int IN_USE = 1;
+
+    /** Owning pool. */
+    private final AstraJdbcConnectionPool pool;
+
+    /** Physical connection. */
+    private final AstraJdbcPooledConnection pooledConnection;
+
+    /** Creation time. */
+    private final long createdAt = System.nanoTime();
+
+    /** IDLE or IN_USE. */
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    /** Last borrow time. */
+    private volatile long borrowedAt;
+
+    /** Stack of the last borrower, when leak detection is enabled. */
+    private volatile Throwable borrowStack;
+
+    /** Set once the current borrow has been reported as leaked. */
+    private volatile boolean leakReported;
+
+    /**
+     * Wrap a connection.
+     *
+     * @param pool
+     *      owning pool
+     * @param pooledConnection
+     *      physical connection
+     */
+    PoolEntry(AstraJdbcConnectionPool pool, AstraJdbcPooledConnection pooledConnection) {
+        this.pool = pool;
+        this.pooledConnection = pooledConnection;
+        pooledConnection.addConnectionEventListener(this);
+    }
+
+    /**
+     * Mark the entry as borrowed.
+     *
+     * @param trackStack
+     *      keep the stack of the borrower for leak reports
+     * @return
+     *      false if already borrowed
+     */
+    boolean borrow(boolean trackStack) {
+        if (!state.compareAndSet(IDLE, IN_USE)) {
+            return false;
+        }
+        borrowedAt = System.nanoTime();
+        borrowStack = trackStack ? new Exception("Connection borrowed here") : null;
+        leakReported = false;
+        return true;
+    }
+
+    /**
+     * Mark the entry as idle.
+     *
+     * @return
+     *      false if already idle
+     */
+    boolean giveBack() {
+        return state.compareAndSet(IN_USE, IDLE);
+    }
+
+    /**
+     * Check the connection can be borrowed.
+     *
+     * @param maxLifetimeNanos
+     *      max lifetime, 0 for no limit
+     * @return
+     *      false if expired or closed
+     */
+    boolean isUsable(long maxLifetimeNanos) {
+        return (maxLifetimeNanos == 0 || System.nanoTime() - createdAt < maxLifetimeNanos)
+                && !pooledConnection.isPhysicallyClosed();
+    }
+
+    /**
+     * Check the entry is not borrowed.
+     *
+     * @return
+     *      true when idle
+     */
+    boolean isIdle() {
+        return state.get() == IDLE;
+    }
+
+    /**
+     * Log a warning if the connection is borrowed for too long.
+     *
+     * @param now
+     *      current time
+     * @param thresholdNanos
+     *      leak detection threshold
+     */
+    void reportLeak(long now, long thresholdNanos) {
+        if (state.get() == IN_USE && !leakReported && now - borrowedAt > thresholdNanos) {
+            leakReported = true;
+            LOGGER.warn("Connection borrowed for {}ms without being closed, possible leak",
+                    TimeUnit.NANOSECONDS.toMillis(now - borrowedAt), borrowStack);
+        }
+    }
+
+    /**
+     * Close the connection.
+     */
+    void close() {
+        try {
+            pooledConnection.close();
+        } catch (SQLException e) {
+            LOGGER.debug("Error closing pooled connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets pooledConnection
+     *
+     * @return value of pooledConnection
+     */
+    AstraJdbcPooledConnection getPooledConnection() {
+        return pooledConnection;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        pool.release(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        LOGGER.debug("Connection error, removing it from the pool: {}",
+                event.getSQLException() != null ? event.getSQLException().getMessage() : "unknown");
+        if (giveBack()) {
+            pool.discard(this);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ing.data.cassandra.jdbc;
+
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.ing.data.cassandra.jdbc.metadata.ColumnMetadataResultSetBuilder;
+import com.ing.data.cassandra.jdbc.metadata.MetadataResultSet;
+import com.ing.data.cassandra.jdbc.metadata.MetadataRow;
+import com.ing.data.cassandra.jdbc.metadata.TableMetadataResultSetBuilder;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Database metadata reading the tables, columns, indexes and primary keys from the rows shared by the
+ * connections of the session, see {@link MetadataCache}. The other methods, and all of them when the cache
+ * is disabled, are the ones of the wrapper.
+ * <p>
+ * In the package of the jdbc wrapper as its constructors are package-private.
+ */
+public class AstraJdbcDatabaseMetaData extends CassandraDatabaseMetaData {
+
+    /** Connection of the metadata. */
+    private final CassandraConnection connection;
+
+    /** Rows of the session. */
+    private final MetadataCache metadataCache;
+
+    /** Statement of the result sets, created again once closed. */
+    private CassandraStatement statement;
+
+    /**
+     * Create the metadata of a connection.
+     *
+     * @param connection
+     *      connection
+     * @param metadataCache
+     *      rows cached on the session of the connection
+     * @throws SQLException
+     *      connection closed
+     */
+    public AstraJdbcDatabaseMetaData(CassandraConnection connection, MetadataCache metadataCache)
+            throws SQLException {
+        super(connection);
+        this.connection = connection;
+        this.metadataCache = metadataCache;
+        this.statement = new CassandraStatement(connection);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types)
+            throws SQLException {
+        if (!metadataCache.isEnabled()) {
+            return super.getTables(catalog, schemaPattern, tableNamePattern, types);
+        }
+        if (isCatalog(catalog) && (types == null || Arrays.asList(types).contains("TABLE"))) {
+            return rows(MetadataCache.Kind.TABLES, schemaPattern, tableNamePattern, null);
+        }
+        return CassandraResultSet.EMPTY_RESULT_SET;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern,
+            String columnNamePattern) throws SQLException {
+        if (!metadataCache.isEnabled()) {
+            return super.getColumns(catalog, schemaPattern, tableNamePattern, columnNamePattern);
+        }
+        if (isCatalog(catalog)) {
+            return rows(MetadataCache.Kind.COLUMNS, schemaPattern, tableNamePattern, columnNamePattern);
+        }
+        return CassandraResultSet.EMPTY_RESULT_SET;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet getIndexInfo(String catalog, String schema, String table, boolean unique, boolean approximate)
+            throws SQLException {
+        if (!metadataCache.isEnabled()) {
+            return super.getIndexInfo(catalog, schema, table, unique, approximate);
+        }
+        // The indexes of Cassandra are not unique, the wrapper returns them all whatever the flags
+        if (isCatalog(catalog)) {
+            return rows(MetadataCache.Kind.INDEXES, schema, table, null);
+        }
+        return CassandraResultSet.EMPTY_RESULT_SET;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet getPrimaryKeys(String catalog, String schema, String table) throws SQLException {
+        if (!metadataCache.isEnabled()) {
+            return super.getPrimaryKeys(catalog, schema, table);
+        }
+        if (isCatalog(catalog)) {
+            return rows(MetadataCache.Kind.PRIMARY_KEYS, schema, table, null);
+        }
+        return CassandraResultSet.EMPTY_RESULT_SET;
+    }
+
+    private boolean isCatalog(String catalog) throws SQLException {
+        return catalog == null || catalog.equals(connection.getCatalog());
+    }
+
+    private ResultSet rows(MetadataCache.Kind kind, String schemaPattern, String tableNamePattern,
+            String columnNamePattern) throws SQLException {
+        Set<String> keyspaces = connection.getClusterMetadata().getKeyspaces().keySet().stream()
+                .map(CqlIdentifier::asInternal)
+                .collect(Collectors.toSet());
+        ArrayList<MetadataRow> rows = metadataCache.get(kind, keyspaces, schemaPattern, tableNamePattern,
+                columnNamePattern, this::load);
+        return CassandraMetadataResultSet.buildFrom(statement(), new MetadataResultSet().setRows(rows));
+    }
+
+    /**
+     * Rows built by the wrapper, for the tables of a keyspace or one of them.
+     */
+    private List<MetadataRow> load(MetadataCache.Kind kind, String keyspace, String table) throws SQLException {
+        switch (kind) {
+            case TABLES:
+                return copy(new TableMetadataResultSetBuilder(statement()).buildTables(keyspace, table));
+            case COLUMNS:
+                return copy(new ColumnMetadataResultSetBuilder(statement()).buildColumns(keyspace, table, null));
+            case INDEXES:
+                return copy(new TableMetadataResultSetBuilder(statement()).buildIndexes(keyspace, table, false, false));
+            default:
+                return copy(new TableMetadataResultSetBuilder(statement()).buildPrimaryKeys(keyspace, table));
+        }
+    }
+
+    /**
+     * Rows of a result set of the wrapper, whose rows are private: all the values are text.
+     */
+    private static List<MetadataRow> copy(ResultSet rs) throws SQLException {
+        List<MetadataRow> rows = new ArrayList<>();
+        ResultSetMetaData columns = rs.getMetaData();
+        while (rs.next()) {
+            MetadataRow row = new MetadataRow();
+            for (int i = 1; i <= columns.getColumnCount(); i++) {
+                row.addEntry(columns.getColumnLabel(i), rs.getString(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private CassandraStatement statement() throws SQLException {
+        if (statement.isClosed()) {
+            statement = new CassandraStatement(connection);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,262 @@
+package com.ing.data.cassandra.jdbc;
+
+import com.datastax.astra.jdbc.AstraAsyncPreparedStatement;
+import com.datastax.astra.jdbc.FloatVectors;
+import com.datastax.astra.jdbc.PipelinedBatchExecutor;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.VectorType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Prepared statement with a non-blocking execution, see {@link AstraAsyncPreparedStatement}, and
+ * executing its batch with a {@link PipelinedBatchExecutor} when enabled.
+ * <p>
+ * In the package of the jdbc wrapper as its constructors are package-private. The bound statement
+ * and the pending batch are private fields of the wrapper, read by reflection: when they cannot be
+ * accessed the statement falls back to the batch execution of the wrapper, and the non-blocking
+ * execution is not supported.
+ * <p>
+ * The fetch size is the page size of the requests, by default the one of the driver configuration,
+ * <code>basic.request.page-size</code>. The wrapper always sends 100 rows per page otherwise.
+ * <p>
+ * A <code>float[]</code> or a {@link FloatBuffer} set on a <code>vector&lt;float, n&gt;</code> parameter
+ * is encoded in bulk, see {@link FloatVectors}, and the result sets read such columns back with
+ * <code>getObject(column, float[].class)</code>, see {@link AstraJdbcResultSet}.
+ */
+public class AstraJdbcPreparedStatement extends CassandraPreparedStatement implements AstraAsyncPreparedStatement {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcPreparedStatement.class);
+
+    /** Statements added with addBatch, null when not accessible. */
+    private static final Field BATCH_STATEMENTS = field("batchStatements");
+
+    /** Statement with the current parameters, null when not accessible. */
+    private static final Field BOUND_STATEMENT = field("boundStatement");
+
+    /** Executor of the batch, null for the wrapper execution. */
+    private final PipelinedBatchExecutor batchExecutor;
+
+    /** Timeout set with setQueryTimeout, null for the timeout of the connection. */
+    private volatile Duration queryTimeout;
+
+    /**
+     * Create a prepared statement.
+     *
+     * @param connection
+     *      connection of the statement
+     * @param cql
+     *      query
+     * @param resultSetType
+     *      result set type
+     * @param resultSetConcurrency
+     *      result set concurrency
+     * @param resultSetHoldability
+     *      result set holdability
+     * @param batchExecutor
+     *      executor of the batch, null for the wrapper execution
+     * @throws SQLException
+     *      cannot prepare the query
+     */
+    public AstraJdbcPreparedStatement(CassandraConnection connection, String cql, int resultSetType,
+            int resultSetConcurrency, int resultSetHoldability, PipelinedBatchExecutor batchExecutor)
+            throws SQLException {
+        super(connection, cql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        this.batchExecutor = batchExecutor;
+        this.fetchSize = AstraJdbcStatement.defaultFetchSize(connection);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        super.setFetchSize(rows == 0 ? AstraJdbcStatement.defaultFetchSize(connection) : rows);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean execute() throws SQLException {
+        applyFetchSize();
+        boolean hasResultSet = super.execute();
+        currentResultSet = AstraJdbcResultSet.of(this, currentResultSet);
+        return hasResultSet;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        applyFetchSize();
+        super.executeQuery();
+        currentResultSet = AstraJdbcResultSet.of(this, currentResultSet);
+        return currentResultSet;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        if (!setFloatVector(parameterIndex, x)) {
+            super.setObject(parameterIndex, x);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        if (!setFloatVector(parameterIndex, x)) {
+            super.setObject(parameterIndex, x, targetSqlType);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int[] executeBatch() throws SQLException {
+        if (batchExecutor == null || BATCH_STATEMENTS == null) {
+            return super.executeBatch();
+        }
+        checkNotClosed();
+        List<BoundStatement> statements;
+        try {
+            statements = (List<BoundStatement>) BATCH_STATEMENTS.get(this);
+            // The batch is cleared whatever the outcome, as the wrapper does
+            BATCH_STATEMENTS.set(this, new ArrayList<BoundStatement>());
+        } catch (IllegalAccessException e) {
+            return super.executeBatch();
+        }
+        if (statements.isEmpty()) {
+            return new int[0];
+        }
+        Duration timeout = queryTimeout;
+        List<BoundStatement> bound = new ArrayList<>(statements.size());
+        for (BoundStatement statement : statements) {
+            statement = unsetToNull(statement).setConsistencyLevel(connection.getDefaultConsistencyLevel());
+            bound.add(timeout == null ? statement : statement.setTimeout(timeout));
+        }
+        return batchExecutor.execute(getCqlSession(), bound);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        super.setQueryTimeout(seconds);
+        queryTimeout = Duration.ofSeconds(seconds);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<ResultSet> executeQueryAsync() throws SQLException {
+        return AstraJdbcStatement.executeAsync(this, boundStatement(), queryTimeout)
+                .thenApply(rs -> AstraJdbcStatement.resultSet(this, rs));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Integer> executeUpdateAsync() throws SQLException {
+        return AstraJdbcStatement.executeAsync(this, boundStatement(), queryTimeout)
+                .thenApply(rs -> connection.getOptionSet().getSQLUpdateResponse());
+    }
+
+    /**
+     * Snapshot of the statement with the current parameters, unset ones sent as null.
+     */
+    private BoundStatement boundStatement() throws SQLException {
+        checkNotClosed();
+        if (BOUND_STATEMENT == null) {
+            throw new SQLFeatureNotSupportedException("Asynchronous execution unavailable with this jdbc wrapper");
+        }
+        BoundStatement statement;
+        try {
+            statement = (BoundStatement) BOUND_STATEMENT.get(this);
+        } catch (IllegalAccessException e) {
+            throw new SQLFeatureNotSupportedException("Asynchronous execution unavailable with this jdbc wrapper", e);
+        }
+        return unsetToNull(statement)
+                .setConsistencyLevel(connection.getDefaultConsistencyLevel())
+                .setPageSize(fetchSize);
+    }
+
+    /**
+     * Page size of the statement executed by the wrapper, it is rebuilt by addBatch and clearParameters.
+     */
+    private void applyFetchSize() throws SQLException {
+        checkNotClosed();
+        if (BOUND_STATEMENT == null) {
+            return;
+        }
+        try {
+            BoundStatement statement = (BoundStatement) BOUND_STATEMENT.get(this);
+            if (statement.getPageSize() != fetchSize) {
+                BOUND_STATEMENT.set(this, statement.setPageSize(fetchSize));
+            }
+        } catch (IllegalAccessException e) {
+            // Pages of the wrapper
+        }
+    }
+
+    /**
+     * Set a <code>float[]</code> or a {@link FloatBuffer} on a vector of floats in its binary form.
+     *
+     * @return
+     *      false when not such a value and parameter, left to the wrapper
+     */
+    private boolean setFloatVector(int parameterIndex, Object x) throws SQLException {
+        if (!(x instanceof float[] || x instanceof FloatBuffer) || BOUND_STATEMENT == null) {
+            return false;
+        }
+        checkNotClosed();
+        if (parameterIndex < 1 || parameterIndex > getBoundStatementVariableDefinitions().size()) {
+            return false;
+        }
+        DataType type = getBoundStatementVariableDefinitions().get(parameterIndex - 1).getType();
+        if (!FloatVectors.isFloatVector(type)) {
+            return false;
+        }
+        ByteBuffer bytes = x instanceof float[]
+                ? FloatVectors.encode((float[]) x, (VectorType) type)
+                : FloatVectors.encode((FloatBuffer) x, (VectorType) type);
+        try {
+            BoundStatement statement = (BoundStatement) BOUND_STATEMENT.get(this);
+            BOUND_STATEMENT.set(this, statement.setBytesUnsafe(parameterIndex - 1, bytes));
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Unset values are sent as null, as the wrapper does.
+     */
+    private BoundStatement unsetToNull(BoundStatement statement) {
+        int count = getBoundStatementVariableDefinitions().size();
+        for (int i = 0; i < count; i++) {
+            if (!statement.isSet(i)) {
+                statement = statement.setToNull(i);
+            }
+        }
+        return statement;
+    }
+
+    private static Field field(String name) {
+        try {
+            Field field = CassandraPreparedStatement.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Field {} of the jdbc wrapper not accessible, pipelined batches and asynchronous "
+                    + "execution unavailable: {}", name, e.toString());
+            return null;
+        }
+    }
+}
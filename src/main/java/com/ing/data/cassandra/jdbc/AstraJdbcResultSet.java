@@ -0,0 +1,221 @@
+package com.ing.data.cassandra.jdbc;
+
+import com.datastax.astra.jdbc.FloatVectors;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.VectorType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.nio.FloatBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Result set reading the <code>vector&lt;float, n&gt;</code> columns as <code>float[]</code> or
+ * {@link FloatBuffer} with <code>getObject(column, float[].class)</code>, decoded from the binary form
+ * without boxing, see {@link FloatVectors}.
+ * <p>
+ * In the package of the jdbc wrapper as its constructors are package-private. The driver result set
+ * and the current row are private fields of the wrapper, read by reflection: when they cannot be
+ * accessed the result sets of the wrapper are used as is.
+ */
+public class AstraJdbcResultSet extends CassandraResultSet {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcResultSet.class);
+
+    /** Result set of the driver, null when not accessible. */
+    private static final Field DRIVER_RESULT_SET = field("driverResultSet");
+
+    /** Row under the cursor, null when not accessible. */
+    private static final Field CURRENT_ROW = field("currentRow");
+
+    /** Rows after the current one, null when not accessible. */
+    private static final Field ROWS_ITERATOR = field("rowsIterator");
+
+    /**
+     * Create a result set.
+     *
+     * @param statement
+     *      statement executed
+     * @param resultSet
+     *      result set of the driver
+     * @throws SQLException
+     *      cannot read the columns
+     */
+    AstraJdbcResultSet(CassandraStatement statement, com.datastax.oss.driver.api.core.cql.ResultSet resultSet)
+            throws SQLException {
+        super(statement, resultSet);
+    }
+
+    /**
+     * Result set of the wrapper as a {@link AstraJdbcResultSet}, on the same rows. Called right after
+     * the execution, before the rows are iterated: the wrapper reads the first row ahead, it is
+     * replayed before the next ones.
+     *
+     * @param statement
+     *      statement executed
+     * @param resultSet
+     *      result set of the wrapper, may be null
+     * @return
+     *      result set reading the vectors, the one of the wrapper when not possible
+     * @throws SQLException
+     *      cannot read the columns
+     */
+    @SuppressWarnings("unchecked")
+    static ResultSet of(CassandraStatement statement, ResultSet resultSet) throws SQLException {
+        if (!(resultSet instanceof CassandraResultSet) || resultSet instanceof AstraJdbcResultSet
+                || DRIVER_RESULT_SET == null || CURRENT_ROW == null || ROWS_ITERATOR == null) {
+            return resultSet;
+        }
+        com.datastax.oss.driver.api.core.cql.ResultSet driverResultSet;
+        Row firstRow;
+        Iterator<Row> nextRows;
+        try {
+            driverResultSet = (com.datastax.oss.driver.api.core.cql.ResultSet) DRIVER_RESULT_SET.get(resultSet);
+            firstRow = (Row) CURRENT_ROW.get(resultSet);
+            nextRows = (Iterator<Row>) ROWS_ITERATOR.get(resultSet);
+        } catch (IllegalAccessException e) {
+            return resultSet;
+        }
+        // Several statements in one query are merged by the wrapper, without driver result set
+        if (driverResultSet == null || nextRows == null) {
+            return resultSet;
+        }
+        return new AstraJdbcResultSet(statement, new ReplayedResultSet(driverResultSet, firstRow, nextRows));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        if (type != float[].class && type != FloatBuffer.class) {
+            return super.getObject(columnIndex, type);
+        }
+        Row row = currentRow();
+        if (columnIndex < 1 || columnIndex > row.getColumnDefinitions().size()) {
+            throw new SQLSyntaxErrorException(
+                    "Index must be a positive number less or equal the count of returned columns: " + columnIndex);
+        }
+        DataType columnType = row.getColumnDefinitions().get(columnIndex - 1).getType();
+        if (!FloatVectors.isFloatVector(columnType)) {
+            throw new SQLException("Conversion of " + columnType.asCql(false, true) + " to "
+                    + type.getSimpleName() + " not supported.");
+        }
+        VectorType vectorType = (VectorType) columnType;
+        if (type == FloatBuffer.class) {
+            return type.cast(FloatVectors.view(row.getBytesUnsafe(columnIndex - 1), vectorType));
+        }
+        return type.cast(FloatVectors.decode(row.getBytesUnsafe(columnIndex - 1), vectorType));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        if (type != float[].class && type != FloatBuffer.class) {
+            return super.getObject(columnLabel, type);
+        }
+        return getObject(findColumn(columnLabel), type);
+    }
+
+    private Row currentRow() throws SQLException {
+        Row row;
+        try {
+            row = (Row) CURRENT_ROW.get(this);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Current row not accessible", e);
+        }
+        if (row == null) {
+            throw new SQLException("No current row, call next() first");
+        }
+        return row;
+    }
+
+    /**
+     * Rows of a driver result set, from a row already read.
+     */
+    private static final class ReplayedResultSet implements com.datastax.oss.driver.api.core.cql.ResultSet {
+
+        private final com.datastax.oss.driver.api.core.cql.ResultSet delegate;
+
+        private final Iterator<Row> rows;
+
+        private Row firstRow;
+
+        private ReplayedResultSet(com.datastax.oss.driver.api.core.cql.ResultSet delegate, Row firstRow,
+                Iterator<Row> nextRows) {
+            this.delegate = delegate;
+            this.firstRow = firstRow;
+            this.rows = new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return ReplayedResultSet.this.firstRow != null || nextRows.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    Row row = ReplayedResultSet.this.firstRow;
+                    if (row == null) {
+                        return nextRows.next();
+                    }
+                    ReplayedResultSet.this.firstRow = null;
+                    return row;
+                }
+            };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return delegate.getColumnDefinitions();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<ExecutionInfo> getExecutionInfos() {
+            return delegate.getExecutionInfos();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isFullyFetched() {
+            return delegate.isFullyFetched();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getAvailableWithoutFetching() {
+            return delegate.getAvailableWithoutFetching() + (firstRow == null ? 0 : 1);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean wasApplied() {
+            return delegate.wasApplied();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterator<Row> iterator() {
+            return rows;
+        }
+    }
+
+    private static Field field(String name) {
+        try {
+            Field field = CassandraResultSet.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Field {} of the jdbc wrapper not accessible, vectors read as CqlVector only: {}",
+                    name, e.toString());
+            return null;
+        }
+    }
+}
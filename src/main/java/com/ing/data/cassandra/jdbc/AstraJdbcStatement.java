@@ -0,0 +1,293 @@
+package com.ing.data.cassandra.jdbc;
+
+import com.datastax.astra.jdbc.AstraAsyncStatement;
+import com.datastax.astra.jdbc.AstraScanStatement;
+import com.datastax.astra.jdbc.TokenRangeAggregation;
+import com.datastax.astra.jdbc.TokenRangeScan;
+import com.datastax.astra.jdbc.exceptions.DriverExceptions;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.internal.core.cql.ResultSets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Statement with a non-blocking execution, see {@link AstraAsyncStatement}, and a full table scan split
+ * into token ranges, see {@link AstraScanStatement}: a query starting with a <code>PARALLEL_SCAN</code>
+ * hint is executed as a scan, or as is when it cannot be split.
+ * <p>
+ * An aggregate query with a <code>PARALLEL_SCAN</code> hint, or any aggregate query when the connection
+ * has a parallel aggregation, is aggregated by token ranges, see {@link TokenRangeAggregation}, or
+ * executed as is when not supported.
+ * <p>
+ * The fetch size is the page size of the requests, by default the one of the driver configuration,
+ * <code>basic.request.page-size</code>, instead of the 100 rows of the wrapper.
+ * <p>
+ * The result sets read the <code>vector&lt;float, n&gt;</code> columns as <code>float[]</code>, see
+ * {@link AstraJdbcResultSet}.
+ * <p>
+ * In the package of the jdbc wrapper as its constructors are package-private.
+ */
+public class AstraJdbcStatement extends CassandraStatement implements AstraAsyncStatement, AstraScanStatement {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcStatement.class);
+
+    /** Timeout set with setQueryTimeout, null for the timeout of the connection. */
+    private volatile Duration queryTimeout;
+
+    /** Aggregation of the aggregate queries without hint, null to execute them as is. */
+    private final TokenRangeAggregation aggregation;
+
+    /**
+     * Create a statement.
+     *
+     * @param connection
+     *      connection of the statement
+     * @param resultSetType
+     *      result set type
+     * @param resultSetConcurrency
+     *      result set concurrency
+     * @param resultSetHoldability
+     *      result set holdability
+     * @param aggregation
+     *      aggregation of the aggregate queries by token ranges, null to execute them as is without hint
+     * @throws SQLException
+     *      invalid result set options
+     */
+    public AstraJdbcStatement(CassandraConnection connection, int resultSetType, int resultSetConcurrency,
+            int resultSetHoldability, TokenRangeAggregation aggregation) throws SQLException {
+        super(connection, null, resultSetType, resultSetConcurrency, resultSetHoldability);
+        this.fetchSize = defaultFetchSize(connection);
+        this.aggregation = aggregation;
+    }
+
+    /**
+     * Close the statement and remove it from the statements its connection closes.
+     */
+    @Override
+    public void close() {
+        super.close();
+        connection.removeStatement(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        super.setFetchSize(rows == 0 ? defaultFetchSize(connection) : rows);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean execute(String cql) throws SQLException {
+        if (executeHintedScan(cql) || executeAggregation(cql)) {
+            return true;
+        }
+        boolean hasResultSet = super.execute(cql);
+        currentResultSet = AstraJdbcResultSet.of(this, currentResultSet);
+        return hasResultSet;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet executeQuery(String cql) throws SQLException {
+        if (executeHintedScan(cql) || executeAggregation(cql)) {
+            return currentResultSet;
+        }
+        super.executeQuery(cql);
+        currentResultSet = AstraJdbcResultSet.of(this, currentResultSet);
+        return currentResultSet;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        super.setQueryTimeout(seconds);
+        queryTimeout = Duration.ofSeconds(seconds);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<ResultSet> executeQueryAsync(String cql) throws SQLException {
+        checkNotClosed();
+        return executeAsync(this, statement(cql), queryTimeout)
+                .thenApply(rs -> resultSet(this, rs));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Integer> executeUpdateAsync(String cql) throws SQLException {
+        checkNotClosed();
+        return executeAsync(this, statement(cql), queryTimeout)
+                .thenApply(rs -> connection.getOptionSet().getSQLUpdateResponse());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResultSet executeScan(String cql, int parallelism, int splits, boolean ordered) throws SQLException {
+        checkNotClosed();
+        return scan(new TokenRangeScan(parallelism, splits, ordered), cql);
+    }
+
+    /**
+     * Execute a query with a scan hint as a scan, when it can be split.
+     *
+     * @param cql
+     *      query
+     * @return
+     *      true when executed, the result set is the current one
+     * @throws SQLException
+     *      scan failed
+     */
+    private boolean executeHintedScan(String cql) throws SQLException {
+        TokenRangeScan scan = TokenRangeScan.fromHint(cql);
+        if (scan == null || TokenRangeAggregation.parse(cql) != null) {
+            return false;
+        }
+        checkNotClosed();
+        try {
+            scan(scan, cql);
+            return true;
+        } catch (SQLFeatureNotSupportedException e) {
+            LOGGER.debug("Query executed without scan: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Execute an aggregate query by token ranges, with the parallelism of its scan hint or the aggregation
+     * of the connection, when supported.
+     *
+     * @param cql
+     *      query
+     * @return
+     *      true when executed, the result set is the current one
+     * @throws SQLException
+     *      aggregation failed
+     */
+    private boolean executeAggregation(String cql) throws SQLException {
+        TokenRangeScan scan = TokenRangeScan.fromHint(cql);
+        if ((scan == null && aggregation == null) || TokenRangeAggregation.parse(cql) == null) {
+            return false;
+        }
+        checkNotClosed();
+        TokenRangeAggregation ranges = aggregation;
+        if (scan != null) {
+            ranges = new TokenRangeAggregation(scan.getParallelism(), scan.getSplits(),
+                    aggregation == null ? TokenRangeAggregation.DEFAULT_RETRIES : aggregation.getRetries());
+        }
+        try {
+            currentResultSet = new AstraJdbcResultSet(this,
+                    ranges.execute((CqlSession) connection.getSession(), cql, rangeOptions()));
+            return true;
+        } catch (SQLFeatureNotSupportedException | SQLSyntaxErrorException e) {
+            // An unknown table or an invalid range query is reported by the query itself
+            LOGGER.debug("Query executed without aggregation by token ranges: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private ResultSet scan(TokenRangeScan scan, String cql) throws SQLException {
+        ResultSet rs;
+        try {
+            // The first pages are read by the result set
+            rs = new AstraJdbcResultSet(this, scan.execute((CqlSession) connection.getSession(), cql, rangeOptions()));
+        } catch (DriverException e) {
+            throw DriverExceptions.toSQLException(e);
+        }
+        currentResultSet = rs;
+        return rs;
+    }
+
+    /**
+     * Consistency, page size and timeout of the statement applied to a token range query.
+     */
+    private UnaryOperator<BoundStatement> rangeOptions() {
+        Duration timeout = queryTimeout;
+        int pageSize = fetchSize;
+        return statement -> {
+            BoundStatement range = statement
+                    .setConsistencyLevel(connection.getDefaultConsistencyLevel())
+                    .setPageSize(pageSize);
+            return timeout == null ? range : range.setTimeout(timeout);
+        };
+    }
+
+    private SimpleStatement statement(String cql) {
+        return SimpleStatement.newInstance(cql)
+                .setConsistencyLevel(connection.getDefaultConsistencyLevel())
+                .setPageSize(fetchSize);
+    }
+
+    /**
+     * Page size of the driver configuration, used when no fetch size is set.
+     *
+     * @param connection
+     *      connection of the statement
+     * @return
+     *      rows per page
+     */
+    static int defaultFetchSize(CassandraConnection connection) {
+        return ((CqlSession) connection.getSession()).getContext().getConfig().getDefaultProfile()
+                .getInt(DefaultDriverOption.REQUEST_PAGE_SIZE);
+    }
+
+    /**
+     * Send a statement on the session of the connection.
+     *
+     * @param statement
+     *      statement executed
+     * @param request
+     *      request to send
+     * @param timeout
+     *      timeout of the statement, null for the one of the connection
+     * @return
+     *      first page, failed with a {@link SQLTransientException} as the blocking execution
+     */
+    static CompletionStage<AsyncResultSet> executeAsync(CassandraStatement statement, Statement<?> request,
+            Duration timeout) {
+        CqlSession session = (CqlSession) statement.connection.getSession();
+        return session.executeAsync(timeout == null ? request : request.setTimeout(timeout))
+                .handle((rs, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        throw new CompletionException(new SQLTransientException(cause));
+                    }
+                    return rs;
+                });
+    }
+
+    /**
+     * Result set of an asynchronous execution, the next pages are fetched when iterating.
+     *
+     * @param statement
+     *      statement executed
+     * @param rs
+     *      first page
+     * @return
+     *      result set
+     */
+    static ResultSet resultSet(CassandraStatement statement, AsyncResultSet rs) {
+        try {
+            return new AstraJdbcResultSet(statement, ResultSets.newInstance(rs));
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
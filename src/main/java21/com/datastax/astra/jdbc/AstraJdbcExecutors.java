@@ -0,0 +1,66 @@
+package com.datastax.astra.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for the blocking work done outside the caller threads: session builds, DevOps API calls,
+ * bundle downloads and region probes.
+ * <p>
+ * Java 21 variant of the multi-release jar: with <code>astra.jdbc.virtual-threads</code> set to
+ * true each task runs on its own virtual thread, a build waiting on the network does not hold a
+ * platform thread. Otherwise daemon platform threads are used, as on older versions.
+ * <p>
+ * Settings are read from system properties:
+ * <ul>
+ *     <li><code>astra.jdbc.virtual-threads</code>: run the tasks on virtual threads (default false)</li>
+ * </ul>
+ */
+public final class AstraJdbcExecutors {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstraJdbcExecutors.class);
+
+    /** System property to run the blocking tasks on virtual threads. */
+    public static final String PROP_VIRTUAL_THREADS = "astra.jdbc.virtual-threads";
+
+    /** Read once, all executors use the same kind of threads. */
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean(PROP_VIRTUAL_THREADS);
+
+    static {
+        if (VIRTUAL_THREADS) {
+            LOGGER.info("Blocking tasks of the driver run on virtual threads");
+        }
+    }
+
+    private AstraJdbcExecutors() {
+    }
+
+    /**
+     * Create an executor for blocking tasks, threads are created on demand.
+     *
+     * @param name
+     *      name of the threads
+     * @return
+     *      executor
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (VIRTUAL_THREADS) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name(name).daemon().factory());
+    }
+
+    /**
+     * Check if the blocking tasks run on virtual threads.
+     *
+     * @return
+     *      true when on virtual threads
+     */
+    public static boolean isVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+}
@@ -0,0 +1,134 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import com.datastax.astra.jdbc.cache.PreparedStatementCache;
+import com.datastax.astra.jdbc.cache.ResultCache;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.internal.core.ProtocolVersionRegistry;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Session counting its closes and recording the statements it prepares, with the protocol features,
+ * the codec registry and a page size of 5000 as a real one. Statements executed return an empty page
+ * followed by a page never received, the next pages asked are counted.
+ */
+class FakeSession {
+
+    /** Name of the session. */
+    final String name;
+
+    /** Number of calls to close. */
+    final AtomicInteger closed = new AtomicInteger();
+
+    /** Number of next pages asked. */
+    final AtomicInteger fetched = new AtomicInteger();
+
+    /** Queries prepared, in order. */
+    final List<String> prepared = new CopyOnWriteArrayList<>();
+
+    /** Fake session. */
+    final CqlSession session;
+
+    FakeSession(String name, boolean perRequestKeyspace) {
+        this.name = name;
+        ProtocolVersionRegistry registry = proxy(ProtocolVersionRegistry.class, "supports", perRequestKeyspace);
+        DefaultCodecRegistry codecs = new DefaultCodecRegistry(name);
+        DriverExecutionProfile profile = proxy(DriverExecutionProfile.class, "getInt", 5000);
+        DriverConfig config = proxy(DriverConfig.class, "getDefaultProfile", profile);
+        InternalDriverContext context = (InternalDriverContext) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {InternalDriverContext.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getProtocolVersionRegistry":
+                            return registry;
+                        case "getProtocolVersion":
+                            return DefaultProtocolVersion.V4;
+                        case "getCodecRegistry":
+                            return codecs;
+                        case "getConfig":
+                            return config;
+                        default:
+                            return null;
+                    }
+                });
+        this.session = (CqlSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {CqlSession.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getContext":
+                            return context;
+                        case "getMetrics":
+                        case "getKeyspace":
+                            return Optional.empty();
+                        case "getName":
+                            return name;
+                        case "prepareAsync":
+                            String query = ((SimpleStatement) args[0]).getQuery();
+                            prepared.add(query);
+                            return CompletableFuture.completedFuture(
+                                    proxy(PreparedStatement.class, "getQuery", query));
+                        case "execute":
+                            return CompletableFuture.completedFuture(page());
+                        case "closeAsync":
+                            closed.incrementAndGet();
+                            return CompletableFuture.completedFuture(null);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Wrap in a session of the driver cache, with its own caches.
+     *
+     * @return
+     *      cached session
+     */
+    CachedSession cached() {
+        return new CachedSession(name, session, PreparedStatementCache.fromSystemProperties(),
+                ResultCache.fromSystemProperties(), MetadataCache.fromSystemProperties());
+    }
+
+    /**
+     * Empty page with a next page never received.
+     */
+    private AsyncResultSet page() {
+        ExecutionInfo info = proxy(ExecutionInfo.class, "getStatement", null);
+        return (AsyncResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AsyncResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hasMorePages":
+                            return true;
+                        case "currentPage":
+                            return Collections.emptyList();
+                        case "getExecutionInfo":
+                            return info;
+                        case "fetchNextPage":
+                            fetched.incrementAndGet();
+                            return new CompletableFuture<AsyncResultSet>();
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static <T> T proxy(Class<T> type, String methodName, Object result) {
+        return type.cast(Proxy.newProxyInstance(FakeSession.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> methodName.equals(method.getName()) ? result : null));
+    }
+}
@@ -0,0 +1,139 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.astra.jdbc.pool.AstraJdbcConnectionPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class test the borrow and return of pooled connections, on a fake session (offline)
+ */
+public class TestConnectionPool {
+
+    /** Session of the pooled connections. */
+    private final CachedSession session = new FakeSession("pool_db", true).cached();
+
+    @Test
+    public void shouldBorrowAndReturn() throws Exception {
+        try (AstraJdbcConnectionPool pool = pool(0, 2, 0, 1000)) {
+            AstraJdbcPooledConnection pooled = pool.borrow();
+            Connection connection = pooled.getConnection();
+            Statement statement = connection.createStatement();
+            Assertions.assertEquals(1, pool.getActive());
+            Assertions.assertEquals(1, session.getReferences());
+
+            // Given back with its statements closed, the connection itself stays open
+            connection.close();
+            Assertions.assertTrue(statement.isClosed());
+            Assertions.assertTrue(connection.isClosed());
+            Assertions.assertEquals(1, pool.getIdle());
+            Assertions.assertEquals(1, session.getReferences());
+
+            // Last returned is borrowed first
+            Assertions.assertSame(pooled, pool.borrow());
+            Assertions.assertEquals(1, pool.getSize());
+            pooled.getConnection().close();
+        }
+        Assertions.assertEquals(0, session.getReferences());
+    }
+
+    @Test
+    public void shouldTimeOutWhenExhausted() throws Exception {
+        try (AstraJdbcConnectionPool pool = pool(0, 1, 0, 200)) {
+            Connection connection = pool.borrow().getConnection();
+            long start = System.nanoTime();
+            Assertions.assertThrows(SQLTransientConnectionException.class, pool::borrow);
+            Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+
+            // A waiting borrower gets the connection given back
+            CompletableFuture<AstraJdbcPooledConnection> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return pool.borrow();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(50);
+            connection.close();
+            Assertions.assertNotNull(waiting.get(150, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreStaleHandles() throws Exception {
+        try (AstraJdbcConnectionPool pool = pool(0, 1, 0, 100)) {
+            AstraJdbcPooledConnection pooled = pool.borrow();
+            Connection stale = pooled.getConnection();
+            stale.close();
+
+            Connection current = pool.borrow().getConnection();
+            Statement statement = current.createStatement();
+            stale.close();
+            Assertions.assertFalse(current.isClosed());
+            Assertions.assertFalse(statement.isClosed());
+            Assertions.assertEquals(0, pool.getIdle());
+            Assertions.assertThrows(SQLException.class, stale::createStatement);
+
+            // A new handle of the same borrow replaces the previous one
+            Connection replaced = pooled.getConnection();
+            Assertions.assertTrue(current.isClosed());
+            Assertions.assertTrue(statement.isClosed());
+            Assertions.assertEquals(0, pool.getIdle());
+            replaced.close();
+            Assertions.assertEquals(1, pool.getIdle());
+        }
+    }
+
+    @Test
+    public void shouldEvictExpiredConnections() throws Exception {
+        try (AstraJdbcConnectionPool pool = pool(0, 2, 50, 1000)) {
+            AstraJdbcPooledConnection expired = pool.borrow();
+            expired.getConnection().close();
+            Thread.sleep(100);
+
+            AstraJdbcPooledConnection fresh = pool.borrow();
+            Assertions.assertNotSame(expired, fresh);
+            Assertions.assertTrue(expired.isPhysicallyClosed());
+            Assertions.assertEquals(1, pool.getSize());
+            Assertions.assertEquals(1, session.getReferences());
+
+            // Expired while borrowed, closed when given back
+            Thread.sleep(100);
+            fresh.getConnection().close();
+            Assertions.assertTrue(fresh.isPhysicallyClosed());
+            Assertions.assertEquals(0, pool.getSize());
+        }
+    }
+
+    @Test
+    public void shouldStopOnClose() throws Exception {
+        AstraJdbcConnectionPool pool = pool(2, 2, 0, 1000);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getIdle() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, pool.getIdle());
+        Connection borrowed = pool.borrow().getConnection();
+
+        pool.close();
+        Assertions.assertEquals(1, pool.getSize());
+        Assertions.assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        borrowed.close();
+        Assertions.assertEquals(0, pool.getSize());
+        Assertions.assertEquals(0, session.getReferences());
+    }
+
+    private AstraJdbcConnectionPool pool(int minSize, int maxSize, long maxLifetimeMillis, long borrowTimeoutMillis) {
+        return new AstraJdbcConnectionPool(() -> {
+            session.acquire();
+            return new AstraJdbcPooledConnection(
+                    new AstraJdbcConnection(session, TestSessionCache.url("pool_db/ks?token=t")));
+        }, minSize, maxSize, maxLifetimeMillis, 0, borrowTimeoutMillis);
+    }
+}
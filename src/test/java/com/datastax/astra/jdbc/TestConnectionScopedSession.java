@@ -0,0 +1,28 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+/**
+ * This class test the execution of the statements of a connection on a fake session (offline)
+ */
+public class TestConnectionScopedSession {
+
+    @Test
+    public void shouldNotPrefetchRangeQueries() throws SQLException {
+        FakeSession fake = new FakeSession("scoped", true);
+        ConnectionScopedSession session = new ConnectionScopedSession(fake.cached(),
+                TestSessionCache.url("my_db/my_ks?token=t&prefetch-pages=1"));
+
+        session.executeAsync(SimpleStatement.newInstance("SELECT v FROM t")).toCompletableFuture().join();
+        Assertions.assertEquals(1, fake.fetched.get());
+
+        // The next page of a range query is only asked by the scan
+        ConnectionScopedSession.withoutPrefetch(session).apply(SimpleStatement.newInstance("SELECT v FROM t"))
+                .toCompletableFuture().join();
+        Assertions.assertEquals(1, fake.fetched.get());
+    }
+}
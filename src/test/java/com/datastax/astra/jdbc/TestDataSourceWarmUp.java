@@ -0,0 +1,86 @@
+package com.datastax.astra.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class test the warm up of the data source, on a session primed in the driver cache (offline)
+ */
+public class TestDataSourceWarmUp {
+
+    /** Keys primed in the cache of the registered driver. */
+    private final List<SessionKey> primed = new ArrayList<>();
+
+    @AfterEach
+    public void invalidate() {
+        AstraJdbcDriver.getRegisteredInstance().cachedSessions.synchronous().invalidateAll(primed);
+    }
+
+    @Test
+    public void shouldWarmUpWhenEnabled() throws SQLException {
+        AstraJdbcDataSource ds = new AstraJdbcDataSource("AstraCS:t", "warm_db1", "ks");
+        FakeSession session = prime(ds);
+
+        // Enabled before the statements are set, they are prepared as they are set
+        ds.setPrewarm(true);
+        Assertions.assertTrue(session.prepared.isEmpty());
+        ds.setPrewarmStatements(Collections.singletonList("SELECT * FROM users WHERE id = ?"));
+        Assertions.assertEquals(Collections.singletonList("SELECT * FROM users WHERE id = ?"), session.prepared);
+        ds.setPrewarmStatements(Arrays.asList("SELECT * FROM users WHERE id = ?", "SELECT * FROM orders WHERE id = ?"));
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM users WHERE id = ?", "SELECT * FROM orders WHERE id = ?"),
+                session.prepared);
+
+        // Already warm, the connections do not warm up again
+        try (Connection connection = ds.getConnection()) {
+            Assertions.assertNotNull(connection);
+            Assertions.assertEquals(2, session.prepared.size());
+        }
+    }
+
+    @Test
+    public void shouldWarmUpOnExplicitCall() throws Exception {
+        AstraJdbcDataSource ds = new AstraJdbcDataSource("AstraCS:t", "warm_db2", "ks");
+        FakeSession session = prime(ds);
+        ds.setPrewarmStatements(Arrays.asList("SELECT * FROM users WHERE id = ?", "SELECT * FROM orders"));
+        try (Connection connection = ds.getConnection()) {
+            Assertions.assertNotNull(connection);
+            Assertions.assertTrue(session.prepared.isEmpty());
+        }
+
+        ds.warmUp().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM users WHERE id = ?", "SELECT * FROM orders"),
+                session.prepared);
+
+        // Already warm, prewarm enabled afterwards does not warm up again, only the new statement is prepared
+        ds.setPrewarm(true);
+        Assertions.assertEquals(2, session.prepared.size());
+        ds.setPrewarmStatements(Arrays.asList("SELECT * FROM products", "SELECT * FROM orders"));
+        try (Connection connection = ds.getConnection()) {
+            Assertions.assertNotNull(connection);
+            Assertions.assertEquals(Arrays.asList("SELECT * FROM users WHERE id = ?", "SELECT * FROM orders",
+                    "SELECT * FROM products"), session.prepared);
+        }
+    }
+
+    /**
+     * Put a fake session for the data source in the cache of the registered driver.
+     */
+    private FakeSession prime(AstraJdbcDataSource ds) throws SQLException {
+        FakeSession session = new FakeSession(ds.getDatabase(), true);
+        SessionKey key = SessionKey.shared(ds.getJdbcUrl());
+        AstraJdbcDriver.getRegisteredInstance().cachedSessions.put(key,
+                CompletableFuture.completedFuture(session.cached()));
+        primed.add(key);
+        return session;
+    }
+}
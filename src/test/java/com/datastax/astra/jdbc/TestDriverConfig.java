@@ -0,0 +1,58 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * This class test the driver options of the url in the configuration of the Java driver (offline)
+ */
+public class TestDriverConfig {
+
+    @Test
+    public void shouldPassScalarOptions() throws Exception {
+        DriverExecutionProfile profile = profile("request-timeout=500&driver.advanced.connection.pool.local.size=2"
+                + "&driver.advanced.heartbeat.interval=45%20seconds&driver.basic.request.page-size=100");
+        Assertions.assertEquals(Duration.ofMillis(500), profile.getDuration(DefaultDriverOption.REQUEST_TIMEOUT));
+        Assertions.assertEquals(2, profile.getInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE));
+        Assertions.assertEquals(Duration.ofSeconds(45), profile.getDuration(DefaultDriverOption.HEARTBEAT_INTERVAL));
+        Assertions.assertEquals(100, profile.getInt(DefaultDriverOption.REQUEST_PAGE_SIZE));
+    }
+
+    @Test
+    public void shouldPassListOptions() throws Exception {
+        // Bracket syntax, overriding the metrics enabled by default
+        DriverExecutionProfile profile = profile("driver.advanced.metrics.session.enabled=[bytes-sent,%20cql-requests]"
+                + "&driver.advanced.schema-change-listener.classes=[%22com.example.Listener%22]");
+        Assertions.assertEquals(Arrays.asList("bytes-sent", "cql-requests"),
+                profile.getStringList(DefaultDriverOption.METRICS_SESSION_ENABLED));
+        Assertions.assertEquals(Collections.singletonList("com.example.Listener"),
+                profile.getStringList(DefaultDriverOption.METADATA_SCHEMA_CHANGE_LISTENER_CLASSES));
+        Assertions.assertFalse(profile.getStringList(DefaultDriverOption.METRICS_NODE_ENABLED).isEmpty());
+
+        // Options with a list by default, brackets omitted
+        profile = profile("driver.advanced.metrics.node.enabled=pool.open-connections"
+                + "&driver.advanced.metadata.schema.refreshed-keyspaces=ks1,ks2");
+        Assertions.assertEquals(Collections.singletonList("pool.open-connections"),
+                profile.getStringList(DefaultDriverOption.METRICS_NODE_ENABLED));
+        Assertions.assertEquals(Arrays.asList("ks1", "ks2"),
+                profile.getStringList(DefaultDriverOption.METADATA_SCHEMA_REFRESHED_KEYSPACES));
+        Assertions.assertEquals(Collections.emptyList(), AstraJdbcDriver.parseList("[ ]"));
+    }
+
+    private static DriverExecutionProfile profile(String parameters) throws Exception {
+        DriverConfigLoader loader = AstraJdbcDriver.buildConfigLoader(
+                TestSessionCache.url("my_db/ks?token=t&" + parameters));
+        try {
+            return loader.getInitialConfig().getDefaultProfile();
+        } finally {
+            loader.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.datastax.astra.jdbc;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class test the keys of the session cache, the sessions shared by connections and their close (offline)
+ */
+public class TestSessionCache {
+
+    /** Sessions built by the cache, in order. */
+    private final List<FakeSession> built = new ArrayList<>();
+
+    @Test
+    public void shouldShareSessionAcrossConnectionOptions() throws SQLException {
+        SessionKey key = SessionKey.shared(url("my_db/ks1?token=t1&consistency-level=ONE&request-timeout=500"));
+        Assertions.assertEquals(key, SessionKey.shared(url("my_db/ks2?token=t1&debug=true")));
+        Assertions.assertEquals(key.hashCode(), SessionKey.shared(url("my_db/ks2?token=t1")).hashCode());
+
+        Assertions.assertNotEquals(key, SessionKey.shared(url("other_db/ks1?token=t1")));
+        Assertions.assertNotEquals(key, SessionKey.shared(url("my_db/ks1?token=t2")));
+        Assertions.assertNotEquals(key, SessionKey.shared(url("my_db/ks1?token=t1&region=eu-west1")));
+        Assertions.assertNotEquals(key, SessionKey.shared(url("my_db/ks1?token=t1&compression=lz4")));
+        Assertions.assertNotEquals(key,
+                SessionKey.shared(url("my_db/ks1?token=t1&driver.advanced.connection.pool.local.size=2")));
+
+        // Bound to the keyspace when the protocol cannot carry it per request
+        Assertions.assertEquals(SessionKey.perKeyspace(url("my_db/ks1?token=t1")),
+                SessionKey.perKeyspace(url("my_db/ks1?token=t1&consistency-level=ONE")));
+        Assertions.assertNotEquals(SessionKey.perKeyspace(url("my_db/ks1?token=t1")),
+                SessionKey.perKeyspace(url("my_db/ks2?token=t1")));
+        Assertions.assertNotEquals(key, SessionKey.perKeyspace(url("my_db/ks1?token=t1")));
+    }
+
+    @Test
+    public void shouldCloseSessionsEvictedBySize() throws Exception {
+        AsyncLoadingCache<SessionKey, CachedSession> cache = cache(2);
+        List<CachedSession> sessions = new ArrayList<>();
+        for (String db : new String[] {"db1", "db2", "db3"}) {
+            sessions.add(cache.get(SessionKey.shared(url(db + "/ks?token=t"))).get());
+        }
+        cache.synchronous().cleanUp();
+
+        Assertions.assertEquals(2, cache.synchronous().estimatedSize());
+        Assertions.assertEquals(1, sessions.stream().filter(CachedSession::isEvicted).count());
+        for (int i = 0; i < sessions.size(); i++) {
+            Assertions.assertEquals(sessions.get(i).isEvicted() ? 1 : 0, built.get(i).closed.get(), "session " + i);
+        }
+    }
+
+    @Test
+    public void shouldCloseInvalidatedSessionOnce() throws Exception {
+        AsyncLoadingCache<SessionKey, CachedSession> cache = cache(16);
+        SessionKey key = SessionKey.shared(url("my_db/ks?token=t"));
+        CachedSession session = cache.get(key).get();
+        Assertions.assertSame(session, cache.get(SessionKey.shared(url("my_db/other_ks?token=t"))).get());
+
+        cache.synchronous().invalidate(key);
+        Assertions.assertTrue(session.isEvicted());
+        Assertions.assertEquals(1, built.get(0).closed.get());
+        Assertions.assertFalse(session.acquire());
+
+        // Evicted again, by a concurrent removal for instance
+        session.evict();
+        Assertions.assertEquals(1, built.get(0).closed.get());
+
+        // A new session is built for the key
+        Assertions.assertNotSame(session, cache.get(key).get());
+        Assertions.assertEquals(2, built.size());
+    }
+
+    @Test
+    public void shouldCloseEvictedSessionWithLastConnection() throws Exception {
+        AsyncLoadingCache<SessionKey, CachedSession> cache = cache(16);
+        SessionKey key = SessionKey.shared(url("my_db/ks?token=t"));
+        CachedSession session = cache.get(key).get();
+        Assertions.assertTrue(session.acquire());
+        Assertions.assertTrue(session.acquire());
+        Assertions.assertEquals(2, session.getReferences());
+
+        // Still used by two connections
+        cache.synchronous().invalidate(key);
+        Assertions.assertEquals(0, built.get(0).closed.get());
+        session.release();
+        Assertions.assertEquals(0, built.get(0).closed.get());
+
+        // Closed with the last one, no connection can use it then
+        session.release();
+        Assertions.assertEquals(1, built.get(0).closed.get());
+        Assertions.assertEquals(0, session.getReferences());
+        Assertions.assertFalse(session.acquire());
+    }
+
+    @Test
+    public void shouldKeepUnusedSessionOpenUntilEvicted() throws Exception {
+        CachedSession session = cache(16).get(SessionKey.shared(url("my_db/ks?token=t"))).get();
+        Assertions.assertTrue(session.acquire());
+        session.release();
+        Assertions.assertEquals(0, built.get(0).closed.get());
+
+        // Reused by a later connection
+        Assertions.assertTrue(session.acquire());
+        Assertions.assertEquals(1, session.getReferences());
+    }
+
+    @Test
+    public void shouldReuseSessionAcrossKeyspaces() throws Exception {
+        AstraJdbcDriver driver = new AstraJdbcDriver(cache(16));
+        CachedSession session = driver.getSession(url("my_db/ks1?token=t")).get();
+        Assertions.assertSame(session, driver.getSession(url("my_db/ks2?token=t&consistency-level=ONE")).get());
+        Assertions.assertNotSame(session, driver.getSession(url("my_db/ks1?token=other")).get());
+        Assertions.assertEquals(2, built.size());
+    }
+
+    @Test
+    public void shouldReuseSessionByKeyspaceWithoutPerRequestKeyspace() throws Exception {
+        AstraJdbcDriver driver = new AstraJdbcDriver(cache(16, false));
+        CachedSession ks1 = driver.getSession(url("my_db/ks1?token=t")).get();
+        CachedSession ks2 = driver.getSession(url("my_db/ks2?token=t")).get();
+        Assertions.assertNotSame(ks1, ks2);
+        Assertions.assertSame(ks1, driver.getSession(url("my_db/ks1?token=t&request-timeout=500")).get());
+        // The shared session probing the protocol, then one per keyspace
+        Assertions.assertEquals(3, built.size());
+    }
+
+    private AsyncLoadingCache<SessionKey, CachedSession> cache(long maxSize) {
+        return cache(maxSize, true);
+    }
+
+    /**
+     * Cache building fake sessions, removals notified in the caller thread.
+     */
+    private AsyncLoadingCache<SessionKey, CachedSession> cache(long maxSize, boolean perRequestKeyspace) {
+        return AstraJdbcDriver.newSessionCache(maxSize, Duration.ofHours(1), Runnable::run,
+                key -> new CachedSession(key.toString(),
+                        session(key.getJdbcUrl().getDatabaseId(), perRequestKeyspace), null, null, null));
+    }
+
+    private CqlSession session(String name, boolean perRequestKeyspace) {
+        FakeSession fake = new FakeSession(name, perRequestKeyspace);
+        built.add(fake);
+        return fake.session;
+    }
+
+    static AstraJdbcUrl url(String url) throws SQLException {
+        return new AstraJdbcUrl("jdbc:astra://" + url);
+    }
+}
@@ -0,0 +1,30 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class test the driver metrics published through JMX (offline)
+ */
+public class TestAstraJdbcMetrics {
+
+    @Test
+    public void shouldPublishDriverTimers() throws Exception {
+        Assertions.assertEquals("ok", AstraJdbcMetrics.time("test-timer", () -> "ok"));
+        AstraJdbcMetrics.getRegistry().counter("test-counter").inc(3);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(AstraJdbcMetrics.JMX_DOMAIN, "type", "Driver");
+        Assertions.assertTrue(server.isRegistered(name));
+        Assertions.assertEquals(1L, server.getAttribute(name, "test-timer.count"));
+        Assertions.assertTrue((Double) server.getAttribute(name, "test-timer.p99") >= 0);
+        Assertions.assertEquals(3L, server.getAttribute(name, "test-counter"));
+        Assertions.assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "unknown"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.AstraJdbcUrl;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+
+/**
+ * This class test the parsing of urls (offline)
+ */
+public class TestAstraJdbcUrl {
+
+    @Test
+    public void shouldParseDashedKeys() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=AstraCS:abc"
+                + "&consistency-level=ONE&request-timeout=500&driver.advanced.connection.pool.local.size=2");
+        Assertions.assertEquals("my_db", url.getDatabaseId());
+        Assertions.assertEquals("my_ks", url.getKeyspace());
+        Assertions.assertEquals("AstraCS:abc", url.getToken());
+        Assertions.assertEquals(DefaultConsistencyLevel.ONE, url.getConsistencyLevel());
+        Assertions.assertEquals(500, url.getRequestTimeout());
+        Assertions.assertEquals("2", url.getDriverOptions().get("advanced.connection.pool.local.size"));
+    }
+
+    @Test
+    public void shouldDecodeValues() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?user=client&password=a%26b%3Dc+d%C3%A9"
+                + "&driver.advanced.heartbeat.interval=30%20seconds");
+        Assertions.assertEquals("a&b=c+d\u00e9", url.getPassword());
+        Assertions.assertEquals("30 seconds", url.getDriverOptions().get("advanced.heartbeat.interval"));
+    }
+
+    @Test
+    public void shouldRejectInvalidUrls() {
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db?token=t"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?unknown=1&token=t"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=%2"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=t&request-timeout=x"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=t&batch-mode=logged"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=t&batch-group-size=0"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=t&prefetch-pages=-1"));
+        Assertions.assertThrows(SQLException.class, () -> new AstraJdbcUrl("jdbc:astra://my_db/ks?token=t&result-cache-ttl=-1"));
+    }
+
+    @Test
+    public void shouldRejectInvalidProperties() {
+        for (String[] property : new String[][] {{"consistency-level", "QUORUMM"}, {"request-timeout", "10s"},
+                {"compression", "zip"}, {"prefetch-pages", "-1"}}) {
+            Properties properties = new Properties();
+            properties.setProperty(property[0], property[1]);
+            Assertions.assertThrows(SQLException.class,
+                    () -> new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t", properties), property[0]);
+        }
+    }
+
+    @Test
+    public void shouldEncodeValuesInUrl() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", "client id");
+        properties.setProperty("password", "a&b=c%d+e/f?\u00e9");
+        properties.setProperty("driver.advanced.metadata.schema.refreshed-keyspaces", "[\"!/^system_.*/\", ks]");
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my%2Fdb/my_ks?region=eu%3Dwest&result-cache-tables=a,b",
+                properties);
+
+        AstraJdbcUrl parsed = new AstraJdbcUrl(url.toUrl());
+        Assertions.assertEquals(url, parsed);
+        Assertions.assertEquals("my/db", parsed.getDatabaseId());
+        Assertions.assertEquals("client id", parsed.getUser());
+        Assertions.assertEquals("a&b=c%d+e/f?\u00e9", parsed.getPassword());
+        Assertions.assertEquals("eu=west", parsed.getRegion().orElse(null));
+        Assertions.assertEquals("[\"!/^system_.*/\", ks]",
+                parsed.getDriverOptions().get("advanced.metadata.schema.refreshed-keyspaces"));
+    }
+
+    @Test
+    public void shouldParseBatchMode() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t&batch-mode=PIPELINED&batch-max-in-flight=32");
+        Assertions.assertEquals(AstraJdbcUrl.BATCH_MODE_PIPELINED, url.getBatchMode());
+        Assertions.assertEquals(32, url.getBatchMaxInFlight());
+        Assertions.assertEquals(10, url.getBatchGroupSize());
+        Assertions.assertEquals(url, new AstraJdbcUrl(url.toUrl()));
+    }
+
+    @Test
+    public void shouldParsePrefetch() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t&prefetch-pages=0&prefetch-max-bytes=1024");
+        Assertions.assertEquals(0, url.getPrefetchPages());
+        Assertions.assertEquals(1024, url.getPrefetchMaxBytes());
+        Assertions.assertEquals(url, new AstraJdbcUrl(url.toUrl()));
+        Assertions.assertEquals(1, new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t").getPrefetchPages());
+    }
+
+    @Test
+    public void shouldParseResultCache() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t&result-cache-ttl=60000"
+                + "&result-cache-tables=countries,%20currencies");
+        Assertions.assertEquals(60000, url.getResultCacheTtl());
+        Assertions.assertEquals(new LinkedHashSet<>(Arrays.asList("countries", "currencies")), url.getResultCacheTables());
+        Assertions.assertEquals(url, new AstraJdbcUrl(url.toUrl()));
+        Assertions.assertEquals(0, new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t").getResultCacheTtl());
+    }
+
+    @Test
+    public void shouldParseSpeculativeExecution() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t&speculative-delay=20"
+                + "&speculative-max-executions=3&auto-idempotence=true");
+        Assertions.assertEquals(20, url.getSpeculativeDelay());
+        Assertions.assertEquals(3, url.getSpeculativeMaxExecutions());
+        Assertions.assertTrue(url.isAutoIdempotence());
+        Assertions.assertEquals(url, new AstraJdbcUrl(url.toUrl()));
+        Assertions.assertFalse(new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t").isAutoIdempotence());
+    }
+
+    @Test
+    public void shouldParseParallelAggregation() throws SQLException {
+        AstraJdbcUrl url = new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t&parallel-aggregation=16"
+                + "&parallel-aggregation-retries=0");
+        Assertions.assertEquals(16, url.getParallelAggregation());
+        Assertions.assertEquals(0, url.getParallelAggregationRetries());
+        Assertions.assertEquals(url, new AstraJdbcUrl(url.toUrl()));
+        Assertions.assertEquals(0, new AstraJdbcUrl("jdbc:astra://my_db/my_ks?token=t").getParallelAggregation());
+    }
+
+    @Test
+    public void shouldCacheParsedUrls() throws SQLException {
+        String jdbcUrl = "jdbc:astra://my_db/my_ks?token=AstraCS:abc";
+        Properties properties = new Properties();
+        properties.setProperty("region", "us-east1");
+        AstraJdbcUrl url = AstraJdbcUrl.parse(jdbcUrl, properties);
+        Assertions.assertSame(url, AstraJdbcUrl.parse(jdbcUrl, properties));
+        properties.setProperty("region", "eu-west1");
+        AstraJdbcUrl other = AstraJdbcUrl.parse(jdbcUrl, properties);
+        Assertions.assertNotSame(url, other);
+        Assertions.assertEquals("us-east1", url.getRegion().orElse(null));
+        Assertions.assertEquals("eu-west1", other.getRegion().orElse(null));
+    }
+
+    @Test
+    public void shouldCacheParsedUrlsByDefaultProperties() throws SQLException {
+        String jdbcUrl = "jdbc:astra://my_db/my_ks";
+        Properties defaults = new Properties();
+        defaults.setProperty("user", "token");
+        defaults.setProperty("password", "AstraCS:abc");
+        AstraJdbcUrl url = AstraJdbcUrl.parse(jdbcUrl, new Properties(defaults));
+        Assertions.assertEquals("AstraCS:abc", url.getToken());
+        Assertions.assertSame(url, AstraJdbcUrl.parse(jdbcUrl, new Properties(defaults)));
+        defaults.setProperty("password", "AstraCS:def");
+        AstraJdbcUrl other = AstraJdbcUrl.parse(jdbcUrl, new Properties(defaults));
+        Assertions.assertNotSame(url, other);
+        Assertions.assertEquals("AstraCS:def", other.getToken());
+    }
+}
@@ -0,0 +1,75 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.cache.DatabaseResolutionCache;
+import com.datastax.astra.jdbc.cache.ResolvedDatabase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * This class test the resolution of databases names (offline)
+ */
+public class TestDatabaseResolutionCache {
+
+    @TempDir
+    Path folder;
+
+    private final AtomicInteger apiCalls = new AtomicInteger();
+
+    private final Supplier<ResolvedDatabase> api = () -> {
+        apiCalls.incrementAndGet();
+        return new ResolvedDatabase("3df7a3d1-0000-0000-0000-000000000000", "my_db", "us-east1",
+                Collections.singletonMap("us-east1", "dc-1"), System.currentTimeMillis(), null);
+    };
+
+    @Test
+    public void shouldResolveOnceAcrossRestarts() {
+        new DatabaseResolutionCache(folder, Duration.ofHours(1)).resolve("token", "my_db", api);
+        ResolvedDatabase db = new DatabaseResolutionCache(folder, Duration.ofHours(1)).resolve("token", "my_db", api);
+        Assertions.assertEquals(1, apiCalls.get());
+        Assertions.assertEquals("us-east1", db.getDefaultRegion());
+        Assertions.assertEquals("dc-1", db.getDatacenters().get("us-east1"));
+    }
+
+    @Test
+    public void shouldKeyByToken() {
+        DatabaseResolutionCache cache = new DatabaseResolutionCache(null, Duration.ofHours(1));
+        cache.resolve("token1", "my_db", api);
+        cache.resolve("token2", "my_db", api);
+        cache.resolve("token1", "my_db", api);
+        Assertions.assertEquals(2, apiCalls.get());
+    }
+
+    @Test
+    public void shouldKeepAnyDatabaseNameInFolder() throws Exception {
+        Path cacheFolder = folder.resolve("cache");
+        DatabaseResolutionCache cache = new DatabaseResolutionCache(cacheFolder, Duration.ofHours(1));
+        cache.resolve("token", "../my/db:*", api);
+        cache.resolve("token", "my_db", api);
+        try (Stream<Path> files = Files.list(folder)) {
+            Assertions.assertEquals(1, files.count());
+        }
+        try (Stream<Path> files = Files.list(cacheFolder)) {
+            Assertions.assertEquals(2, files.count());
+        }
+        new DatabaseResolutionCache(cacheFolder, Duration.ofHours(1)).resolve("token", "../my/db:*", api);
+        Assertions.assertEquals(2, apiCalls.get());
+    }
+
+    @Test
+    public void shouldResolveAgainAfterInvalidation() {
+        DatabaseResolutionCache cache = new DatabaseResolutionCache(folder, Duration.ofHours(1));
+        cache.resolve("token", "my_db", api);
+        cache.invalidate("token", "my_db");
+        cache.resolve("token", "my_db", api);
+        Assertions.assertEquals(2, apiCalls.get());
+    }
+}
@@ -0,0 +1,55 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.FloatVectors;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.data.CqlVector;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.VectorType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.sql.SQLDataException;
+
+/**
+ * This class test the binary form of the vectors of floats (offline)
+ */
+public class TestFloatVectors {
+
+    private static final VectorType VECTOR_3 = DataTypes.vectorOf(DataTypes.FLOAT, 3);
+
+    @Test
+    public void shouldEncodeAsTheDriver() throws Exception {
+        float[] vector = {1.5f, -2f, 0.25f};
+        ByteBuffer driver = TypeCodecs.vectorOf(VECTOR_3, TypeCodecs.FLOAT)
+                .encode(CqlVector.newInstance(1.5f, -2f, 0.25f), ProtocolVersion.DEFAULT);
+        Assertions.assertEquals(driver, FloatVectors.encode(vector, VECTOR_3));
+        Assertions.assertArrayEquals(vector, FloatVectors.decode(driver, VECTOR_3));
+    }
+
+    @Test
+    public void shouldEncodeBufferFromPosition() throws Exception {
+        FloatBuffer buffer = FloatBuffer.wrap(new float[] {9f, 1f, 2f, 3f});
+        buffer.position(1);
+        ByteBuffer bytes = FloatVectors.encode(buffer, VECTOR_3);
+        Assertions.assertEquals(1, buffer.position());
+        Assertions.assertArrayEquals(new float[] {1f, 2f, 3f}, FloatVectors.decode(bytes, VECTOR_3));
+        Assertions.assertEquals(2f, FloatVectors.view(bytes, VECTOR_3).get(1));
+    }
+
+    @Test
+    public void shouldRejectOtherDimensions() {
+        Assertions.assertThrows(SQLDataException.class, () -> FloatVectors.encode(new float[2], VECTOR_3));
+        Assertions.assertThrows(SQLDataException.class, () -> FloatVectors.decode(ByteBuffer.allocate(8), VECTOR_3));
+    }
+
+    @Test
+    public void shouldKeepNull() throws Exception {
+        Assertions.assertNull(FloatVectors.decode(null, VECTOR_3));
+        Assertions.assertNull(FloatVectors.view(null, VECTOR_3));
+        Assertions.assertTrue(FloatVectors.isFloatVector(VECTOR_3));
+        Assertions.assertFalse(FloatVectors.isFloatVector(DataTypes.vectorOf(DataTypes.DOUBLE, 3)));
+    }
+}
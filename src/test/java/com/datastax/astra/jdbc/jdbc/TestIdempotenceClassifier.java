@@ -0,0 +1,56 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.IdempotenceClassifier;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class test the idempotence given to the statements (offline)
+ */
+public class TestIdempotenceClassifier {
+
+    @Test
+    public void shouldMarkReadsAndPlainWritesIdempotent() {
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent("SELECT * FROM t WHERE k = ?"));
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent("INSERT INTO t (k, v) VALUES ('if', 'now()')"));
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent("UPDATE t SET v = ?, m['k'] = 1 WHERE k = ?"));
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent("DELETE FROM t WHERE k = ?"));
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent(
+                "BEGIN UNLOGGED BATCH USING TIMESTAMP 1 INSERT INTO t (k) VALUES (1); DELETE v FROM t WHERE k = 2; APPLY BATCH"));
+        Assertions.assertNull(IdempotenceClassifier.isIdempotent("CREATE TABLE t (k text PRIMARY KEY)"));
+    }
+
+    @Test
+    public void shouldNotMarkUnsafeWritesIdempotent() {
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("INSERT INTO t (k) VALUES (?) IF NOT EXISTS"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET v = ? WHERE k = ? IF v = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET hits = hits + 1 WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET \"Tags\" = ? + \"Tags\" WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET v = ?, l = L - [1] WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET c += ? WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET c-=1 WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET v = ?, l += [?] WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("UPDATE t SET \"Tags\" += {'a'} WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("DELETE l[0] FROM t WHERE k = ?"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent("INSERT INTO t (k, id) VALUES (?, now())"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent(
+                "BEGIN BATCH INSERT INTO t (k) VALUES (1); UPDATE t SET c = c + 1 WHERE k = 1; APPLY BATCH"));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent(
+                "BEGIN COUNTER BATCH UPDATE t SET c = ? WHERE k = 1; APPLY BATCH"));
+    }
+
+    @Test
+    public void shouldClassifyBatchStatements() {
+        SimpleStatement insert = SimpleStatement.newInstance("INSERT INTO t (k) VALUES (?)", "a");
+        SimpleStatement increment = SimpleStatement.newInstance("UPDATE t SET c = c + 1 WHERE k = ?", "a");
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent(
+                BatchStatement.newInstance(DefaultBatchType.UNLOGGED, insert, insert)));
+        Assertions.assertFalse(IdempotenceClassifier.isIdempotent(
+                BatchStatement.newInstance(DefaultBatchType.UNLOGGED, insert, increment)));
+        Assertions.assertTrue(IdempotenceClassifier.isIdempotent(
+                BatchStatement.newInstance(DefaultBatchType.UNLOGGED, insert, increment.setIdempotent(true))));
+    }
+}
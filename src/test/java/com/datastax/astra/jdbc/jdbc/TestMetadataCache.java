@@ -0,0 +1,147 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.cache.MetadataCache;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.ing.data.cassandra.jdbc.metadata.MetadataRow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This class test the schema rows shared by connections (offline)
+ */
+public class TestMetadataCache {
+
+    private static final List<String> KEYSPACES = Arrays.asList("ks", "other_ks");
+
+    /** Columns of the tables by keyspace and table, as the wrapper would read them from the schema. */
+    private final Map<String, Map<String, List<String>>> schema = new HashMap<>();
+
+    /** Loads by keyspace and table, null for all the tables. */
+    private final List<String> loads = new ArrayList<>();
+
+    private final MetadataCache.Loader loader = (kind, keyspace, table) -> {
+        loads.add(kind + " " + keyspace + "." + table);
+        List<MetadataRow> rows = new ArrayList<>();
+        schema.getOrDefault(keyspace, new HashMap<>()).forEach((name, columns) -> {
+            if (table != null && !table.equalsIgnoreCase(name)) {
+                return;
+            }
+            if (kind == MetadataCache.Kind.TABLES) {
+                rows.add(row(keyspace, name, null));
+            } else if (kind == MetadataCache.Kind.COLUMNS) {
+                for (int i = 0; i < columns.size(); i++) {
+                    rows.add(row(keyspace, name, columns.get(i)).addEntry("ORDINAL_POSITION", String.valueOf(i + 1)));
+                }
+            } else if (kind == MetadataCache.Kind.PRIMARY_KEYS) {
+                rows.add(row(keyspace, name, columns.get(0)));
+            }
+        });
+        return rows;
+    };
+
+    @Test
+    public void shouldBuildKeyspaceOnceAndFilterRows() throws SQLException {
+        schema.computeIfAbsent("ks", k -> new HashMap<>()).put("users", Arrays.asList("id", "name", "email"));
+        schema.get("ks").put("orders", Arrays.asList("id", "user_id"));
+        schema.computeIfAbsent("other_ks", k -> new HashMap<>()).put("users", Arrays.asList("id"));
+        MetadataCache cache = new MetadataCache(true);
+
+        Assertions.assertEquals(Arrays.asList("ks.orders", "ks.users", "other_ks.users"),
+                names(cache.get(MetadataCache.Kind.TABLES, KEYSPACES, null, null, null, loader)));
+        Assertions.assertEquals(Arrays.asList("ks.users.id", "ks.users.name", "ks.users.email"),
+                names(cache.get(MetadataCache.Kind.COLUMNS, KEYSPACES, "ks", "USERS", null, loader)));
+        Assertions.assertEquals(Arrays.asList("ks.users.name", "ks.users.email"),
+                names(cache.get(MetadataCache.Kind.COLUMNS, KEYSPACES, "%", "users", "%m%", loader)));
+        Assertions.assertEquals(Arrays.asList("ks.orders.id"),
+                names(cache.get(MetadataCache.Kind.PRIMARY_KEYS, KEYSPACES, "ks", "orders", null, loader)));
+        // Each kind read once for each keyspace
+        Assertions.assertEquals(8, loads.size());
+        Assertions.assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    public void shouldSortColumnsByPosition() throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            columns.add("c" + i);
+        }
+        schema.computeIfAbsent("ks", k -> new HashMap<>()).put("wide", columns);
+        MetadataCache cache = new MetadataCache(true);
+        Assertions.assertEquals(columns.stream().map(column -> "ks.wide." + column).collect(Collectors.toList()),
+                names(cache.get(MetadataCache.Kind.COLUMNS, KEYSPACES, "ks", "wide", null, loader)));
+    }
+
+    @Test
+    public void shouldReadChangedTablesAgain() throws SQLException {
+        schema.computeIfAbsent("ks", k -> new HashMap<>()).put("users", Arrays.asList("id", "name"));
+        schema.get("ks").put("orders", Arrays.asList("id"));
+        MetadataCache cache = new MetadataCache(true);
+        cache.get(MetadataCache.Kind.COLUMNS, KEYSPACES, "ks", null, null, loader);
+        loads.clear();
+
+        schema.get("ks").put("users", Arrays.asList("id", "name", "email"));
+        cache.onTableUpdated(table("ks", "users"), table("ks", "users"));
+        schema.get("ks").remove("orders");
+        cache.onTableDropped(table("ks", "orders"));
+        Assertions.assertEquals(Arrays.asList("ks.users.id", "ks.users.name", "ks.users.email"),
+                names(cache.get(MetadataCache.Kind.COLUMNS, KEYSPACES, "ks", null, null, loader)));
+        Assertions.assertEquals(4, loads.size());
+        Assertions.assertTrue(loads.stream().allMatch(load -> load.endsWith("ks.users")), loads.toString());
+
+        cache.onKeyspaceDropped(keyspace("ks"));
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void shouldReadEachTimeWhenDisabled() throws SQLException {
+        schema.computeIfAbsent("ks", k -> new HashMap<>()).put("users", Arrays.asList("id"));
+        MetadataCache cache = new MetadataCache(false);
+        cache.get(MetadataCache.Kind.TABLES, KEYSPACES, "ks", null, null, loader);
+        cache.get(MetadataCache.Kind.TABLES, KEYSPACES, "ks", null, null, loader);
+        Assertions.assertEquals(8, loads.size());
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    private static MetadataRow row(String keyspace, String table, String column) {
+        return new MetadataRow().addEntry("TABLE_SCHEM", keyspace).addEntry("TABLE_NAME", table)
+                .addEntry("COLUMN_NAME", column);
+    }
+
+    private static List<String> names(List<MetadataRow> rows) {
+        return rows.stream()
+                .map(row -> row.getString("TABLE_SCHEM") + "." + row.getString("TABLE_NAME")
+                        + (row.isNull("COLUMN_NAME") ? "" : "." + row.getString("COLUMN_NAME")))
+                .collect(Collectors.toList());
+    }
+
+    private static TableMetadata table(String keyspace, String name) {
+        return (TableMetadata) Proxy.newProxyInstance(TestMetadataCache.class.getClassLoader(),
+                new Class<?>[] {TableMetadata.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getKeyspace":
+                            return CqlIdentifier.fromInternal(keyspace);
+                        case "getName":
+                            return CqlIdentifier.fromInternal(name);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static KeyspaceMetadata keyspace(String name) {
+        return (KeyspaceMetadata) Proxy.newProxyInstance(TestMetadataCache.class.getClassLoader(),
+                new Class<?>[] {KeyspaceMetadata.class},
+                (proxy, method, args) -> "getName".equals(method.getName()) ? CqlIdentifier.fromInternal(name) : null);
+    }
+}
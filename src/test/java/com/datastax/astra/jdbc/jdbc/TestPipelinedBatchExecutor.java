@@ -0,0 +1,287 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.PipelinedBatchExecutor;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class test the pipelined execution of batches (offline)
+ */
+public class TestPipelinedBatchExecutor {
+
+    private static final CqlIdentifier KEYSPACE = CqlIdentifier.fromCql("my_ks");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private static final CqlIdentifier TABLE = CqlIdentifier.fromCql("t");
+
+    private static final CqlIdentifier COUNTERS = CqlIdentifier.fromCql("counters");
+
+    private static final String INSERT = "INSERT INTO t (k, c, v) VALUES (?, ?, ?)";
+
+    private static final String DELETE = "DELETE FROM t WHERE k = ? AND c = ?";
+
+    private static final String INCREMENT = "UPDATE counters SET n = n + ? WHERE k = ?";
+
+    private final List<Statement<?>> requests = Collections.synchronizedList(new ArrayList<>());
+
+    /** Clustering of the next row inserted by {@link #bound(String)}, each one a new row. */
+    private int nextRow;
+
+    @Test
+    public void shouldGroupStatementsByPartition() throws SQLException {
+        List<BoundStatement> statements = Arrays.asList(
+                bound("a"), bound("b"), bound("a"), bound(null), bound("a"), bound("b"));
+        int[] counts = new PipelinedBatchExecutor(4, 2).execute(session(null), statements);
+        Assertions.assertArrayEquals(new int[] {1, 1, 1, 1, 1, 1}, counts);
+        // [a, a] [null] [b, b] [a]
+        Assertions.assertEquals(4, requests.size());
+        Assertions.assertEquals(2, requests.stream().filter(r -> r instanceof BatchStatement).count());
+        // Batches keep the timeout of their statements
+        for (Statement<?> request : requests) {
+            Assertions.assertEquals(TIMEOUT, request instanceof BatchStatement
+                    ? request.getExecutionProfile().getDuration(DefaultDriverOption.REQUEST_TIMEOUT)
+                    : request.getTimeout());
+        }
+    }
+
+    @Test
+    public void shouldNotGroupWritesOfTheSameRow() throws SQLException {
+        // The insert must win over the delete, which a single batch timestamp would not ensure
+        List<BoundStatement> statements = Arrays.asList(
+                bound(DELETE, "a", 1), bound(INSERT, "a", 1), bound("a"), bound("b"), bound("b"));
+        new PipelinedBatchExecutor(4, 10).execute(session(null), statements);
+        // [delete a1] [insert a1] [a] [b, b]
+        Assertions.assertEquals(4, requests.size());
+        Assertions.assertSame(statements.get(0), requests.get(0));
+        Assertions.assertSame(statements.get(1), requests.get(1));
+        Assertions.assertEquals(1, requests.stream().filter(r -> r instanceof BatchStatement).count());
+    }
+
+    @Test
+    public void shouldNotGroupCountersNorConditionalWrites() throws SQLException {
+        List<BoundStatement> statements = Arrays.asList(bound(INCREMENT, "a", 0), bound(INCREMENT, "a", 0),
+                bound(INSERT + " IF NOT EXISTS", "b", 1), bound(INSERT + " IF NOT EXISTS", "b", 2));
+        new PipelinedBatchExecutor(4, 10).execute(session(null), statements);
+        Assertions.assertEquals(4, requests.size());
+        Assertions.assertTrue(requests.stream().noneMatch(r -> r instanceof BatchStatement));
+    }
+
+    @Test
+    public void shouldReportFailedStatements() {
+        List<BoundStatement> statements = Arrays.asList(bound("a"), bound("fail"), bound("b"));
+        BatchUpdateException error = Assertions.assertThrows(BatchUpdateException.class,
+                () -> new PipelinedBatchExecutor(1, 1).execute(session("fail"), statements));
+        Assertions.assertArrayEquals(new int[] {1, java.sql.Statement.EXECUTE_FAILED, 1}, error.getUpdateCounts());
+        Assertions.assertEquals(3, requests.size());
+    }
+
+    /**
+     * Insert of a new row of a partition.
+     */
+    private BoundStatement bound(String partition) {
+        return bound(INSERT, partition, ++nextRow);
+    }
+
+    /**
+     * Statement on table t, primary key (k, c), or on the counters table, primary key k.
+     */
+    private BoundStatement bound(String query, String partition, int clustering) {
+        ByteBuffer routingKey = partition == null ? null : ByteBuffer.wrap(partition.getBytes(StandardCharsets.UTF_8));
+        List<ColumnDefinition> variables = new ArrayList<>();
+        List<ByteBuffer> values = new ArrayList<>();
+        if (query.startsWith("UPDATE counters")) {
+            variables.add(variable(COUNTERS, "n", DataTypes.COUNTER));
+            values.add(ByteBuffer.allocate(8).putLong(0, 1));
+        }
+        variables.add(variable(query.contains("counters") ? COUNTERS : TABLE, "k", DataTypes.TEXT));
+        values.add(routingKey);
+        if (!query.contains("counters")) {
+            variables.add(variable(TABLE, "c", DataTypes.INT));
+            values.add(ByteBuffer.allocate(4).putInt(0, clustering));
+        }
+        if (query.startsWith("INSERT")) {
+            variables.add(variable(TABLE, "v", DataTypes.TEXT));
+            values.add(ByteBuffer.allocate(0));
+        }
+        PreparedStatement prepared = stub(PreparedStatement.class,
+                "getQuery", query, "getVariableDefinitions", variables(variables));
+        return (BoundStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {BoundStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRoutingKey":
+                            return routingKey;
+                        case "getRoutingKeyspace":
+                            return KEYSPACE;
+                        case "getTimeout":
+                            return TIMEOUT;
+                        case "getPreparedStatement":
+                            return prepared;
+                        case "getBytesUnsafe":
+                            return values.get((Integer) args[0]);
+                        case "toString":
+                            return String.valueOf(partition);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static ColumnDefinition variable(CqlIdentifier table, String name, DataType type) {
+        return stub(ColumnDefinition.class, "getKeyspace", KEYSPACE, "getTable", table,
+                "getName", CqlIdentifier.fromCql(name), "getType", type);
+    }
+
+    private static ColumnDefinitions variables(List<ColumnDefinition> variables) {
+        return (ColumnDefinitions) Proxy.newProxyInstance(TestPipelinedBatchExecutor.class.getClassLoader(),
+                new Class<?>[] {ColumnDefinitions.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "size":
+                            return variables.size();
+                        case "get":
+                            return variables.get((Integer) args[0]);
+                        case "iterator":
+                            return variables.iterator();
+                        case "firstIndexOf":
+                            for (int i = 0; i < variables.size(); i++) {
+                                if (variables.get(i).getName().equals(args[0])) {
+                                    return i;
+                                }
+                            }
+                            return -1;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Schema of the keyspace: t (k text, c int, v text, PRIMARY KEY (k, c)) and counters (k text PRIMARY KEY,
+     * n counter).
+     */
+    private static Metadata metadata() {
+        ColumnMetadata k = stub(ColumnMetadata.class, "getName", CqlIdentifier.fromCql("k"), "getType", DataTypes.TEXT);
+        ColumnMetadata c = stub(ColumnMetadata.class, "getName", CqlIdentifier.fromCql("c"), "getType", DataTypes.INT);
+        ColumnMetadata v = stub(ColumnMetadata.class, "getName", CqlIdentifier.fromCql("v"), "getType", DataTypes.TEXT);
+        ColumnMetadata n = stub(ColumnMetadata.class, "getName", CqlIdentifier.fromCql("n"),
+                "getType", DataTypes.COUNTER);
+        Map<CqlIdentifier, TableMetadata> tables = new HashMap<>();
+        tables.put(TABLE, table(TABLE, Arrays.asList(k, c), k, c, v));
+        tables.put(COUNTERS, table(COUNTERS, Collections.singletonList(k), k, n));
+        KeyspaceMetadata keyspace = (KeyspaceMetadata) Proxy.newProxyInstance(
+                TestPipelinedBatchExecutor.class.getClassLoader(), new Class<?>[] {KeyspaceMetadata.class},
+                (proxy, method, args) -> "getTable".equals(method.getName())
+                        ? Optional.ofNullable(tables.get(args[0])) : null);
+        return (Metadata) Proxy.newProxyInstance(TestPipelinedBatchExecutor.class.getClassLoader(),
+                new Class<?>[] {Metadata.class}, (proxy, method, args) -> "getKeyspace".equals(method.getName())
+                        ? Optional.of(keyspace).filter(ks -> KEYSPACE.equals(args[0])) : null);
+    }
+
+    private static TableMetadata table(CqlIdentifier name, List<ColumnMetadata> primaryKey,
+            ColumnMetadata... columns) {
+        Map<CqlIdentifier, ColumnMetadata> byName = new LinkedHashMap<>();
+        for (ColumnMetadata column : columns) {
+            byName.put(column.getName(), column);
+        }
+        return stub(TableMetadata.class, "getKeyspace", KEYSPACE, "getName", name,
+                "getPrimaryKey", primaryKey, "getColumns", byName);
+    }
+
+    /**
+     * Proxy returning a value by method name, null for the other methods.
+     */
+    private static <T> T stub(Class<T> type, Object... namesAndValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            values.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return type.cast(Proxy.newProxyInstance(TestPipelinedBatchExecutor.class.getClassLoader(),
+                new Class<?>[] {type}, (proxy, method, args) -> values.get(method.getName())));
+    }
+
+    private CqlSession session(String failingPartition) {
+        return (CqlSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {CqlSession.class}, (proxy, method, args) -> {
+                    if ("getContext".equals(method.getName())) {
+                        return context();
+                    }
+                    if ("getMetadata".equals(method.getName())) {
+                        return metadata();
+                    }
+                    if (!"executeAsync".equals(method.getName())) {
+                        return null;
+                    }
+                    Statement<?> statement = (Statement<?>) args[0];
+                    requests.add(statement);
+                    CompletableFuture<AsyncResultSet> result = new CompletableFuture<>();
+                    if (failingPartition != null && failingPartition.equals(statement.toString())) {
+                        result.completeExceptionally(new IllegalStateException("write timeout"));
+                    } else {
+                        result.complete(null);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Context of a default profile where options set with a duration are read back.
+     */
+    private DriverContext context() {
+        DriverConfig config = (DriverConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {DriverConfig.class}, (proxy, method, args) -> "getDefaultProfile"
+                        .equals(method.getName()) ? profile(null, null) : null);
+        return (DriverContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {DriverContext.class}, (proxy, method, args) -> "getConfig"
+                        .equals(method.getName()) ? config : null);
+    }
+
+    private DriverExecutionProfile profile(DriverOption option, Duration duration) {
+        return (DriverExecutionProfile) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {DriverExecutionProfile.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "withDuration":
+                            return profile((DriverOption) args[0], (Duration) args[1]);
+                        case "getDuration":
+                            return args[0].equals(option) ? duration : null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,95 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.PrefetchingAsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class test the pages fetched ahead of a result set (offline)
+ */
+public class TestPrefetchingAsyncResultSet {
+
+    private final List<Integer> requested = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void shouldFetchAheadUpToDepth() {
+        AsyncResultSet rs = prefetch(5, 2, Long.MAX_VALUE, -1);
+        // Pages 1 and 2 ahead of page 0
+        Assertions.assertEquals(Arrays.asList(1, 2), requested);
+        List<Integer> pages = new ArrayList<>();
+        pages.add(rs.remaining());
+        while (rs.hasMorePages()) {
+            rs = rs.fetchNextPage().toCompletableFuture().join();
+            pages.add(rs.remaining());
+        }
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4), pages);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), requested);
+    }
+
+    @Test
+    public void shouldStopAtMaxBytes() {
+        AsyncResultSet rs = prefetch(5, 4, 150, -1);
+        // Page 2 reaches 200 bytes not iterated
+        Assertions.assertEquals(Arrays.asList(1, 2), requested);
+        rs.fetchNextPage().toCompletableFuture().join();
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), requested);
+    }
+
+    @Test
+    public void shouldReportFailureWhenReached() {
+        AsyncResultSet rs = prefetch(4, 3, Long.MAX_VALUE, 2);
+        // Nothing is requested after a failed page
+        Assertions.assertEquals(Arrays.asList(1, 2), requested);
+        AsyncResultSet page1 = rs.fetchNextPage().toCompletableFuture().join();
+        Assertions.assertEquals(1, page1.remaining());
+        CompletionException error = Assertions.assertThrows(CompletionException.class,
+                () -> page1.fetchNextPage().toCompletableFuture().join());
+        Assertions.assertEquals("read timeout", error.getCause().getMessage());
+    }
+
+    /**
+     * Result set of pages of 100 bytes, each page reports its index as remaining rows.
+     */
+    private AsyncResultSet prefetch(int pages, int depth, long maxBytes, int failingPage) {
+        return PrefetchingAsyncResultSet.prefetch(CompletableFuture.completedFuture(page(0, pages, failingPage)),
+                depth, maxBytes).toCompletableFuture().join();
+    }
+
+    private AsyncResultSet page(int index, int pages, int failingPage) {
+        ExecutionInfo info = (ExecutionInfo) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ExecutionInfo.class},
+                (proxy, method, args) -> "getResponseSizeInBytes".equals(method.getName()) ? 100 : null);
+        return (AsyncResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AsyncResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "remaining":
+                            return index;
+                        case "hasMorePages":
+                            return index < pages - 1;
+                        case "getExecutionInfo":
+                            return info;
+                        case "fetchNextPage":
+                            requested.add(index + 1);
+                            CompletableFuture<AsyncResultSet> next = new CompletableFuture<>();
+                            if (index + 1 == failingPage) {
+                                next.completeExceptionally(new IllegalStateException("read timeout"));
+                            } else {
+                                next.complete(page(index + 1, pages, failingPage));
+                            }
+                            return next;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,71 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.cache.PreparedStatementCache;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * This class test the prepared statements shared by connections (offline)
+ */
+public class TestPreparedStatementCache {
+
+    private static final CqlIdentifier KEYSPACE = CqlIdentifier.fromCql("my_ks");
+
+    private final AtomicInteger prepares = new AtomicInteger();
+
+    private final Function<SimpleStatement, CompletionStage<PreparedStatement>> session = statement -> {
+        prepares.incrementAndGet();
+        return CompletableFuture.completedFuture((PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> null));
+    };
+
+    @Test
+    public void shouldPrepareOnce() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        PreparedStatement first = cache.prepare(KEYSPACE, "SELECT v FROM kv WHERE k = ?", session).join();
+        PreparedStatement second = cache.prepare(KEYSPACE, "SELECT v FROM kv WHERE k = ?", session).join();
+        cache.prepare(CqlIdentifier.fromCql("other_ks"), "SELECT v FROM kv WHERE k = ?", session).join();
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(2, prepares.get());
+        Assertions.assertEquals(1, cache.getStats().hitCount());
+        Assertions.assertEquals(2, cache.getStats().missCount());
+    }
+
+    @Test
+    public void shouldPrepareAgainAfterSchemaChange() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        cache.prepare(KEYSPACE, "SELECT v FROM kv WHERE k = ?", session).join();
+        cache.onTableUpdated(null, null);
+        cache.prepare(KEYSPACE, "SELECT v FROM kv WHERE k = ?", session).join();
+        Assertions.assertEquals(2, prepares.get());
+    }
+
+    @Test
+    public void shouldNotKeepFailedPrepares() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        CompletableFuture<PreparedStatement> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("unconfigured table kv"));
+        Assertions.assertThrows(Exception.class,
+                () -> cache.prepare(KEYSPACE, "SELECT v FROM kv", statement -> failed).join());
+        cache.prepare(KEYSPACE, "SELECT v FROM kv", session).join();
+        Assertions.assertEquals(1, prepares.get());
+    }
+
+    @Test
+    public void shouldBypassWhenDisabled() {
+        PreparedStatementCache cache = new PreparedStatementCache(0);
+        cache.prepare(KEYSPACE, "SELECT v FROM kv", session).join();
+        cache.prepare(KEYSPACE, "SELECT v FROM kv", session).join();
+        Assertions.assertEquals(2, prepares.get());
+        Assertions.assertEquals(0, cache.getSize());
+    }
+}
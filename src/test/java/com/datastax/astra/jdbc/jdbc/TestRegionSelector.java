@@ -0,0 +1,110 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.RegionSelector;
+import com.datastax.astra.jdbc.cache.ResolvedDatabase;
+import com.datastax.astra.jdbc.metrics.AstraJdbcMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * This class test the selection of the closest region with <code>region=auto</code> (offline)
+ */
+public class TestRegionSelector {
+
+    /** Bundle of a region, its name. */
+    private final Function<String, byte[]> bundles = region -> region.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void shouldSelectFastestRegion() {
+        RegionSelector selector = selector(latencies("us-east1", 800L, "eu-west1", 90L, "ap-south1", 300L));
+        ResolvedDatabase db = database("db-fastest", "us-east1", "eu-west1", "ap-south1");
+        Assertions.assertEquals("eu-west1", selector.select(db, "auto", bundles));
+
+        RegionSelector.Selection selection = selector.getSelections().get("db-fastest");
+        Assertions.assertEquals("eu-west1", selection.getRegion());
+        Assertions.assertEquals(3, selection.getLatencies().size());
+        Assertions.assertTrue(AstraJdbcMetrics.timer("region-probe.eu-west1").getCount() >= 1);
+    }
+
+    @Test
+    public void shouldSkipUnreachableRegions() {
+        RegionSelector selector = selector(latencies("us-east2", null, "eu-west2", 500L, "ap-south2", null));
+        long unreachable = AstraJdbcMetrics.getRegistry().counter("region-unreachable.us-east2").getCount();
+        Assertions.assertEquals("eu-west2",
+                selector.select(database("db-unreachable", "us-east2", "eu-west2", "ap-south2"), "auto", bundles));
+        Assertions.assertEquals(unreachable + 1,
+                AstraJdbcMetrics.getRegistry().counter("region-unreachable.us-east2").getCount());
+        Assertions.assertEquals(1, selector.getSelections().get("db-unreachable").getLatencies().size());
+
+        // None reachable, default region
+        RegionSelector none = selector(latencies("us-east2", null, "eu-west2", null));
+        Assertions.assertEquals("us-east2",
+                none.select(database("db-none", "us-east2", "eu-west2"), "AUTO", bundles));
+    }
+
+    @Test
+    public void shouldBreakTiesWithDefaultRegion() {
+        RegionSelector selector = selector(latencies("us-east3", 100L, "eu-west3", 100L, "ap-south3", 100L));
+        Assertions.assertEquals("eu-west3", selector.select(
+                new ResolvedDatabase("db-tie", "db-tie", "eu-west3", datacenters("us-east3", "eu-west3", "ap-south3"),
+                        System.currentTimeMillis(), null), "auto", bundles));
+
+        // Default region slower, first region listed
+        RegionSelector slowDefault = selector(latencies("us-east3", 200L, "eu-west3", 100L, "ap-south3", 100L));
+        Assertions.assertEquals("eu-west3", slowDefault.select(
+                database("db-tie-first", "us-east3", "eu-west3", "ap-south3"), "auto", bundles));
+    }
+
+    @Test
+    public void shouldKeepRequestedRegion() {
+        RegionSelector selector = selector(region -> {
+            throw new AssertionError("no probe expected");
+        });
+        ResolvedDatabase db = database("db-requested", "us-east4", "eu-west4");
+        Assertions.assertEquals("eu-west4", selector.select(db, "eu-west4", bundles));
+        Assertions.assertEquals("us-east4", selector.select(db, null, bundles));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> selector.select(db, "ap-south4", bundles));
+    }
+
+    private static RegionSelector selector(Function<String, Long> latencies) {
+        return new RegionSelector(bundle -> {
+            Long latency = latencies.apply(new String(bundle, StandardCharsets.UTF_8));
+            if (latency == null) {
+                throw new IllegalStateException("Cannot connect");
+            }
+            return latency;
+        });
+    }
+
+    /**
+     * Latency by region, null when unreachable.
+     */
+    private static Function<String, Long> latencies(Object... regionLatencies) {
+        Map<String, Long> latencies = new HashMap<>();
+        for (int i = 0; i < regionLatencies.length; i += 2) {
+            latencies.put((String) regionLatencies[i], (Long) regionLatencies[i + 1]);
+        }
+        return latencies::get;
+    }
+
+    /**
+     * Database with the first region as default region.
+     */
+    private static ResolvedDatabase database(String id, String... regions) {
+        return new ResolvedDatabase(id, id, regions[0], datacenters(regions), System.currentTimeMillis(), null);
+    }
+
+    private static Map<String, String> datacenters(String... regions) {
+        Map<String, String> datacenters = new LinkedHashMap<>();
+        for (String region : regions) {
+            datacenters.put(region, "dc-" + region);
+        }
+        return datacenters;
+    }
+}
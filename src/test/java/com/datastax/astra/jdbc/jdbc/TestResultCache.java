@@ -0,0 +1,165 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.cache.ResultCache;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * This class test the results cached on a session (offline)
+ */
+public class TestResultCache {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private static final Set<String> ALL_TABLES = Collections.emptySet();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final PreparedStatement countries = prepared("SELECT name FROM countries WHERE code = ?", "countries", 1);
+
+    private final Function<Statement<?>, CompletionStage<AsyncResultSet>> session = statement -> {
+        requests.incrementAndGet();
+        return CompletableFuture.completedFuture(result(false));
+    };
+
+    @Test
+    public void shouldAnswerFromCache() {
+        ResultCache cache = new ResultCache(10, 1024);
+        Assertions.assertEquals(1, read(cache, bind(countries, "fr")).remaining());
+        Assertions.assertEquals(1, read(cache, bind(countries, "fr")).remaining());
+        read(cache, bind(countries, "de"));
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertEquals(1, cache.getStats().hitCount());
+        Assertions.assertEquals(2, cache.getStats().missCount());
+    }
+
+    @Test
+    public void shouldDropResultsOfWrittenTables() {
+        ResultCache cache = new ResultCache(10, 1024);
+        read(cache, bind(countries, "fr"));
+        cache.executeOther(SimpleStatement.newInstance("UPDATE ks.currencies SET rate = 1 WHERE code = 'EUR'"), session);
+        read(cache, bind(countries, "fr"));
+        Assertions.assertEquals(2, requests.get());
+        cache.executeOther(SimpleStatement.newInstance("BEGIN BATCH INSERT INTO ks.\"countries\" (code) VALUES ('it'); "
+                + "DELETE FROM currencies WHERE code = 'ITL'; APPLY BATCH"), session);
+        read(cache, bind(countries, "fr"));
+        Assertions.assertEquals(4, requests.get());
+        // Not a write, nothing dropped
+        cache.executeOther(SimpleStatement.newInstance("SELECT * FROM countries"), session);
+        read(cache, bind(countries, "fr"));
+        Assertions.assertEquals(5, requests.get());
+    }
+
+    @Test
+    public void shouldOnlyCacheSelectedTablesAndSinglePages() {
+        ResultCache cache = new ResultCache(10, 1024);
+        Set<String> currencies = Collections.singleton("currencies");
+        cache.execute(bind(countries, "fr"), TTL, currencies, session);
+        cache.execute(bind(countries, "fr"), TTL, currencies, session);
+        Assertions.assertEquals(2, requests.get());
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> paged = statement -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(result(true));
+        };
+        cache.execute(bind(countries, "fr"), TTL, ALL_TABLES, paged);
+        cache.execute(bind(countries, "fr"), TTL, ALL_TABLES, paged);
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    private AsyncResultSet read(ResultCache cache, BoundStatement statement) {
+        return cache.execute(statement, TTL, ALL_TABLES, session).toCompletableFuture().join();
+    }
+
+    private static <T> T proxy(Class<T> type, Function<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(TestResultCache.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> answers.apply(method.getName())));
+    }
+
+    private static ColumnDefinitions columns(String table, int count) {
+        ColumnDefinition column = proxy(ColumnDefinition.class,
+                name -> "getTable".equals(name) ? CqlIdentifier.fromInternal(table) : null);
+        return proxy(ColumnDefinitions.class, name -> {
+            switch (name) {
+                case "size":
+                    return count;
+                case "get":
+                    return column;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static PreparedStatement prepared(String cql, String table, int columns) {
+        ByteBuffer id = ByteBuffer.wrap(cql.getBytes(StandardCharsets.UTF_8));
+        ColumnDefinitions definitions = columns(table, columns);
+        return proxy(PreparedStatement.class, name -> {
+            switch (name) {
+                case "getId":
+                    return id;
+                case "getQuery":
+                    return cql;
+                case "getResultSetDefinitions":
+                    return definitions;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static BoundStatement bind(PreparedStatement prepared, String value) {
+        List<ByteBuffer> values = Collections.singletonList(ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)));
+        return proxy(BoundStatement.class, name -> {
+            switch (name) {
+                case "getPreparedStatement":
+                    return prepared;
+                case "getValues":
+                    return values;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static AsyncResultSet result(boolean morePages) {
+        ColumnDefinitions definitions = columns("countries", 1);
+        Row row = proxy(Row.class, name -> "getBytesUnsafe".equals(name) ? ByteBuffer.allocate(8) : null);
+        List<Row> rows = Collections.singletonList(row);
+        return proxy(AsyncResultSet.class, name -> {
+            switch (name) {
+                case "getColumnDefinitions":
+                    return definitions;
+                case "hasMorePages":
+                    return morePages;
+                case "remaining":
+                    return rows.size();
+                case "currentPage":
+                    return rows;
+                default:
+                    return null;
+            }
+        });
+    }
+}
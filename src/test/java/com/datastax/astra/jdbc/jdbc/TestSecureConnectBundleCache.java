@@ -0,0 +1,60 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.cache.SecureConnectBundleCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * This class test the on disk cache of secure connect bundles (offline)
+ */
+public class TestSecureConnectBundleCache {
+
+    private static final byte[] BUNDLE = "bundle".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path folder;
+
+    @Test
+    public void shouldDownloadOnlyOnce() {
+        AtomicInteger downloads = new AtomicInteger();
+        SecureConnectBundleCache cache = new SecureConnectBundleCache(folder, Duration.ofHours(1), Duration.ofSeconds(1));
+        cache.get("db", "us-east1", () -> { downloads.incrementAndGet(); return BUNDLE; });
+        // Another cache instance stands for a restart
+        cache = new SecureConnectBundleCache(folder, Duration.ofHours(1), Duration.ofSeconds(1));
+        Assertions.assertArrayEquals(BUNDLE, cache.get("db", "us-east1", () -> { downloads.incrementAndGet(); return BUNDLE; }));
+        Assertions.assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void shouldIgnoreCorruptedBundle() throws Exception {
+        SecureConnectBundleCache cache = new SecureConnectBundleCache(folder, Duration.ofHours(1), Duration.ofSeconds(1));
+        cache.get("db", null, () -> BUNDLE);
+        Path file = folder.resolve("db_default.scb");
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] = 'X';
+        Files.write(file, content);
+        byte[] fresh = "fresh".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertArrayEquals(fresh, cache.get("db", null, () -> fresh));
+        // Only the bundle file is left, the temporary files are moved or deleted
+        try (Stream<Path> files = Files.list(folder)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void shouldFallbackToStaleBundle() {
+        SecureConnectBundleCache cache = new SecureConnectBundleCache(folder, Duration.ZERO, Duration.ofMillis(50));
+        cache.get("db", null, () -> BUNDLE);
+        Assertions.assertArrayEquals(BUNDLE, cache.get("db", null, () -> {
+            throw new IllegalStateException("DevOps API is down");
+        }));
+    }
+}
@@ -0,0 +1,107 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.codahale.metrics.Timer;
+import com.datastax.astra.jdbc.metrics.StatementExecution;
+import com.datastax.astra.jdbc.metrics.StatementMetrics;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * This class test the latencies recorded by statement (offline)
+ */
+public class TestStatementMetrics {
+
+    @Test
+    public void shouldNormalizeLiterals() {
+        Assertions.assertEquals("SELECT * FROM t1 WHERE k = ? AND c IN (?, ?) AND s = ?",
+                StatementMetrics.normalize("SELECT *  FROM t1\n WHERE k = 'it''s' AND c IN (1, -2.5e3) AND s = 0xCAFE"));
+        Assertions.assertEquals("SELECT * FROM \"T2\" WHERE id = ?",
+                StatementMetrics.normalize("SELECT * FROM \"T2\" WHERE id = 123e4567-e89b-12d3-a456-426614174000"));
+    }
+
+    @Test
+    public void shouldTimeEachPageByStatement() {
+        StatementMetrics metrics = new StatementMetrics(10);
+        List<StatementExecution> executions = new ArrayList<>();
+        metrics.addListener(executions::add);
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> executor =
+                statement -> CompletableFuture.completedFuture(page(3));
+
+        AsyncResultSet rs = metrics.execute(SimpleStatement.newInstance("SELECT v FROM t WHERE k = 1"),
+                Duration.ZERO, executor).toCompletableFuture().join();
+        while (rs.hasMorePages()) {
+            rs = rs.fetchNextPage().toCompletableFuture().join();
+        }
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM t WHERE k = 2"), null, executor);
+
+        Assertions.assertEquals(4, metrics.getRegistry().timer("SELECT v FROM t WHERE k = ?").getCount());
+        Assertions.assertEquals(4, executions.size());
+        Assertions.assertEquals(3, executions.get(2).getPage());
+        Assertions.assertTrue(executions.get(2).isSlow());
+        Assertions.assertFalse(executions.get(3).isSlow());
+    }
+
+    @Test
+    public void shouldTimeStatementsPastTheMaxTogether() {
+        StatementMetrics metrics = new StatementMetrics(1);
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> executor =
+                statement -> CompletableFuture.completedFuture(page(1));
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM a"), null, executor);
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM b"), null, executor);
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM c"), null, executor);
+        Assertions.assertEquals(1, metrics.getRegistry().timer("SELECT v FROM a").getCount());
+        Assertions.assertEquals(2, metrics.getRegistry().timer(StatementMetrics.OTHER).getCount());
+    }
+
+    @Test
+    public void shouldKeepTheLatenciesOfTheLastInterval() {
+        // Refreshed at each snapshot
+        StatementMetrics metrics = new StatementMetrics(10, Duration.ZERO);
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> executor =
+                statement -> CompletableFuture.completedFuture(page(1));
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM a"), null, executor);
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM a"), null, executor);
+        Timer timer = metrics.getRegistry().timer("SELECT v FROM a");
+        Assertions.assertEquals(2, timer.getSnapshot().size());
+        Assertions.assertEquals(0, timer.getSnapshot().size());
+        Assertions.assertEquals(2, timer.getCount());
+
+        // Not refreshed yet
+        metrics = new StatementMetrics(10, Duration.ofHours(1));
+        metrics.execute(SimpleStatement.newInstance("SELECT v FROM a"), null, executor);
+        Assertions.assertEquals(0, metrics.getRegistry().timer("SELECT v FROM a").getSnapshot().size());
+    }
+
+    /**
+     * Page of a result set with <code>pages - 1</code> pages after it.
+     */
+    private static AsyncResultSet page(int pages) {
+        ExecutionInfo info = (ExecutionInfo) Proxy.newProxyInstance(TestStatementMetrics.class.getClassLoader(),
+                new Class<?>[] {ExecutionInfo.class}, (proxy, method, args) -> null);
+        return (AsyncResultSet) Proxy.newProxyInstance(TestStatementMetrics.class.getClassLoader(),
+                new Class<?>[] {AsyncResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hasMorePages":
+                            return pages > 1;
+                        case "fetchNextPage":
+                            return CompletableFuture.completedFuture(page(pages - 1));
+                        case "getExecutionInfo":
+                            return info;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
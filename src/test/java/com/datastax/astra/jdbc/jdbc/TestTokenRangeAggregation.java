@@ -0,0 +1,188 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.TokenRangeAggregation;
+import com.datastax.astra.jdbc.TokenRangeAggregation.Merge;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class test the recognition of the aggregate queries and the merge of their token ranges (offline)
+ */
+public class TestTokenRangeAggregation {
+
+    @Test
+    public void shouldRecognizeSimpleAggregates() {
+        Assertions.assertEquals(Collections.singletonList(Merge.COUNT),
+                TokenRangeAggregation.parse("SELECT COUNT(*) FROM t"));
+        Assertions.assertEquals(Arrays.asList(Merge.COUNT, Merge.SUM, Merge.MIN, Merge.MAX),
+                TokenRangeAggregation.parse("/*+ PARALLEL_SCAN(16) */ select count(1), sum(v) AS total, "
+                        + "min(\"V\"), max(v) FROM ks.t WHERE c = 'a, b' ALLOW FILTERING;"));
+        Assertions.assertEquals(Arrays.asList(Merge.GROUP, Merge.GROUP, Merge.COUNT),
+                TokenRangeAggregation.parse("SELECT k, c AS day, COUNT(v) FROM t GROUP BY k, c"));
+    }
+
+    @Test
+    public void shouldNotRecognizeOtherQueries() {
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT k, v FROM t"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT AVG(v) FROM t"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT SUM(*) FROM t"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT COUNT(*) FROM t LIMIT 10"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT COUNT(*) FROM t WHERE token(k) > 0"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT COUNT(*) FROM t WHERE k = ?"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT COUNT(*) FROM t; SELECT COUNT(*) FROM u"));
+        // Columns not grouped, groups not selected
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT k, COUNT(*) FROM t"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT COUNT(*) FROM t GROUP BY k"));
+        Assertions.assertNull(TokenRangeAggregation.parse("SELECT k FROM t GROUP BY k"));
+    }
+
+    @Test
+    public void shouldMergeRangesInTokenOrder() {
+        List<Merge> merges = Arrays.asList(Merge.GROUP, Merge.COUNT, Merge.SUM, Merge.MIN, Merge.MAX);
+        List<List<Row>> ranges = Arrays.asList(
+                Arrays.asList(row("b", 2L, 10, "m", null), row("a", 1L, 5, "x", 3.5)),
+                Collections.emptyList(),
+                Collections.singletonList(row("b", 3L, Integer.MAX_VALUE, "c", 7.0)));
+        Assertions.assertEquals(Arrays.asList(
+                        Arrays.asList("b", 5L, 10 + Integer.MAX_VALUE, "c", 7.0),
+                        Arrays.asList("a", 1L, 5, "x", 3.5)),
+                TokenRangeAggregation.merge(merges, ranges));
+    }
+
+    @Test
+    public void shouldQueryRangesWithinParallelism() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            Function<Statement<?>, CompletionStage<AsyncResultSet>> executor = statement -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return page(pool, ((SimpleStatement) statement).getQuery(), 0, 3, inFlight);
+            };
+            List<List<Row>> rows = TokenRangeAggregation.queryRanges(statements(20), executor, 3, 0)
+                    .toCompletableFuture().get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(20, rows.size());
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(Arrays.asList(i + "-0", i + "-1", i + "-2"), values(rows.get(i)), "range " + i);
+            }
+            Assertions.assertTrue(maxInFlight.get() <= 3, "in flight " + maxInFlight.get());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldRetryFailedRanges() throws Exception {
+        // The second page of each range fails once
+        Map<String, Boolean> failed = new ConcurrentHashMap<>();
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> executor = statement -> {
+            String range = ((SimpleStatement) statement).getQuery();
+            return CompletableFuture.completedFuture(page(range, 0, 2,
+                    () -> failed.putIfAbsent(range, true) == null ? failed(new DriverTimeoutException("timeout"))
+                            : CompletableFuture.completedFuture(page(range, 1, 2, null))));
+        };
+        List<List<Row>> rows = TokenRangeAggregation.queryRanges(statements(5), executor, 2, 1)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(Arrays.asList("4-0", "4-1"), values(rows.get(4)));
+
+        // Out of retries
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> timeouts =
+                statement -> failed(new DriverTimeoutException("timeout"));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> TokenRangeAggregation
+                .queryRanges(statements(5), timeouts, 2, 2).toCompletableFuture().get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof DriverTimeoutException);
+
+        // An invalid query is not sent again
+        AtomicInteger attempts = new AtomicInteger();
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> invalid = statement -> {
+            attempts.incrementAndGet();
+            return failed(new InvalidQueryException(null, "invalid"));
+        };
+        Assertions.assertThrows(ExecutionException.class, () -> TokenRangeAggregation
+                .queryRanges(statements(1), invalid, 1, 2).toCompletableFuture().get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    private static List<Statement<?>> statements(int ranges) {
+        List<Statement<?>> statements = new ArrayList<>();
+        for (int i = 0; i < ranges; i++) {
+            statements.add(SimpleStatement.newInstance(String.valueOf(i)));
+        }
+        return statements;
+    }
+
+    private static CompletionStage<AsyncResultSet> page(ExecutorService pool, String range, int page, int pages,
+            AtomicInteger inFlight) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (page == pages - 1) {
+                inFlight.decrementAndGet();
+            }
+            return page(range, page, pages, () -> page(pool, range, page + 1, pages, inFlight));
+        }, pool);
+    }
+
+    /**
+     * Page of one row, the value of the range and the page number.
+     */
+    private static AsyncResultSet page(String range, int page, int pages,
+            Supplier<CompletionStage<AsyncResultSet>> next) {
+        List<Row> rows = Collections.singletonList(row(range + "-" + page));
+        return (AsyncResultSet) Proxy.newProxyInstance(TestTokenRangeAggregation.class.getClassLoader(),
+                new Class<?>[] {AsyncResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "currentPage":
+                            return rows;
+                        case "hasMorePages":
+                            return page < pages - 1;
+                        case "fetchNextPage":
+                            return next.get();
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static CompletionStage<AsyncResultSet> failed(Throwable error) {
+        CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+        failed.completeExceptionally(error);
+        return failed;
+    }
+
+    private static Row row(Object... values) {
+        return (Row) Proxy.newProxyInstance(TestTokenRangeAggregation.class.getClassLoader(),
+                new Class<?>[] {Row.class}, (proxy, method, args) -> "getObject".equals(method.getName())
+                        && args[0] instanceof Integer ? values[(Integer) args[0]] : null);
+    }
+
+    private static List<Object> values(List<Row> rows) {
+        List<Object> values = new ArrayList<>();
+        for (Row row : rows) {
+            values.add(row.getObject(0));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,247 @@
+package com.datastax.astra.jdbc.jdbc;
+
+import com.datastax.astra.jdbc.TokenRangeResultSet;
+import com.datastax.astra.jdbc.TokenRangeScan;
+import com.datastax.astra.jdbc.exceptions.DriverExceptions;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.servererrors.UnauthorizedException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3TokenRange;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * This class test the split of the token ring and the merge of the range queries (offline)
+ */
+public class TestTokenRangeScan {
+
+    @Test
+    public void shouldReadScanHint() {
+        Assertions.assertNull(TokenRangeScan.fromHint("SELECT * FROM t"));
+        Assertions.assertNull(TokenRangeScan.fromHint("/* PARALLEL_SCAN */ SELECT * FROM t"));
+        TokenRangeScan scan = TokenRangeScan.fromHint("/*+ parallel_scan */ SELECT * FROM t");
+        Assertions.assertEquals(TokenRangeScan.DEFAULT_PARALLELISM, scan.getParallelism());
+        Assertions.assertEquals(TokenRangeScan.DEFAULT_PARALLELISM * 4, scan.getSplits());
+        Assertions.assertFalse(scan.isOrdered());
+        scan = TokenRangeScan.fromHint(" /*+ PARALLEL_SCAN(16, 100) ORDERED */ SELECT * FROM t");
+        Assertions.assertEquals(16, scan.getParallelism());
+        Assertions.assertEquals(100, scan.getSplits());
+        Assertions.assertTrue(scan.isOrdered());
+    }
+
+    @Test
+    public void shouldSplitRingInTokenOrder() {
+        // Two nodes, the second range wrapping around the ring
+        List<TokenRange> ring = Arrays.asList(range(-100, 100), range(100, -100));
+        List<TokenRange> ranges = TokenRangeScan.split(ring, 6);
+        Assertions.assertTrue(ranges.size() >= 6, ranges.toString());
+        Assertions.assertEquals(Long.MIN_VALUE, ((Murmur3Token) ranges.get(0).getStart()).getValue());
+        Assertions.assertEquals(Long.MIN_VALUE, ((Murmur3Token) ranges.get(ranges.size() - 1).getEnd()).getValue());
+        for (int i = 1; i < ranges.size(); i++) {
+            Assertions.assertEquals(ranges.get(i - 1).getEnd(), ranges.get(i).getStart(), ranges.toString());
+        }
+        // The range wrapping around is unwrapped in two
+        Assertions.assertEquals(3, TokenRangeScan.split(ring, 1).size());
+    }
+
+    @Test
+    public void shouldReturnAllRowsWithinBounds() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            FakeRanges fake = new FakeRanges(pool, 20, 3);
+            TokenRangeResultSet rs = new TokenRangeResultSet(null, fake.statements, fake, 4, 6, false);
+            List<String> rows = new ArrayList<>();
+            for (Row row : rs) {
+                rows.add(row.toString());
+                Assertions.assertTrue(fake.requested.get() - fake.read.get() <= 6);
+            }
+            Assertions.assertEquals(20 * 3 * 2, rows.size());
+            Assertions.assertTrue(fake.maxInFlightRanges <= 4, "in flight " + fake.maxInFlightRanges);
+            Assertions.assertTrue(rs.isFullyFetched());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldReturnRowsInTokenOrderWhenOrdered() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            FakeRanges fake = new FakeRanges(pool, 10, 4);
+            List<String> rows = new ArrayList<>();
+            for (Row row : new TokenRangeResultSet(null, fake.statements, fake, 3, 2, true)) {
+                rows.add(row.toString());
+                // A slow reader, the range read has its next pages received before it needs them
+                Thread.sleep(2);
+                // One page over the bound for the range read
+                Assertions.assertTrue(fake.requested.get() - fake.read.get() <= 2 + 1);
+            }
+            List<String> expected = new ArrayList<>();
+            for (int range = 0; range < 10; range++) {
+                for (int page = 0; page < 4; page++) {
+                    expected.add(range + "-" + page + "-0");
+                    expected.add(range + "-" + page + "-1");
+                }
+            }
+            Assertions.assertEquals(expected, rows);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldReportFailedRange() {
+        Function<Statement<?>, CompletionStage<AsyncResultSet>> failing = statement -> {
+            CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("range failed"));
+            return failed;
+        };
+        TokenRangeResultSet rs = new TokenRangeResultSet(null,
+                Collections.singletonList(SimpleStatement.newInstance("SELECT")), failing, 1, 1, false);
+        Assertions.assertThrows(IllegalStateException.class, () -> rs.iterator().hasNext());
+    }
+
+    @Test
+    public void shouldNotSplitPartitionKeyRestrictions() {
+        TableMetadata table = table("k", "Part");
+        Assertions.assertTrue(TokenRangeScan.restrictsPartitionKey(table, "k = 'a'"));
+        Assertions.assertTrue(TokenRangeScan.restrictsPartitionKey(table, "c > 1 AND K IN (1, 2)"));
+        Assertions.assertTrue(TokenRangeScan.restrictsPartitionKey(table, "\"k\" = 1"));
+        Assertions.assertTrue(TokenRangeScan.restrictsPartitionKey(table, "(\"Part\", c) = (1, 2)"));
+        Assertions.assertFalse(TokenRangeScan.restrictsPartitionKey(table, "c = 'k' AND k_2 = 1"));
+        Assertions.assertFalse(TokenRangeScan.restrictsPartitionKey(table, "part = 1 AND \"K\" = 2"));
+    }
+
+    @Test
+    public void shouldMapDriverErrors() {
+        Assertions.assertTrue(DriverExceptions.toSQLException(new CompletionException(
+                new InvalidQueryException(null, "invalid"))) instanceof SQLSyntaxErrorException);
+        Assertions.assertTrue(DriverExceptions.toSQLException(
+                new UnauthorizedException(null, "unauthorized")) instanceof SQLNonTransientException);
+        Assertions.assertTrue(DriverExceptions.toSQLException(
+                new DriverTimeoutException("timeout")) instanceof SQLTimeoutException);
+        SQLException unavailable = DriverExceptions.toSQLException(
+                new UnavailableException(null, DefaultConsistencyLevel.QUORUM, 2, 1));
+        Assertions.assertTrue(unavailable instanceof SQLTransientException);
+        Assertions.assertTrue(unavailable.getCause() instanceof UnavailableException);
+    }
+
+    private static TableMetadata table(String... partitionKey) {
+        List<ColumnMetadata> columns = new ArrayList<>();
+        for (String name : partitionKey) {
+            CqlIdentifier identifier = CqlIdentifier.fromInternal(name);
+            columns.add((ColumnMetadata) Proxy.newProxyInstance(TestTokenRangeScan.class.getClassLoader(),
+                    new Class<?>[] {ColumnMetadata.class},
+                    (proxy, method, args) -> "getName".equals(method.getName()) ? identifier : null));
+        }
+        return (TableMetadata) Proxy.newProxyInstance(TestTokenRangeScan.class.getClassLoader(),
+                new Class<?>[] {TableMetadata.class},
+                (proxy, method, args) -> "getPartitionKey".equals(method.getName()) ? columns : null);
+    }
+
+    private static TokenRange range(long start, long end) {
+        return new Murmur3TokenRange(new Murmur3Token(start), new Murmur3Token(end));
+    }
+
+    /**
+     * Ranges of pages of two rows, answered on a pool in random order.
+     */
+    private static final class FakeRanges implements Function<Statement<?>, CompletionStage<AsyncResultSet>> {
+
+        private final ExecutorService pool;
+
+        private final int pages;
+
+        private final List<Statement<?>> statements = new ArrayList<>();
+
+        private final AtomicInteger requested = new AtomicInteger();
+
+        private final AtomicInteger read = new AtomicInteger();
+
+        private final AtomicInteger inFlightRanges = new AtomicInteger();
+
+        private volatile int maxInFlightRanges;
+
+        FakeRanges(ExecutorService pool, int ranges, int pages) {
+            this.pool = pool;
+            this.pages = pages;
+            for (int i = 0; i < ranges; i++) {
+                statements.add(SimpleStatement.newInstance(String.valueOf(i)));
+            }
+        }
+
+        @Override
+        public CompletionStage<AsyncResultSet> apply(Statement<?> statement) {
+            maxInFlightRanges = Math.max(maxInFlightRanges, inFlightRanges.incrementAndGet());
+            return page(((SimpleStatement) statement).getQuery(), 0);
+        }
+
+        private CompletionStage<AsyncResultSet> page(String range, int page) {
+            requested.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep((long) (Math.random() * 3));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (page == pages - 1) {
+                    inFlightRanges.decrementAndGet();
+                }
+                List<Row> rows = Arrays.asList(row(range + "-" + page + "-0"), row(range + "-" + page + "-1"));
+                return (AsyncResultSet) Proxy.newProxyInstance(TestTokenRangeScan.class.getClassLoader(),
+                        new Class<?>[] {AsyncResultSet.class}, (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "currentPage":
+                                    read.incrementAndGet();
+                                    return rows;
+                                case "hasMorePages":
+                                    return page < pages - 1;
+                                case "fetchNextPage":
+                                    return page(range, page + 1);
+                                case "remaining":
+                                    return 0;
+                                default:
+                                    return null;
+                            }
+                        });
+            }, pool);
+        }
+
+        private static Row row(String value) {
+            return (Row) Proxy.newProxyInstance(TestTokenRangeScan.class.getClassLoader(), new Class<?>[] {Row.class},
+                    (proxy, method, args) -> "toString".equals(method.getName()) ? value : null);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.FloatBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -66,6 +67,27 @@ public class TestVector {
         }
     }
 
+    @Test
+    public void testFloatArrayBinding() throws SQLException {
+        float[] vector = {0, 1, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1};
+        try (Connection connection = jdbcDataSource.getConnection()) {
+            PreparedStatement insert = connection.prepareStatement("" +
+                    "INSERT INTO pet_supply_vectors (product_id, product_name, product_vector) VALUES (?, ?, ?)");
+            insert.setString(1, "pf9999");
+            insert.setString(2, "Binary bound vector");
+            insert.setObject(3, vector);
+            insert.executeUpdate();
+
+            PreparedStatement select = connection.prepareStatement("" +
+                    "SELECT product_vector FROM pet_supply_vectors WHERE product_id = ?");
+            select.setString(1, "pf9999");
+            java.sql.ResultSet rs = select.executeQuery();
+            Assertions.assertTrue(rs.next());
+            Assertions.assertArrayEquals(vector, rs.getObject("product_vector", float[].class));
+            Assertions.assertEquals(1f, rs.getObject(1, FloatBuffer.class).get(13));
+        }
+    }
+
     /**
      * Create table with JDBC
      *